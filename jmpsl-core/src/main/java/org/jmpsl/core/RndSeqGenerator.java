@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: RndSeqGenerator.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 19/10/2026, 21:05
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -25,21 +25,21 @@
 package org.jmpsl.core;
 
 import org.springframework.util.Assert;
-import org.apache.commons.lang3.RandomStringUtils;
 
-import java.util.Random;
+import org.jmpsl.core.random.RandomSource;
+import org.jmpsl.core.random.SequenceAlphabet;
+import org.jmpsl.core.random.RandomSequenceEngine;
 
 /**
  * Class storing static methods for generating random sequences. Methods of this class might be used for example in
- * generating user nicknames, email and other data, where data repeatability is strictly prohibited.
+ * generating user nicknames, email and other data, where data repeatability is strictly prohibited. Sequences are
+ * generated by {@link RandomSequenceEngine} (per-thread fast generators).
  *
  * @author Miłosz Gilga
  * @since 1.0.2
  */
 public class RndSeqGenerator {
 
-    private static final Random RANDOM = new Random();
-
     private RndSeqGenerator() {
     }
 
@@ -57,7 +57,11 @@ public class RndSeqGenerator {
      */
     public static String addEndRndSeq(String prefix, int seqLenght) {
         Assert.notNull(prefix, "Passed prefix value cannot be null.");
-        return prefix + RandomStringUtils.randomNumeric(seqLenght);
+        Assert.isTrue(seqLenght >= 0, "Sequence length cannot be negative.");
+        final char[] sequence = new char[prefix.length() + seqLenght];
+        prefix.getChars(0, prefix.length(), sequence, 0);
+        RandomSequenceEngine.fill(sequence, prefix.length(), seqLenght, SequenceAlphabet.NUMERIC, RandomSource.FAST);
+        return new String(sequence);
     }
 
     /**
@@ -74,7 +78,11 @@ public class RndSeqGenerator {
      */
     public static String addBeforeRndSeq(String suffix, int seqLenght) {
         Assert.notNull(suffix, "Passed prefix value cannot be null.");
-        return RandomStringUtils.randomNumeric(seqLenght) + suffix;
+        Assert.isTrue(seqLenght >= 0, "Sequence length cannot be negative.");
+        final char[] sequence = new char[seqLenght + suffix.length()];
+        RandomSequenceEngine.fill(sequence, 0, seqLenght, SequenceAlphabet.NUMERIC, RandomSource.FAST);
+        suffix.getChars(0, suffix.length(), sequence, seqLenght);
+        return new String(sequence);
     }
 
     /**
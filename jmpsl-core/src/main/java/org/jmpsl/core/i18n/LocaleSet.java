@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: LocaleSet.java
- * Last modified: 17/03/2023, 16:02
+ * Last modified: 20/10/2026, 02:35
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -54,11 +54,18 @@ public enum LocaleSet implements ILocaleEnumSet {
     FILE_NOT_ACCEPTABLE_FILE_EXTENSION_EXC              ("jmpsl.file.exception.NotAcceptableFileExtensionException"),
     FILE_HASH_CODE_FORMAT_EXC                           ("jmpsl.file.exception.HashCodeFormatException"),
     FILE_SENDING_FORM_FILE_NOT_EXIST_EXC                ("jmpsl.file.exception.SendingFormFileNotExistException"),
+    FILE_SFTP_CIRCUIT_OPEN_EXC                          ("jmpsl.file.exception.SftpCircuitOpenException"),
+    FILE_CHUNKED_TRANSFER_EXC                           ("jmpsl.file.exception.ChunkedTransferException"),
 
     // JMPSL Gfx module
     GFX_IMAGE_NOT_SUPPORTED_DIMENSIONS_EXC              ("jmpsl.gfx.exception.ImageNotSupportedDimensionsException"),
     GFX_FONT_SIZE_NOT_SUPPORTED_EXC                     ("jmpsl.gfx.exception.FontSizeNotSupportedException"),
     GFX_TOO_MUCH_INITIALS_CHARACTERS_EXC                ("jmpsl.gfx.exception.TooMuchInitialsCharactersException"),
+    GFX_IMAGE_FORMAT_NOT_ACCEPTABLE_EXC                 ("jmpsl.gfx.exception.ImageFormatNotAcceptableException"),
+    GFX_IMAGE_ENCODING_EXC                              ("jmpsl.gfx.exception.ImageEncodingException"),
+    GFX_IMAGE_DECODING_EXC                              ("jmpsl.gfx.exception.ImageDecodingException"),
+    GFX_IMAGE_TOO_LARGE_EXC                             ("jmpsl.gfx.exception.ImageTooLargeException"),
+    GFX_IMAGE_PROCESSING_REJECTED_EXC                   ("jmpsl.gfx.exception.ImageProcessingRejectedException"),
 
     // JMPSL OAuth2 module
     OAUTH2_AUTHENTICATION_PROCESSING_EXC                ("jmpsl.oauth2.exception.OAuth2AuthenticationProcessingException"),
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: RandomSequenceEngine.java
+ * Last modified: 19/10/2026, 21:05
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.core.random;
+
+import org.springframework.util.Assert;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.security.SecureRandom;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Class storing static methods for generating random sequences from declared {@link SequenceAlphabet}. Every thread
+ * uses own random generator (no shared seed contention) and draws random bytes in bulk into own buffer. Secure
+ * generators are created per thread as DRBG instances (without global lock of native generator), if available.
+ * Random bytes are mapped into alphabet characters without modulo bias (bytes above alphabet acceptance limit are
+ * rejected). Generating into passed <code>char[]</code> array does not allocate any objects.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public class RandomSequenceEngine {
+
+    private static final int BUFFER_SIZE = 256;
+    private static final String SECURE_ALGORITHM = "DRBG";
+
+    private static final ThreadLocal<RandomBuffer> FAST_BUFFERS = ThreadLocal
+        .withInitial(() -> new RandomBuffer(ThreadLocalRandom.current()));
+    private static final ThreadLocal<RandomBuffer> SECURE_BUFFERS = ThreadLocal
+        .withInitial(() -> new RandomBuffer(createSecureRandom()));
+
+    private RandomSequenceEngine() {
+    }
+
+    /**
+     * Static method responsible for filling passed array range with random alphabet characters. Method does not
+     * allocate any objects.
+     *
+     * @param target filled array
+     * @param offset index of first filled array element
+     * @param length count of filled array elements
+     * @param alphabet alphabet of generated characters
+     * @param source source of random bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed parameters are null or passed range is out of array bounds
+     */
+    public static void fill(char[] target, int offset, int length, SequenceAlphabet alphabet, RandomSource source) {
+        Assert.notNull(target, "Target array cannot be null.");
+        Assert.notNull(alphabet, "Sequence alphabet cannot be null.");
+        Assert.isTrue(offset >= 0 && length >= 0 && offset + length <= target.length,
+            "Filled range is out of target array bounds.");
+        final RandomBuffer buffer = getBuffer(source);
+        final int acceptanceLimit = alphabet.getAcceptanceLimit();
+        for (int i = offset; i < offset + length; i++) {
+            int randomByte;
+            do {
+                randomByte = buffer.nextUnsignedByte();
+            } while (randomByte >= acceptanceLimit);
+            target[i] = alphabet.mapByte(randomByte);
+        }
+    }
+
+    /**
+     * Static method responsible for generating new array with random alphabet characters.
+     *
+     * @param length count of generated characters
+     * @param alphabet alphabet of generated characters
+     * @param source source of random bytes
+     * @return array with generated characters
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed parameters are null or length is negative
+     */
+    public static char[] generateChars(int length, SequenceAlphabet alphabet, RandomSource source) {
+        Assert.isTrue(length >= 0, "Sequence length cannot be negative.");
+        final char[] sequence = new char[length];
+        fill(sequence, 0, length, alphabet, source);
+        return sequence;
+    }
+
+    /**
+     * Static method responsible for generating random sequence of alphabet characters.
+     *
+     * @param length count of generated characters
+     * @param alphabet alphabet of generated characters
+     * @param source source of random bytes
+     * @return generated sequence
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed parameters are null or length is negative
+     */
+    public static String generate(int length, SequenceAlphabet alphabet, RandomSource source) {
+        return new String(generateChars(length, alphabet, source));
+    }
+
+    /**
+     * Inner static method responsible for returning random bytes buffer of current thread.
+     *
+     * @param source source of random bytes
+     * @return random bytes buffer of current thread
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed source is null
+     */
+    private static RandomBuffer getBuffer(RandomSource source) {
+        Assert.notNull(source, "Random source cannot be null.");
+        return source == RandomSource.SECURE ? SECURE_BUFFERS.get() : FAST_BUFFERS.get();
+    }
+
+    /**
+     * Inner static method responsible for creating secure random generator of single thread. DRBG generator does not
+     * share global lock with other threads (in opposite to default native generator).
+     *
+     * @return secure random generator
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static SecureRandom createSecureRandom() {
+        try {
+            return SecureRandom.getInstance(SECURE_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            return new SecureRandom();
+        }
+    }
+
+    /**
+     * Inner class storing random bytes drawn in bulk from random generator of single thread.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static class RandomBuffer {
+
+        private final Random random;
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private int position = BUFFER_SIZE;
+
+        private RandomBuffer(Random random) {
+            this.random = random;
+        }
+
+        private int nextUnsignedByte() {
+            if (position == bytes.length) {
+                random.nextBytes(bytes);
+                position = 0;
+            }
+            return bytes[position++] & 0xFF;
+        }
+    }
+}
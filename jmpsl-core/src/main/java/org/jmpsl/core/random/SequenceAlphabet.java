@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: SequenceAlphabet.java
+ * Last modified: 19/10/2026, 21:05
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.core.random;
+
+import java.util.Objects;
+
+/**
+ * Enum class storing alphabets of generated random sequences. Every alphabet stores precompiled characters lookup table
+ * (used for validation without regular expressions) and bytes acceptance limit (max byte value, which could be mapped
+ * into alphabet character without modulo bias).
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public enum SequenceAlphabet {
+    NUMERIC("0123456789"),
+    ALPHANUMERIC("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789");
+
+    private static final int LOOKUP_TABLE_SIZE = 128;
+
+    private final char[] characters;
+    private final boolean[] lookupTable = new boolean[LOOKUP_TABLE_SIZE];
+    private final int acceptanceLimit;
+
+    SequenceAlphabet(String characters) {
+        this.characters = characters.toCharArray();
+        for (final char character : this.characters) {
+            lookupTable[character] = true;
+        }
+        acceptanceLimit = 256 - (256 % this.characters.length);
+    }
+
+    /**
+     * Method responsible for checking, if passed character belongs to alphabet.
+     *
+     * @param character checking character
+     * @return true, if character belongs to alphabet, otherwise false
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public boolean contains(char character) {
+        return character < LOOKUP_TABLE_SIZE && lookupTable[character];
+    }
+
+    /**
+     * Method responsible for checking, if all characters of passed sequence belongs to alphabet.
+     *
+     * @param sequence checking sequence (could be null)
+     * @return true, if sequence is not empty and contains only alphabet characters, otherwise false
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public boolean matches(CharSequence sequence) {
+        if (Objects.isNull(sequence) || sequence.length() == 0) return false;
+        for (int i = 0; i < sequence.length(); i++) {
+            if (!contains(sequence.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Method responsible for mapping random byte into alphabet character. Bytes greater or equal than acceptance
+     * limit must be rejected (otherwise first characters of alphabet would be generated more often).
+     *
+     * @param randomByte random unsigned byte value (from 0 to acceptance limit)
+     * @return mapped alphabet character
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    char mapByte(int randomByte) {
+        return characters[randomByte % characters.length];
+    }
+
+    /**
+     * @return max (exclusive) unsigned byte value accepted by {@link #mapByte(int)} method
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    int getAcceptanceLimit() {
+        return acceptanceLimit;
+    }
+}
@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: ContentType.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 19/10/2026, 18:05
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -27,6 +27,8 @@ package org.jmpsl.file;
 import lombok.Getter;
 import lombok.AllArgsConstructor;
 
+import java.util.Arrays;
+
 /**
  * Enum set of file content types in "type/notation" (ex. image/jpeg, image/png etc.).
  *
@@ -56,7 +58,35 @@ public enum ContentType {
      *
      * @since 1.0.2
      */
-    JPG("image/jpg", "jpg");
+    JPG("image/jpg", "jpg"),
+
+    /**
+     * Content type for gif image.
+     *
+     * @since 1.0.2
+     */
+    GIF("image/gif", "gif"),
+
+    /**
+     * Content type for webp image.
+     *
+     * @since 1.0.2
+     */
+    WEBP("image/webp", "webp"),
+
+    /**
+     * Content type for bmp image.
+     *
+     * @since 1.0.2
+     */
+    BMP("image/bmp", "bmp"),
+
+    /**
+     * Content type for tiff image.
+     *
+     * @since 1.0.2
+     */
+    TIFF("image/tiff", "tiff");
 
     /**
      * Content type file format (image/png, image/jpeg etc.).
@@ -71,4 +101,21 @@ public enum ContentType {
      * @since 1.0.2
      */
     private final String regularName;
+
+    /**
+     * Static method responsible for finding content type based passed content type name (ex. image/png).
+     *
+     * @param contentTypeName content type name in "type/notation" format
+     * @return found {@link ContentType} enum type
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if content type with passed name not exist
+     */
+    public static ContentType findByContentTypeName(String contentTypeName) {
+        return Arrays.stream(values())
+            .filter(type -> type.contentTypeName.equals(contentTypeName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Not supported content type: " + contentTypeName));
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ContentTypeSniffer.java
+ * Last modified: 19/10/2026, 18:05
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file;
+
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class storing static util methods responsible for detecting real file format from file signature (magic bytes at the
+ * beginning of file). Detection reads only {@link #SIGNATURE_LENGTH} first bytes, so invalid files could be rejected
+ * before buffering or decoding whole file content.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public class ContentTypeSniffer {
+
+    /**
+     * Max count of bytes read from the beginning of file during format detection.
+     *
+     * @since 1.0.2
+     */
+    public static final int SIGNATURE_LENGTH = 12;
+
+    private static final byte[] RIFF_SIGNATURE = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP_SIGNATURE = "WEBP".getBytes(StandardCharsets.US_ASCII);
+    private static final Map<byte[], ContentType> SIGNATURES = new LinkedHashMap<>();
+
+    static {
+        SIGNATURES.put(new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' }, ContentType.PNG);
+        SIGNATURES.put(new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF }, ContentType.JPEG);
+        SIGNATURES.put("GIF87a".getBytes(StandardCharsets.US_ASCII), ContentType.GIF);
+        SIGNATURES.put("GIF89a".getBytes(StandardCharsets.US_ASCII), ContentType.GIF);
+        SIGNATURES.put(new byte[] { 'I', 'I', '*', 0 }, ContentType.TIFF);
+        SIGNATURES.put(new byte[] { 'M', 'M', 0, '*' }, ContentType.TIFF);
+        SIGNATURES.put(new byte[] { 'B', 'M' }, ContentType.BMP);
+    }
+
+    private ContentTypeSniffer() {
+    }
+
+    /**
+     * Static method responsible for detecting file format from first bytes of passed stream. Method reads max
+     * {@link #SIGNATURE_LENGTH} bytes and does not close passed stream.
+     *
+     * @param inputStream file input stream
+     * @return optional detected {@link ContentType}, empty if file signature is not recognized
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read passed stream
+     * @throws IllegalArgumentException if passed stream is null
+     */
+    public static Optional<ContentType> detectContentType(InputStream inputStream) throws IOException {
+        Assert.notNull(inputStream, "Input stream cannot be null.");
+        final byte[] header = new byte[SIGNATURE_LENGTH];
+        return detectContentType(header, inputStream.readNBytes(header, 0, SIGNATURE_LENGTH));
+    }
+
+    /**
+     * Static method responsible for detecting file format from first bytes of passed file content.
+     *
+     * @param bytes file content (or only first bytes of file content)
+     * @return optional detected {@link ContentType}, empty if file signature is not recognized
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed bytes array is null
+     */
+    public static Optional<ContentType> detectContentType(byte[] bytes) {
+        Assert.notNull(bytes, "File bytes cannot be null.");
+        return detectContentType(bytes, Math.min(bytes.length, SIGNATURE_LENGTH));
+    }
+
+    /**
+     * Static method responsible for checking, if passed content types describe the same file format (ex. image/jpeg
+     * and image/jpg have the same signature).
+     *
+     * @param detectedType content type detected from file signature
+     * @param declaredType content type declared by client
+     * @return true, if both content types describe the same file format
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static boolean isSameFormat(ContentType detectedType, ContentType declaredType) {
+        return normalize(detectedType) == normalize(declaredType);
+    }
+
+    /**
+     * Inner method responsible for matching known signatures with passed file header.
+     *
+     * @param header file header bytes
+     * @param length count of valid bytes in header
+     * @return optional detected {@link ContentType}
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static Optional<ContentType> detectContentType(byte[] header, int length) {
+        if (startsWith(header, length, RIFF_SIGNATURE, 0) && startsWith(header, length, WEBP_SIGNATURE, 8)) {
+            return Optional.of(ContentType.WEBP);
+        }
+        return SIGNATURES.entrySet().stream()
+            .filter(signature -> startsWith(header, length, signature.getKey(), 0))
+            .map(Map.Entry::getValue)
+            .findFirst();
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] signature, int offset) {
+        if (length < offset + signature.length) return false;
+        for (int i = 0; i < signature.length; i++) {
+            if (header[offset + i] != signature[i]) return false;
+        }
+        return true;
+    }
+
+    private static ContentType normalize(ContentType type) {
+        return type == ContentType.JPG ? ContentType.JPEG : type;
+    }
+}
@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: FileEnv.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 20/10/2026, 05:40
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -126,7 +126,304 @@ public enum FileEnv implements IEnvEnumExtender {
      *
      * @since 1.0.2
      */
-    __JFM_HASH_SEQ_LENGTH("jmpsl.file.hash-code.sequence-length", "5", true);
+    __JFM_HASH_SEQ_LENGTH("jmpsl.file.hash-code.sequence-length", "5", true),
+
+    /**
+     * Define, if remote directory listings cache is active. By default "true". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_DIR_CACHE_ACTIVE("jmpsl.file.directory-cache.active", "true", false),
+
+    /**
+     * Define max count of cached remote directories (least recently used entries are evicted). By default "1000".
+     * Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_DIR_CACHE_MAX_ENTRIES("jmpsl.file.directory-cache.max-entries", "1000", false),
+
+    /**
+     * Define time to live (in seconds) of single cached remote directory listing. By default "300". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_DIR_CACHE_TTL_SECONDS("jmpsl.file.directory-cache.ttl-seconds", "300", false),
+
+    /**
+     * Define file storage backend type (sftp, local, in-memory). By default "sftp". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_STORAGE_TYPE("jmpsl.file.storage.type", "sftp", false),
+
+    /**
+     * Define local file storage root directory. Property required only for local storage type.
+     *
+     * @since 1.0.2
+     */
+    __JFM_LOCAL_ROOT_PATH("jmpsl.file.local.root-path", null, false),
+
+    /**
+     * Define, if local storage files should be read via memory-mapped buffers. By default "false". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_LOCAL_MMAP_READS("jmpsl.file.local.memory-mapped-reads", "false", false),
+
+    /**
+     * Define, if local storage writes should be forced to the storage device before atomic move. By default "true".
+     * Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_LOCAL_SYNC_WRITES("jmpsl.file.local.sync-writes", "true", false),
+
+    /**
+     * Define flush interval (in milliseconds) of deferred (asynchronous) storage actions. By default "500". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_DEFERRED_FLUSH_INTERVAL_MS("jmpsl.file.deferred-actions.flush-interval-ms", "500", false),
+
+    /**
+     * Define max count of deferred storage actions executed in single storage session. By default "100". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_DEFERRED_MAX_BATCH_SIZE("jmpsl.file.deferred-actions.max-batch-size", "100", false),
+
+    /**
+     * Define SSH socket connect timeout (in milliseconds). By default "5000". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SSH_CONNECT_TIMEOUT_MS("jmpsl.file.ssh.connect-timeout-ms", "5000", false),
+
+    /**
+     * Define SSH transport and single SFTP request timeout (in milliseconds). By default "15000". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SSH_OPERATION_TIMEOUT_MS("jmpsl.file.ssh.operation-timeout-ms", "15000", false),
+
+    /**
+     * Define, if known hosts and private key files are watched and reloaded after change (without application
+     * restart). By default "true". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SSH_WATCH_KEY_FILES("jmpsl.file.ssh.watch-key-files", "true", false),
+
+    /**
+     * Define max count of attempts of single SFTP call (including first attempt). By default "3". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SSH_RETRY_MAX_ATTEMPTS("jmpsl.file.ssh.retry.max-attempts", "3", false),
+
+    /**
+     * Define backoff (in milliseconds) before first retry of failed SFTP call (doubled in every next retry). By default
+     * "100". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SSH_RETRY_INITIAL_BACKOFF_MS("jmpsl.file.ssh.retry.initial-backoff-ms", "100", false),
+
+    /**
+     * Define max backoff (in milliseconds) before retry of failed SFTP call. By default "2000". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SSH_RETRY_MAX_BACKOFF_MS("jmpsl.file.ssh.retry.max-backoff-ms", "2000", false),
+
+    /**
+     * Define count of consecutive failed SFTP attempts, which opens circuit breaker. By default "5". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SSH_CIRCUIT_FAILURE_THRESHOLD("jmpsl.file.ssh.circuit-breaker.failure-threshold", "5", false),
+
+    /**
+     * Define time (in milliseconds), when opened circuit breaker rejects all SFTP calls. By default "30000". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SSH_CIRCUIT_OPEN_DURATION_MS("jmpsl.file.ssh.circuit-breaker.open-duration-ms", "30000", false),
+
+    /**
+     * Define, if write-behind mode is active (writing actions are appended into local journal and drained into storage
+     * asynchronously). By default "false". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_WRITE_BEHIND_ACTIVE("jmpsl.file.write-behind.active", "false", false),
+
+    /**
+     * Define local directory of write-behind journal. Property required only in write-behind mode.
+     *
+     * @since 1.0.2
+     */
+    __JFM_WRITE_BEHIND_JOURNAL_PATH("jmpsl.file.write-behind.journal-path", null, false),
+
+    /**
+     * Define max size (in megabytes) of single write-behind journal segment file. By default "64". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_WRITE_BEHIND_SEGMENT_SIZE_MB("jmpsl.file.write-behind.segment-size-mb", "64", false),
+
+    /**
+     * Define write-behind journal group commit (fsync) interval in milliseconds. If 0, every record is forced
+     * separately. By default "5". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_WRITE_BEHIND_SYNC_INTERVAL_MS("jmpsl.file.write-behind.sync-interval-ms", "5", false),
+
+    /**
+     * Define max count of write-behind journal records drained in single storage session. By default "200". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_WRITE_BEHIND_DRAIN_BATCH_SIZE("jmpsl.file.write-behind.drain-batch-size", "200", false),
+
+    /**
+     * Define write-behind journal drain interval in milliseconds. By default "200". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_WRITE_BEHIND_DRAIN_INTERVAL_MS("jmpsl.file.write-behind.drain-interval-ms", "200", false),
+
+    /**
+     * Define size (in kilobytes) of single chunk in parallel chunked transfers. By default "4096". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_TRANSFER_CHUNK_SIZE_KB("jmpsl.file.transfer.chunk-size-kb", "4096", false),
+
+    /**
+     * Define count of parallel storage channels (sessions) used by single chunked transfer. By default "4". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_TRANSFER_PARALLEL_CHANNELS("jmpsl.file.transfer.parallel-channels", "4", false),
+
+    /**
+     * Define local directory of chunked transfers manifests (used for resuming interrupted transfers). By default
+     * "jmpsl-transfers" directory in system temporary directory. Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_TRANSFER_MANIFEST_PATH("jmpsl.file.transfer.manifest-path", null, false),
+
+    /**
+     * Define, if every uploaded chunk should be read back and verified with local checksum. By default "false".
+     * Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_TRANSFER_VERIFY_UPLOADS("jmpsl.file.transfer.verify-uploads", "false", false),
+
+    /**
+     * Define parent of local read cache directory (downloaded storage files). Each instance creates own directory
+     * inside it and never touches other files. By default system temporary directory. Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_READ_CACHE_PATH("jmpsl.file.read-cache.path", null, false),
+
+    /**
+     * Define max size (in megabytes) of all files stored in read cache (least recently used files are evicted). By
+     * default "512". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_READ_CACHE_MAX_SIZE_MB("jmpsl.file.read-cache.max-size-mb", "512", false),
+
+    /**
+     * Define max size (in megabytes) of single cached file. Larger files are read directly from storage. By default
+     * "64". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_READ_CACHE_MAX_ENTRY_SIZE_MB("jmpsl.file.read-cache.max-entry-size-mb", "64", false),
+
+    /**
+     * Define count of cache hits, after which cached file is read via memory-mapped buffer. By default "2". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_READ_CACHE_MMAP_HITS_THRESHOLD("jmpsl.file.read-cache.mmap-hits-threshold", "2", false),
+
+    /**
+     * Define time (in milliseconds), after which cached file is revalidated with storage (size and modification time).
+     * By default "60000". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_READ_CACHE_REVALIDATE_AFTER_MS("jmpsl.file.read-cache.revalidate-after-ms", "60000", false),
+
+    /**
+     * Define max count of concurrently used storage channels (all transfer priorities). By default "8". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SCHEDULER_MAX_CHANNELS("jmpsl.file.scheduler.max-channels", "8", false),
+
+    /**
+     * Define max count of storage channels concurrently used by background transfers. By default "2". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SCHEDULER_BACKGROUND_MAX_CHANNELS("jmpsl.file.scheduler.background-max-channels", "2", false),
+
+    /**
+     * Define max count of bytes per second transferred by all background transfers. If 0, background transfers are
+     * not throttled. By default "0". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SCHEDULER_BACKGROUND_BYTES_PER_SECOND("jmpsl.file.scheduler.background-bytes-per-second", "0", false),
+
+    /**
+     * Define max time (in milliseconds) of waiting for free storage channel. By default "30000". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_SCHEDULER_ACQUIRE_TIMEOUT_MS("jmpsl.file.scheduler.acquire-timeout-ms", "30000", false),
+
+    /**
+     * Define, if file operations metrics are recorded in Micrometer registry (if Micrometer and registry Bean are
+     * available). By default "true". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_METRICS_ACTIVE("jmpsl.file.metrics.active", "true", false),
+
+    /**
+     * Define, if recorded operation durations and bytes are published as percentile histograms. By default "true".
+     * Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __JFM_METRICS_HISTOGRAMS("jmpsl.file.metrics.histograms", "true", false);
 
     private final String name;
     private final String defaultValue;
@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: FileUtil.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 20/10/2026, 05:55
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -26,8 +26,12 @@ package org.jmpsl.file;
 
 import lombok.extern.slf4j.Slf4j;
 
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPException;
 import net.schmizz.sshj.sftp.RemoteResourceInfo;
 import net.schmizz.sshj.sftp.StatefulSFTPClient;
+import net.schmizz.sshj.transport.TransportException;
+import net.schmizz.sshj.connection.ConnectionException;
 
 import org.springframework.util.Assert;
 import org.springframework.web.multipart.MultipartFile;
@@ -35,7 +39,14 @@ import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.AccessDeniedException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
 
 import org.jmpsl.file.exception.SendingFormFileNotExistException;
 import org.jmpsl.file.exception.NotAcceptableFileExtensionException;
@@ -77,8 +88,9 @@ public class FileUtil {
 
     /**
      * Static method responsible for checking, if passed file extension is matched with passed content types multiple
-     * arguments array (enums of {@link ContentType} class). If it is invalid, throw
-     * {@link NotAcceptableFileExtensionException} exception.
+     * arguments array (enums of {@link ContentType} class). Declared content type is also compared with real file
+     * format detected from first bytes of file stream (via {@link ContentTypeSniffer}), so file is rejected before
+     * any buffering or decoding. If it is invalid, throw {@link NotAcceptableFileExtensionException} exception.
      *
      * @param file instance of {@link MultipartFile} data from Tomcat Servlet Container
      * @param types multiple enum types of {@link ContentType} class
@@ -97,6 +109,120 @@ public class FileUtil {
                     file.getContentType(), types);
             throw new NotAcceptableFileExtensionException(types);
         }
+        final Optional<ContentType> detectedType;
+        try (final InputStream inputStream = file.getInputStream()) {
+            detectedType = ContentTypeSniffer.detectContentType(inputStream);
+        } catch (IOException ex) {
+            log.error("Unable to read signature of sent file. Cause: {}", ex.getMessage());
+            throw new NotAcceptableFileExtensionException(types);
+        }
+        if (detectedType.isEmpty() || !ContentTypeSniffer.isSameFormat(detectedType.get(),
+            ContentType.findByContentTypeName(file.getContentType()))) {
+            log.error("Attempt to send file with not matching signature. Declared content type: {}, detected: {}",
+                    file.getContentType(), detectedType.map(ContentType::getContentTypeName).orElse("unknown"));
+            throw new NotAcceptableFileExtensionException(types);
+        }
+    }
+
+    /**
+     * Static method responsible for normalizing storage path (removing duplicated and trailing slashes), so equal
+     * paths always have the same string representation.
+     *
+     * @param path storage path
+     * @return normalized storage path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public static String normalizePath(String path) {
+        Assert.notNull(path, "Storage path cannot be null.");
+        final String normalized = path.replaceAll("/{2,}", "/");
+        if (normalized.length() > 1 && normalized.endsWith("/")) {
+            return normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * Static method responsible for extracting parent directory path from passed storage path. For root level
+     * resources return "/" or empty string (for relative paths).
+     *
+     * @param path storage path
+     * @return normalized parent directory path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public static String getParentPath(String path) {
+        final String normalized = normalizePath(path);
+        final int separatorIndex = normalized.lastIndexOf('/');
+        if (separatorIndex < 0) return "";
+        return separatorIndex == 0 ? "/" : normalized.substring(0, separatorIndex);
+    }
+
+    /**
+     * Static method responsible for extracting simple file or directory name (without any slashes) from passed storage
+     * path.
+     *
+     * @param path storage path
+     * @return simple file or directory name
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public static String getFileName(String path) {
+        final String normalized = normalizePath(path);
+        return normalized.substring(normalized.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Static method responsible for checking, if passed storage failure is transient (unable to connect, lost or timed
+     * out SSH transport, connection or socket), so storage server could be unhealthy and action could be repeated.
+     * Failures reported by server as SFTP status (ex. no such file, permission denied) are not transient, because server
+     * correctly responded and repeated action gives the same result.
+     *
+     * @param ex storage failure (checked with all its causes)
+     * @return true, if failure is transient, otherwise false
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static boolean isTransientStorageFailure(Throwable ex) {
+        for (Throwable cause = ex; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof SFTPException sftpException) {
+                final Response.StatusCode statusCode = sftpException.getStatusCode();
+                if (statusCode == Response.StatusCode.NO_CONNECTION
+                    || statusCode == Response.StatusCode.CONNECITON_LOST) return true;
+                if (statusCode != Response.StatusCode.UNKNOWN) return false;
+            }
+            if (cause instanceof TransportException || cause instanceof ConnectionException
+                || cause instanceof SocketException || cause instanceof SocketTimeoutException
+                || cause instanceof TimeoutException) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Static method responsible for checking, if passed storage failure is permanent (path not exist or access to path
+     * is denied), so repeated action gives the same result and action could be safely skipped.
+     *
+     * @param ex storage failure (checked with all its causes)
+     * @return true, if failure is permanent, otherwise false
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static boolean isPermanentStorageFailure(Throwable ex) {
+        for (Throwable cause = ex; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof SFTPException sftpException) {
+                final Response.StatusCode statusCode = sftpException.getStatusCode();
+                return statusCode == Response.StatusCode.NO_SUCH_FILE
+                    || statusCode == Response.StatusCode.PERMISSION_DENIED;
+            }
+            if (cause instanceof NoSuchFileException || cause instanceof AccessDeniedException) return true;
+        }
+        return false;
     }
 
     /**
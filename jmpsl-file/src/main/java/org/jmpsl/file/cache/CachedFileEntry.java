@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: CachedFileEntry.java
+ * Last modified: 19/10/2026, 17:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.cache;
+
+import lombok.Getter;
+
+import java.util.Objects;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.channels.FileChannel;
+
+/**
+ * Class storing single entry of {@link CachedFileReader} (local copy of storage file with remote size and modification
+ * time used for revalidation). Entries of files larger than max cached entry size are transient (without local copy).
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class CachedFileEntry {
+
+    @Getter private final Path file;
+    @Getter private final long size;
+    @Getter private final long lastModified;
+    @Getter private volatile long validatedAtNanos;
+    private int hits;
+    private ByteBuffer mappedBuffer;
+
+    CachedFileEntry(Path file, long size, long lastModified) {
+        this.file = file;
+        this.size = size;
+        this.lastModified = lastModified;
+        validatedAtNanos = System.nanoTime();
+    }
+
+    /**
+     * Method responsible for registering cache hit. If count of hits reached passed threshold, local copy is mapped
+     * into memory (mapped buffer is shared between all readers as read-only duplicates).
+     *
+     * @param mmapHitsThreshold count of hits, after which file is mapped into memory
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to map local copy into memory
+     */
+    synchronized void registerHit(int mmapHitsThreshold) throws IOException {
+        hits++;
+        if (hits < mmapHitsThreshold || Objects.nonNull(mappedBuffer) || isTransient()) return;
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Method responsible for marking entry as validated with storage (after comparing size and modification time).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void markValidated() {
+        validatedAtNanos = System.nanoTime();
+    }
+
+    /**
+     * @return read-only duplicate of mapped buffer, or null if entry is not mapped into memory
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized ByteBuffer duplicateMappedBuffer() {
+        return Objects.isNull(mappedBuffer) ? null : mappedBuffer.duplicate();
+    }
+
+    /**
+     * @return true, if entry has not local copy (file is larger than max cached entry size)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    boolean isTransient() {
+        return Objects.isNull(file);
+    }
+}
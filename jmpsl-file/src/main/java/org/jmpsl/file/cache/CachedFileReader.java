@@ -0,0 +1,561 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: CachedFileReader.java
+ * Last modified: 20/10/2026, 05:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.Assert;
+import org.springframework.stereotype.Component;
+import org.springframework.core.env.Environment;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.Objects;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.jmpsl.file.FileEnv;
+import org.jmpsl.file.FileUtil;
+import org.jmpsl.file.storage.IFileStorage;
+import org.jmpsl.file.storage.FileStorageInfo;
+import org.jmpsl.file.scheduler.TransferPriority;
+import org.jmpsl.file.scheduler.TransferScheduler;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+/**
+ * Spring Bean component responsible for reading files from {@link IFileStorage} via size-bounded local disk cache.
+ * Files are downloaded into local cache directory on first read and evicted in least recently used order, when size
+ * of all cached files exceeds declared limit. Hot entries (read more than declared count of times) are read via shared
+ * memory-mapped buffers. Concurrent misses of the same path are collapsed into single storage fetch. Cached entries
+ * are revalidated with storage (size and modification time) after declared time. Files larger than max cached entry
+ * size are not cached (ranged reads are delegated into storage). Before run application, optionally declare following
+ * properties in <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.file.read-cache.path</code> - parent of local cache directory, by default system temp
+ *     directory</li>
+ *     <li><code>jmpsl.file.read-cache.max-size-mb</code> - max size of all cached files, by default 512MB</li>
+ *     <li><code>jmpsl.file.read-cache.max-entry-size-mb</code> - max size of single cached file, by default 64MB</li>
+ *     <li><code>jmpsl.file.read-cache.mmap-hits-threshold</code> - hits before memory mapping, by default 2</li>
+ *     <li><code>jmpsl.file.read-cache.revalidate-after-ms</code> - entry revalidation time, by default 60000ms</li>
+ * </ul>
+ *
+ * Cache index is stored only in memory, so every instance creates its own (randomly named) cache directory inside
+ * declared parent directory and removes it on bean destroy. Other files of parent directory are never touched.
+ * Storage fetches are interactive transfers of {@link TransferScheduler}.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Component
+public class CachedFileReader implements DisposableBean {
+
+    private static final String CACHED_FILE_SUFFIX = ".cache";
+    private static final String CACHE_DIR_PREFIX = "jmpsl-read-cache-";
+
+    private final Path cacheDir;
+    private final long maxSizeBytes;
+    private final long maxEntrySizeBytes;
+    private final int mmapHitsThreshold;
+    private final long revalidateAfterNanos;
+    private final IFileStorage fileStorage;
+
+    private final Map<String, CachedFileEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<String, CompletableFuture<CachedFileEntry>> inFlightFetches = new ConcurrentHashMap<>();
+    private final LongAdder hitsCount = new LongAdder();
+    private final LongAdder missesCount = new LongAdder();
+    private long cachedSizeBytes;
+
+    CachedFileReader(Environment env, TransferScheduler transferScheduler) {
+        fileStorage = transferScheduler.getStorage(TransferPriority.INTERACTIVE);
+        maxSizeBytes = FileEnv.__JFM_READ_CACHE_MAX_SIZE_MB.getProperty(env, Long.class) * 1024 * 1024;
+        maxEntrySizeBytes = FileEnv.__JFM_READ_CACHE_MAX_ENTRY_SIZE_MB.getProperty(env, Long.class) * 1024 * 1024;
+        mmapHitsThreshold = FileEnv.__JFM_READ_CACHE_MMAP_HITS_THRESHOLD.getProperty(env, Integer.class);
+        revalidateAfterNanos = TimeUnit.MILLISECONDS
+            .toNanos(FileEnv.__JFM_READ_CACHE_REVALIDATE_AFTER_MS.getProperty(env, Long.class));
+        if (maxSizeBytes < 1 || maxEntrySizeBytes < 1
+            || maxEntrySizeBytes > Math.min(maxSizeBytes, Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Read cache max entry size must be between 1MB and read cache max size");
+        }
+        final String cachePath = FileEnv.__JFM_READ_CACHE_PATH.getProperty(env);
+        cacheDir = createCacheDirectory(Objects.isNull(cachePath)
+            ? Path.of(System.getProperty("java.io.tmpdir"))
+            : Path.of(cachePath));
+        log.info("Successful initialized local read cache in {}. Max size: {}B, max entry size: {}B", cacheDir,
+            maxSizeBytes, maxEntrySizeBytes);
+    }
+
+    /**
+     * Method responsible for opening {@link InputStream} of storage file (file is downloaded into local cache, if it
+     * is not cached yet). Caller must close returned stream.
+     *
+     * @param path full file path in storage
+     * @return input stream of file content
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if file not exist or unable to download file
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public InputStream openStream(String path) {
+        return Channels.newInputStream(openChannel(path));
+    }
+
+    /**
+     * Method responsible for opening {@link ReadableByteChannel} of storage file (file is downloaded into local cache,
+     * if it is not cached yet). Hot entries are read from shared memory-mapped buffer. Files larger than max cached
+     * entry size are downloaded into temporary file removed after closing channel. If cached file was evicted between
+     * lookup and opening, file is fetched again (once). Caller must close returned channel.
+     *
+     * @param path full file path in storage
+     * @return readable channel of file content
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if file not exist or unable to download file
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public ReadableByteChannel openChannel(String path) {
+        final String normalizedPath = normalizePath(path);
+        CachedFileEntry entry = getEntry(normalizedPath);
+        try {
+            try {
+                return openEntryChannel(normalizedPath, entry);
+            } catch (NoSuchFileException ex) {
+                invalidateEntry(normalizedPath, entry);
+                entry = getEntry(normalizedPath);
+                return openEntryChannel(normalizedPath, entry);
+            }
+        } catch (IOException ex) {
+            log.error("Unable to open cached file {}. Cause: {}", normalizedPath, ex.getMessage());
+            invalidateEntry(normalizedPath, entry);
+            throw new ExternalFileServerMalfunctionException(ex);
+        }
+    }
+
+    /**
+     * Method responsible for reading passed range of storage file (file is downloaded into local cache, if it is not
+     * cached yet). Ranges of files larger than max cached entry size are read directly from storage. If cached file
+     * was evicted between lookup and reading, file is fetched again (once). If file is shorter, returned array
+     * contains only existing bytes.
+     *
+     * @param path full file path in storage
+     * @param offset offset in file, from which bytes will be read
+     * @param length max count of read bytes
+     * @return read bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if file not exist or unable to download file
+     * @throws IllegalArgumentException if passed path is null or offset and length are negative
+     */
+    public byte[] readRange(String path, long offset, int length) {
+        Assert.isTrue(offset >= 0 && length >= 0, "Read range offset and length cannot be negative.");
+        final String normalizedPath = normalizePath(path);
+        CachedFileEntry entry = getEntry(normalizedPath);
+        try {
+            try {
+                return readEntryRange(normalizedPath, entry, offset, length);
+            } catch (NoSuchFileException ex) {
+                invalidateEntry(normalizedPath, entry);
+                entry = getEntry(normalizedPath);
+                return readEntryRange(normalizedPath, entry, offset, length);
+            }
+        } catch (IOException ex) {
+            log.error("Unable to read range of cached file {}. Cause: {}", normalizedPath, ex.getMessage());
+            invalidateEntry(normalizedPath, entry);
+            throw new ExternalFileServerMalfunctionException(ex);
+        }
+    }
+
+    /**
+     * Method responsible for removing cached file (ex. after replacing or removing file in storage).
+     *
+     * @param path full file path in storage
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public void invalidate(String path) {
+        final CachedFileEntry entry;
+        synchronized (entries) {
+            entry = entries.remove(normalizePath(path));
+            if (Objects.isNull(entry)) return;
+            cachedSizeBytes -= entry.getSize();
+        }
+        deleteLocalCopy(entry);
+    }
+
+    /**
+     * Inner method responsible for opening channel of passed cache entry.
+     *
+     * @param path normalized file path in storage
+     * @param entry cache entry
+     * @return readable channel of file content
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws NoSuchFileException if cached file was evicted
+     * @throws IOException if unable to open cached file
+     */
+    private ReadableByteChannel openEntryChannel(String path, CachedFileEntry entry) throws IOException {
+        if (entry.isTransient()) {
+            final Path tempFile = Files.createTempFile(cacheDir, "transient-", ".tmp");
+            try {
+                downloadInto(path, tempFile);
+            } catch (RuntimeException ex) {
+                Files.deleteIfExists(tempFile);
+                throw ex;
+            }
+            return FileChannel.open(tempFile, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        final ByteBuffer mappedBuffer = entry.duplicateMappedBuffer();
+        if (Objects.nonNull(mappedBuffer)) return new MappedBufferChannel(mappedBuffer);
+        return FileChannel.open(entry.getFile(), StandardOpenOption.READ);
+    }
+
+    /**
+     * Inner method responsible for reading passed range of passed cache entry.
+     *
+     * @param path normalized file path in storage
+     * @param entry cache entry
+     * @param offset offset in file, from which bytes will be read
+     * @param length max count of read bytes
+     * @return read bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws NoSuchFileException if cached file was evicted
+     * @throws IOException if unable to read cached file
+     */
+    private byte[] readEntryRange(String path, CachedFileEntry entry, long offset, int length) throws IOException {
+        final int rangeLength = (int) Math.max(0, Math.min(length, entry.getSize() - offset));
+        if (rangeLength == 0) return new byte[0];
+        if (entry.isTransient()) {
+            final byte[][] range = new byte[1][];
+            fileStorage.performIdempotentInSession(session ->
+                range[0] = session.readRange(path, offset, rangeLength));
+            return range[0];
+        }
+        final ByteBuffer mappedBuffer = entry.duplicateMappedBuffer();
+        final byte[] range = new byte[rangeLength];
+        if (Objects.nonNull(mappedBuffer)) {
+            mappedBuffer.get((int) offset, range);
+            return range;
+        }
+        try (final FileChannel channel = FileChannel.open(entry.getFile(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(range);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) break;
+            }
+            return range;
+        }
+    }
+
+    /**
+     * Inner method responsible for removing passed cache entry, only if it is still cached under passed path (fresh
+     * entry fetched in meantime by other thread is not removed).
+     *
+     * @param path normalized file path in storage
+     * @param entry removed cache entry
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void invalidateEntry(String path, CachedFileEntry entry) {
+        synchronized (entries) {
+            if (!entries.remove(path, entry)) return;
+            cachedSizeBytes -= entry.getSize();
+        }
+        deleteLocalCopy(entry);
+    }
+
+    /**
+     * Inner method responsible for returning valid cache entry. On miss (or stale entry), file is fetched from storage
+     * only by first calling thread, other threads wait for the same fetch result.
+     *
+     * @param path normalized file path in storage
+     * @return valid cache entry
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if file not exist or unable to download file
+     */
+    private CachedFileEntry getEntry(String path) {
+        final CachedFileEntry cachedEntry;
+        synchronized (entries) {
+            cachedEntry = entries.get(path);
+        }
+        if (Objects.nonNull(cachedEntry)
+            && System.nanoTime() - cachedEntry.getValidatedAtNanos() < revalidateAfterNanos) {
+            hitsCount.increment();
+            registerHit(path, cachedEntry);
+            return cachedEntry;
+        }
+        final CompletableFuture<CachedFileEntry> fetch = new CompletableFuture<>();
+        final CompletableFuture<CachedFileEntry> inFlightFetch = inFlightFetches.putIfAbsent(path, fetch);
+        if (Objects.nonNull(inFlightFetch)) {
+            try {
+                return inFlightFetch.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException runtimeEx ? runtimeEx : ex;
+            }
+        }
+        try {
+            final CachedFileEntry fetchedEntry = fetchEntry(path, cachedEntry);
+            fetch.complete(fetchedEntry);
+            return fetchedEntry;
+        } catch (RuntimeException ex) {
+            fetch.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlightFetches.remove(path, fetch);
+        }
+    }
+
+    /**
+     * Inner method responsible for fetching file from storage. If stale entry has the same size and modification time
+     * as storage file, stale entry is marked as valid without downloading file.
+     *
+     * @param path normalized file path in storage
+     * @param staleEntry stale cache entry (or null, if file is not cached)
+     * @return valid cache entry
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if file not exist or unable to download file
+     */
+    private CachedFileEntry fetchEntry(String path, CachedFileEntry staleEntry) {
+        final FileStorageInfo[] info = new FileStorageInfo[1];
+        fileStorage.performIdempotentInSession(session -> info[0] = session.stat(path)
+            .filter(fileInfo -> !fileInfo.directory())
+            .orElseThrow(() -> new NoSuchFileException(path)));
+
+        if (Objects.nonNull(staleEntry) && staleEntry.getSize() == info[0].size()
+            && staleEntry.getLastModified() == info[0].lastModified()) {
+            staleEntry.markValidated();
+            hitsCount.increment();
+            registerHit(path, staleEntry);
+            return staleEntry;
+        }
+        missesCount.increment();
+        if (Objects.nonNull(staleEntry)) invalidateEntry(path, staleEntry);
+        if (info[0].size() > maxEntrySizeBytes) {
+            return new CachedFileEntry(null, info[0].size(), info[0].lastModified());
+        }
+        final String fileName = UUID.nameUUIDFromBytes(path.getBytes(StandardCharsets.UTF_8)) + "-" + UUID.randomUUID();
+        final Path cachedFile = cacheDir.resolve(fileName + CACHED_FILE_SUFFIX);
+        try {
+            final Path tempFile = Files.createTempFile(cacheDir, "fetch-", ".tmp");
+            try {
+                downloadInto(path, tempFile);
+                Files.move(tempFile, cachedFile, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            final CachedFileEntry entry = new CachedFileEntry(cachedFile, Files.size(cachedFile),
+                info[0].lastModified());
+            putEntry(path, entry);
+            return entry;
+        } catch (IOException ex) {
+            log.error("Unable to store file {} in local read cache. Cause: {}", path, ex.getMessage());
+            throw new ExternalFileServerMalfunctionException(ex);
+        }
+    }
+
+    /**
+     * Inner method responsible for downloading storage file into passed local file (in single idempotent session).
+     *
+     * @param path normalized file path in storage
+     * @param localFile target local file (truncated before every download attempt)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if file not exist or unable to download file
+     */
+    private void downloadInto(String path, Path localFile) {
+        fileStorage.performIdempotentInSession(session -> {
+            try (final OutputStream outputStream = Files.newOutputStream(localFile, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+                session.get(path, outputStream);
+            }
+        });
+    }
+
+    /**
+     * Inner method responsible for adding entry into cache index and evicting least recently used entries, if size of
+     * all cached files exceeds max cache size (added entry is never evicted).
+     *
+     * @param path normalized file path in storage
+     * @param entry added cache entry
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void putEntry(String path, CachedFileEntry entry) {
+        final Map<String, CachedFileEntry> evictedEntries = new LinkedHashMap<>();
+        synchronized (entries) {
+            final CachedFileEntry previous = entries.put(path, entry);
+            if (Objects.nonNull(previous)) {
+                cachedSizeBytes -= previous.getSize();
+                evictedEntries.put(path, previous);
+            }
+            cachedSizeBytes += entry.getSize();
+            final Iterator<Map.Entry<String, CachedFileEntry>> iterator = entries.entrySet().iterator();
+            while (cachedSizeBytes > maxSizeBytes && iterator.hasNext()) {
+                final Map.Entry<String, CachedFileEntry> eldest = iterator.next();
+                if (eldest.getValue() == entry) continue;
+                iterator.remove();
+                cachedSizeBytes -= eldest.getValue().getSize();
+                evictedEntries.put(eldest.getKey(), eldest.getValue());
+            }
+        }
+        evictedEntries.values().forEach(this::deleteLocalCopy);
+    }
+
+    /**
+     * Inner method responsible for registering cache hit (could map hot entry into memory).
+     *
+     * @param path normalized file path in storage
+     * @param entry cache entry
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void registerHit(String path, CachedFileEntry entry) {
+        try {
+            entry.registerHit(mmapHitsThreshold);
+        } catch (IOException ex) {
+            log.warn("Unable to map cached file {} into memory. Cause: {}", path, ex.getMessage());
+        }
+    }
+
+    /**
+     * Inner method responsible for removing local copy of evicted or invalidated entry. Already opened channels and
+     * mapped buffers are still valid on POSIX systems.
+     *
+     * @param entry removed cache entry
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void deleteLocalCopy(CachedFileEntry entry) {
+        if (entry.isTransient()) return;
+        try {
+            Files.deleteIfExists(entry.getFile());
+        } catch (IOException ex) {
+            log.warn("Unable to remove cached file {}. Cause: {}", entry.getFile(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Inner method responsible for creating cache directory owned only by this instance. Directory is created inside
+     * declared parent directory, so files of other applications (or other instances) are never removed.
+     *
+     * @param parentDir parent of cache directory
+     * @return created cache directory
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalStateException if unable to create cache directory
+     */
+    private static Path createCacheDirectory(Path parentDir) {
+        try {
+            Files.createDirectories(parentDir);
+            return Files.createTempDirectory(parentDir, CACHE_DIR_PREFIX);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to prepare read cache directory in " + parentDir, ex);
+        }
+    }
+
+    private String normalizePath(String path) {
+        Assert.notNull(path, "Path cannot be null.");
+        return FileUtil.normalizePath(path);
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (entries) {
+            entries.clear();
+            cachedSizeBytes = 0;
+        }
+        try (final Stream<Path> files = Files.list(cacheDir)) {
+            for (final Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(cacheDir);
+        } catch (IOException ex) {
+            log.warn("Unable to remove read cache directory {}. Cause: {}", cacheDir, ex.getMessage());
+        }
+    }
+
+    /**
+     * @return total size in bytes of all cached files
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public long getCachedSizeBytes() {
+        synchronized (entries) {
+            return cachedSizeBytes;
+        }
+    }
+
+    /**
+     * @return count of reads served from local cache (including revalidated entries)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public long getHitsCount() {
+        return hitsCount.sum();
+    }
+
+    /**
+     * @return count of reads, which required downloading file from storage
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public long getMissesCount() {
+        return missesCount.sum();
+    }
+}
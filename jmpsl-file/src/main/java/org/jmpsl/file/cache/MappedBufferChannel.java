@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: MappedBufferChannel.java
+ * Last modified: 19/10/2026, 17:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ClosedChannelException;
+
+/**
+ * {@link ReadableByteChannel} implementation reading bytes from memory-mapped buffer of cached file (used for hot
+ * entries of {@link CachedFileReader}). Channel operates on own duplicate of buffer, so could be used by single thread
+ * without synchronization.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class MappedBufferChannel implements ReadableByteChannel {
+
+    private final ByteBuffer buffer;
+    private boolean open = true;
+
+    MappedBufferChannel(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read(ByteBuffer target) throws ClosedChannelException {
+        if (!open) throw new ClosedChannelException();
+        if (!buffer.hasRemaining()) return -1;
+        final int length = Math.min(buffer.remaining(), target.remaining());
+        target.put(buffer.slice(buffer.position(), length));
+        buffer.position(buffer.position() + length);
+        return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+}
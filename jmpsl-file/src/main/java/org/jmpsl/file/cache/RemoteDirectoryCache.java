@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: RemoteDirectoryCache.java
+ * Last modified: 19/10/2026, 11:47
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.Assert;
+import org.springframework.stereotype.Component;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jmpsl.file.FileEnv;
+import org.jmpsl.file.FileUtil;
+
+/**
+ * Spring Bean component storing bounded, TTL-based cache of known remote directories and their file listings (keyed
+ * by normalized remote path). Cache is consulted before performing <code>ls</code> command on external server and is
+ * updated after every write performed through JMPSL. On cache miss, expired entry or failed remote action, the client
+ * should fall back to the server and invalidate the stale path. Before run application, optionally declare following
+ * properties in <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.file.directory-cache.active</code> - enable directory cache, by default true</li>
+ *     <li><code>jmpsl.file.directory-cache.max-entries</code> - max count of cached directories, by default 1000</li>
+ *     <li><code>jmpsl.file.directory-cache.ttl-seconds</code> - time to live of single cache entry, by default 300</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Component
+public class RemoteDirectoryCache {
+
+    private final boolean active;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, CachedDirectory> directories;
+
+    RemoteDirectoryCache(Environment env) {
+        active = FileEnv.__JFM_DIR_CACHE_ACTIVE.getProperty(env, Boolean.class);
+        maxEntries = FileEnv.__JFM_DIR_CACHE_MAX_ENTRIES.getProperty(env, Integer.class);
+        ttlNanos = TimeUnit.SECONDS.toNanos(FileEnv.__JFM_DIR_CACHE_TTL_SECONDS.getProperty(env, Long.class));
+        if (maxEntries < 1 || ttlNanos < 1) {
+            throw new IllegalArgumentException("Directory cache max entries and ttl properties cannot be less than 1");
+        }
+        directories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedDirectory> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        log.info("Successful initialized remote directory cache. Active: {}, max entries: {}, ttl: {}s",
+            active, maxEntries, TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+    }
+
+    /**
+     * Method responsible for returning cached file names located in passed remote directory. If directory is not
+     * cached, cache is disabled or entry expired, return empty {@link Optional} (caller should fall back to server).
+     *
+     * @param path remote directory path
+     * @return optional immutable set of file and directory names located in passed directory
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public Optional<Set<String>> getListing(String path) {
+        final CachedDirectory directory = getValidEntry(normalizePath(path));
+        if (Objects.isNull(directory) || Objects.isNull(directory.names())) return Optional.empty();
+        return Optional.of(directory.names());
+    }
+
+    /**
+     * Method responsible for checking, if passed remote directory is known as existing (was listed or created through
+     * JMPSL and entry does not expired yet).
+     *
+     * @param path remote directory path
+     * @return true, if directory is known as existing, otherwise false
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public boolean isKnownDirectory(String path) {
+        return Objects.nonNull(getValidEntry(normalizePath(path)));
+    }
+
+    /**
+     * Method responsible for inserting (or replacing) full file listing of passed remote directory, grabbed directly
+     * from external server.
+     *
+     * @param path remote directory path
+     * @param names all file and directory names located in passed directory
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path or names collection is null
+     */
+    public void putListing(String path, Collection<String> names) {
+        Assert.notNull(names, "Directory names collection cannot be null.");
+        if (!active) return;
+        final String normalizedPath = normalizePath(path);
+        synchronized (directories) {
+            directories.put(normalizedPath, new CachedDirectory(Set.copyOf(names), expiresAt()));
+        }
+    }
+
+    /**
+     * Method responsible for marking directory as created through JMPSL. Newly created directory is always empty, so
+     * method store also empty listing and append directory name into parent directory listing (if parent is cached).
+     *
+     * @param parentPath remote parent directory path
+     * @param dirName name of created directory (simple name, without any slashes)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if parent path or directory name is null
+     */
+    public void markDirectoryCreated(String parentPath, String dirName) {
+        Assert.notNull(dirName, "Directory name cannot be null.");
+        if (!active) return;
+        addEntry(parentPath, dirName);
+        synchronized (directories) {
+            directories.put(normalizePath(parentPath + "/" + dirName), new CachedDirectory(Set.of(), expiresAt()));
+        }
+    }
+
+    /**
+     * Method responsible for marking directory as known existing directory (without grabbing its listing). Method
+     * append directory name into parent directory listing (if parent is cached). If directory is already cached,
+     * skipped.
+     *
+     * @param path remote directory path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public void markDirectoryExisting(String path) {
+        if (!active) return;
+        final String normalizedPath = normalizePath(path);
+        final int separatorIndex = normalizedPath.lastIndexOf('/');
+        if (separatorIndex > 0) {
+            addEntry(normalizedPath.substring(0, separatorIndex), normalizedPath.substring(separatorIndex + 1));
+        }
+        synchronized (directories) {
+            if (Objects.nonNull(getValidEntry(normalizedPath))) return;
+            directories.put(normalizedPath, new CachedDirectory(null, expiresAt()));
+        }
+    }
+
+    /**
+     * Method responsible for appending single file name into cached directory listing (after successful put action).
+     * If directory is not cached, skipped.
+     *
+     * @param path remote directory path
+     * @param name appended file or directory name
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path or name is null
+     */
+    public void addEntry(String path, String name) {
+        Assert.notNull(name, "Entry name cannot be null.");
+        updateListing(normalizePath(path), name, true);
+    }
+
+    /**
+     * Method responsible for removing single file name from cached directory listing (after successful remove action).
+     * If directory is not cached, skipped.
+     *
+     * @param path remote directory path
+     * @param name removed file or directory name
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path or name is null
+     */
+    public void removeEntry(String path, String name) {
+        Assert.notNull(name, "Entry name cannot be null.");
+        updateListing(normalizePath(path), name, false);
+    }
+
+    /**
+     * Method responsible for invalidating cached directory (and all cached subdirectories). Should be invoked after
+     * failed remote action, where cache could be stale.
+     *
+     * @param path remote directory path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public void invalidate(String path) {
+        final String normalizedPath = normalizePath(path);
+        synchronized (directories) {
+            directories.keySet().removeIf(key -> key.equals(normalizedPath) || key.startsWith(normalizedPath + "/"));
+        }
+    }
+
+    /**
+     * Method responsible for clearing all cached directories.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public void invalidateAll() {
+        synchronized (directories) {
+            directories.clear();
+        }
+    }
+
+    /**
+     * @return true, if directory cache is active, otherwise false
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Inner method responsible for returning non-expired cache entry. Expired entry is removed from cache.
+     *
+     * @param normalizedPath normalized remote directory path
+     * @return cache entry or null, if entry not exist or expired
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private CachedDirectory getValidEntry(String normalizedPath) {
+        if (!active) return null;
+        synchronized (directories) {
+            final CachedDirectory directory = directories.get(normalizedPath);
+            if (Objects.isNull(directory)) return null;
+            if (directory.expiresAt() - System.nanoTime() <= 0) {
+                directories.remove(normalizedPath);
+                return null;
+            }
+            return directory;
+        }
+    }
+
+    /**
+     * Inner method responsible for adding or removing single name from cached directory listing. Entry time to live
+     * is not extended.
+     *
+     * @param normalizedPath normalized remote directory path
+     * @param name added or removed file name
+     * @param add true, if name should be added, false if name should be removed
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void updateListing(String normalizedPath, String name, boolean add) {
+        synchronized (directories) {
+            final CachedDirectory directory = getValidEntry(normalizedPath);
+            if (Objects.isNull(directory) || Objects.isNull(directory.names())) return;
+            final Set<String> names = new HashSet<>(directory.names());
+            if (add) {
+                names.add(name);
+            } else {
+                names.remove(name);
+            }
+            directories.put(normalizedPath, new CachedDirectory(Collections.unmodifiableSet(names), directory.expiresAt()));
+        }
+    }
+
+    /**
+     * @return expiration time (in nanoseconds) of newly inserted entry
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private long expiresAt() {
+        return System.nanoTime() + ttlNanos;
+    }
+
+    /**
+     * Static method responsible for normalizing remote path (removing duplicated and trailing slashes), so equal
+     * paths always point to the same cache entry.
+     *
+     * @param path remote path
+     * @return normalized remote path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed path is null
+     */
+    public static String normalizePath(String path) {
+        return FileUtil.normalizePath(path);
+    }
+
+    /**
+     * Simple POJO record storing single cached directory listing and its expiration time (in nanoseconds). If names
+     * set is null, directory is known as existing, but its listing was not grabbed yet.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private record CachedDirectory(Set<String> names, long expiresAt) {
+    }
+}
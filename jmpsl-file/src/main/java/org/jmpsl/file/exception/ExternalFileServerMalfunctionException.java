@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: ExternalFileServerMalfunctionException.java
- * Last modified: 17/03/2023, 16:02
+ * Last modified: 20/10/2026, 05:30
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -26,19 +26,41 @@ package org.jmpsl.file.exception;
 
 import org.springframework.http.HttpStatus;
 
+import org.jmpsl.file.FileUtil;
 import org.jmpsl.core.i18n.LocaleSet;
 import org.jmpsl.core.exception.RestServiceServerException;
 
 /**
  * Custom exception throws after SFTP image sending malfunction. Extended {@link RestServiceServerException}, so return
- * JSON object in response body part.
+ * JSON object in response body part. Exception created from storage failure stores its cause and information, if
+ * failure is transient (see {@link FileUtil#isTransientStorageFailure(Throwable)}). Only transient failures are
+ * retried and registered in SFTP circuit breaker. Exception created without cause is never transient, so storage
+ * failures must be passed as cause.
  *
  * @author Miłosz Gilga
  * @since 1.0.2
  */
 public class ExternalFileServerMalfunctionException extends RestServiceServerException {
 
+    private final boolean transientFailure;
+
     public ExternalFileServerMalfunctionException() {
         super(HttpStatus.SERVICE_UNAVAILABLE, LocaleSet.FILE_EXTERNAL_FILE_SERVER_MALFUNCTION_EXC);
+        transientFailure = false;
+    }
+
+    public ExternalFileServerMalfunctionException(Throwable cause) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, LocaleSet.FILE_EXTERNAL_FILE_SERVER_MALFUNCTION_EXC);
+        initCause(cause);
+        transientFailure = FileUtil.isTransientStorageFailure(cause);
+    }
+
+    /**
+     * @return true, if storage failure is transient (storage server could be unhealthy), otherwise false
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public boolean isTransientFailure() {
+        return transientFailure;
     }
 }
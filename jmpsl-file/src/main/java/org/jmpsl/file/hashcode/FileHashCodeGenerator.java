@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: FileHashCodeGenerator.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 19/10/2026, 21:05
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -25,13 +25,15 @@
 package org.jmpsl.file.hashcode;
 
 import org.springframework.util.Assert;
-import org.apache.commons.lang3.RandomStringUtils;
 
-import java.util.regex.Pattern;
+import org.jmpsl.core.random.RandomSource;
+import org.jmpsl.core.random.SequenceAlphabet;
+import org.jmpsl.core.random.RandomSequenceEngine;
 
 /**
  * Class storing methods responsible for generate hash (random characters blocks separated with declared separator) and
- * checked hash pattern.
+ * checked hash pattern. Hash codes are generated by {@link RandomSequenceEngine} from cryptographically strong
+ * per-thread generators and validated with precompiled alphabet lookup table (without compiling regular expressions).
  *
  * @author Miłosz Gilga
  * @since 1.0.2
@@ -52,13 +54,16 @@ public class FileHashCodeGenerator {
      * @since 1.0.2
      */
     public static String generateHashCode(char separator, byte countOfBlocks, byte blockLength) {
-        final StringBuilder builder = new StringBuilder();
+        if (countOfBlocks <= 0) return "";
+        final char[] hashCode = new char[countOfBlocks * (blockLength + 1) - 1];
         for (int i = 0; i < countOfBlocks; i++) {
-            builder.append(RandomStringUtils.randomAlphanumeric(blockLength));
+            final int blockOffset = i * (blockLength + 1);
+            RandomSequenceEngine.fill(hashCode, blockOffset, blockLength, SequenceAlphabet.ALPHANUMERIC,
+                RandomSource.SECURE);
             if (i == countOfBlocks - 1) break;
-            builder.append(separator);
+            hashCode[blockOffset + blockLength] = separator;
         }
-        return builder.toString();
+        return new String(hashCode);
     }
 
     /**
@@ -88,14 +93,16 @@ public class FileHashCodeGenerator {
      */
     public static boolean hashCodeIsValid(String hashCode, char separator, byte countOfBlocks, byte blockLength) {
         Assert.notNull(hashCode, "Hash code parameter cannot be null.");
-        final StringBuilder regexPattern = new StringBuilder();
-        for (int i = 0; i < countOfBlocks; i++) {
-            regexPattern.append(String.format("[a-zA-Z0-9]{%s}", blockLength));
-            if (i == countOfBlocks - 1) break;
-            regexPattern.append(separator);
+        if (countOfBlocks <= 0) return hashCode.isEmpty();
+        if (hashCode.length() != countOfBlocks * (blockLength + 1) - 1) return false;
+        for (int i = 0; i < hashCode.length(); i++) {
+            final char character = hashCode.charAt(i);
+            final boolean isSeparatorPosition = (i + 1) % (blockLength + 1) == 0;
+            if (isSeparatorPosition ? character != separator : !SequenceAlphabet.ALPHANUMERIC.contains(character)) {
+                return false;
+            }
         }
-        final Pattern generatedPattern = Pattern.compile(regexPattern.toString());
-        return generatedPattern.matcher(hashCode).matches();
+        return true;
     }
 
     /**
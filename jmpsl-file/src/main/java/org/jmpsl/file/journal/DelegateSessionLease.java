@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: DelegateSessionLease.java
+ * Last modified: 20/10/2026, 04:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.journal;
+
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import org.jmpsl.file.storage.IFileStorage;
+import org.jmpsl.file.storage.IFileStorageSession;
+
+/**
+ * Package-private class holding single session of decorated storage, which is lazily opened by first reading action
+ * of {@link WriteBehindFileStorageSession} and reused by all next reading actions (so reading actions do not open new
+ * connection for every single read). Because storage sessions are opened in callbacks, session is held by separate
+ * holder thread, which waits until lease is closed.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class DelegateSessionLease implements Closeable {
+
+    private final IFileStorage storage;
+    private final ExecutorService holderExecutor;
+    private final CompletableFuture<IFileStorageSession> session = new CompletableFuture<>();
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private Future<?> holder;
+
+    DelegateSessionLease(IFileStorage storage, ExecutorService holderExecutor) {
+        this.storage = storage;
+        this.holderExecutor = holderExecutor;
+    }
+
+    /**
+     * Method responsible for returning held session of decorated storage. Session is opened on first invocation.
+     *
+     * @return opened {@link IFileStorageSession} instance
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to open session or lease was already closed
+     */
+    synchronized IFileStorageSession acquire() throws IOException {
+        if (released.getCount() == 0) throw new IOException("Decorated storage session lease is already closed.");
+        try {
+            if (Objects.isNull(holder)) {
+                holder = holderExecutor.submit(this::holdSession);
+            }
+            return session.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while opening decorated storage session.");
+        } catch (ExecutionException ex) {
+            throw new IOException("Unable to open decorated storage session.", ex.getCause());
+        } catch (RejectedExecutionException ex) {
+            throw new IOException("Write-behind file storage is already closed.", ex);
+        }
+    }
+
+    /**
+     * Method responsible for closing held session of decorated storage (waits, until holder thread closes session).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @Override
+    public synchronized void close() {
+        released.countDown();
+        if (Objects.isNull(holder)) return;
+        try {
+            holder.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+            // failure of opening session is already reported in acquire method
+        }
+    }
+
+    private void holdSession() {
+        try {
+            storage.performInSession(openedSession -> {
+                session.complete(openedSession);
+                try {
+                    released.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        } catch (RuntimeException ex) {
+            session.completeExceptionally(ex);
+        } finally {
+            session.completeExceptionally(new IOException("Decorated storage session was closed."));
+        }
+    }
+}
@@ -0,0 +1,548 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: FileJournal.java
+ * Last modified: 20/10/2026, 05:35
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.ArrayList;
+import java.util.NavigableMap;
+import java.util.zip.CRC32;
+import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ScheduledExecutorService;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Local append-only journal of storage actions, divided into segment files (<code>segment-{id}.log</code>). Every
+ * record is saved as: payload length (4 bytes), CRC32 checksum of payload (4 bytes) and payload (record type code,
+ * path, target path and file content, every variable field prefixed by its length).
+ * <p>
+ * Appending is durable with group commit: records are written into active segment under lock and background sync
+ * thread forces segment file to the storage device every sync interval, so single fsync covers all records appended
+ * in this interval. Appending thread waits only for the nearest fsync. If sync interval is 0, every record is forced
+ * directly by appending thread.
+ * <p>
+ * Drained position is saved in <code>checkpoint</code> file (atomically replaced). Segments located before drained
+ * position are removed (compaction). After application crash, journal is replayed from saved checkpoint, and partially
+ * written record at the end of last segment (torn write) is truncated.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+public class FileJournal implements Closeable {
+
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final long maxSegmentSize;
+    private final long syncIntervalMs;
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final AtomicLong pendingRecords = new AtomicLong();
+    private final Object syncMonitor = new Object();
+    private final ScheduledExecutorService syncScheduler;
+
+    private FileChannel activeChannel;
+    private long activeSegmentId;
+    private long appendedSequence;
+    private long syncedSequence;
+    private long failedSequence;
+    private IOException syncFailure;
+    private JournalPosition checkpoint;
+    private volatile boolean closed;
+
+    public FileJournal(Path directory, long maxSegmentSize, long syncIntervalMs) throws IOException {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.syncIntervalMs = syncIntervalMs;
+        Files.createDirectories(directory);
+        recover();
+        if (syncIntervalMs > 0) {
+            syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "jmpsl-file-journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncScheduler.scheduleWithFixedDelay(this::sync, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            syncScheduler = null;
+        }
+    }
+
+    /**
+     * Method responsible for appending record at the end of journal. Method returns after record was forced to the
+     * storage device (together with other records appended in the same sync interval).
+     *
+     * @param record {@link JournalRecord} instance to append
+     * @return journal position of appended record (record could be read from this position)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to write or force record or journal is closed
+     */
+    public JournalPosition append(JournalRecord record) throws IOException {
+        final ByteBuffer buffer = encodeRecord(record);
+        final long sequence;
+        final JournalPosition position;
+        synchronized (this) {
+            if (closed) throw new ClosedChannelException();
+            if (activeChannel.position() > 0 && activeChannel.position() + buffer.remaining() > maxSegmentSize) {
+                rollSegment();
+            }
+            position = new JournalPosition(activeSegmentId, activeChannel.position());
+            while (buffer.hasRemaining()) {
+                activeChannel.write(buffer);
+            }
+            if (syncIntervalMs <= 0) {
+                activeChannel.force(false);
+            }
+            sequence = ++appendedSequence;
+            pendingRecords.incrementAndGet();
+        }
+        if (syncIntervalMs > 0) {
+            awaitSync(sequence);
+        }
+        return position;
+    }
+
+    /**
+     * Method responsible for reading records located after passed position (max passed count of records or passed
+     * count of content bytes, but always at least single record). Every read record stores position directly after
+     * itself, which could be committed after applying record.
+     *
+     * @param position journal position, from which records will be read
+     * @param maxRecords max count of read records
+     * @param maxBytes max summary size of files contents in read records
+     * @return list of read {@link JournalRecord} instances (empty, if there are no records after passed position)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read segment files or segment file is corrupted
+     */
+    public List<JournalRecord> read(JournalPosition position, int maxRecords, long maxBytes) throws IOException {
+        final List<JournalRecord> records = new ArrayList<>();
+        final NavigableMap<Long, Path> readSegments;
+        final JournalPosition writePosition;
+        synchronized (this) {
+            readSegments = new TreeMap<>(segments.tailMap(position.segmentId(), true));
+            writePosition = new JournalPosition(activeSegmentId, activeChannel.position());
+        }
+        long readBytes = 0;
+        long offset = position.offset();
+        for (final var segment : readSegments.entrySet()) {
+            if (segment.getKey() > position.segmentId()) offset = 0;
+            final long segmentLimit = segment.getKey() == writePosition.segmentId()
+                ? writePosition.offset() : Files.size(segment.getValue());
+            try (final FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                while (offset < segmentLimit && records.size() < maxRecords
+                    && (records.isEmpty() || readBytes < maxBytes)) {
+                    final JournalRecord record = readRecord(channel, segment.getKey(), offset, segmentLimit);
+                    if (Objects.isNull(record)) {
+                        throw new IOException("Corrupted journal segment: " + segment.getValue() + " at " + offset);
+                    }
+                    records.add(record);
+                    readBytes += Objects.isNull(record.bytes()) ? 0 : record.bytes().length;
+                    offset = record.nextPosition().offset();
+                }
+            }
+            if (records.size() >= maxRecords || (!records.isEmpty() && readBytes >= maxBytes)) break;
+        }
+        return records;
+    }
+
+    /**
+     * Method responsible for saving drained position in checkpoint file and removing all segments located before
+     * saved position (compaction).
+     *
+     * @param position journal position directly after last applied record
+     * @param recordsCount count of applied records
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to save checkpoint file
+     */
+    public synchronized void commit(JournalPosition position, int recordsCount) throws IOException {
+        final Path tempCheckpoint = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        final String content = position.segmentId() + " " + position.offset();
+        try (final FileChannel channel = FileChannel.open(tempCheckpoint, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(tempCheckpoint, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+        checkpoint = position;
+        pendingRecords.addAndGet(-recordsCount);
+
+        final NavigableMap<Long, Path> compactedSegments = segments.headMap(position.segmentId(), false);
+        for (final Path segment : compactedSegments.values()) {
+            Files.deleteIfExists(segment);
+        }
+        if (!compactedSegments.isEmpty()) {
+            log.debug("Compacted {} drained journal segments.", compactedSegments.size());
+        }
+        compactedSegments.clear();
+    }
+
+    /**
+     * @return journal position directly after last drained (committed) record
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public synchronized JournalPosition getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * @return count of appended and not drained (committed) records
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public long getPendingRecordsCount() {
+        return pendingRecords.get();
+    }
+
+    /**
+     * Method responsible for closing journal. Force active segment and stop sync thread. Threads waiting for sync are
+     * released.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to force or close active segment
+     */
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(syncScheduler)) {
+            syncScheduler.shutdownNow();
+        }
+        synchronized (this) {
+            closed = true;
+            activeChannel.force(false);
+            activeChannel.close();
+        }
+        synchronized (syncMonitor) {
+            syncedSequence = Long.MAX_VALUE;
+            syncMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Inner method invoked by sync thread. Force active segment file (single fsync for all records appended from last
+     * sync) and release waiting appending threads. If unable to force segment, threads waiting for not synced records
+     * are released with failure.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void sync() {
+        final long sequence;
+        final FileChannel channel;
+        synchronized (this) {
+            sequence = appendedSequence;
+            channel = activeChannel;
+        }
+        synchronized (syncMonitor) {
+            if (sequence <= syncedSequence) return;
+        }
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException ex) {
+            // segment was rolled (and forced before closing) or journal was closed
+        } catch (IOException ex) {
+            log.error("Unable to force journal segment. Cause: {}", ex.getMessage());
+            synchronized (syncMonitor) {
+                failedSequence = Math.max(failedSequence, sequence);
+                syncFailure = ex;
+                syncMonitor.notifyAll();
+            }
+            return;
+        }
+        synchronized (syncMonitor) {
+            syncedSequence = Math.max(syncedSequence, sequence);
+            syncMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Inner method responsible for waiting, until record with passed sequence number will be forced to the storage
+     * device.
+     *
+     * @param sequence appended record sequence number
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws InterruptedIOException if waiting thread was interrupted
+     * @throws IOException if sync thread was unable to force segment with appended record
+     */
+    private void awaitSync(long sequence) throws IOException {
+        synchronized (syncMonitor) {
+            while (syncedSequence < sequence) {
+                if (sequence <= failedSequence) {
+                    throw new IOException("Unable to force journal record to the storage device.", syncFailure);
+                }
+                try {
+                    syncMonitor.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for journal sync");
+                }
+            }
+        }
+    }
+
+    /**
+     * Inner method responsible for closing active segment (after forcing) and creating next segment file. Invoked
+     * only with journal lock.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to force, close or create segment file
+     */
+    private void rollSegment() throws IOException {
+        activeChannel.force(false);
+        activeChannel.close();
+        openSegment(activeSegmentId + 1, false);
+    }
+
+    /**
+     * Inner method responsible for opening segment file in append mode and setting it as active segment.
+     *
+     * @param segmentId segment identifier
+     * @param existing true, if segment file already exist (recovered segment)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to open segment file
+     */
+    private void openSegment(long segmentId, boolean existing) throws IOException {
+        final Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentId, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        activeChannel.position(existing ? activeChannel.size() : 0);
+        activeSegmentId = segmentId;
+        segments.put(segmentId, segment);
+    }
+
+    /**
+     * Inner method responsible for recovering journal state after application start (or crash). Load segments and
+     * checkpoint file, remove already drained segments, validate all not drained records (count pending records) and
+     * truncate partially written record at the end of last segment.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read journal directory or segment file in the middle of journal is corrupted
+     */
+    private void recover() throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> {
+                final String name = file.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(file -> {
+                final String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                    name.length() - SEGMENT_SUFFIX.length())), file);
+            });
+        }
+        checkpoint = readCheckpoint();
+        final NavigableMap<Long, Path> drainedSegments = segments.headMap(checkpoint.segmentId(), false);
+        for (final Path segment : drainedSegments.values()) {
+            Files.deleteIfExists(segment);
+        }
+        drainedSegments.clear();
+
+        long recoveredRecords = 0;
+        for (final var segment : segments.entrySet()) {
+            final boolean isLastSegment = segment.getKey().equals(segments.lastKey());
+            long offset = segment.getKey() == checkpoint.segmentId() ? checkpoint.offset() : 0;
+            try (final FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                final long size = channel.size();
+                while (offset < size) {
+                    final JournalRecord record = readRecord(channel, segment.getKey(), offset, size);
+                    if (Objects.isNull(record)) break;
+                    offset = record.nextPosition().offset();
+                    recoveredRecords++;
+                }
+                if (offset < size) {
+                    if (!isLastSegment) {
+                        throw new IOException("Corrupted journal segment: " + segment.getValue() + " at " + offset);
+                    }
+                    log.warn("Truncated torn write at the end of journal segment: {}. Lost bytes: {}",
+                        segment.getValue(), size - offset);
+                    channel.truncate(offset);
+                    channel.force(true);
+                }
+            }
+        }
+        pendingRecords.set(recoveredRecords);
+        if (segments.isEmpty()) {
+            openSegment(checkpoint.segmentId(), false);
+        } else {
+            openSegment(segments.lastKey(), true);
+        }
+        if (recoveredRecords > 0) {
+            log.info("Recovered file journal with {} not drained records. Journal directory: {}", recoveredRecords,
+                directory);
+        }
+    }
+
+    /**
+     * Inner method responsible for reading checkpoint file. If checkpoint file not exist, return position of the
+     * first segment.
+     *
+     * @return saved drained position
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read checkpoint file
+     */
+    private JournalPosition readCheckpoint() throws IOException {
+        final Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpointFile)) {
+            return new JournalPosition(segments.isEmpty() ? 0 : segments.firstKey(), 0);
+        }
+        final String[] content = Files.readString(checkpointFile, StandardCharsets.US_ASCII).trim().split(" ");
+        return new JournalPosition(Long.parseLong(content[0]), Long.parseLong(content[1]));
+    }
+
+    /**
+     * Inner method responsible for reading single record from segment file. If record is incomplete or checksum is not
+     * valid, return null.
+     *
+     * @param channel segment file channel
+     * @param segmentId segment identifier
+     * @param offset record offset in segment file
+     * @param limit segment readable size
+     * @return read {@link JournalRecord} instance or null, if record is incomplete or corrupted
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read segment file
+     */
+    private static JournalRecord readRecord(FileChannel channel, long segmentId, long offset, long limit)
+            throws IOException {
+        if (offset + RECORD_HEADER_SIZE > limit) return null;
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(channel, header, offset);
+        final int payloadLength = header.getInt(0);
+        final int checksum = header.getInt(4);
+        if (payloadLength <= 0 || offset + RECORD_HEADER_SIZE + payloadLength > limit) return null;
+
+        final ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        readFully(channel, payload, offset + RECORD_HEADER_SIZE);
+        final CRC32 crc32 = new CRC32();
+        crc32.update(payload.array());
+        if ((int) crc32.getValue() != checksum) return null;
+
+        final JournalRecordType type = JournalRecordType.findByCode(payload.get());
+        final String path = readString(payload);
+        final String targetPath = readString(payload);
+        final byte[] bytes = readBytes(payload);
+        return new JournalRecord(type, path, targetPath, bytes,
+            new JournalPosition(segmentId, offset + RECORD_HEADER_SIZE + payloadLength));
+    }
+
+    /**
+     * Inner method responsible for encoding record (with header) into byte buffer.
+     *
+     * @param record {@link JournalRecord} instance to encode
+     * @return byte buffer ready to write into segment file
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static ByteBuffer encodeRecord(JournalRecord record) {
+        final byte[] path = toBytes(record.path());
+        final byte[] targetPath = toBytes(record.targetPath());
+        final int payloadLength = 1 + lengthOf(path) + lengthOf(targetPath) + lengthOf(record.bytes());
+        final ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadLength);
+        buffer.putInt(payloadLength).putInt(0).put(record.type().getCode());
+        putBytes(buffer, path);
+        putBytes(buffer, targetPath);
+        putBytes(buffer, record.bytes());
+
+        final CRC32 crc32 = new CRC32();
+        crc32.update(buffer.array(), RECORD_HEADER_SIZE, payloadLength);
+        buffer.putInt(4, (int) crc32.getValue());
+        return buffer.flip();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of journal segment");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static byte[] toBytes(String value) {
+        return Objects.isNull(value) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int lengthOf(byte[] value) {
+        return Integer.BYTES + (Objects.isNull(value) ? 0 : value.length);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (Objects.isNull(value)) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length).put(value);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) return null;
+        final byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final byte[] value = readBytes(buffer);
+        return Objects.isNull(value) ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: JournalRecord.java
+ * Last modified: 19/10/2026, 16:10
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.journal;
+
+/**
+ * Simple POJO record storing single storage action saved in {@link FileJournal}.
+ *
+ * <ul>
+ *     <li><code>type</code> - storage action type</li>
+ *     <li><code>path</code> - full file or directory path</li>
+ *     <li><code>targetPath</code> - full target file path (only for rename action, otherwise null)</li>
+ *     <li><code>bytes</code> - file content (only for put action, otherwise null)</li>
+ *     <li><code>nextPosition</code> - journal position directly after this record (null for not saved records)</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public record JournalRecord(
+    JournalRecordType type, String path, String targetPath, byte[] bytes, JournalPosition nextPosition
+) {
+    public JournalRecord(JournalRecordType type, String path, String targetPath, byte[] bytes) {
+        this(type, path, targetPath, bytes, null);
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{type=" + type + ", path=" + path + ", targetPath=" + targetPath + "}";
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: JournalRecordType.java
+ * Last modified: 19/10/2026, 16:10
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.journal;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Enum set of all storage actions types, which could be stored in {@link FileJournal}. Every type has single byte
+ * code saved in journal segment files (codes cannot be changed, because journal must be readable after upgrade).
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Getter
+@AllArgsConstructor
+public enum JournalRecordType {
+
+    /**
+     * Save (or overwrite) file.
+     *
+     * @since 1.0.2
+     */
+    PUT((byte) 1),
+
+    /**
+     * Remove file.
+     *
+     * @since 1.0.2
+     */
+    DELETE((byte) 2),
+
+    /**
+     * Rename (move) file.
+     *
+     * @since 1.0.2
+     */
+    RENAME((byte) 3),
+
+    /**
+     * Create directory (and all non-existing parent directories).
+     *
+     * @since 1.0.2
+     */
+    MKDIRS((byte) 4);
+
+    /**
+     * Single byte code saved in journal segment files.
+     *
+     * @since 1.0.2
+     */
+    private final byte code;
+
+    /**
+     * Static method responsible for finding record type based byte code saved in journal segment file.
+     *
+     * @param code single byte code
+     * @return found {@link JournalRecordType} enum type
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if record type with passed code not exist
+     */
+    public static JournalRecordType findByCode(byte code) {
+        return Arrays.stream(values())
+            .filter(type -> type.code == code)
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Not supported journal record type code: " + code));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: PendingWritesOverlay.java
+ * Last modified: 20/10/2026, 04:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.journal;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.Optional;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.NavigableMap;
+
+import org.jmpsl.file.FileUtil;
+
+/**
+ * Package-private class storing in-memory view of journal records, which were appended and not drained yet (keyed by
+ * normalized path). Used by {@link WriteBehindFileStorageSession} for reading actions, so reading actions see not
+ * drained writes (read-your-writes). Files contents are not stored in memory, only journal positions of put records
+ * (content is read directly from {@link FileJournal}). Entry is removed, when record, which created it, was drained.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class PendingWritesOverlay {
+
+    private final NavigableMap<String, PendingEntry> entries = new TreeMap<>();
+    private final ArrayDeque<DrainMarker> drainMarkers = new ArrayDeque<>();
+
+    /**
+     * Method responsible for applying appended journal record. Put record creates file entry (pointing on journal
+     * position of record), delete record creates removed file entry, mkdirs record creates directory entry and rename
+     * record moves entry of source path into target path (or creates entry pointing on source path in decorated
+     * storage) and creates removed file entry for source path. Older records (appended concurrently) never replace
+     * entries created by newer records.
+     *
+     * @param record appended {@link JournalRecord} instance
+     * @param position journal position of appended record
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized void apply(JournalRecord record, JournalPosition position) {
+        final String path = FileUtil.normalizePath(record.path());
+        final long now = System.currentTimeMillis();
+        switch (record.type()) {
+            case PUT -> putEntry(new PendingEntry(JournalRecordType.PUT, path, path, position,
+                record.bytes().length, position, now));
+            case DELETE -> putEntry(new PendingEntry(JournalRecordType.DELETE, path, null, null, 0, position, now));
+            case MKDIRS -> putEntry(new PendingEntry(JournalRecordType.MKDIRS, path, null, null, 0, position, now));
+            case RENAME -> {
+                final String targetPath = FileUtil.normalizePath(record.targetPath());
+                final PendingEntry sourceEntry = entries.get(path);
+                if (Objects.isNull(sourceEntry) || sourceEntry.type() == JournalRecordType.MKDIRS) {
+                    putEntry(new PendingEntry(JournalRecordType.RENAME, targetPath, path, null, 0, position, now));
+                } else if (sourceEntry.type() != JournalRecordType.DELETE) {
+                    putEntry(new PendingEntry(sourceEntry.type(), targetPath, sourceEntry.sourcePath(),
+                        sourceEntry.contentPosition(), sourceEntry.size(), position, now));
+                }
+                putEntry(new PendingEntry(JournalRecordType.DELETE, path, null, null, 0, position, now));
+            }
+        }
+    }
+
+    /**
+     * Method responsible for removing entries created by already drained records.
+     *
+     * @param checkpoint journal position directly after last drained record
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized void removeDrained(JournalPosition checkpoint) {
+        while (!drainMarkers.isEmpty() && drainMarkers.peekFirst().position().compareTo(checkpoint) < 0) {
+            final DrainMarker marker = drainMarkers.removeFirst();
+            final PendingEntry entry = entries.get(marker.path());
+            if (Objects.nonNull(entry) && entry.position().equals(marker.position())) {
+                entries.remove(marker.path());
+            }
+        }
+    }
+
+    /**
+     * Method responsible for finding not drained entry of passed path.
+     *
+     * @param path file or directory path
+     * @return optional entry (empty, if there are no not drained records for passed path)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized Optional<PendingEntry> find(String path) {
+        return Optional.ofNullable(entries.get(FileUtil.normalizePath(path)));
+    }
+
+    /**
+     * Method responsible for finding all not drained entries located in passed directory (also in nested directories).
+     *
+     * @param directory directory path
+     * @return list of entries located in passed directory
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized List<PendingEntry> findDescendants(String directory) {
+        final String normalizedDirectory = FileUtil.normalizePath(directory);
+        final String prefix = normalizedDirectory.endsWith("/") ? normalizedDirectory : normalizedDirectory + "/";
+        return new ArrayList<>(entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+    }
+
+    /**
+     * @return count of not drained entries
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void putEntry(PendingEntry entry) {
+        final PendingEntry previous = entries.get(entry.path());
+        if (Objects.nonNull(previous) && previous.position().compareTo(entry.position()) > 0) return;
+        entries.put(entry.path(), entry);
+        drainMarkers.addLast(new DrainMarker(entry.path(), entry.position()));
+    }
+
+    /**
+     * Static method responsible for grouping passed entries by name of child resource located directly in passed
+     * directory (entries located in nested directories are grouped by name of nested directory).
+     *
+     * @param directory directory path
+     * @param descendants entries located in passed directory
+     * @return entries grouped by name of child resource
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    static Map<String, List<PendingEntry>> groupByChildName(String directory, List<PendingEntry> descendants) {
+        final String normalizedDirectory = FileUtil.normalizePath(directory);
+        final int prefixLength = normalizedDirectory.endsWith("/")
+            ? normalizedDirectory.length() : normalizedDirectory.length() + 1;
+        final Map<String, List<PendingEntry>> children = new TreeMap<>();
+        for (final PendingEntry entry : descendants) {
+            final String relativePath = entry.path().substring(prefixLength);
+            final int separatorIndex = relativePath.indexOf('/');
+            final String childName = separatorIndex < 0 ? relativePath : relativePath.substring(0, separatorIndex);
+            children.computeIfAbsent(childName, key -> new ArrayList<>()).add(entry);
+        }
+        return children;
+    }
+
+    /**
+     * Simple POJO record storing single not drained entry.
+     *
+     * <ul>
+     *     <li><code>type</code> - PUT (file), DELETE (removed file), MKDIRS (directory) or RENAME (file located in
+     *     decorated storage in source path)</li>
+     *     <li><code>path</code> - normalized path</li>
+     *     <li><code>sourcePath</code> - path of journal put record (PUT) or decorated storage file path (RENAME)</li>
+     *     <li><code>contentPosition</code> - journal position of put record with file content (only for PUT)</li>
+     *     <li><code>size</code> - file size (only for PUT)</li>
+     *     <li><code>position</code> - journal position of the last record, which modified entry</li>
+     *     <li><code>lastModified</code> - entry modification time in milliseconds from epoch</li>
+     * </ul>
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    record PendingEntry(
+        JournalRecordType type, String path, String sourcePath, JournalPosition contentPosition, long size,
+        JournalPosition position, long lastModified
+    ) {
+    }
+
+    private record DrainMarker(String path, JournalPosition position) {
+    }
+}
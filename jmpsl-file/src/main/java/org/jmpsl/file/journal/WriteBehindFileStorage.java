@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: WriteBehindFileStorage.java
+ * Last modified: 20/10/2026, 05:35
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.io.IOException;
+
+import org.jmpsl.file.FileUtil;
+import org.jmpsl.file.storage.IFileStorage;
+import org.jmpsl.file.storage.FileBatchResult;
+import org.jmpsl.file.storage.FileStorageType;
+import org.jmpsl.file.storage.FileBatchOperation;
+import org.jmpsl.file.storage.IFileStorageExecutor;
+import org.jmpsl.file.storage.IFileStorageParallelExecutor;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+/**
+ * {@link IFileStorage} decorator implementing write-behind mode (for deployments accepting eventual consistency of
+ * file storage). All writing actions (put, delete, rename, mkdirs) are appended into local {@link FileJournal} and
+ * method returns directly after journal fsync, without connecting with remote storage. Not drained writes are kept in
+ * {@link PendingWritesOverlay}, which is applied on top of decorated storage by reading actions (read-your-writes).
+ * Reading actions of single session share one lazily opened session of decorated storage.
+ * <p>
+ * Background drain thread reads journal in batches (from last checkpoint) and applies records into decorated storage
+ * in single idempotent session (put, delete and mkdirs actions as pipelined storage batch). After successful batch,
+ * checkpoint is moved and drained segments are compacted. If session or any record fails with not permanent failure
+ * (ex. lost connection, timeout), checkpoint is not moved and batch is repeated in next drain cycle. Only records
+ * failed permanently (not existing path, denied access) are skipped and logged. Records are drained by single thread
+ * in journal order, so actions on the same path always preserve order.
+ * <p>
+ * Parallel sessions (used by chunked transfers of large files and bulk jobs) bypass journal. Before opening parallel
+ * sessions, journal is drained (so journaled actions on the same paths are not applied after parallel sessions
+ * actions) and no records are drained, until all parallel sessions are closed. If journal could not be drained,
+ * parallel sessions are not opened.
+ * <p>
+ * Storage views with custom storage for reading actions (ex. scheduled with transfer priority) could be created by
+ * {@link #withReadStorage} method, and drain could be performed in custom storage declared by
+ * {@link #setDrainStorage} method. All views share the same journal and not drained writes overlay.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+public class WriteBehindFileStorage implements IFileStorage, DisposableBean {
+
+    private static final long MAX_DRAIN_BATCH_BYTES = 32L * 1024 * 1024;
+
+    private final IFileStorage delegate;
+    private final FileJournal journal;
+    private final int drainBatchSize;
+    private final PendingWritesOverlay overlay = new PendingWritesOverlay();
+    private final ScheduledExecutorService drainScheduler;
+    private final ExecutorService readSessionExecutor;
+    private final ReentrantReadWriteLock parallelSessionsLock = new ReentrantReadWriteLock();
+    private volatile IFileStorage drainStorage;
+
+    public WriteBehindFileStorage(
+        IFileStorage delegate, FileJournal journal, int drainBatchSize, long drainIntervalMs
+    ) throws IOException {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.drainBatchSize = drainBatchSize;
+        drainStorage = delegate;
+        replayPendingRecords();
+        readSessionExecutor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "jmpsl-write-behind-read");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "jmpsl-write-behind-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainScheduler.scheduleWithFixedDelay(this::drain, drainIntervalMs, drainIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void performInSession(IFileStorageExecutor executor) {
+        performInSession(delegate, executor);
+    }
+
+    /**
+     * Parallel sessions (used by chunked transfers of large files) bypass journal and are opened directly in decorated
+     * storage, because journaling of large files would double amount of written bytes. Journal is drained before.
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to drain journal or perform storage action
+     */
+    @Override
+    public void performInParallelSessions(int sessionsCount, IFileStorageParallelExecutor executor) {
+        performInParallelSessions(delegate, sessionsCount, executor);
+    }
+
+    /**
+     * Method responsible for creating view of this storage, which performs reading actions (and parallel sessions) in
+     * passed storage instead of decorated storage. Writing actions of view are appended into the same journal.
+     *
+     * @param readStorage storage used for reading actions and parallel sessions (ex. scheduled decorated storage)
+     * @return {@link IFileStorage} view of this storage
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public IFileStorage withReadStorage(IFileStorage readStorage) {
+        return new ReadStorageView(readStorage);
+    }
+
+    /**
+     * Method responsible for declaring storage, in which journal records are drained (ex. scheduled decorated storage
+     * with background priority). By default, records are drained directly in decorated storage.
+     *
+     * @param drainStorage storage used by drain
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public void setDrainStorage(IFileStorage drainStorage) {
+        this.drainStorage = drainStorage;
+    }
+
+    /**
+     * @return decorated storage
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public IFileStorage getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Inner method responsible for performing action in write-behind session, which performs reading actions in
+     * passed storage.
+     *
+     * @param readStorage storage used for reading actions
+     * @param executor anonymous class from {@link IFileStorageExecutor} interface
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to perform storage action
+     */
+    private void performInSession(IFileStorage readStorage, IFileStorageExecutor executor) {
+        final WriteBehindFileStorageSession session = new WriteBehindFileStorageSession(readStorage, journal, overlay,
+            readSessionExecutor);
+        try {
+            executor.execute(session);
+        } catch (IOException ex) {
+            log.error("Unable to perform action on write-behind file storage. Cause: {}", ex.getMessage());
+            throw new ExternalFileServerMalfunctionException(ex);
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Inner method responsible for draining journal and performing parallel sessions in passed storage. Drain is
+     * blocked, until parallel sessions are closed (parallel sessions do not block each other).
+     *
+     * @param parallelStorage storage used for parallel sessions
+     * @param sessionsCount count of parallel sessions
+     * @param executor anonymous class from {@link IFileStorageParallelExecutor} interface
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to drain journal or perform storage action
+     */
+    private void performInParallelSessions(
+        IFileStorage parallelStorage, int sessionsCount, IFileStorageParallelExecutor executor
+    ) {
+        // nested parallel sessions are opened without drain (journal was drained by outer parallel sessions)
+        if (parallelSessionsLock.getReadHoldCount() == 0 && !drain()) {
+            log.error("Unable to open parallel sessions. Write-behind journal was not drained. Pending records: {}",
+                journal.getPendingRecordsCount());
+            throw new ExternalFileServerMalfunctionException();
+        }
+        parallelSessionsLock.readLock().lock();
+        try {
+            parallelStorage.performInParallelSessions(sessionsCount, executor);
+        } finally {
+            parallelSessionsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Method responsible for applying all not drained journal records into decorated storage (in batches). Invoked
+     * periodically by drain thread, could be also invoked manually (ex. before graceful shutdown). If batch failed,
+     * checkpoint is not moved and draining is stopped (batch is repeated in next invocation). Drain waits, until all
+     * opened parallel sessions are closed (if invoked inside parallel sessions, journal is not drained).
+     *
+     * @return true, if all journal records were drained
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public synchronized boolean drain() {
+        if (parallelSessionsLock.getReadHoldCount() > 0) return false;
+        parallelSessionsLock.writeLock().lock();
+        try {
+            List<JournalRecord> records = journal.read(journal.getCheckpoint(), drainBatchSize, MAX_DRAIN_BATCH_BYTES);
+            while (!records.isEmpty()) {
+                applyRecords(records);
+                journal.commit(records.get(records.size() - 1).nextPosition(), records.size());
+                overlay.removeDrained(journal.getCheckpoint());
+                records = journal.read(journal.getCheckpoint(), drainBatchSize, MAX_DRAIN_BATCH_BYTES);
+            }
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Unable to drain write-behind journal. Pending records: {}. Cause: {}",
+                journal.getPendingRecordsCount(), ex.getMessage());
+            return false;
+        } finally {
+            parallelSessionsLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inner method responsible for applying journal records into drain storage in single idempotent session.
+     * Consecutive put, delete and mkdirs records are executed as single storage batch, rename records are executed
+     * directly (after flushing preceding batch). Permanently failed records are skipped, any other failure aborts
+     * whole batch.
+     *
+     * @param records list of {@link JournalRecord} instances
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to open session in decorated storage or any record
+     *         failed with not permanent failure
+     */
+    private void applyRecords(List<JournalRecord> records) {
+        drainStorage.performIdempotentInSession(session -> {
+            final List<FileBatchOperation> operations = new ArrayList<>();
+            for (final JournalRecord record : records) {
+                switch (record.type()) {
+                    case PUT -> operations.add(FileBatchOperation.put(record.path(), record.bytes()));
+                    case DELETE -> operations.add(FileBatchOperation.delete(record.path()));
+                    case MKDIRS -> operations.add(FileBatchOperation.mkdirs(record.path()));
+                    case RENAME -> {
+                        checkBatchResults(session.executeBatch(operations));
+                        operations.clear();
+                        try {
+                            session.rename(record.path(), record.targetPath());
+                        } catch (IOException ex) {
+                            if (!FileUtil.isPermanentStorageFailure(ex)) throw ex;
+                            log.error("Skipped failed write-behind record: {}. Cause: {}", record, ex.getMessage());
+                        }
+                    }
+                }
+            }
+            checkBatchResults(session.executeBatch(operations));
+        });
+    }
+
+    /**
+     * Inner method responsible for checking results of batch operations. Permanently failed operations are logged and
+     * skipped, other failed operations abort draining.
+     *
+     * @param results list of {@link FileBatchResult} instances
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if any operation failed with not permanent failure
+     */
+    private void checkBatchResults(List<FileBatchResult> results) throws IOException {
+        for (final FileBatchResult result : results) {
+            if (result.successful()) continue;
+            if (!result.permanentFailure()) {
+                throw new IOException("Unable to drain write-behind record: " + result.operation() + ". Cause: "
+                    + result.errorMessage());
+            }
+            log.error("Skipped failed write-behind record: {}. Cause: {}", result.operation(), result.errorMessage());
+        }
+    }
+
+    /**
+     * Inner method responsible for applying all not drained journal records (saved before application restart) into
+     * not drained writes overlay.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read journal
+     */
+    private void replayPendingRecords() throws IOException {
+        JournalPosition position = journal.getCheckpoint();
+        List<JournalRecord> records = journal.read(position, drainBatchSize, MAX_DRAIN_BATCH_BYTES);
+        while (!records.isEmpty()) {
+            for (final JournalRecord record : records) {
+                overlay.apply(record, position);
+                position = record.nextPosition();
+            }
+            records = journal.read(position, drainBatchSize, MAX_DRAIN_BATCH_BYTES);
+        }
+        if (overlay.size() > 0) {
+            log.info("Replayed {} not drained write-behind journal entries.", overlay.size());
+        }
+    }
+
+    /**
+     * Method invoked on Spring context shutdown. Stop drain thread, try to drain all pending records and close journal
+     * (not drained records will be replayed after next application start).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @Override
+    public void destroy() throws IOException {
+        drainScheduler.shutdownNow();
+        readSessionExecutor.shutdownNow();
+        if (!drain()) {
+            log.warn("Closing write-behind journal with {} not drained records.", journal.getPendingRecordsCount());
+        }
+        journal.close();
+    }
+
+    /**
+     * @return count of appended and not drained journal records
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public long getPendingRecordsCount() {
+        return journal.getPendingRecordsCount();
+    }
+
+    @Override
+    public String getRootPath() {
+        return delegate.getRootPath();
+    }
+
+    @Override
+    public String getPublicUrl() {
+        return delegate.getPublicUrl();
+    }
+
+    @Override
+    public FileStorageType getStorageType() {
+        return delegate.getStorageType();
+    }
+
+    /**
+     * View of write-behind storage performing reading actions and parallel sessions in custom storage.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private class ReadStorageView implements IFileStorage {
+
+        private final IFileStorage readStorage;
+
+        private ReadStorageView(IFileStorage readStorage) {
+            this.readStorage = readStorage;
+        }
+
+        @Override
+        public void performInSession(IFileStorageExecutor executor) {
+            WriteBehindFileStorage.this.performInSession(readStorage, executor);
+        }
+
+        @Override
+        public void performInParallelSessions(int sessionsCount, IFileStorageParallelExecutor executor) {
+            WriteBehindFileStorage.this.performInParallelSessions(readStorage, sessionsCount, executor);
+        }
+
+        @Override
+        public String getRootPath() {
+            return WriteBehindFileStorage.this.getRootPath();
+        }
+
+        @Override
+        public String getPublicUrl() {
+            return WriteBehindFileStorage.this.getPublicUrl();
+        }
+
+        @Override
+        public FileStorageType getStorageType() {
+            return WriteBehindFileStorage.this.getStorageType();
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: WriteBehindFileStorageSession.java
+ * Last modified: 20/10/2026, 04:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutorService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+
+import org.jmpsl.file.FileUtil;
+import org.jmpsl.file.storage.IFileStorage;
+import org.jmpsl.file.storage.FileStorageInfo;
+import org.jmpsl.file.storage.FileBatchResult;
+import org.jmpsl.file.storage.FileBatchOperation;
+import org.jmpsl.file.storage.IFileStorageSession;
+import org.jmpsl.file.storage.IFileStorageScanner;
+import org.jmpsl.file.journal.PendingWritesOverlay.PendingEntry;
+
+/**
+ * {@link IFileStorageSession} implementation used by {@link WriteBehindFileStorage}. All writing actions are appended
+ * into {@link FileJournal} and applied into {@link PendingWritesOverlay}. All reading actions check overlay first
+ * (so not drained writes are visible) and then are performed in single session of decorated storage, which is lazily
+ * opened by first reading action and closed together with this session.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+class WriteBehindFileStorageSession implements IFileStorageSession {
+
+    private final IFileStorage readStorage;
+    private final FileJournal journal;
+    private final PendingWritesOverlay overlay;
+    private final ExecutorService readSessionExecutor;
+
+    private DelegateSessionLease readSessionLease;
+
+    WriteBehindFileStorageSession(
+        IFileStorage readStorage, FileJournal journal, PendingWritesOverlay overlay, ExecutorService readSessionExecutor
+    ) {
+        this.readStorage = readStorage;
+        this.journal = journal;
+        this.overlay = overlay;
+        this.readSessionExecutor = readSessionExecutor;
+    }
+
+    @Override
+    public void put(String path, byte[] bytes) throws IOException {
+        append(new JournalRecord(JournalRecordType.PUT, path, null, bytes));
+    }
+
+    @Override
+    public void get(String path, OutputStream outputStream) throws IOException {
+        final PendingFile pendingFile = findPendingFile(path);
+        if (Objects.nonNull(pendingFile.content())) {
+            outputStream.write(pendingFile.content());
+            return;
+        }
+        readFromDelegate(session -> {
+            session.get(pendingFile.delegatePath(), outputStream);
+            return null;
+        });
+    }
+
+    @Override
+    public void writeRange(String path, long offset, byte[] bytes, int length) throws IOException {
+        throw new IOException("Ranged writes are not supported by write-behind session. Use parallel sessions.");
+    }
+
+    @Override
+    public byte[] readRange(String path, long offset, int length) throws IOException {
+        final PendingFile pendingFile = findPendingFile(path);
+        final byte[] content = pendingFile.content();
+        if (Objects.nonNull(content)) {
+            final int from = (int) Math.min(offset, content.length);
+            return Arrays.copyOfRange(content, from, (int) Math.min(content.length, offset + length));
+        }
+        return readFromDelegate(session -> session.readRange(pendingFile.delegatePath(), offset, length));
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        append(new JournalRecord(JournalRecordType.DELETE, path, null, null));
+    }
+
+    @Override
+    public void rename(String sourcePath, String targetPath) throws IOException {
+        append(new JournalRecord(JournalRecordType.RENAME, sourcePath, targetPath, null));
+    }
+
+    /**
+     * Listing of decorated storage is merged with not drained entries located in passed directory. If directory exist
+     * only in not drained entries (unable to list it in decorated storage), only not drained entries are returned.
+     */
+    @Override
+    public List<FileStorageInfo> list(String path) throws IOException {
+        final Map<String, List<PendingEntry>> pendingChildren = PendingWritesOverlay
+            .groupByChildName(path, overlay.findDescendants(path));
+        final boolean pendingDirectory = overlay.find(path)
+            .filter(entry -> entry.type() == JournalRecordType.MKDIRS)
+            .isPresent();
+        List<FileStorageInfo> remoteListing;
+        try {
+            remoteListing = readFromDelegate(session -> session.list(path));
+        } catch (IOException ex) {
+            if (pendingChildren.isEmpty() && !pendingDirectory) throw ex;
+            remoteListing = List.of();
+        }
+        if (pendingChildren.isEmpty()) return remoteListing;
+
+        final Map<String, FileStorageInfo> listing = new LinkedHashMap<>();
+        remoteListing.forEach(info -> listing.put(info.name(), info));
+        for (final Map.Entry<String, List<PendingEntry>> child : pendingChildren.entrySet()) {
+            final String childPath = FileUtil.normalizePath(path + "/" + child.getKey());
+            final boolean hasDirectEntry = child.getValue().stream().anyMatch(entry -> entry.path().equals(childPath));
+            if (hasDirectEntry) {
+                final Optional<FileStorageInfo> childInfo = stat(childPath);
+                if (childInfo.isPresent()) {
+                    listing.put(child.getKey(), childInfo.get());
+                } else {
+                    listing.remove(child.getKey());
+                }
+            }
+            if (hasNestedResources(childPath, child.getValue())) {
+                listing.putIfAbsent(child.getKey(), directoryInfo(childPath, child.getValue()));
+            }
+        }
+        return new ArrayList<>(listing.values());
+    }
+
+    /**
+     * If there are no not drained entries located in passed directory, directory is scanned directly in decorated
+     * storage. Otherwise, merged listing (see {@link #list}) is scanned.
+     */
+    @Override
+    public void scan(String path, IFileStorageScanner scanner) throws IOException {
+        if (!overlay.findDescendants(path).isEmpty() || overlay.find(path).isPresent()) {
+            IFileStorageSession.super.scan(path, scanner);
+            return;
+        }
+        readFromDelegate(session -> {
+            session.scan(path, scanner);
+            return null;
+        });
+    }
+
+    @Override
+    public void mkdirs(String path) throws IOException {
+        append(new JournalRecord(JournalRecordType.MKDIRS, path, null, null));
+    }
+
+    @Override
+    public Optional<FileStorageInfo> stat(String path) throws IOException {
+        final String normalizedPath = FileUtil.normalizePath(path);
+        final Optional<PendingEntry> pendingEntry = overlay.find(normalizedPath);
+        if (pendingEntry.isEmpty()) {
+            final Optional<FileStorageInfo> info = readFromDelegate(session -> session.stat(normalizedPath));
+            if (info.isPresent()) return info;
+            final List<PendingEntry> descendants = overlay.findDescendants(normalizedPath);
+            return hasNestedResources(normalizedPath, descendants)
+                ? Optional.of(directoryInfo(normalizedPath, descendants))
+                : Optional.empty();
+        }
+        final PendingEntry entry = pendingEntry.get();
+        return switch (entry.type()) {
+            case PUT -> Optional.of(new FileStorageInfo(FileUtil.getFileName(normalizedPath), normalizedPath, false,
+                entry.size(), entry.lastModified()));
+            case MKDIRS -> Optional.of(directoryInfo(normalizedPath, List.of(entry)));
+            case DELETE -> {
+                final List<PendingEntry> descendants = overlay.findDescendants(normalizedPath);
+                yield hasNestedResources(normalizedPath, descendants)
+                    ? Optional.of(directoryInfo(normalizedPath, descendants))
+                    : Optional.empty();
+            }
+            case RENAME -> readFromDelegate(session -> session.stat(entry.sourcePath()))
+                .map(info -> new FileStorageInfo(FileUtil.getFileName(normalizedPath), normalizedPath,
+                    info.directory(), info.size(), info.lastModified()));
+        };
+    }
+
+    @Override
+    public List<FileBatchResult> executeBatch(List<FileBatchOperation> operations) {
+        final List<FileBatchResult> results = new ArrayList<>(operations.size());
+        for (final FileBatchOperation operation : operations) {
+            try {
+                switch (operation.type()) {
+                    case PUT -> put(operation.path(), operation.bytes());
+                    case DELETE -> delete(operation.path());
+                    case MKDIRS -> mkdirs(operation.path());
+                }
+                results.add(FileBatchResult.success(operation));
+            } catch (IOException ex) {
+                results.add(FileBatchResult.failure(operation, ex));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Method responsible for closing session of decorated storage used by reading actions (if it was opened).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void close() {
+        if (Objects.nonNull(readSessionLease)) {
+            readSessionLease.close();
+            readSessionLease = null;
+        }
+    }
+
+    /**
+     * Inner method responsible for appending record into journal and applying it into not drained writes overlay. If
+     * record was drained before it was applied into overlay, created entry is removed directly.
+     *
+     * @param record appended {@link JournalRecord} instance
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to append record into journal
+     */
+    private void append(JournalRecord record) throws IOException {
+        overlay.apply(record, journal.append(record));
+        overlay.removeDrained(journal.getCheckpoint());
+    }
+
+    /**
+     * Inner method responsible for resolving file content from not drained writes. If file was saved and not drained,
+     * content is read directly from journal. If file was renamed and not drained, file is read from decorated storage
+     * from source path. If content of drained record was already compacted, file is read from decorated storage.
+     *
+     * @param path full file path
+     * @return instance of {@link PendingFile} with content or decorated storage path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws NoSuchFileException if file was deleted and not drained yet (or path is not drained directory)
+     */
+    private PendingFile findPendingFile(String path) throws IOException {
+        final Optional<PendingEntry> pendingEntry = overlay.find(path);
+        if (pendingEntry.isEmpty()) return new PendingFile(null, path);
+        final PendingEntry entry = pendingEntry.get();
+        return switch (entry.type()) {
+            case PUT -> new PendingFile(readJournalContent(entry), path);
+            case RENAME -> new PendingFile(null, entry.sourcePath());
+            case DELETE, MKDIRS -> throw new NoSuchFileException(path);
+        };
+    }
+
+    /**
+     * Inner method responsible for reading file content from journal put record pointed by passed entry.
+     *
+     * @param entry not drained put entry
+     * @return file content or null, if record is not available anymore (drained and compacted in meantime)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private byte[] readJournalContent(PendingEntry entry) {
+        try {
+            final List<JournalRecord> records = journal.read(entry.contentPosition(), 1, 0);
+            if (!records.isEmpty()) {
+                final JournalRecord record = records.get(0);
+                if (record.type() == JournalRecordType.PUT
+                    && FileUtil.normalizePath(record.path()).equals(entry.sourcePath())) {
+                    return record.bytes();
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("Unable to read not drained content of: {}. Cause: {}", entry.path(), ex.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Inner method responsible for performing reading action in held session of decorated storage. Session is opened
+     * by first reading action. After transient failure (ex. lost connection), session is closed and next reading
+     * action opens new session.
+     *
+     * @param reader reading action
+     * @return reading action result
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to open session or perform reading action
+     */
+    private <T> T readFromDelegate(IStorageReader<T> reader) throws IOException {
+        if (Objects.isNull(readSessionLease)) {
+            readSessionLease = new DelegateSessionLease(readStorage, readSessionExecutor);
+        }
+        try {
+            return reader.read(readSessionLease.acquire());
+        } catch (IOException ex) {
+            if (FileUtil.isTransientStorageFailure(ex)) {
+                close();
+            }
+            throw ex;
+        }
+    }
+
+    private static boolean hasNestedResources(String directory, List<PendingEntry> entries) {
+        return entries.stream()
+            .anyMatch(entry -> entry.type() != JournalRecordType.DELETE && entry.path().startsWith(directory + "/"));
+    }
+
+    private static FileStorageInfo directoryInfo(String path, List<PendingEntry> entries) {
+        final long lastModified = entries.stream().mapToLong(PendingEntry::lastModified).max().orElse(0);
+        return new FileStorageInfo(FileUtil.getFileName(path), path, true, 0, lastModified);
+    }
+
+    /**
+     * Simple POJO record storing resolved file: content read from journal (null, if file should be read from
+     * decorated storage) and path of file in decorated storage.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private record PendingFile(byte[] content, String delegatePath) {
+    }
+
+    /**
+     * Functional interface for single reading action performed in decorated storage session.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @FunctionalInterface
+    private interface IStorageReader<T> {
+        T read(IFileStorageSession session) throws IOException;
+    }
+}
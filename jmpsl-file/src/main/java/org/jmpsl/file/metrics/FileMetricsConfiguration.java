@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: FileMetricsConfiguration.java
+ * Last modified: 19/10/2026, 19:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Objects;
+
+import org.jmpsl.file.FileEnv;
+
+/**
+ * Spring configuration class responsible for creating active {@link IFileMetricsRecorder} Spring Bean. If Micrometer
+ * library is present on classpath and {@link MeterRegistry} Bean is available, metrics are recorded by
+ * {@link MicrometerFileMetricsRecorder}, otherwise by {@link NoOpFileMetricsRecorder}. Before run application,
+ * optionally declare following properties in <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.file.metrics.active</code> - record metrics in Micrometer registry, by default true</li>
+ *     <li><code>jmpsl.file.metrics.histograms</code> - publish percentile histograms, by default true</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Configuration
+public class FileMetricsConfiguration {
+
+    private static final String METER_REGISTRY_CLASS = "io.micrometer.core.instrument.MeterRegistry";
+
+    @Bean
+    public IFileMetricsRecorder fileMetricsRecorder(Environment env, ApplicationContext context) {
+        if (!FileEnv.__JFM_METRICS_ACTIVE.getProperty(env, Boolean.class)
+            || !ClassUtils.isPresent(METER_REGISTRY_CLASS, getClass().getClassLoader())) {
+            log.info("File metrics are not recorded. Metrics are inactive or Micrometer library is not present.");
+            return new NoOpFileMetricsRecorder();
+        }
+        return MicrometerRecorderFactory.create(context,
+            FileEnv.__JFM_METRICS_HISTOGRAMS.getProperty(env, Boolean.class));
+    }
+
+    /**
+     * Inner factory class referencing Micrometer classes (loaded only, if Micrometer library is present on classpath).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static class MicrometerRecorderFactory {
+
+        private static IFileMetricsRecorder create(ApplicationContext context, boolean publishHistograms) {
+            final MeterRegistry meterRegistry = context.getBeanProvider(MeterRegistry.class).getIfAvailable();
+            if (Objects.isNull(meterRegistry)) {
+                log.info("File metrics are not recorded. Micrometer MeterRegistry Bean is not available.");
+                return new NoOpFileMetricsRecorder();
+            }
+            log.info("Successful initialized Micrometer file metrics recorder. Histograms: {}", publishHistograms);
+            return new MicrometerFileMetricsRecorder(meterRegistry, publishHistograms);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: IFileMetricsRecorder.java
+ * Last modified: 19/10/2026, 19:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Interface for recording file operations metrics (durations as histograms, transferred bytes and gauges of
+ * components state). Active implementation is created by {@link FileMetricsConfiguration} Spring configuration class.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public interface IFileMetricsRecorder {
+
+    /**
+     * Method responsible for recording duration of single operation.
+     *
+     * @param operation measured operation
+     * @param durationNanos operation duration in nanoseconds
+     * @param success true, if operation ended successfully
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void recordDuration(IMetricsOperation operation, long durationNanos, boolean success);
+
+    /**
+     * Method responsible for recording count of bytes transferred by single operation.
+     *
+     * @param operation measured operation
+     * @param bytes count of transferred bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void recordBytes(IMetricsOperation operation, long bytes);
+
+    /**
+     * Method responsible for registering gauge, which value is read from passed supplier on every metrics scrape.
+     *
+     * @param gaugeName full gauge name (ex. jmpsl.file.sftp.circuit.state)
+     * @param valueSupplier supplier of current gauge value
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void registerGauge(String gaugeName, Supplier<Number> valueSupplier);
+
+    /**
+     * Method responsible for recording duration of operation started in passed time.
+     *
+     * @param operation measured operation
+     * @param startNanos operation start time from {@link System#nanoTime()} method
+     * @param success true, if operation ended successfully
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    default void recordSince(IMetricsOperation operation, long startNanos, boolean success) {
+        recordDuration(operation, System.nanoTime() - startNanos, success);
+    }
+}
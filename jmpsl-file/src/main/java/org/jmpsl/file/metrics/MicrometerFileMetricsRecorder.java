@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: MicrometerFileMetricsRecorder.java
+ * Last modified: 19/10/2026, 19:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link IFileMetricsRecorder} implementation recording all values in Micrometer {@link MeterRegistry}. Recorded
+ * meters:
+ *
+ * <ul>
+ *     <li><code>jmpsl.file.operation.duration</code> - timer tagged by operation and outcome (success, failure)</li>
+ *     <li><code>jmpsl.file.operation.bytes</code> - distribution summary of transferred bytes tagged by operation</li>
+ *     <li>gauges registered by library components (circuit breaker, transfer scheduler)</li>
+ * </ul>
+ *
+ * Meters are created once and cached, so recording values does not lookup meters in registry.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public class MicrometerFileMetricsRecorder implements IFileMetricsRecorder {
+
+    private static final String DURATION_METER_NAME = "jmpsl.file.operation.duration";
+    private static final String BYTES_METER_NAME = "jmpsl.file.operation.bytes";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean publishHistograms;
+    private final Map<IMetricsOperation, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<IMetricsOperation, Timer> failureTimers = new ConcurrentHashMap<>();
+    private final Map<IMetricsOperation, DistributionSummary> bytesSummaries = new ConcurrentHashMap<>();
+
+    public MicrometerFileMetricsRecorder(MeterRegistry meterRegistry, boolean publishHistograms) {
+        this.meterRegistry = meterRegistry;
+        this.publishHistograms = publishHistograms;
+    }
+
+    @Override
+    public void recordDuration(IMetricsOperation operation, long durationNanos, boolean success) {
+        final Map<IMetricsOperation, Timer> timers = success ? successTimers : failureTimers;
+        timers.computeIfAbsent(operation, key -> Timer.builder(DURATION_METER_NAME)
+                .tag("operation", key.getOperationName())
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram(publishHistograms)
+                .register(meterRegistry))
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordBytes(IMetricsOperation operation, long bytes) {
+        bytesSummaries.computeIfAbsent(operation, key -> DistributionSummary.builder(BYTES_METER_NAME)
+                .tag("operation", key.getOperationName())
+                .baseUnit("bytes")
+                .publishPercentileHistogram(publishHistograms)
+                .register(meterRegistry))
+            .record(bytes);
+    }
+
+    @Override
+    public void registerGauge(String gaugeName, Supplier<Number> valueSupplier) {
+        Gauge.builder(gaugeName, valueSupplier).register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: BandwidthLimiter.java
+ * Last modified: 19/10/2026, 18:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.io.InterruptedIOException;
+
+/**
+ * Token bucket limiting count of transferred bytes per second (shared by all background transfers). Bucket capacity
+ * is equal to one second of transfer. Transfers larger than available tokens are not rejected, but calling thread
+ * sleeps proportionally to missing tokens (bucket goes into debt).
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class BandwidthLimiter {
+
+    private final long bytesPerSecond;
+    private final LongAdder acquiredBytes = new LongAdder();
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    BandwidthLimiter(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        availableTokens = bytesPerSecond;
+        lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Method responsible for acquiring tokens for passed count of bytes. If bucket has not enough tokens, calling
+     * thread sleeps until missing tokens are refilled.
+     *
+     * @param bytes count of transferred bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws InterruptedIOException if calling thread was interrupted during waiting
+     */
+    void acquire(long bytes) throws InterruptedIOException {
+        if (bytes <= 0) return;
+        final long waitNanos;
+        synchronized (this) {
+            final long nowNanos = System.nanoTime();
+            availableTokens = Math.min(bytesPerSecond,
+                availableTokens + (nowNanos - lastRefillNanos) * bytesPerSecond / (double) TimeUnit.SECONDS.toNanos(1));
+            lastRefillNanos = nowNanos;
+            availableTokens -= bytes;
+            waitNanos = availableTokens >= 0 ? 0
+                : (long) (-availableTokens * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+        }
+        acquiredBytes.add(bytes);
+        if (waitNanos == 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Throttled transfer was interrupted.");
+        }
+    }
+
+    /**
+     * @return count of all bytes acquired via limiter
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    long getAcquiredBytes() {
+        return acquiredBytes.sum();
+    }
+}
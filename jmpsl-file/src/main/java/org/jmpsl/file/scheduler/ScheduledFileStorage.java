@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ScheduledFileStorage.java
+ * Last modified: 19/10/2026, 18:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.scheduler;
+
+import org.jmpsl.file.storage.IFileStorage;
+import org.jmpsl.file.storage.FileStorageType;
+import org.jmpsl.file.storage.IFileStorageExecutor;
+import org.jmpsl.file.storage.IFileStorageParallelExecutor;
+
+/**
+ * {@link IFileStorage} decorator created by {@link TransferScheduler} for single {@link TransferPriority}. Every
+ * session acquires storage channels from scheduler before opening (and releases them after finishing action).
+ * Sessions of background transfers are throttled.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class ScheduledFileStorage implements IFileStorage {
+
+    private final IFileStorage delegate;
+    private final TransferScheduler scheduler;
+    private final TransferPriority priority;
+
+    ScheduledFileStorage(IFileStorage delegate, TransferScheduler scheduler, TransferPriority priority) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.priority = priority;
+    }
+
+    @Override
+    public void performInSession(IFileStorageExecutor executor) {
+        scheduler.acquireChannels(priority, 1);
+        try {
+            delegate.performInSession(session -> executor.execute(scheduler.wrapSession(priority, session)));
+        } finally {
+            scheduler.releaseChannels(priority, 1);
+        }
+    }
+
+    @Override
+    public void performIdempotentInSession(IFileStorageExecutor executor) {
+        scheduler.acquireChannels(priority, 1);
+        try {
+            delegate.performIdempotentInSession(session -> executor.execute(scheduler.wrapSession(priority, session)));
+        } finally {
+            scheduler.releaseChannels(priority, 1);
+        }
+    }
+
+    @Override
+    public void performInParallelSessions(int sessionsCount, IFileStorageParallelExecutor executor) {
+        final int acquiredChannels = scheduler.acquireChannels(priority, sessionsCount);
+        try {
+            delegate.performInParallelSessions(acquiredChannels, sessions -> executor.execute(sessions.stream()
+                .map(session -> scheduler.wrapSession(priority, session))
+                .toList()));
+        } finally {
+            scheduler.releaseChannels(priority, acquiredChannels);
+        }
+    }
+
+    @Override
+    public String getRootPath() {
+        return delegate.getRootPath();
+    }
+
+    @Override
+    public String getPublicUrl() {
+        return delegate.getPublicUrl();
+    }
+
+    @Override
+    public FileStorageType getStorageType() {
+        return delegate.getStorageType();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ThrottledFileStorageSession.java
+ * Last modified: 20/10/2026, 04:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.scheduler;
+
+import java.util.Set;
+import java.util.List;
+import java.util.Optional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.FilterOutputStream;
+
+import org.jmpsl.file.storage.FileStorageInfo;
+import org.jmpsl.file.storage.FileBatchResult;
+import org.jmpsl.file.storage.FileBatchOperation;
+import org.jmpsl.file.storage.IFileStorageSession;
+import org.jmpsl.file.storage.IFileStorageScanner;
+import org.jmpsl.file.storage.FileBatchOperationType;
+
+/**
+ * {@link IFileStorageSession} decorator used by background transfers. Every transferred byte (written or read) acquires
+ * tokens from shared {@link BandwidthLimiter}, other actions are delegated without throttling.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class ThrottledFileStorageSession implements IFileStorageSession {
+
+    private final IFileStorageSession delegate;
+    private final BandwidthLimiter bandwidthLimiter;
+
+    ThrottledFileStorageSession(IFileStorageSession delegate, BandwidthLimiter bandwidthLimiter) {
+        this.delegate = delegate;
+        this.bandwidthLimiter = bandwidthLimiter;
+    }
+
+    @Override
+    public void put(String path, byte[] bytes) throws IOException {
+        bandwidthLimiter.acquire(bytes.length);
+        delegate.put(path, bytes);
+    }
+
+    @Override
+    public void get(String path, OutputStream outputStream) throws IOException {
+        delegate.get(path, new FilterOutputStream(outputStream) {
+            @Override
+            public void write(int value) throws IOException {
+                bandwidthLimiter.acquire(1);
+                out.write(value);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                bandwidthLimiter.acquire(length);
+                out.write(bytes, offset, length);
+            }
+        });
+    }
+
+    @Override
+    public void writeRange(String path, long offset, byte[] bytes, int length) throws IOException {
+        bandwidthLimiter.acquire(length);
+        delegate.writeRange(path, offset, bytes, length);
+    }
+
+    @Override
+    public byte[] readRange(String path, long offset, int length) throws IOException {
+        final byte[] bytes = delegate.readRange(path, offset, length);
+        bandwidthLimiter.acquire(bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public void replace(String path, byte[] bytes) throws IOException {
+        bandwidthLimiter.acquire(bytes.length);
+        delegate.replace(path, bytes);
+    }
+
+    @Override
+    public List<FileBatchResult> executeBatch(List<FileBatchOperation> operations) {
+        try {
+            bandwidthLimiter.acquire(operations.stream()
+                .filter(operation -> operation.type() == FileBatchOperationType.PUT)
+                .mapToLong(operation -> operation.bytes().length)
+                .sum());
+        } catch (IOException ex) {
+            return operations.stream().map(operation -> FileBatchResult.failure(operation, ex)).toList();
+        }
+        return delegate.executeBatch(operations);
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        delegate.delete(path);
+    }
+
+    @Override
+    public void rename(String sourcePath, String targetPath) throws IOException {
+        delegate.rename(sourcePath, targetPath);
+    }
+
+    @Override
+    public List<FileStorageInfo> list(String path) throws IOException {
+        return delegate.list(path);
+    }
+
+    @Override
+    public Set<String> listNames(String path) throws IOException {
+        return delegate.listNames(path);
+    }
+
+    @Override
+    public void scan(String path, IFileStorageScanner scanner) throws IOException {
+        delegate.scan(path, scanner);
+    }
+
+    @Override
+    public void mkdirs(String path) throws IOException {
+        delegate.mkdirs(path);
+    }
+
+    @Override
+    public Optional<FileStorageInfo> stat(String path) throws IOException {
+        return delegate.stat(path);
+    }
+}
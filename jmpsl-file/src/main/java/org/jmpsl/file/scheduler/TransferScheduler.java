@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: TransferScheduler.java
+ * Last modified: 20/10/2026, 05:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.Assert;
+import org.springframework.stereotype.Component;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+import java.util.EnumMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jmpsl.file.FileEnv;
+import org.jmpsl.file.storage.IFileStorage;
+import org.jmpsl.file.storage.IFileStorageSession;
+import org.jmpsl.file.journal.WriteBehindFileStorage;
+import org.jmpsl.file.metrics.IFileMetricsRecorder;
+import org.jmpsl.file.metrics.FileMetricsOperation;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+/**
+ * Spring Bean component responsible for scheduling storage transfers based on their {@link TransferPriority}. Every
+ * storage session (and every channel of parallel sessions) acquires channel from shared pool before connecting. Rules:
+ *
+ * <ul>
+ *     <li>interactive transfers could use all channels and are never throttled,</li>
+ *     <li>background transfers could use only declared part of channels (rest is always reserved for interactive),</li>
+ *     <li>background transfers wait, while any interactive transfer waits for channel,</li>
+ *     <li>bytes transferred by background transfers are throttled by shared token bucket.</li>
+ * </ul>
+ *
+ * Transfers are classified by using storage view returned from {@link #getStorage(TransferPriority)} method. If file
+ * storage is {@link WriteBehindFileStorage}, scheduling is applied beneath write-behind decorator (writing actions are
+ * appended into journal without channels, reading actions acquire channels with view priority and journal is drained
+ * with background priority). Channel waiting time and channels usage are recorded in {@link IFileMetricsRecorder}.
+ * Before run application, optionally declare following properties in <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.file.scheduler.max-channels</code> - max count of concurrent channels, by default 8</li>
+ *     <li><code>jmpsl.file.scheduler.background-max-channels</code> - max channels of background, by default 2</li>
+ *     <li><code>jmpsl.file.scheduler.background-bytes-per-second</code> - background bandwidth, 0 (unlimited)</li>
+ *     <li><code>jmpsl.file.scheduler.acquire-timeout-ms</code> - max channel waiting time, by default 30000ms</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Component
+public class TransferScheduler {
+
+    private final int maxChannels;
+    private final int backgroundMaxChannels;
+    private final long acquireTimeoutNanos;
+    private final BandwidthLimiter backgroundLimiter;
+    private final IFileMetricsRecorder metricsRecorder;
+    private final Map<TransferPriority, IFileStorage> storages = new EnumMap<>(TransferPriority.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition channelsReleased = lock.newCondition();
+    private final LongAdder interactiveTransfersCount = new LongAdder();
+    private final LongAdder backgroundTransfersCount = new LongAdder();
+    private int activeChannels;
+    private int activeBackgroundChannels;
+    private int waitingInteractiveTransfers;
+
+    public TransferScheduler(Environment env, IFileStorage fileStorage, IFileMetricsRecorder metricsRecorder) {
+        this.metricsRecorder = metricsRecorder;
+        maxChannels = FileEnv.__JFM_SCHEDULER_MAX_CHANNELS.getProperty(env, Integer.class);
+        backgroundMaxChannels = FileEnv.__JFM_SCHEDULER_BACKGROUND_MAX_CHANNELS.getProperty(env, Integer.class);
+        acquireTimeoutNanos = TimeUnit.MILLISECONDS
+            .toNanos(FileEnv.__JFM_SCHEDULER_ACQUIRE_TIMEOUT_MS.getProperty(env, Long.class));
+        final long backgroundBytesPerSecond = FileEnv.__JFM_SCHEDULER_BACKGROUND_BYTES_PER_SECOND
+            .getProperty(env, Long.class);
+        if (maxChannels < 1 || backgroundMaxChannels < 1 || backgroundMaxChannels > maxChannels) {
+            throw new IllegalArgumentException("Background max channels must be between 1 and scheduler max channels");
+        }
+        backgroundLimiter = backgroundBytesPerSecond > 0 ? new BandwidthLimiter(backgroundBytesPerSecond) : null;
+        if (fileStorage instanceof WriteBehindFileStorage writeBehindStorage) {
+            final IFileStorage delegate = writeBehindStorage.getDelegate();
+            for (final TransferPriority priority : TransferPriority.values()) {
+                storages.put(priority, writeBehindStorage
+                    .withReadStorage(new ScheduledFileStorage(delegate, this, priority)));
+            }
+            writeBehindStorage.setDrainStorage(new ScheduledFileStorage(delegate, this, TransferPriority.BACKGROUND));
+        } else {
+            for (final TransferPriority priority : TransferPriority.values()) {
+                storages.put(priority, new ScheduledFileStorage(fileStorage, this, priority));
+            }
+        }
+        metricsRecorder.registerGauge("jmpsl.file.scheduler.active-channels", () -> getStats().activeChannels());
+        metricsRecorder.registerGauge("jmpsl.file.scheduler.active-background-channels",
+            () -> getStats().activeBackgroundChannels());
+        metricsRecorder.registerGauge("jmpsl.file.scheduler.waiting-interactive-transfers",
+            () -> getStats().waitingInteractiveTransfers());
+        log.info("Successful initialized transfer scheduler. Max channels: {}, background channels: {}, background " +
+            "bandwidth: {}B/s", maxChannels, backgroundMaxChannels, backgroundBytesPerSecond);
+    }
+
+    /**
+     * Method responsible for returning storage view, which schedules all sessions with passed priority.
+     *
+     * @param priority transfers priority
+     * @return {@link IFileStorage} view for passed priority
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed priority is null
+     */
+    public IFileStorage getStorage(TransferPriority priority) {
+        Assert.notNull(priority, "Transfer priority cannot be null.");
+        return storages.get(priority);
+    }
+
+    /**
+     * Method responsible for acquiring storage channels for transfer with passed priority. Background transfers receive
+     * max declared count of background channels. If not all requested channels are free, method acquires at least one
+     * channel (and waits for it). Waiting time is recorded as {@link FileMetricsOperation#CHANNEL_ACQUIRE} duration.
+     *
+     * @param priority transfer priority
+     * @param requestedChannels count of requested channels
+     * @return count of acquired channels
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to acquire channel in declared time
+     */
+    int acquireChannels(TransferPriority priority, int requestedChannels) {
+        final boolean isBackground = priority == TransferPriority.BACKGROUND;
+        final int channelsLimit = isBackground ? backgroundMaxChannels : maxChannels;
+        final long startNanos = System.nanoTime();
+        long remainingNanos = acquireTimeoutNanos;
+        boolean acquired = false;
+        lock.lock();
+        try {
+            if (!isBackground) waitingInteractiveTransfers++;
+            try {
+                while (activeChannels >= maxChannels || (isBackground
+                    && (activeBackgroundChannels >= backgroundMaxChannels || waitingInteractiveTransfers > 0))) {
+                    if (remainingNanos <= 0) {
+                        log.error("Unable to acquire storage channel for {} transfer in declared time.", priority);
+                        throw new ExternalFileServerMalfunctionException();
+                    }
+                    remainingNanos = channelsReleased.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                log.error("Waiting for storage channel of {} transfer was interrupted.", priority);
+                throw new ExternalFileServerMalfunctionException(ex);
+            } finally {
+                if (!isBackground) {
+                    waitingInteractiveTransfers--;
+                    if (waitingInteractiveTransfers == 0) channelsReleased.signalAll();
+                }
+            }
+            final int freeChannels = isBackground
+                ? Math.min(maxChannels - activeChannels, backgroundMaxChannels - activeBackgroundChannels)
+                : maxChannels - activeChannels;
+            final int acquiredChannels = Math.max(1, Math.min(Math.min(requestedChannels, channelsLimit),
+                freeChannels));
+            activeChannels += acquiredChannels;
+            if (isBackground) {
+                activeBackgroundChannels += acquiredChannels;
+                backgroundTransfersCount.increment();
+            } else {
+                interactiveTransfersCount.increment();
+            }
+            acquired = true;
+            return acquiredChannels;
+        } finally {
+            lock.unlock();
+            metricsRecorder.recordSince(FileMetricsOperation.CHANNEL_ACQUIRE, startNanos, acquired);
+        }
+    }
+
+    /**
+     * Method responsible for releasing storage channels acquired by {@link #acquireChannels} method.
+     *
+     * @param priority transfer priority
+     * @param channels count of released channels
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void releaseChannels(TransferPriority priority, int channels) {
+        lock.lock();
+        try {
+            activeChannels -= channels;
+            if (priority == TransferPriority.BACKGROUND) activeBackgroundChannels -= channels;
+            channelsReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Method responsible for wrapping storage session of transfer with passed priority (background sessions are
+     * throttled, if background bandwidth limit is declared).
+     *
+     * @param priority transfer priority
+     * @param session opened storage session
+     * @return wrapped or passed storage session
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    IFileStorageSession wrapSession(TransferPriority priority, IFileStorageSession session) {
+        if (priority != TransferPriority.BACKGROUND || Objects.isNull(backgroundLimiter)) return session;
+        return new ThrottledFileStorageSession(session, backgroundLimiter);
+    }
+
+    /**
+     * @return snapshot of scheduler state as {@link TransferSchedulerStats} record
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public TransferSchedulerStats getStats() {
+        lock.lock();
+        try {
+            return new TransferSchedulerStats(activeChannels, activeBackgroundChannels, waitingInteractiveTransfers,
+                interactiveTransfersCount.sum(), backgroundTransfersCount.sum(),
+                Objects.isNull(backgroundLimiter) ? 0 : backgroundLimiter.getAcquiredBytes());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: SftpCircuitBreaker.java
+ * Last modified: 20/10/2026, 04:25
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.socket;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker guarding SFTP server calls performed by {@link SshFileSocketConnector}. After passed count of
+ * consecutive failed attempts, circuit breaker opens and all calls fail fast (without waiting for TCP/SSH timeouts).
+ * After open duration, single probe call is permitted (half-open state). Successful probe closes circuit breaker,
+ * failed probe opens it again. State transitions are synchronized, counters are lock-free.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public class SftpCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final LongAdder successfulCalls = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder retriedAttempts = new LongAdder();
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    SftpCircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = Math.max(0, openDurationMs);
+    }
+
+    /**
+     * Method responsible for checking, if call is permitted. In open state, after open duration switch into half-open
+     * state and permit single probe call. Rejected calls are counted. Permitted probe call must always release its
+     * permission via {@link #releaseProbe()} method (also when outcome of call was not registered).
+     *
+     * @return state, in which call was permitted ({@link CircuitBreakerState#HALF_OPEN} for probe call) or
+     *         {@link CircuitBreakerState#OPEN}, if call is rejected
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized CircuitBreakerState tryAcquirePermission() {
+        if (state == CircuitBreakerState.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            state = CircuitBreakerState.HALF_OPEN;
+            probeInFlight = false;
+        }
+        final boolean isPermitted = switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> !probeInFlight;
+        };
+        if (state == CircuitBreakerState.HALF_OPEN && isPermitted) {
+            probeInFlight = true;
+        }
+        if (!isPermitted) {
+            rejectedCalls.increment();
+            return CircuitBreakerState.OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Method responsible for registering successful call. Close circuit breaker and reset consecutive failures.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized void onSuccess() {
+        successfulCalls.increment();
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = CircuitBreakerState.CLOSED;
+    }
+
+    /**
+     * Method responsible for registering failed attempt. If failed attempt was probe call or count of consecutive
+     * failures reached threshold, open circuit breaker.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized void onFailure() {
+        failedAttempts.increment();
+        consecutiveFailures++;
+        if (state == CircuitBreakerState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = CircuitBreakerState.OPEN;
+            openedAt = System.currentTimeMillis();
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Method responsible for releasing probe call permission, if probe ends without registered outcome (ex. failure
+     * reported by server, which does not indicate server malfunction, or unexpected error). Circuit breaker stays in
+     * half-open state and permits next probe call. If probe outcome was registered, method does nothing.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized void releaseProbe() {
+        if (state == CircuitBreakerState.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Method responsible for registering retried attempt (only for metrics).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void onRetry() {
+        retriedAttempts.increment();
+    }
+
+    /**
+     * @return true, if circuit breaker is closed (further retries are permitted)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized boolean isClosed() {
+        return state == CircuitBreakerState.CLOSED;
+    }
+
+    /**
+     * @return snapshot of current circuit breaker state and counters
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public synchronized SftpCircuitBreakerStats getStats() {
+        return new SftpCircuitBreakerStats(state, consecutiveFailures, successfulCalls.sum(), failedAttempts.sum(),
+            retriedAttempts.sum(), rejectedCalls.sum());
+    }
+}
@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: SshFileSocketConnector.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 20/10/2026, 04:25
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -28,16 +28,25 @@ import lombok.extern.slf4j.Slf4j;
 
 import net.schmizz.sshj.SSHClient;
 import net.schmizz.sshj.sftp.StatefulSFTPClient;
+import net.schmizz.sshj.transport.TransportException;
 
 import org.springframework.util.StringUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.DisposableBean;
 
 import java.io.File;
+import java.util.List;
+import java.util.Objects;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.io.IOException;
 
 import org.jmpsl.file.FileEnv;
 import org.jmpsl.file.FileUtil;
+import org.jmpsl.file.metrics.IFileMetricsRecorder;
+import org.jmpsl.file.metrics.FileMetricsOperation;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
 
 /**
  * Spring Bean component responsible for connecting and performing custom action on SFTP socket. Before run application,
@@ -52,63 +61,294 @@ import org.jmpsl.file.FileUtil;
  *     <li><code>jmpsl.file.sftp.server-url</code> - SFTP server path as URL (ROOT for static resources), by default 127.0.0.1</li>
  *     <li><code>jmpsl.file.basic-external-server-path</code> - basic server path from root to domain directory (by default is "")</li>
  *     <li><code>jmpsl.file.app-external-server-path</code> - application name (directory for all application resources)</li>
+ *     <li><code>jmpsl.file.ssh.connect-timeout-ms</code> - SSH socket connect timeout, by default 5000</li>
+ *     <li><code>jmpsl.file.ssh.operation-timeout-ms</code> - SSH and SFTP requests timeout, by default 15000</li>
+ *     <li><code>jmpsl.file.ssh.retry.max-attempts</code> - max attempts of single call, by default 3</li>
+ *     <li><code>jmpsl.file.ssh.retry.initial-backoff-ms</code> - backoff before first retry, by default 100</li>
+ *     <li><code>jmpsl.file.ssh.retry.max-backoff-ms</code> - max backoff before retry, by default 2000</li>
+ *     <li><code>jmpsl.file.ssh.circuit-breaker.failure-threshold</code> - failures opening circuit, by default 5</li>
+ *     <li><code>jmpsl.file.ssh.circuit-breaker.open-duration-ms</code> - time of fail fast calls, by default 30000</li>
+ *     <li><code>jmpsl.file.ssh.watch-key-files</code> - reload changed known hosts and key files, by default true</li>
  * </ul>
  *
  * This class is using RSA public and private keys to connect and authenticate to the SFTP server. Check, if you SFTP
- * server support this type of credentials verifications.
+ * server support this type of credentials verifications. Known hosts and private key are loaded once (and reloaded only
+ * after files change) by {@link SshKeyMaterialProvider}, so connecting does not read key files. Durations of whole call
+ * and every connecting phase (TCP connect, key exchange handshake, authentication and SFTP channel opening) and circuit
+ * breaker state are recorded in {@link IFileMetricsRecorder}.
  *
  * @author Miłosz Gilga
  * @since 1.0.2
  */
 @Slf4j
 @Component
-public class SshFileSocketConnector {
+public class SshFileSocketConnector implements DisposableBean {
 
     private String appServerPath;
     private String sshHost;
     private String sshLogin;
     private String serverPath;
     private String sftpServerUrl;
-    private File knownHostsFile;
-    private String sshUserPrivateKeyLocation;
+    private SshKeyMaterialProvider keyMaterialProvider;
+    private int connectTimeoutMs;
+    private int operationTimeoutMs;
+    private int maxAttempts;
+    private long initialBackoffMs;
+    private long maxBackoffMs;
+    private final SftpCircuitBreaker circuitBreaker;
+    private final IFileMetricsRecorder metricsRecorder;
 
-    SshFileSocketConnector(Environment env) {
+    SshFileSocketConnector(Environment env, IFileMetricsRecorder metricsRecorder) {
+        this.metricsRecorder = metricsRecorder;
+        circuitBreaker = new SftpCircuitBreaker(
+            FileEnv.__JFM_SSH_CIRCUIT_FAILURE_THRESHOLD.getProperty(env, Integer.class),
+            FileEnv.__JFM_SSH_CIRCUIT_OPEN_DURATION_MS.getProperty(env, Long.class));
+        registerCircuitBreakerGauges();
         if (!FileEnv.__JFM_SSH_ACTIVE.getProperty(env, Boolean.class)) {
             log.info("SSH service is not active. To activate service, set 'jmpsl.file.ssh.active' to true");
             return;
         }
         sshHost = FileEnv.__JFM_SSH_HOST.getProperty(env);
         sshLogin =  FileEnv.__JFM_SSH_LOGIN.getProperty(env);
-        knownHostsFile = new File(FileEnv.__JFM_SSH_KNOWN_HOSTS.getProperty(env));
-        sshUserPrivateKeyLocation = FileEnv.__JFM_SSH_PRIVATE_KEY.getProperty(env);
+        keyMaterialProvider = new SshKeyMaterialProvider(new File(FileEnv.__JFM_SSH_KNOWN_HOSTS.getProperty(env)),
+            new File(FileEnv.__JFM_SSH_PRIVATE_KEY.getProperty(env)),
+            FileEnv.__JFM_SSH_WATCH_KEY_FILES.getProperty(env, Boolean.class));
         sftpServerUrl = FileEnv.__JFM_SFTP_SERVER_URL.getProperty(env);
+        connectTimeoutMs = FileEnv.__JFM_SSH_CONNECT_TIMEOUT_MS.getProperty(env, Integer.class);
+        operationTimeoutMs = FileEnv.__JFM_SSH_OPERATION_TIMEOUT_MS.getProperty(env, Integer.class);
+        maxAttempts = Math.max(1, FileEnv.__JFM_SSH_RETRY_MAX_ATTEMPTS.getProperty(env, Integer.class));
+        initialBackoffMs = FileEnv.__JFM_SSH_RETRY_INITIAL_BACKOFF_MS.getProperty(env, Long.class);
+        maxBackoffMs = FileEnv.__JFM_SSH_RETRY_MAX_BACKOFF_MS.getProperty(env, Long.class);
         serverPath = createBasicSfptServerPath(env);
         log.info("Successful loaded SSH socket configuration from configuration properties file.");
     }
 
     /**
-     * Method responsible for connecting and perform custom action declared in lambda function anonymous class.
+     * Method responsible for connecting and perform custom action declared in lambda function anonymous class. Action
+     * is treated as non-idempotent, so only failed connecting attempts are retried.
      *
      * @param executor anonymous class from {@link ISshFileSocketExecutor} interface
      * @author Miłosz Gilga
      * @since 1.0.2
      *
      * @throws UnableToPerformSftpActionException if unable to connect with SFTP server or unable to perform other action
+     * @throws SftpCircuitOpenException if circuit breaker is open (SFTP server is unhealthy)
      */
     public void connectToSocketAndPerformAction(ISshFileSocketExecutor executor) {
-        try (final SSHClient sshClient = new SSHClient()) {
-            sshClient.loadKnownHosts(knownHostsFile);
-            sshClient.connect(sshHost);
-            sshClient.authPublickey(sshLogin, sshUserPrivateKeyLocation);
+        connectToSocketAndPerformAction(executor, false);
+    }
 
-            try (final StatefulSFTPClient sftpClient = (StatefulSFTPClient) sshClient.newStatefulSFTPClient()) {
-                executor.execute(sftpClient);
+    /**
+     * Method responsible for connecting and perform custom action declared in lambda function anonymous class. Failed
+     * attempts (connecting failures and transient {@link ExternalFileServerMalfunctionException} thrown by action,
+     * ex. lost connection or timeout) are retried with exponential backoff and full jitter. Attempts after started
+     * action are retried only for idempotent actions. Every failed attempt is registered in {@link SftpCircuitBreaker},
+     * and if circuit breaker is open, call fails fast. Failures reported by server (ex. no such file or permission
+     * denied) are thrown immediately and are not registered in circuit breaker.
+     *
+     * @param executor anonymous class from {@link ISshFileSocketExecutor} interface
+     * @param idempotent true, if action could be safely repeated (ex. put, delete or mkdirs)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws UnableToPerformSftpActionException if unable to connect with SFTP server or unable to perform other action
+     * @throws ExternalFileServerMalfunctionException if action failed in all attempts
+     * @throws SftpCircuitOpenException if circuit breaker is open (SFTP server is unhealthy)
+     */
+    public void connectToSocketAndPerformAction(ISshFileSocketExecutor executor, boolean idempotent) {
+        connectToSocketAndPerformParallelAction(1, sftpClients -> executor.execute(sftpClients.get(0)), idempotent);
+    }
+
+    /**
+     * Method responsible for connecting and perform custom action on passed count of SFTP channels opened on single
+     * SSH socket connection (used for parallel transfers). Failed attempts are retried and registered in
+     * {@link SftpCircuitBreaker} (the same as in {@link #connectToSocketAndPerformAction(ISshFileSocketExecutor,
+     * boolean)} method).
+     *
+     * @param channelsCount count of opened SFTP channels
+     * @param executor anonymous class from {@link ISshFileParallelSocketExecutor} interface
+     * @param idempotent true, if action could be safely repeated (ex. put, delete or mkdirs)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws UnableToPerformSftpActionException if unable to connect with SFTP server or unable to perform other action
+     * @throws ExternalFileServerMalfunctionException if action failed in all attempts
+     * @throws SftpCircuitOpenException if circuit breaker is open (SFTP server is unhealthy)
+     */
+    public void connectToSocketAndPerformParallelAction(
+        int channelsCount, ISshFileParallelSocketExecutor executor, boolean idempotent
+    ) {
+        performWithRetries(() -> performAttempt(Math.max(1, channelsCount), executor), idempotent);
+    }
+
+    /**
+     * Package-private method responsible for performing attempts guarded by {@link SftpCircuitBreaker}. Only failed
+     * attempts and transient {@link ExternalFileServerMalfunctionException} failures are registered in circuit breaker
+     * and retried. Other exceptions are thrown immediately without registering outcome in circuit breaker. Permission
+     * of probe call is always released.
+     *
+     * @param attempt single attempt of connecting and performing action
+     * @param idempotent true, if action could be safely repeated (ex. put, delete or mkdirs)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if action failed in all attempts or failed with server failure
+     * @throws SftpCircuitOpenException if circuit breaker is open (SFTP server is unhealthy)
+     */
+    void performWithRetries(ISftpAttempt attempt, boolean idempotent) {
+        final CircuitBreakerState permission = circuitBreaker.tryAcquirePermission();
+        if (permission == CircuitBreakerState.OPEN) {
+            log.warn("SFTP circuit breaker is open. Call rejected without connecting with SSH socket.");
+            throw new SftpCircuitOpenException();
+        }
+        final long startNanos = System.nanoTime();
+        boolean success = false;
+        int attemptNumber = 1;
+        try {
+            while (true) {
+                final AttemptFailedException failedAttempt;
+                try {
+                    attempt.perform();
+                    circuitBreaker.onSuccess();
+                    success = true;
+                    return;
+                } catch (AttemptFailedException ex) {
+                    failedAttempt = ex;
+                } catch (ExternalFileServerMalfunctionException ex) {
+                    if (!ex.isTransientFailure()) throw ex;
+                    failedAttempt = new AttemptFailedException(ex, true);
+                }
+                circuitBreaker.onFailure();
+                final boolean isRetryable = idempotent || !failedAttempt.actionStarted;
+                if (!isRetryable || attemptNumber >= maxAttempts || !circuitBreaker.isClosed()) {
+                    throw failedAttempt.failure;
+                }
+                circuitBreaker.onRetry();
+                log.warn("Retrying SFTP action after failed attempt. Attempt: {}/{}", attemptNumber, maxAttempts);
+                sleepBeforeRetry(attemptNumber++);
+            }
+        } finally {
+            if (permission == CircuitBreakerState.HALF_OPEN) circuitBreaker.releaseProbe();
+            metricsRecorder.recordSince(FileMetricsOperation.SSH_CALL, startNanos, success);
+        }
+    }
+
+    /**
+     * Inner method responsible for single attempt of connecting and performing action. Set connect and operation
+     * timeouts on SSH client, SSH transport and SFTP engine, so unhealthy server never blocks calling thread longer
+     * than declared timeouts. Host key verifier and user key provider are taken from preloaded key material.
+     *
+     * @param channelsCount count of opened SFTP channels
+     * @param executor anonymous class from {@link ISshFileParallelSocketExecutor} interface
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws AttemptFailedException if unable to connect or action failed with transient failure
+     * @throws UnableToPerformSftpActionException if action failed with failure reported by server
+     */
+    private void performAttempt(int channelsCount, ISshFileParallelSocketExecutor executor)
+            throws AttemptFailedException {
+        boolean actionStarted = false;
+        final List<StatefulSFTPClient> sftpClients = new ArrayList<>(channelsCount);
+        try (final InstrumentedSshClient sshClient = new InstrumentedSshClient()) {
+            sshClient.setConnectTimeout(connectTimeoutMs);
+            sshClient.setTimeout(operationTimeoutMs);
+            final SshKeyMaterialProvider.SshKeyMaterial keyMaterial = keyMaterialProvider.getKeyMaterial();
+            sshClient.addHostKeyVerifier(keyMaterial.hostKeyVerifier());
+            sshClient.connectAndMeasure(sshHost);
+            sshClient.getTransport().setTimeoutMs(operationTimeoutMs);
+            measure(FileMetricsOperation.SSH_AUTH, () -> {
+                sshClient.authPublickey(sshLogin, keyMaterial.keyProvider());
+                return null;
+            });
+            try {
+                for (int i = 0; i < channelsCount; i++) {
+                    final StatefulSFTPClient sftpClient = measure(FileMetricsOperation.SFTP_CHANNEL_OPEN,
+                        () -> (StatefulSFTPClient) sshClient.newStatefulSFTPClient());
+                    sftpClient.getSFTPEngine().setTimeoutMs(operationTimeoutMs);
+                    sftpClients.add(sftpClient);
+                }
+                actionStarted = true;
+                executor.execute(sftpClients);
             } catch (IOException ex) {
                 log.error("Unable to invoke stateful SFTP client execution from SSHClient socket.");
-                throw new UnableToPerformSftpActionException();
+                final UnableToPerformSftpActionException failure = new UnableToPerformSftpActionException();
+                if (actionStarted && !FileUtil.isTransientStorageFailure(ex)) throw failure;
+                throw new AttemptFailedException(failure, actionStarted);
+            } finally {
+                for (final StatefulSFTPClient sftpClient : sftpClients) {
+                    try {
+                        sftpClient.close();
+                    } catch (IOException ex) {
+                        log.warn("Unable to close SFTP channel. Cause: {}", ex.getMessage());
+                    }
+                }
             }
         } catch (IOException ex) {
             log.error("Unable to connect with SSH socket. Check connecting parameters.");
+            throw new AttemptFailedException(new UnableToPerformSftpActionException(), actionStarted);
+        }
+    }
+
+    /**
+     * Inner method responsible for performing single connecting phase and recording its duration and outcome.
+     *
+     * @param operation measured connecting phase
+     * @param action connecting phase action
+     * @return connecting phase action result
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if connecting phase failed
+     */
+    private <T> T measure(FileMetricsOperation operation, IMeasuredAction<T> action) throws IOException {
+        final long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            final T result = action.perform();
+            success = true;
+            return result;
+        } finally {
+            metricsRecorder.recordSince(operation, startNanos, success);
+        }
+    }
+
+    /**
+     * Inner method responsible for registering circuit breaker gauges (state as ordinal of {@link CircuitBreakerState},
+     * consecutive failures and total counters).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void registerCircuitBreakerGauges() {
+        metricsRecorder.registerGauge("jmpsl.file.sftp.circuit.state",
+            () -> circuitBreaker.getStats().state().ordinal());
+        metricsRecorder.registerGauge("jmpsl.file.sftp.circuit.consecutive-failures",
+            () -> circuitBreaker.getStats().consecutiveFailures());
+        metricsRecorder.registerGauge("jmpsl.file.sftp.circuit.failed-attempts",
+            () -> circuitBreaker.getStats().failedAttempts());
+        metricsRecorder.registerGauge("jmpsl.file.sftp.circuit.retried-attempts",
+            () -> circuitBreaker.getStats().retriedAttempts());
+        metricsRecorder.registerGauge("jmpsl.file.sftp.circuit.rejected-calls",
+            () -> circuitBreaker.getStats().rejectedCalls());
+    }
+
+    /**
+     * Inner method responsible for waiting before next attempt. Waiting time is random value from 0 to exponential
+     * backoff (full jitter), so retrying clients do not hit recovering server at the same time.
+     *
+     * @param attempt number of failed attempt (starting from 1)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws UnableToPerformSftpActionException if thread was interrupted during waiting
+     */
+    private void sleepBeforeRetry(int attempt) {
+        final long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 30));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
             throw new UnableToPerformSftpActionException();
         }
     }
@@ -138,10 +378,24 @@ public class SshFileSocketConnector {
                 log.error("Unable to create basic server path. Server path: {}, app server path: {}",
                         basicServerPath, appServerPath);
             }
-        });
+        }, true);
         return basicServerPath + appServerPath;
     }
 
+    @Override
+    public void destroy() throws IOException {
+        if (Objects.nonNull(keyMaterialProvider)) keyMaterialProvider.close();
+    }
+
+    /**
+     * @return snapshot of SFTP circuit breaker state and counters (used for metrics and health checks)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public SftpCircuitBreakerStats getCircuitBreakerStats() {
+        return circuitBreaker.getStats();
+    }
+
     /**
      * @return declared server path (basic server path with generated application directory)
      * @author Miłosz Gilga
@@ -159,4 +413,87 @@ public class SshFileSocketConnector {
     public String getAppServerPath() {
         return StringUtils.hasLength(appServerPath) ? sftpServerUrl + "/" + appServerPath : sftpServerUrl;
     }
+
+    /**
+     * Inner {@link SSHClient} extension recording durations of TCP socket connecting and key exchange handshake (both
+     * performed by single {@link SSHClient#connect(String)} method call).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private class InstrumentedSshClient extends SSHClient {
+
+        private long connectStartNanos;
+        private boolean handshakeStarted;
+
+        private void connectAndMeasure(String host) throws IOException {
+            connectStartNanos = System.nanoTime();
+            try {
+                connect(host);
+            } catch (IOException ex) {
+                if (!handshakeStarted) {
+                    metricsRecorder.recordSince(FileMetricsOperation.SSH_CONNECT, connectStartNanos, false);
+                }
+                throw ex;
+            }
+        }
+
+        @Override
+        protected void doKex() throws TransportException {
+            if (handshakeStarted) {
+                super.doKex();
+                return;
+            }
+            handshakeStarted = true;
+            metricsRecorder.recordSince(FileMetricsOperation.SSH_CONNECT, connectStartNanos, true);
+            final long handshakeStartNanos = System.nanoTime();
+            boolean success = false;
+            try {
+                super.doKex();
+                success = true;
+            } finally {
+                metricsRecorder.recordSince(FileMetricsOperation.SSH_HANDSHAKE, handshakeStartNanos, success);
+            }
+        }
+    }
+
+    /**
+     * Functional interface for single measured connecting phase.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @FunctionalInterface
+    private interface IMeasuredAction<T> {
+        T perform() throws IOException;
+    }
+
+    /**
+     * Functional interface for single attempt of connecting and performing action.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @FunctionalInterface
+    interface ISftpAttempt {
+        void perform() throws AttemptFailedException;
+    }
+
+    /**
+     * Inner checked exception storing failure of single attempt and information, if action was already started.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    static class AttemptFailedException extends Exception {
+
+        private final RuntimeException failure;
+        private final boolean actionStarted;
+
+        AttemptFailedException(RuntimeException failure, boolean actionStarted) {
+            super(failure.getMessage(), null, false, false);
+            this.failure = failure;
+            this.actionStarted = actionStarted;
+        }
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: SshKeyMaterialProvider.java
+ * Last modified: 19/10/2026, 20:25
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.socket;
+
+import lombok.extern.slf4j.Slf4j;
+
+import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.transport.verification.HostKeyVerifier;
+import net.schmizz.sshj.transport.verification.OpenSSHKnownHosts;
+import net.schmizz.sshj.userauth.keyprovider.KeyProvider;
+import net.schmizz.sshj.userauth.keyprovider.KeyPairWrapper;
+
+import java.util.Objects;
+import java.io.File;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchEvent;
+import java.nio.file.FileSystems;
+import java.nio.file.WatchService;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.ClosedWatchServiceException;
+import java.security.KeyPair;
+
+/**
+ * Class responsible for loading SSH known hosts (host key verifier) and user private key (key provider) once and
+ * keeping them in memory, so every SSH connection does not read and decode key files. Optionally, parent directories
+ * of key files are watched by {@link WatchService} and key material is reloaded only after files change. If reloading
+ * failed (ex. file was partially written), previously loaded key material is still used.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+class SshKeyMaterialProvider implements Closeable {
+
+    private static final long RELOAD_DEBOUNCE_MS = 200;
+
+    private final Path knownHostsPath;
+    private final Path privateKeyPath;
+    private final WatchService watchService;
+    private volatile SshKeyMaterial keyMaterial;
+
+    SshKeyMaterialProvider(File knownHostsFile, File privateKeyFile, boolean watchFiles) {
+        knownHostsPath = knownHostsFile.toPath().toAbsolutePath().normalize();
+        privateKeyPath = privateKeyFile.toPath().toAbsolutePath().normalize();
+        try {
+            reload();
+        } catch (IOException ex) {
+            log.error("Unable to preload SSH key material. Loading is retried on connect. Cause: {}", ex.getMessage());
+        }
+        watchService = watchFiles ? startWatching() : null;
+    }
+
+    /**
+     * Method responsible for returning preloaded key material. If key material was not loaded yet (ex. key files were
+     * not available on startup), loading is retried.
+     *
+     * @return preloaded key material as {@link SshKeyMaterial} record
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if key material is not loaded and unable to load key files
+     */
+    SshKeyMaterial getKeyMaterial() throws IOException {
+        final SshKeyMaterial loadedKeyMaterial = keyMaterial;
+        if (Objects.nonNull(loadedKeyMaterial)) return loadedKeyMaterial;
+        return reload();
+    }
+
+    /**
+     * Inner method responsible for reading and decoding known hosts and private key files. Key pair is decoded
+     * eagerly, so key provider does not read private key file during authentication.
+     *
+     * @return loaded key material as {@link SshKeyMaterial} record
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read or decode key files
+     */
+    private synchronized SshKeyMaterial reload() throws IOException {
+        final HostKeyVerifier hostKeyVerifier = new OpenSSHKnownHosts(knownHostsPath.toFile());
+        final KeyProvider keyProvider;
+        try (final SSHClient keysLoader = new SSHClient()) {
+            final KeyProvider fileKeyProvider = keysLoader.loadKeys(privateKeyPath.toString());
+            keyProvider = new KeyPairWrapper(new KeyPair(fileKeyProvider.getPublic(), fileKeyProvider.getPrivate()));
+        }
+        keyMaterial = new SshKeyMaterial(hostKeyVerifier, keyProvider);
+        log.info("Successful loaded SSH key material. Known hosts: {}, private key: {}", knownHostsPath,
+            privateKeyPath);
+        return keyMaterial;
+    }
+
+    /**
+     * Inner method responsible for registering parent directories of key files in {@link WatchService} and starting
+     * daemon thread reloading key material after files change.
+     *
+     * @return started watch service or null, if unable to watch key files directories
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private WatchService startWatching() {
+        try {
+            final WatchService startedWatchService = FileSystems.getDefault().newWatchService();
+            for (final Path directory : new Path[] { knownHostsPath.getParent(), privateKeyPath.getParent() }) {
+                directory.register(startedWatchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+            final Thread watcherThread = new Thread(() -> watchKeyFiles(startedWatchService), "jmpsl-ssh-key-watcher");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+            return startedWatchService;
+        } catch (IOException ex) {
+            log.warn("Unable to watch SSH key files. Key material is not reloaded. Cause: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Inner method responsible for waiting for key files changes and reloading key material. Events of other files in
+     * watched directories are ignored. Reload is delayed by debounce time, so single file change (written in many
+     * events) causes single reload.
+     *
+     * @param watchService watch service with registered key files directories
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void watchKeyFiles(WatchService watchService) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                WatchKey watchKey = watchService.take();
+                boolean isKeyFileChanged = false;
+                do {
+                    isKeyFileChanged |= containsKeyFileEvent(watchKey);
+                    watchKey.reset();
+                    Thread.sleep(RELOAD_DEBOUNCE_MS);
+                    watchKey = watchService.poll();
+                } while (Objects.nonNull(watchKey));
+                if (isKeyFileChanged) reload();
+            } catch (IOException ex) {
+                log.warn("Unable to reload changed SSH key material. Using previous. Cause: {}", ex.getMessage());
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Inner method responsible for checking, if passed watch key contains event of known hosts or private key file.
+     *
+     * @param watchKey signalled watch key of watched directory
+     * @return true, if any event concerns key files (or events were lost)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private boolean containsKeyFileEvent(WatchKey watchKey) {
+        final Path directory = (Path) watchKey.watchable();
+        boolean isKeyFileChanged = false;
+        for (final WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                isKeyFileChanged = true;
+                continue;
+            }
+            final Path changedPath = directory.resolve((Path) event.context());
+            isKeyFileChanged |= changedPath.equals(knownHostsPath) || changedPath.equals(privateKeyPath);
+        }
+        return isKeyFileChanged;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(watchService)) watchService.close();
+    }
+
+    /**
+     * Simple POJO record storing single consistent snapshot of SSH key material.
+     *
+     * @param hostKeyVerifier verifier of server host key (created from known hosts file)
+     * @param keyProvider provider of decoded user key pair
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    record SshKeyMaterial(HostKeyVerifier hostKeyVerifier, KeyProvider keyProvider) {
+    }
+}
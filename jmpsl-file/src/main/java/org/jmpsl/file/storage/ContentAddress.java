@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ContentAddress.java
+ * Last modified: 19/10/2026, 13:05
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+/**
+ * Simple POJO record storing location of single content-addressed file (stored by {@link ContentAddressedFileStore}).
+ *
+ * <ul>
+ *     <li><code>hash</code> - SHA-256 hash of file content (as lowercase hex string)</li>
+ *     <li><code>relativePath</code> - file path relative to content-addressed store base path</li>
+ *     <li><code>path</code> - full file path in storage</li>
+ *     <li><code>references</code> - count of references to the file after operation</li>
+ *     <li><code>transferred</code> - true, if file content was transferred into storage (not already stored)</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public record ContentAddress(String hash, String relativePath, String path, long references, boolean transferred) {
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ContentAddressedFileStore.java
+ * Last modified: 20/10/2026, 06:05
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.Assert;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.jmpsl.file.FileUtil;
+
+/**
+ * Spring Bean component responsible for storing files under content hash (SHA-256 of file bytes) with reference
+ * counting. Storing content, which already exist in store, skipped network transfer and only add new reference.
+ * Releasing last reference removes file from storage. Files are stored in following structure:
+ *
+ * <pre>
+ *     {basePath}/{first 2 hash characters}/{hash}.{extension}
+ *     {basePath}/{first 2 hash characters}/{hash}.{extension}.refs/{reference id}
+ * </pre>
+ *
+ * Every reference is stored as separate empty marker file (with random name) in <code>.refs</code> directory, so
+ * references are never updated by read-modify-write. Store only creates new marker, release removes single marker
+ * (removing already removed marker fails, so two concurrent releases never remove the same reference) and last
+ * reference removes <code>.refs</code> directory (fails, if concurrent store added new marker). Content file is moved
+ * to tombstone before removing <code>.refs</code> directory and restored, if new reference was added in the meantime.
+ * Thanks to that, single store base path could be shared by multiple application nodes, if storage backend executes
+ * remove and rename actions directly (not via write-behind journal). Inside single JVM, actions of the same hash are
+ * additionally serialized by striped locks.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Component
+public class ContentAddressedFileStore {
+
+    private static final String REFS_SUFFIX = ".refs";
+    private static final int LOCK_STRIPES = 64;
+    private static final int ADD_REFERENCE_ATTEMPTS = 3;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    ContentAddressedFileStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Method responsible for storing file content under content hash and adding new reference. If content already
+     * exist in store, file is not transferred into storage. Content is uploaded under temporary name and renamed, so
+     * concurrent readers never see partially uploaded file.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param basePath full storage path of content-addressed store base directory
+     * @param bytes file content
+     * @param extension file extension (without dot)
+     * @return instance of {@link ContentAddress} with stored file location
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to store file or add reference
+     * @throws IllegalArgumentException if any of passed parameters is null
+     */
+    public ContentAddress store(IFileStorageSession session, String basePath, byte[] bytes, String extension)
+            throws IOException {
+        Assert.noNullElements(new Object[] { session, basePath, bytes, extension }, "Parameters cannot be null.");
+        final String hash = computeHash(bytes);
+        final String relativePath = hash.substring(0, 2) + "/" + hash + "." + extension;
+        final String path = basePath + "/" + relativePath;
+        synchronized (locks[lockIndex(hash)]) {
+            final String referencePath = addReference(session, path + REFS_SUFFIX);
+            boolean transferred = false;
+            try {
+                if (session.stat(path).isEmpty()) {
+                    final String tempPath = path + "." + UUID.randomUUID() + ".tmp";
+                    session.put(tempPath, bytes);
+                    session.rename(tempPath, path);
+                    transferred = true;
+                }
+            } catch (IOException ex) {
+                deleteQuietly(session, referencePath);
+                throw ex;
+            }
+            final long references = countReferences(session, path + REFS_SUFFIX);
+            log.debug("Stored content-addressed file. Path: {}, references: {}, transferred: {}", path, references,
+                transferred);
+            return new ContentAddress(hash, relativePath, path, references, transferred);
+        }
+    }
+
+    /**
+     * Method responsible for removing single reference of content-addressed file. If it was last reference, file and
+     * references directory are removed from storage. Content file without any references is also removed.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param basePath full storage path of content-addressed store base directory
+     * @param relativePath file path relative to store base path (from {@link ContentAddress#relativePath()})
+     * @return count of references left after release (0, if file was removed)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to remove file or reference
+     * @throws IllegalArgumentException if any of passed parameters is null
+     */
+    public long release(IFileStorageSession session, String basePath, String relativePath) throws IOException {
+        Assert.noNullElements(new Object[] { session, basePath, relativePath }, "Parameters cannot be null.");
+        final String path = basePath + "/" + relativePath;
+        final String referencesPath = path + REFS_SUFFIX;
+        final String fileName = FileUtil.getFileName(relativePath);
+        final int extensionIndex = fileName.indexOf('.');
+        final String hash = extensionIndex < 0 ? fileName : fileName.substring(0, extensionIndex);
+        synchronized (locks[lockIndex(hash)]) {
+            if (!removeReference(session, referencesPath)) {
+                log.warn("Released content-addressed file without references. Path: {}", path);
+            }
+            final long references = countReferences(session, referencesPath);
+            if (references > 0) return references;
+            return removeUnreferencedContent(session, path, referencesPath);
+        }
+    }
+
+    /**
+     * Static method responsible for computing SHA-256 hash of passed content (as lowercase hex string).
+     *
+     * @param bytes file content
+     * @return SHA-256 hash as lowercase hex string
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static String computeHash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 algorithm is not supported by JVM.", ex);
+        }
+    }
+
+    /**
+     * Inner method responsible for adding reference marker file (with random name) into references directory. If
+     * references directory was removed by concurrent release of last reference (between creating directory and
+     * marker), action is repeated.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param referencesPath full references directory path
+     * @return full path of added reference marker file
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to add reference marker file
+     */
+    private String addReference(IFileStorageSession session, String referencesPath) throws IOException {
+        final String referencePath = referencesPath + "/" + UUID.randomUUID();
+        for (int attempt = 1; ; attempt++) {
+            session.mkdirs(referencesPath);
+            try {
+                session.put(referencePath, new byte[0]);
+                return referencePath;
+            } catch (IOException ex) {
+                if (attempt >= ADD_REFERENCE_ATTEMPTS) throw ex;
+                log.debug("Retrying adding content-addressed reference {}. Cause: {}", referencePath, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Inner method responsible for removing single reference marker file. If marker was already removed by concurrent
+     * release, next marker is removed (references directory is listed again, until any marker is removed or there
+     * are no markers left).
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param referencesPath full references directory path
+     * @return true, if reference marker file was removed, false if there are no references
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to list references directory
+     */
+    private boolean removeReference(IFileStorageSession session, String referencesPath) throws IOException {
+        while (session.stat(referencesPath).isPresent()) {
+            final List<FileStorageInfo> references = session.list(referencesPath);
+            if (references.isEmpty()) return false;
+            for (final FileStorageInfo reference : references) {
+                try {
+                    session.delete(reference.path());
+                    return true;
+                } catch (IOException ex) {
+                    log.debug("Content-addressed reference {} already removed. Cause: {}", reference.path(),
+                        ex.getMessage());
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inner method responsible for counting reference marker files.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param referencesPath full references directory path
+     * @return current references count
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to list references directory
+     */
+    private long countReferences(IFileStorageSession session, String referencesPath) throws IOException {
+        if (session.stat(referencesPath).isEmpty()) return 0;
+        return session.list(referencesPath).size();
+    }
+
+    /**
+     * Inner method responsible for removing content file without references. Content is moved to tombstone and empty
+     * references directory is removed. If removing fails, because concurrent store added new reference, content is
+     * restored from tombstone (or tombstone is removed, if concurrent store already transferred content again).
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param path full content file path
+     * @param referencesPath full references directory path
+     * @return count of references left after release (0, if file was removed)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to remove content file
+     */
+    private long removeUnreferencedContent(IFileStorageSession session, String path, String referencesPath)
+            throws IOException {
+        final Optional<FileStorageInfo> content = session.stat(path);
+        final String tombstonePath = path + "." + UUID.randomUUID() + ".deleted";
+        if (content.isPresent()) {
+            try {
+                session.rename(path, tombstonePath);
+            } catch (IOException ex) {
+                log.debug("Content-addressed file {} already removed. Cause: {}", path, ex.getMessage());
+                return 0;
+            }
+        }
+        try {
+            session.delete(referencesPath);
+        } catch (IOException ex) {
+            if (session.stat(referencesPath).isPresent()) {
+                if (content.isPresent()) restoreContent(session, tombstonePath, path);
+                return countReferences(session, referencesPath);
+            }
+        }
+        if (content.isPresent()) {
+            session.delete(tombstonePath);
+        }
+        log.debug("Removed content-addressed file without references. Path: {}", path);
+        return 0;
+    }
+
+    /**
+     * Inner method responsible for restoring content file from tombstone, after concurrent store added new reference.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param tombstonePath full tombstone file path
+     * @param path full content file path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void restoreContent(IFileStorageSession session, String tombstonePath, String path) {
+        try {
+            if (session.stat(path).isPresent()) {
+                session.delete(tombstonePath);
+            } else {
+                session.rename(tombstonePath, path);
+            }
+        } catch (IOException ex) {
+            log.error("Unable to restore referenced content-addressed file {} from tombstone {}. Cause: {}", path,
+                tombstonePath, ex.getMessage());
+        }
+    }
+
+    /**
+     * Inner method responsible for removing file and ignoring failure (only logged).
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param path full file path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void deleteQuietly(IFileStorageSession session, String path) {
+        try {
+            session.delete(path);
+        } catch (IOException ex) {
+            log.warn("Unable to remove content-addressed reference {}. Cause: {}", path, ex.getMessage());
+        }
+    }
+
+    /**
+     * @param hash content hash
+     * @return lock stripe index for passed hash
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private int lockIndex(String hash) {
+        return Math.floorMod(hash.hashCode(), LOCK_STRIPES);
+    }
+}
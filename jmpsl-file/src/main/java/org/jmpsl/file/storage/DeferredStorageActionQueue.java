@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: DeferredStorageActionQueue.java
+ * Last modified: 19/10/2026, 18:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.Assert;
+import org.springframework.stereotype.Component;
+import org.springframework.core.env.Environment;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jmpsl.file.FileEnv;
+import org.jmpsl.file.scheduler.TransferPriority;
+import org.jmpsl.file.scheduler.TransferScheduler;
+
+/**
+ * Spring Bean component responsible for executing non-critical storage actions (ex. removing replaced files)
+ * asynchronously, outside request thread. Scheduled actions are collected and executed in batches, where every batch
+ * is performed in single {@link IFileStorage} session. Failed batches (unable to open session) are scheduled again,
+ * maximum {@link #MAX_ATTEMPTS} times. Actions are scheduled as background transfers by {@link TransferScheduler}.
+ * Before run application, optionally declare following properties in <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.file.deferred-actions.flush-interval-ms</code> - batches flush interval, by default 500ms</li>
+ *     <li><code>jmpsl.file.deferred-actions.max-batch-size</code> - max actions in single batch, by default 100</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Component
+public class DeferredStorageActionQueue implements DisposableBean {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final int maxBatchSize;
+    private final IFileStorage fileStorage;
+    private final ScheduledExecutorService scheduler;
+    private final BlockingQueue<DeferredAction> actions = new LinkedBlockingQueue<>();
+
+    DeferredStorageActionQueue(Environment env, TransferScheduler transferScheduler) {
+        fileStorage = transferScheduler.getStorage(TransferPriority.BACKGROUND);
+        maxBatchSize = FileEnv.__JFM_DEFERRED_MAX_BATCH_SIZE.getProperty(env, Integer.class);
+        final long flushInterval = FileEnv.__JFM_DEFERRED_FLUSH_INTERVAL_MS.getProperty(env, Long.class);
+        if (maxBatchSize < 1 || flushInterval < 1) {
+            throw new IllegalArgumentException("Deferred actions batch size and flush interval cannot be less than 1");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "jmpsl-deferred-storage-actions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method responsible for scheduling storage action. Action will be executed asynchronously in next batch.
+     *
+     * @param description short action description (for logger purposes)
+     * @param executor anonymous class from {@link IFileStorageExecutor} interface
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if description or executor is null
+     */
+    public void schedule(String description, IFileStorageExecutor executor) {
+        Assert.noNullElements(new Object[] { description, executor }, "Description and executor cannot be null.");
+        actions.add(new DeferredAction(description, executor, 0));
+    }
+
+    /**
+     * Method responsible for executing all scheduled actions (in batches with max size declared in properties). Every
+     * batch is executed in single storage session. Single failed action does not stop other actions in batch.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public synchronized void flush() {
+        while (!actions.isEmpty()) {
+            final List<DeferredAction> batch = new ArrayList<>(Math.min(actions.size(), maxBatchSize));
+            actions.drainTo(batch, maxBatchSize);
+            try {
+                fileStorage.performInSession(session -> {
+                    for (final DeferredAction action : batch) {
+                        try {
+                            action.executor().execute(session);
+                        } catch (Exception ex) {
+                            log.warn("Unable to perform deferred storage action: {}. Cause: {}", action.description(),
+                                ex.getMessage());
+                        }
+                    }
+                });
+            } catch (RuntimeException ex) {
+                log.error("Unable to open storage session for deferred actions. Actions count: {}", batch.size());
+                batch.stream()
+                    .filter(action -> action.attempts() + 1 < MAX_ATTEMPTS)
+                    .map(action -> new DeferredAction(action.description(), action.executor(), action.attempts() + 1))
+                    .forEach(actions::add);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return count of scheduled and not executed actions
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public int getPendingActionsCount() {
+        return actions.size();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        flush();
+    }
+
+    /**
+     * Simple POJO record storing single scheduled storage action and count of failed attempts.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private record DeferredAction(String description, IFileStorageExecutor executor, int attempts) {
+    }
+}
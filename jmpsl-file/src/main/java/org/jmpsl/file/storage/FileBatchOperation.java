@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: FileBatchOperation.java
+ * Last modified: 19/10/2026, 14:55
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import org.springframework.util.Assert;
+
+import java.util.Objects;
+
+/**
+ * Simple POJO record storing single operation executed in batch via {@link IFileStorageSession#executeBatch} method.
+ * Use static factory methods to create instances.
+ *
+ * <ul>
+ *     <li><code>type</code> - operation type (put, delete, mkdirs)</li>
+ *     <li><code>path</code> - full file or directory path</li>
+ *     <li><code>bytes</code> - file content (only for put operation, otherwise null)</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public record FileBatchOperation(FileBatchOperationType type, String path, byte[] bytes) {
+
+    public FileBatchOperation {
+        Assert.notNull(type, "Batch operation type cannot be null.");
+        Assert.hasLength(path, "Batch operation path cannot be empty.");
+        Assert.isTrue(type != FileBatchOperationType.PUT || Objects.nonNull(bytes),
+            "Batch put operation content cannot be null.");
+    }
+
+    /**
+     * Static method responsible for creating batch operation saving (or overwriting) file in passed path.
+     *
+     * @param path full file path
+     * @param bytes file content
+     * @return instance of {@link FileBatchOperation}
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static FileBatchOperation put(String path, byte[] bytes) {
+        return new FileBatchOperation(FileBatchOperationType.PUT, path, bytes);
+    }
+
+    /**
+     * Static method responsible for creating batch operation removing file from passed path.
+     *
+     * @param path full file path
+     * @return instance of {@link FileBatchOperation}
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static FileBatchOperation delete(String path) {
+        return new FileBatchOperation(FileBatchOperationType.DELETE, path, null);
+    }
+
+    /**
+     * Static method responsible for creating batch operation creating directory (and all non-existing parent
+     * directories) in passed path.
+     *
+     * @param path full directory path
+     * @return instance of {@link FileBatchOperation}
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static FileBatchOperation mkdirs(String path) {
+        return new FileBatchOperation(FileBatchOperationType.MKDIRS, path, null);
+    }
+
+    @Override
+    public String toString() {
+        return "FileBatchOperation{type=" + type + ", path=" + path + "}";
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: FileBatchOperationType.java
+ * Last modified: 19/10/2026, 14:55
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+/**
+ * Enum set of all available single operations types, which could be executed in one batch via
+ * {@link IFileStorageSession#executeBatch(java.util.List)} method.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public enum FileBatchOperationType {
+
+    /**
+     * Save (or overwrite) file. Parent directory must exist (or must be created by previous batch operation).
+     *
+     * @since 1.0.2
+     */
+    PUT,
+
+    /**
+     * Remove file. Removing not existing file is treated as successful operation.
+     *
+     * @since 1.0.2
+     */
+    DELETE,
+
+    /**
+     * Create directory (and all non-existing parent directories).
+     *
+     * @since 1.0.2
+     */
+    MKDIRS
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: FileBatchResult.java
+ * Last modified: 20/10/2026, 04:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import java.io.IOException;
+
+import org.jmpsl.file.FileUtil;
+
+/**
+ * Simple POJO record storing result of single operation executed in batch via
+ * {@link IFileStorageSession#executeBatch} method.
+ *
+ * <ul>
+ *     <li><code>operation</code> - executed batch operation</li>
+ *     <li><code>successful</code> - true, if operation was successfully executed</li>
+ *     <li><code>errorMessage</code> - cause of failure (null for successful operations)</li>
+ *     <li><code>permanentFailure</code> - true, if operation failed permanently (path not exist or access denied) and
+ *     repeated operation gives the same result, false for successful operations and other failures (ex. lost
+ *     connection, timeout or interruption)</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public record FileBatchResult(
+    FileBatchOperation operation, boolean successful, String errorMessage, boolean permanentFailure
+) {
+
+    /**
+     * Static method responsible for creating result of successfully executed batch operation.
+     *
+     * @param operation executed batch operation
+     * @return instance of {@link FileBatchResult}
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static FileBatchResult success(FileBatchOperation operation) {
+        return new FileBatchResult(operation, true, null, false);
+    }
+
+    /**
+     * Static method responsible for creating result of failed batch operation. Failure is permanent, if it is
+     * permanent storage failure (see {@link FileUtil#isPermanentStorageFailure(Throwable)}).
+     *
+     * @param operation executed batch operation
+     * @param cause cause of failure
+     * @return instance of {@link FileBatchResult}
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static FileBatchResult failure(FileBatchOperation operation, IOException cause) {
+        return new FileBatchResult(operation, false, cause.getMessage(), FileUtil.isPermanentStorageFailure(cause));
+    }
+}
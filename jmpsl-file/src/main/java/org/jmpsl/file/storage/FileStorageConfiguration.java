@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: FileStorageConfiguration.java
+ * Last modified: 19/10/2026, 19:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.StringUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.jmpsl.file.FileEnv;
+import org.jmpsl.file.journal.FileJournal;
+import org.jmpsl.file.journal.WriteBehindFileStorage;
+import org.jmpsl.file.cache.RemoteDirectoryCache;
+import org.jmpsl.file.metrics.IFileMetricsRecorder;
+import org.jmpsl.file.socket.SshFileSocketConnector;
+
+/**
+ * Spring configuration class responsible for creating active {@link IFileStorage} Spring Bean. Before run application,
+ * optionally declare following properties in <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.file.storage.type</code> - storage backend type (sftp, local, in-memory), by default sftp</li>
+ *     <li><code>jmpsl.file.local.root-path</code> - local storage root directory (required only for local storage)</li>
+ *     <li><code>jmpsl.file.local.memory-mapped-reads</code> - read local files via memory mapping, by default false</li>
+ *     <li><code>jmpsl.file.local.sync-writes</code> - force local writes to the storage device, by default true</li>
+ *     <li><code>jmpsl.file.write-behind.active</code> - journal and drain writes asynchronously, default false</li>
+ *     <li><code>jmpsl.file.write-behind.journal-path</code> - local journal directory (required in write-behind)</li>
+ *     <li><code>jmpsl.file.write-behind.segment-size-mb</code> - max size of single journal segment, by default 64</li>
+ *     <li><code>jmpsl.file.write-behind.sync-interval-ms</code> - journal group commit interval, by default 5</li>
+ *     <li><code>jmpsl.file.write-behind.drain-batch-size</code> - max records drained in one session, default 200</li>
+ *     <li><code>jmpsl.file.write-behind.drain-interval-ms</code> - journal drain interval, by default 200</li>
+ * </ul>
+ *
+ * For local and in-memory storages, public URL is created based <code>jmpsl.file.sftp.server-url</code> and
+ * <code>jmpsl.file.app-external-server-path</code> properties (the same as for SFTP storage). If you are using
+ * local or in-memory storage, disable SSH socket via <code>jmpsl.file.ssh.active</code> property.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Configuration
+public class FileStorageConfiguration {
+
+    @Bean
+    public IFileStorage fileStorage(
+        Environment env, SshFileSocketConnector socketConnector, RemoteDirectoryCache directoryCache,
+        IFileMetricsRecorder metricsRecorder
+    ) {
+        final FileStorageType storageType = FileStorageType.findByTypeName(FileEnv.__JFM_STORAGE_TYPE.getProperty(env));
+        IFileStorage fileStorage = switch (storageType) {
+            case SFTP -> new SftpFileStorage(socketConnector, directoryCache, metricsRecorder);
+            case LOCAL -> new LocalFileStorage(createLocalRootPath(env), createPublicUrl(env),
+                FileEnv.__JFM_LOCAL_MMAP_READS.getProperty(env, Boolean.class),
+                FileEnv.__JFM_LOCAL_SYNC_WRITES.getProperty(env, Boolean.class));
+            case IN_MEMORY -> new InMemoryFileStorage("/", createPublicUrl(env));
+        };
+        if (FileEnv.__JFM_WRITE_BEHIND_ACTIVE.getProperty(env, Boolean.class)) {
+            fileStorage = createWriteBehindStorage(env, fileStorage);
+        }
+        log.info("Successful initialized file storage. Storage type: {}, root path: {}", storageType,
+            fileStorage.getRootPath());
+        return fileStorage;
+    }
+
+    /**
+     * Inner method responsible for creating write-behind storage decorator (with local journal located in
+     * <code>jmpsl.file.write-behind.journal-path</code> directory) for passed storage.
+     *
+     * @param env {@link Environment} instance passed from injected bean
+     * @param fileStorage decorated storage
+     * @return instance of {@link WriteBehindFileStorage}
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalStateException if journal path property is not declared
+     * @throws UncheckedIOException if unable to open or recover journal
+     */
+    private IFileStorage createWriteBehindStorage(Environment env, IFileStorage fileStorage) {
+        final String journalPath = FileEnv.__JFM_WRITE_BEHIND_JOURNAL_PATH.getProperty(env);
+        if (!StringUtils.hasLength(journalPath)) {
+            throw new IllegalStateException("Property 'jmpsl.file.write-behind.journal-path' is required for "
+                + "write-behind mode.");
+        }
+        try {
+            final FileJournal journal = new FileJournal(Path.of(journalPath),
+                FileEnv.__JFM_WRITE_BEHIND_SEGMENT_SIZE_MB.getProperty(env, Long.class) * 1024 * 1024,
+                FileEnv.__JFM_WRITE_BEHIND_SYNC_INTERVAL_MS.getProperty(env, Long.class));
+            log.info("Successful opened write-behind journal. Journal path: {}, pending records: {}", journalPath,
+                journal.getPendingRecordsCount());
+            return new WriteBehindFileStorage(fileStorage, journal,
+                FileEnv.__JFM_WRITE_BEHIND_DRAIN_BATCH_SIZE.getProperty(env, Integer.class),
+                FileEnv.__JFM_WRITE_BEHIND_DRAIN_INTERVAL_MS.getProperty(env, Long.class));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to open write-behind journal: " + journalPath, ex);
+        }
+    }
+
+    /**
+     * Inner method responsible for creating local storage root directory (based <code>jmpsl.file.local.root-path</code>
+     * and <code>jmpsl.file.app-external-server-path</code> properties). If directory already exist, skipped creating.
+     *
+     * @param env {@link Environment} instance passed from injected bean
+     * @return local storage root path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalStateException if local root path property is not declared
+     * @throws UncheckedIOException if unable to create local root directory
+     */
+    private Path createLocalRootPath(Environment env) {
+        final String localRootPath = FileEnv.__JFM_LOCAL_ROOT_PATH.getProperty(env);
+        if (!StringUtils.hasLength(localRootPath)) {
+            throw new IllegalStateException("Property 'jmpsl.file.local.root-path' is required for local storage.");
+        }
+        final String appServerPath = FileEnv.__JFM_SSH_APP_EXT_SERVER_URL.getProperty(env);
+        final Path rootPath = StringUtils.hasLength(appServerPath)
+            ? Path.of(localRootPath, appServerPath)
+            : Path.of(localRootPath);
+        try {
+            return Files.createDirectories(rootPath);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to create local storage root directory: " + rootPath, ex);
+        }
+    }
+
+    /**
+     * Inner method responsible for creating storage public URL (based <code>jmpsl.file.sftp.server-url</code> and
+     * <code>jmpsl.file.app-external-server-path</code> properties).
+     *
+     * @param env {@link Environment} instance passed from injected bean
+     * @return storage public URL
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private String createPublicUrl(Environment env) {
+        final String serverUrl = FileEnv.__JFM_SFTP_SERVER_URL.getProperty(env);
+        final String appServerPath = FileEnv.__JFM_SSH_APP_EXT_SERVER_URL.getProperty(env);
+        return StringUtils.hasLength(appServerPath) ? serverUrl + "/" + appServerPath : serverUrl;
+    }
+}
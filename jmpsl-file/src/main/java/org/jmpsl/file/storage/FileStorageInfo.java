@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: FileStorageInfo.java
+ * Last modified: 19/10/2026, 11:47
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+/**
+ * Simple POJO record storing basic metadata of single file or directory located in {@link IFileStorage} backend.
+ *
+ * <ul>
+ *     <li><code>name</code> - simple file or directory name (without any slashes)</li>
+ *     <li><code>path</code> - full file or directory path in storage</li>
+ *     <li><code>directory</code> - true, if resource is directory</li>
+ *     <li><code>size</code> - file size in bytes (0 for directories)</li>
+ *     <li><code>lastModified</code> - last modification time in milliseconds from epoch</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public record FileStorageInfo(String name, String path, boolean directory, long size, long lastModified) {
+}
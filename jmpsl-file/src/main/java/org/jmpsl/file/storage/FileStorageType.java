@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: FileStorageType.java
+ * Last modified: 19/10/2026, 11:47
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Enum set of all available {@link IFileStorage} backend implementations. Selected by
+ * <code>jmpsl.file.storage.type</code> property in <code>application.properties</code> file.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Getter
+@AllArgsConstructor
+public enum FileStorageType {
+
+    /**
+     * Remote SFTP server storage (via SSH socket connection).
+     *
+     * @since 1.0.2
+     */
+    SFTP("sftp"),
+
+    /**
+     * Local file system storage (via NIO file channels). Used mostly in single-host deployments.
+     *
+     * @since 1.0.2
+     */
+    LOCAL("local"),
+
+    /**
+     * In-memory storage. Used only in tests and benchmarks (all data is lost after application shutdown).
+     *
+     * @since 1.0.2
+     */
+    IN_MEMORY("in-memory");
+
+    /**
+     * Storage type name used in <code>application.properties</code> file.
+     *
+     * @since 1.0.2
+     */
+    private final String typeName;
+
+    /**
+     * Static method responsible for finding storage type based passed property name (case insensitive).
+     *
+     * @param typeName storage type name from <code>application.properties</code> file
+     * @return found {@link FileStorageType} enum type
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if storage type with passed name not exist
+     */
+    public static FileStorageType findByTypeName(String typeName) {
+        return Arrays.stream(values())
+            .filter(type -> type.typeName.equalsIgnoreCase(typeName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Not supported file storage type: " + typeName));
+    }
+}
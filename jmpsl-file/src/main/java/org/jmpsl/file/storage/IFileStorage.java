@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: IFileStorage.java
+ * Last modified: 19/10/2026, 16:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import java.util.List;
+import java.util.Collections;
+import java.util.ArrayList;
+
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+/**
+ * Storage SPI interface defining single file storage backend (remote SFTP server, local file system or memory). All
+ * operations are performed on {@link IFileStorageSession} instance opened only for lifetime of passed executor.
+ * Active implementation is selected by <code>jmpsl.file.storage.type</code> property.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ * @see FileStorageType
+ */
+public interface IFileStorage {
+
+    /**
+     * Method responsible for opening storage session and perform custom action declared in lambda function anonymous
+     * class. Session is closed after executor finished.
+     *
+     * @param executor anonymous class from {@link IFileStorageExecutor} interface
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to open session or perform storage action
+     */
+    void performInSession(IFileStorageExecutor executor);
+
+    /**
+     * Method responsible for opening storage session and perform idempotent action (action, which could be safely
+     * repeated, ex. put, delete or mkdirs). Storage implementations could retry idempotent actions after transient
+     * failures. By default, the same as {@link #performInSession} method.
+     *
+     * @param executor anonymous class from {@link IFileStorageExecutor} interface
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to open session or perform storage action
+     */
+    default void performIdempotentInSession(IFileStorageExecutor executor) {
+        performInSession(executor);
+    }
+
+    /**
+     * Method responsible for opening passed count of storage sessions and perform custom action, which could use every
+     * session in separate thread (used for parallel chunked transfers). Action is treated as idempotent. By default,
+     * single session is opened and shared between all threads (storages with thread-safe sessions).
+     *
+     * @param sessionsCount count of opened sessions
+     * @param executor anonymous class from {@link IFileStorageParallelExecutor} interface
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to open sessions or perform storage action
+     */
+    default void performInParallelSessions(int sessionsCount, IFileStorageParallelExecutor executor) {
+        performIdempotentInSession(session -> executor.execute(Collections.nCopies(Math.max(1, sessionsCount),
+            session)));
+    }
+
+    /**
+     * @return storage root path (base path of all application resources in storage)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    String getRootPath();
+
+    /**
+     * @return public URL of storage root path (used in generated resources locations)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    String getPublicUrl();
+
+    /**
+     * @return storage backend type
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    FileStorageType getStorageType();
+
+    /**
+     * Method responsible for opening single storage session and executing ordered list of batch operations (see
+     * {@link IFileStorageSession#executeBatch} method). Used mostly in bulk jobs, where thousands of files are saved or
+     * removed in single connection.
+     *
+     * @param operations ordered list of {@link FileBatchOperation} instances
+     * @return list of {@link FileBatchResult} instances (in the same order as passed operations)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to open session
+     */
+    default List<FileBatchResult> performBatch(List<FileBatchOperation> operations) {
+        final List<FileBatchResult> results = new ArrayList<>(operations.size());
+        performIdempotentInSession(session -> {
+            results.clear();
+            results.addAll(session.executeBatch(operations));
+        });
+        return results;
+    }
+}
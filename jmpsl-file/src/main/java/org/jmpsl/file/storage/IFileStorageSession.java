@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: IFileStorageSession.java
+ * Last modified: 20/10/2026, 04:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import java.util.Set;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.jmpsl.file.FileUtil;
+
+/**
+ * Interface defining all basic operations available on single opened {@link IFileStorage} session. All paths passed
+ * into methods are full storage paths (based on {@link IFileStorage#getRootPath()}).
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public interface IFileStorageSession {
+
+    /**
+     * Method responsible for saving (or overwriting) file in passed path. Parent directory must exist.
+     *
+     * @param path full file path
+     * @param bytes file content
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to save file in storage
+     */
+    void put(String path, byte[] bytes) throws IOException;
+
+    /**
+     * Method responsible for reading file from passed path and write content into passed output stream.
+     *
+     * @param path full file path
+     * @param outputStream output stream, where file content will be written
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if file not exist or unable to read file from storage
+     */
+    void get(String path, OutputStream outputStream) throws IOException;
+
+    /**
+     * Method responsible for removing file (or empty directory) from passed path.
+     *
+     * @param path full file path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if file not exist or unable to remove file from storage
+     */
+    void delete(String path) throws IOException;
+
+    /**
+     * Method responsible for writing passed bytes into file at passed offset (without truncating file). If file not
+     * exist, it is created (parent directory must exist). Used for chunked transfers.
+     *
+     * @param path full file path
+     * @param offset offset in file, where bytes will be written
+     * @param bytes buffer with written bytes
+     * @param length count of bytes written from the beginning of buffer
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to write into file
+     */
+    void writeRange(String path, long offset, byte[] bytes, int length) throws IOException;
+
+    /**
+     * Method responsible for reading passed count of bytes from file at passed offset. If file is shorter, returned
+     * array contains only existing bytes. Used for chunked transfers.
+     *
+     * @param path full file path
+     * @param offset offset in file, from which bytes will be read
+     * @param length max count of read bytes
+     * @return read bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if file not exist or unable to read file
+     */
+    byte[] readRange(String path, long offset, int length) throws IOException;
+
+    /**
+     * Method responsible for renaming (moving) file. If target file already exist, it is atomically replaced (if
+     * storage backend supports atomic rename), so readers always see old or new file content.
+     *
+     * @param sourcePath full source file path
+     * @param targetPath full target file path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if source file not exist or unable to rename file
+     */
+    void rename(String sourcePath, String targetPath) throws IOException;
+
+    /**
+     * Method responsible for listing all files and directories located in passed directory path.
+     *
+     * @param path full directory path
+     * @return list of {@link FileStorageInfo} instances with resources metadata
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if directory not exist or unable to list directory
+     */
+    List<FileStorageInfo> list(String path) throws IOException;
+
+    /**
+     * Method responsible for creating directory (and all non-existing parent directories). If directory already exist,
+     * skipped.
+     *
+     * @param path full directory path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to create directory
+     */
+    void mkdirs(String path) throws IOException;
+
+    /**
+     * Method responsible for getting metadata of single file or directory.
+     *
+     * @param path full file or directory path
+     * @return optional {@link FileStorageInfo} instance, empty if resource not exist
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to get resource metadata
+     */
+    Optional<FileStorageInfo> stat(String path) throws IOException;
+
+    /**
+     * Method responsible for reading entire file from passed path as array of bytes.
+     *
+     * @param path full file path
+     * @return file content
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if file not exist or unable to read file from storage
+     */
+    default byte[] get(String path) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        get(path, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Method responsible for atomically replacing file content. Content is written into temporary file (in the same
+     * directory) and renamed over target file, so there is no window, where target file does not exist or has
+     * partially written content. Parent directory must exist.
+     *
+     * @param path full file path
+     * @param bytes file content
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to save or rename file in storage
+     */
+    default void replace(String path, byte[] bytes) throws IOException {
+        final String tempPath = FileUtil.getParentPath(path) + "/." + FileUtil.getFileName(path) + "."
+            + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp";
+        put(tempPath, bytes);
+        try {
+            rename(tempPath, path);
+        } catch (IOException | RuntimeException ex) {
+            try {
+                delete(tempPath);
+            } catch (IOException | RuntimeException cleanupEx) {
+                ex.addSuppressed(cleanupEx);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Method responsible for listing names of all files and directories located in passed directory path. Storage
+     * implementations could return this data from local caches.
+     *
+     * @param path full directory path
+     * @return set of resources names
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if directory not exist or unable to list directory
+     */
+    default Set<String> listNames(String path) throws IOException {
+        return list(path).stream().map(FileStorageInfo::name).collect(Collectors.toSet());
+    }
+
+    /**
+     * Method responsible for incremental listing of all files and directories located in passed directory path. Every
+     * found resource is passed into scanner (in storage order) directly after receiving it from storage, so whole
+     * listing is not kept in memory. Listing is always read from storage (storage implementations do not use and do not
+     * fill local caches). Used by bulk jobs scanning directories with thousands of resources. By default, directory is
+     * listed via {@link #list} method.
+     *
+     * @param path full directory path
+     * @param scanner anonymous class from {@link IFileStorageScanner} interface
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if directory not exist, unable to list directory or scanner failed
+     */
+    default void scan(String path, IFileStorageScanner scanner) throws IOException {
+        for (final FileStorageInfo resource : list(path)) {
+            scanner.accept(resource);
+        }
+    }
+
+    /**
+     * Method responsible for executing ordered list of put, delete and mkdirs operations in current session. Failure
+     * of single operation does not stop the batch, every operation has own {@link FileBatchResult}. Default
+     * implementation executes operations sequentially, storage implementations could pipeline independent operations
+     * (operations on different paths, without parent-child relation) but always preserve declared order of dependent
+     * operations.
+     *
+     * @param operations ordered list of {@link FileBatchOperation} instances
+     * @return list of {@link FileBatchResult} instances (in the same order as passed operations)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    default List<FileBatchResult> executeBatch(List<FileBatchOperation> operations) {
+        final List<FileBatchResult> results = new ArrayList<>(operations.size());
+        for (final FileBatchOperation operation : operations) {
+            try {
+                switch (operation.type()) {
+                    case PUT -> put(operation.path(), operation.bytes());
+                    case DELETE -> {
+                        if (stat(operation.path()).isPresent()) delete(operation.path());
+                    }
+                    case MKDIRS -> mkdirs(operation.path());
+                }
+                results.add(FileBatchResult.success(operation));
+            } catch (IOException ex) {
+                results.add(FileBatchResult.failure(operation, ex));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: InMemoryFileStorage.java
+ * Last modified: 20/10/2026, 06:05
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.FileAlreadyExistsException;
+
+import org.jmpsl.file.FileUtil;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+/**
+ * {@link IFileStorage} implementation storing all files in memory (thread-safe concurrent maps). Used only in tests
+ * and benchmarks. Storage mirrors semantic of remote storages (parent directory must exist before put file, removing
+ * not existing file throws exception etc.).
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+public class InMemoryFileStorage implements IFileStorage, IFileStorageSession {
+
+    private final String rootPath;
+    private final String publicUrl;
+    private final ConcurrentMap<String, StoredResource> resources = new ConcurrentHashMap<>();
+
+    public InMemoryFileStorage(String rootPath, String publicUrl) {
+        this.rootPath = FileUtil.normalizePath(rootPath);
+        this.publicUrl = publicUrl;
+        resources.put(this.rootPath, StoredResource.directory());
+    }
+
+    @Override
+    public void performInSession(IFileStorageExecutor executor) {
+        try {
+            executor.execute(this);
+        } catch (IOException ex) {
+            log.error("Unable to perform action on in-memory file storage. Cause: {}", ex.getMessage());
+            throw new ExternalFileServerMalfunctionException(ex);
+        }
+    }
+
+    @Override
+    public synchronized void put(String path, byte[] bytes) throws IOException {
+        final String normalizedPath = FileUtil.normalizePath(path);
+        final StoredResource parent = resources.get(FileUtil.getParentPath(normalizedPath));
+        if (Objects.isNull(parent) || !parent.isDirectory()) throw new NoSuchFileException(path);
+        final StoredResource previous = resources.get(normalizedPath);
+        if (Objects.nonNull(previous) && previous.isDirectory()) throw new FileAlreadyExistsException(path);
+        resources.put(normalizedPath, StoredResource.file(bytes.clone()));
+    }
+
+    @Override
+    public void get(String path, OutputStream outputStream) throws IOException {
+        outputStream.write(findFile(path).content());
+    }
+
+    @Override
+    public byte[] get(String path) throws IOException {
+        return findFile(path).content().clone();
+    }
+
+    @Override
+    public synchronized void writeRange(String path, long offset, byte[] bytes, int length) throws IOException {
+        final StoredResource previous = resources.get(FileUtil.normalizePath(path));
+        final byte[] previousContent = Objects.isNull(previous) || previous.isDirectory()
+            ? new byte[0] : previous.content();
+        final byte[] content = Arrays.copyOf(previousContent, (int) Math.max(previousContent.length, offset + length));
+        System.arraycopy(bytes, 0, content, (int) offset, length);
+        put(path, content);
+    }
+
+    @Override
+    public byte[] readRange(String path, long offset, int length) throws IOException {
+        final byte[] content = findFile(path).content();
+        final int from = (int) Math.min(offset, content.length);
+        return Arrays.copyOfRange(content, from, (int) Math.min(content.length, offset + length));
+    }
+
+    @Override
+    public synchronized void delete(String path) throws IOException {
+        final String normalizedPath = FileUtil.normalizePath(path);
+        final StoredResource resource = resources.get(normalizedPath);
+        if (Objects.isNull(resource)) throw new NoSuchFileException(path);
+        if (resource.isDirectory() && resources.keySet().stream()
+            .anyMatch(key -> key.startsWith(normalizedPath + "/"))) {
+            throw new IOException("Directory " + path + " is not empty.");
+        }
+        resources.remove(normalizedPath);
+    }
+
+    @Override
+    public synchronized void rename(String sourcePath, String targetPath) throws IOException {
+        final StoredResource source = findFile(sourcePath);
+        put(targetPath, source.content());
+        resources.remove(FileUtil.normalizePath(sourcePath));
+    }
+
+    @Override
+    public List<FileStorageInfo> list(String path) throws IOException {
+        final String normalizedPath = FileUtil.normalizePath(path);
+        final StoredResource directory = resources.get(normalizedPath);
+        if (Objects.isNull(directory) || !directory.isDirectory()) throw new NoSuchFileException(path);
+        final List<FileStorageInfo> infos = new ArrayList<>();
+        for (final Map.Entry<String, StoredResource> entry : resources.entrySet()) {
+            if (entry.getKey().equals(normalizedPath)) continue;
+            if (FileUtil.getParentPath(entry.getKey()).equals(normalizedPath)) {
+                infos.add(toStorageInfo(entry.getKey(), entry.getValue()));
+            }
+        }
+        return infos;
+    }
+
+    @Override
+    public synchronized void mkdirs(String path) throws IOException {
+        String currentPath = FileUtil.normalizePath(path);
+        final List<String> createdPaths = new ArrayList<>();
+        while (!resources.containsKey(currentPath)) {
+            createdPaths.add(currentPath);
+            final String parentPath = FileUtil.getParentPath(currentPath);
+            if (parentPath.isEmpty() || parentPath.equals(currentPath)) break;
+            currentPath = parentPath;
+        }
+        final StoredResource existing = resources.get(currentPath);
+        if (Objects.nonNull(existing) && !existing.isDirectory()) throw new FileAlreadyExistsException(currentPath);
+        for (final String createdPath : createdPaths) {
+            resources.putIfAbsent(createdPath, StoredResource.directory());
+        }
+    }
+
+    @Override
+    public Optional<FileStorageInfo> stat(String path) {
+        final String normalizedPath = FileUtil.normalizePath(path);
+        return Optional.ofNullable(resources.get(normalizedPath))
+            .map(resource -> toStorageInfo(normalizedPath, resource));
+    }
+
+    @Override
+    public String getRootPath() {
+        return rootPath;
+    }
+
+    @Override
+    public String getPublicUrl() {
+        return publicUrl;
+    }
+
+    @Override
+    public FileStorageType getStorageType() {
+        return FileStorageType.IN_MEMORY;
+    }
+
+    /**
+     * Inner method responsible for finding stored file (not directory) based passed path.
+     *
+     * @param path full file path
+     * @return found stored file
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws NoSuchFileException if file not exist or passed path is directory
+     */
+    private StoredResource findFile(String path) throws NoSuchFileException {
+        final StoredResource resource = resources.get(FileUtil.normalizePath(path));
+        if (Objects.isNull(resource) || resource.isDirectory()) throw new NoSuchFileException(path);
+        return resource;
+    }
+
+    /**
+     * Inner method responsible for mapping stored resource into {@link FileStorageInfo} POJO record.
+     *
+     * @param path full resource path
+     * @param resource stored resource
+     * @return mapped {@link FileStorageInfo} instance
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private FileStorageInfo toStorageInfo(String path, StoredResource resource) {
+        return new FileStorageInfo(FileUtil.getFileName(path), path, resource.isDirectory(),
+            resource.isDirectory() ? 0 : resource.content().length, resource.lastModified());
+    }
+
+    /**
+     * Simple POJO record storing single in-memory resource (file content or directory marker with null content).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private record StoredResource(byte[] content, long lastModified) {
+        static StoredResource file(byte[] content) {
+            return new StoredResource(content, System.currentTimeMillis());
+        }
+
+        static StoredResource directory() {
+            return new StoredResource(null, System.currentTimeMillis());
+        }
+
+        boolean isDirectory() {
+            return Objects.isNull(content);
+        }
+    }
+}
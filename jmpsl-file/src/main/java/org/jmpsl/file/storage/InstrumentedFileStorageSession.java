@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: InstrumentedFileStorageSession.java
+ * Last modified: 20/10/2026, 04:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import java.util.Set;
+import java.util.List;
+import java.util.Optional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.FilterOutputStream;
+
+import org.jmpsl.file.metrics.IFileMetricsRecorder;
+import org.jmpsl.file.metrics.FileMetricsOperation;
+
+/**
+ * {@link IFileStorageSession} decorator recording duration (and transferred bytes) of every storage action in
+ * {@link IFileMetricsRecorder}. Default interface methods (ex. replace) are not delegated, so their partial actions
+ * (put, rename, delete) are recorded separately.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class InstrumentedFileStorageSession implements IFileStorageSession {
+
+    private final IFileStorageSession delegate;
+    private final IFileMetricsRecorder metricsRecorder;
+
+    InstrumentedFileStorageSession(IFileStorageSession delegate, IFileMetricsRecorder metricsRecorder) {
+        this.delegate = delegate;
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    @Override
+    public void put(String path, byte[] bytes) throws IOException {
+        measure(FileMetricsOperation.PUT, () -> {
+            delegate.put(path, bytes);
+            return null;
+        });
+        metricsRecorder.recordBytes(FileMetricsOperation.PUT, bytes.length);
+    }
+
+    @Override
+    public void get(String path, OutputStream outputStream) throws IOException {
+        final long[] transferredBytes = new long[1];
+        measure(FileMetricsOperation.GET, () -> {
+            delegate.get(path, new FilterOutputStream(outputStream) {
+                @Override
+                public void write(int value) throws IOException {
+                    out.write(value);
+                    transferredBytes[0]++;
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length);
+                    transferredBytes[0] += length;
+                }
+            });
+            return null;
+        });
+        metricsRecorder.recordBytes(FileMetricsOperation.GET, transferredBytes[0]);
+    }
+
+    @Override
+    public void writeRange(String path, long offset, byte[] bytes, int length) throws IOException {
+        measure(FileMetricsOperation.WRITE_RANGE, () -> {
+            delegate.writeRange(path, offset, bytes, length);
+            return null;
+        });
+        metricsRecorder.recordBytes(FileMetricsOperation.WRITE_RANGE, length);
+    }
+
+    @Override
+    public byte[] readRange(String path, long offset, int length) throws IOException {
+        final byte[] bytes = measure(FileMetricsOperation.READ_RANGE, () -> delegate.readRange(path, offset, length));
+        metricsRecorder.recordBytes(FileMetricsOperation.READ_RANGE, bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        measure(FileMetricsOperation.DELETE, () -> {
+            delegate.delete(path);
+            return null;
+        });
+    }
+
+    @Override
+    public void rename(String sourcePath, String targetPath) throws IOException {
+        measure(FileMetricsOperation.RENAME, () -> {
+            delegate.rename(sourcePath, targetPath);
+            return null;
+        });
+    }
+
+    @Override
+    public List<FileStorageInfo> list(String path) throws IOException {
+        return measure(FileMetricsOperation.LIST, () -> delegate.list(path));
+    }
+
+    @Override
+    public Set<String> listNames(String path) throws IOException {
+        return measure(FileMetricsOperation.LIST, () -> delegate.listNames(path));
+    }
+
+    @Override
+    public void scan(String path, IFileStorageScanner scanner) throws IOException {
+        measure(FileMetricsOperation.LIST, () -> {
+            delegate.scan(path, scanner);
+            return null;
+        });
+    }
+
+    @Override
+    public void mkdirs(String path) throws IOException {
+        measure(FileMetricsOperation.MKDIR, () -> {
+            delegate.mkdirs(path);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<FileStorageInfo> stat(String path) throws IOException {
+        return measure(FileMetricsOperation.STAT, () -> delegate.stat(path));
+    }
+
+    @Override
+    public List<FileBatchResult> executeBatch(List<FileBatchOperation> operations) {
+        final long startNanos = System.nanoTime();
+        final List<FileBatchResult> results = delegate.executeBatch(operations);
+        metricsRecorder.recordSince(FileMetricsOperation.BATCH, startNanos,
+            results.stream().allMatch(FileBatchResult::successful));
+        metricsRecorder.recordBytes(FileMetricsOperation.BATCH, operations.stream()
+            .filter(operation -> operation.type() == FileBatchOperationType.PUT)
+            .mapToLong(operation -> operation.bytes().length)
+            .sum());
+        return results;
+    }
+
+    /**
+     * Inner method responsible for performing storage action and recording its duration and outcome.
+     *
+     * @param operation measured operation
+     * @param action storage action
+     * @return storage action result
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if storage action failed
+     */
+    private <T> T measure(FileMetricsOperation operation, IMeasuredAction<T> action) throws IOException {
+        final long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            final T result = action.perform();
+            success = true;
+            return result;
+        } finally {
+            metricsRecorder.recordSince(operation, startNanos, success);
+        }
+    }
+
+    /**
+     * Functional interface for single measured storage action.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @FunctionalInterface
+    private interface IMeasuredAction<T> {
+        T perform() throws IOException;
+    }
+}
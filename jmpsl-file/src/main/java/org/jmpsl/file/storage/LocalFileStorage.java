@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: LocalFileStorage.java
+ * Last modified: 20/10/2026, 05:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.DirectoryStream;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+/**
+ * {@link IFileStorage} implementation storing files on local file system (via NIO {@link FileChannel}). Used mostly
+ * in single-host deployments, where file server volume is mounted locally. Every file is written into temporary file
+ * in the same directory and atomically moved into target location, so readers never see partially written file.
+ * Optionally, files are read via memory-mapped buffers. All paths must be located inside storage root directory.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+public class LocalFileStorage implements IFileStorage, IFileStorageSession {
+
+    private static final long MAX_MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
+    private final Path rootPath;
+    private final String publicUrl;
+    private final boolean memoryMappedReads;
+    private final boolean syncWrites;
+
+    public LocalFileStorage(Path rootPath, String publicUrl, boolean memoryMappedReads, boolean syncWrites) {
+        this.rootPath = rootPath.toAbsolutePath().normalize();
+        this.publicUrl = publicUrl;
+        this.memoryMappedReads = memoryMappedReads;
+        this.syncWrites = syncWrites;
+    }
+
+    @Override
+    public void performInSession(IFileStorageExecutor executor) {
+        try {
+            executor.execute(this);
+        } catch (IOException ex) {
+            log.error("Unable to perform action on local file storage. Cause: {}", ex.getMessage());
+            throw new ExternalFileServerMalfunctionException(ex);
+        }
+    }
+
+    @Override
+    public void put(String path, byte[] bytes) throws IOException {
+        final Path target = resolve(path);
+        final Path tempFile = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        try {
+            try (final FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (syncWrites) channel.force(true);
+            }
+            moveAtomically(tempFile, target);
+        } catch (IOException ex) {
+            Files.deleteIfExists(tempFile);
+            throw ex;
+        }
+    }
+
+    @Override
+    public void get(String path, OutputStream outputStream) throws IOException {
+        final WritableByteChannel outputChannel = Channels.newChannel(outputStream);
+        try (final FileChannel channel = FileChannel.open(resolve(path), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                if (memoryMappedReads) {
+                    final long regionSize = Math.min(MAX_MAPPED_REGION_SIZE, size - position);
+                    final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                    while (buffer.hasRemaining()) {
+                        outputChannel.write(buffer);
+                    }
+                    position += regionSize;
+                } else {
+                    position += channel.transferTo(position, size - position, outputChannel);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void writeRange(String path, long offset, byte[] bytes, int length) throws IOException {
+        try (final FileChannel channel = FileChannel.open(resolve(path), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+            if (syncWrites) channel.force(false);
+        }
+    }
+
+    @Override
+    public byte[] readRange(String path, long offset, int length) throws IOException {
+        try (final FileChannel channel = FileChannel.open(resolve(path), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, Math.min(length, channel.size() - offset)));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) break;
+            }
+            return buffer.array();
+        }
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        Files.delete(resolve(path));
+    }
+
+    @Override
+    public void rename(String sourcePath, String targetPath) throws IOException {
+        moveAtomically(resolve(sourcePath), resolve(targetPath));
+    }
+
+    @Override
+    public void replace(String path, byte[] bytes) throws IOException {
+        put(path, bytes);
+    }
+
+    @Override
+    public List<FileStorageInfo> list(String path) throws IOException {
+        try (final Stream<Path> resources = Files.list(resolve(path))) {
+            final List<Path> paths = resources.toList();
+            final List<FileStorageInfo> infos = new ArrayList<>(paths.size());
+            for (final Path resource : paths) {
+                infos.add(toStorageInfo(resource, Files.readAttributes(resource, BasicFileAttributes.class)));
+            }
+            return infos;
+        }
+    }
+
+    @Override
+    public void scan(String path, IFileStorageScanner scanner) throws IOException {
+        try (final DirectoryStream<Path> resources = Files.newDirectoryStream(resolve(path))) {
+            for (final Path resource : resources) {
+                scanner.accept(toStorageInfo(resource, Files.readAttributes(resource, BasicFileAttributes.class)));
+            }
+        }
+    }
+
+    @Override
+    public void mkdirs(String path) throws IOException {
+        Files.createDirectories(resolve(path));
+    }
+
+    @Override
+    public Optional<FileStorageInfo> stat(String path) throws IOException {
+        final Path resource = resolve(path);
+        try {
+            return Optional.of(toStorageInfo(resource, Files.readAttributes(resource, BasicFileAttributes.class)));
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String getRootPath() {
+        return rootPath.toString();
+    }
+
+    @Override
+    public String getPublicUrl() {
+        return publicUrl;
+    }
+
+    @Override
+    public FileStorageType getStorageType() {
+        return FileStorageType.LOCAL;
+    }
+
+    /**
+     * Inner method responsible for resolving passed storage path into local file system path. Passed path must be
+     * located inside storage root directory.
+     *
+     * @param path full storage path
+     * @return normalized absolute local {@link Path} instance
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if passed path is located outside storage root directory
+     */
+    private Path resolve(String path) throws IOException {
+        final Path resolved = Path.of(path).toAbsolutePath().normalize();
+        if (!resolved.startsWith(rootPath)) {
+            throw new IOException("Path " + path + " is located outside local storage root directory.");
+        }
+        return resolved;
+    }
+
+    /**
+     * Inner method responsible for moving temporary file into target location. If file system not support atomic
+     * move, file is moved with simple replace strategy.
+     *
+     * @param source temporary file path
+     * @param target target file path
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to move file
+     */
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Inner method responsible for mapping local file attributes into {@link FileStorageInfo} POJO record.
+     *
+     * @param resource local resource path
+     * @param attributes local resource attributes
+     * @return mapped {@link FileStorageInfo} instance
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private FileStorageInfo toStorageInfo(Path resource, BasicFileAttributes attributes) {
+        return new FileStorageInfo(resource.getFileName().toString(), resource.toString(), attributes.isDirectory(),
+            attributes.isDirectory() ? 0 : attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: SftpBatchExecutor.java
+ * Last modified: 20/10/2026, 04:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import net.schmizz.concurrent.Promise;
+import net.schmizz.sshj.sftp.Request;
+import net.schmizz.sshj.sftp.FileMode;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.PacketType;
+import net.schmizz.sshj.sftp.SFTPEngine;
+import net.schmizz.sshj.sftp.SFTPException;
+import net.schmizz.sshj.sftp.FileAttributes;
+
+import java.util.Map;
+import java.util.List;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.ArrayList;
+import java.util.TreeMap;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.function.Predicate;
+import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+
+import org.jmpsl.file.FileUtil;
+import org.jmpsl.file.cache.RemoteDirectoryCache;
+
+/**
+ * Package-private class responsible for executing batch of storage operations on single SFTP engine with pipelining.
+ * Operations are expanded into single SFTP requests and grouped into waves of independent requests (different paths,
+ * without parent-child relation). All non-existing directories of mkdirs operations (deduplicated across whole batch)
+ * are created firstly in leading waves (single wave per directory depth), next remaining operations are executed in
+ * declared order. All requests from single wave are sent without waiting for responses (up to
+ * {@link #MAX_IN_FLIGHT_REQUESTS} pending requests), so whole batch takes few round trips instead of several round
+ * trips per operation.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+class SftpBatchExecutor {
+
+    private static final int MAX_IN_FLIGHT_REQUESTS = 64;
+    private static final int WRITE_CHUNK_SIZE = 32 * 1024;
+    private static final int MAX_WAVE_SIZE = 256;
+
+    private final SFTPEngine sftpEngine;
+    private final RemoteDirectoryCache directoryCache;
+
+    SftpBatchExecutor(SFTPEngine sftpEngine, RemoteDirectoryCache directoryCache) {
+        this.sftpEngine = sftpEngine;
+        this.directoryCache = directoryCache;
+    }
+
+    /**
+     * Method responsible for executing passed operations in pipelined waves and collecting results of every operation.
+     *
+     * @param operations ordered list of {@link FileBatchOperation} instances
+     * @return list of {@link FileBatchResult} instances (in the same order as passed operations)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    List<FileBatchResult> execute(List<FileBatchOperation> operations) {
+        final IOException[] errors = new IOException[operations.size()];
+        for (final List<BatchStep> wave : groupDirectoriesIntoWaves(operations, directoryCache::isKnownDirectory)) {
+            executeWave(wave, errors);
+        }
+        for (final List<BatchStep> wave : groupIntoWaves(expandIntoSteps(operations))) {
+            executeWave(wave, errors);
+        }
+        final List<FileBatchResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            results.add(Objects.isNull(errors[i])
+                ? FileBatchResult.success(operations.get(i))
+                : FileBatchResult.failure(operations.get(i), errors[i]));
+        }
+        return results;
+    }
+
+    /**
+     * Static method responsible for collecting all distinct directories (of all mkdirs operations in batch), which are
+     * not known as existing, and grouping them into waves by directory depth (parent always in earlier wave than
+     * child). Single mkdir step is shared by all operations requiring this directory, so common ancestors are created
+     * only once, and whole mkdirs phase takes one wave per depth level instead of one wave per operation and depth.
+     *
+     * @param operations ordered list of {@link FileBatchOperation} instances
+     * @param isKnownDirectory predicate returning true, if passed directory path is known as existing
+     * @return ordered list of mkdir waves (shallowest directories first)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    static List<List<BatchStep>> groupDirectoriesIntoWaves(List<FileBatchOperation> operations,
+                                                          Predicate<String> isKnownDirectory) {
+        final Map<String, BatchStep> directorySteps = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            final FileBatchOperation operation = operations.get(i);
+            if (operation.type() != FileBatchOperationType.MKDIRS) continue;
+            String directory = FileUtil.normalizePath(operation.path());
+            while (!directory.isEmpty() && !directory.equals("/") && !isKnownDirectory.test(directory)) {
+                final String path = directory;
+                directorySteps.computeIfAbsent(path, key -> new BatchStep(FileBatchOperationType.MKDIRS, key, null))
+                    .indexes.add(i);
+                directory = FileUtil.getParentPath(directory);
+            }
+        }
+        final TreeMap<Integer, List<BatchStep>> depthSteps = new TreeMap<>();
+        directorySteps.values().stream()
+            .sorted(Comparator.comparing(BatchStep::path))
+            .forEach(step -> depthSteps.computeIfAbsent(getDepth(step.path), key -> new ArrayList<>()).add(step));
+        final List<List<BatchStep>> waves = new ArrayList<>();
+        for (final List<BatchStep> steps : depthSteps.values()) {
+            for (int i = 0; i < steps.size(); i += MAX_WAVE_SIZE) {
+                waves.add(steps.subList(i, Math.min(i + MAX_WAVE_SIZE, steps.size())));
+            }
+        }
+        return waves;
+    }
+
+    /**
+     * Static method responsible for expanding batch operations (except mkdirs operations, which are executed in
+     * leading waves) into single SFTP requests.
+     *
+     * @param operations ordered list of {@link FileBatchOperation} instances
+     * @return ordered list of {@link BatchStep} instances
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    static List<BatchStep> expandIntoSteps(List<FileBatchOperation> operations) {
+        final List<BatchStep> steps = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            final FileBatchOperation operation = operations.get(i);
+            if (operation.type() == FileBatchOperationType.MKDIRS) continue;
+            final BatchStep step = new BatchStep(operation.type(), FileUtil.normalizePath(operation.path()),
+                operation.bytes());
+            step.indexes.add(i);
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    /**
+     * Inner method responsible for grouping steps into waves of independent steps. Step is dependent from previous
+     * step, if both steps use the same path or one path is parent of another path. Every step is placed in the first
+     * wave after waves of all previous dependent steps (with less than {@link #MAX_WAVE_SIZE} steps, which limits
+     * count of simultaneously opened remote files), so independent steps are executed together, and dependent steps
+     * always preserve declared order.
+     *
+     * @param steps ordered list of {@link BatchStep} instances
+     * @return ordered list of waves
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    static List<List<BatchStep>> groupIntoWaves(List<BatchStep> steps) {
+        final List<List<BatchStep>> waves = new ArrayList<>();
+        final Map<String, Integer> pathWaves = new HashMap<>();
+        final Map<String, Integer> descendantWaves = new HashMap<>();
+        for (final BatchStep step : steps) {
+            final List<String> ancestors = getAncestors(step.path);
+            int wave = Math.max(pathWaves.getOrDefault(step.path, -1), descendantWaves.getOrDefault(step.path, -1));
+            for (final String ancestor : ancestors) {
+                wave = Math.max(wave, pathWaves.getOrDefault(ancestor, -1));
+            }
+            do {
+                wave++;
+                if (wave == waves.size()) waves.add(new ArrayList<>());
+            } while (waves.get(wave).size() >= MAX_WAVE_SIZE);
+            waves.get(wave).add(step);
+            pathWaves.put(step.path, wave);
+            for (final String ancestor : ancestors) {
+                descendantWaves.merge(ancestor, wave, Math::max);
+            }
+        }
+        return waves;
+    }
+
+    /**
+     * Inner method responsible for executing single wave of independent steps. Firstly send all mkdir, remove and open
+     * requests, next send stat requests for directories which could not be created (ex. already existing), write
+     * requests for all opened files and finally close all opened files. Every phase is pipelined. Steps of already
+     * failed operations are skipped.
+     *
+     * @param wave list of independent {@link BatchStep} instances
+     * @param errors array of operations errors (null for successful operations)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void executeWave(List<BatchStep> wave, IOException[] errors) {
+        final List<BatchStep> activeSteps = wave.stream().filter(step -> !step.isFailed(errors)).toList();
+        final RequestPipeline pipeline = new RequestPipeline(errors);
+        final List<BatchStep> openedFiles = new ArrayList<>();
+        final List<BatchStep> uncreatedDirectories = new ArrayList<>();
+        for (final BatchStep step : activeSteps) {
+            switch (step.type) {
+                case MKDIRS -> pipeline.send(step, sftpEngine.newRequest(PacketType.MKDIR)
+                    .putString(step.path)
+                    .putFileAttributes(FileAttributes.EMPTY),
+                    response -> onDirectoryCreated(step, response, uncreatedDirectories));
+                case DELETE -> pipeline.send(step, sftpEngine.newRequest(PacketType.REMOVE)
+                    .putString(step.path), response -> onFileRemoved(step, response));
+                case PUT -> pipeline.send(step, sftpEngine.newRequest(PacketType.OPEN)
+                    .putString(step.path)
+                    .putUInt32(OpenMode.toMask(EnumSet.of(OpenMode.WRITE, OpenMode.CREAT, OpenMode.TRUNC)))
+                    .putFileAttributes(FileAttributes.EMPTY), response -> {
+                        step.handle = response.ensurePacketTypeIs(PacketType.HANDLE).readBytes();
+                        openedFiles.add(step);
+                    });
+            }
+        }
+        pipeline.awaitAll();
+        for (final BatchStep step : uncreatedDirectories) {
+            pipeline.send(step, sftpEngine.newRequest(PacketType.STAT).putString(step.path),
+                response -> onDirectoryChecked(step, response));
+        }
+        for (final BatchStep step : openedFiles) {
+            for (int offset = 0; offset < step.bytes.length; offset += WRITE_CHUNK_SIZE) {
+                if (step.isFailed(errors)) break;
+                final int length = Math.min(WRITE_CHUNK_SIZE, step.bytes.length - offset);
+                pipeline.send(step, sftpEngine.newRequest(PacketType.WRITE)
+                    .putString(step.handle)
+                    .putUInt64(offset)
+                    .putString(step.bytes, offset, length), Response::ensureStatusPacketIsOK);
+            }
+        }
+        pipeline.awaitAll();
+        for (final BatchStep step : openedFiles) {
+            pipeline.send(step, sftpEngine.newRequest(PacketType.CLOSE).putString(step.handle),
+                Response::ensureStatusPacketIsOK);
+        }
+        pipeline.awaitAll();
+        for (final BatchStep step : openedFiles) {
+            final String parentPath = FileUtil.getParentPath(step.path);
+            if (!step.isFailed(errors)) {
+                directoryCache.addEntry(parentPath, FileUtil.getFileName(step.path));
+            } else {
+                directoryCache.invalidate(parentPath);
+            }
+        }
+    }
+
+    /**
+     * Inner method responsible for handling response of mkdir request. If server returns failure, directory is
+     * appended into passed list and checked by pipelined stat request (mkdir request on existing directory always
+     * fails).
+     *
+     * @param step mkdir batch step
+     * @param response SFTP server response
+     * @param uncreatedDirectories list of directories steps, which should be checked by stat request
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if directory was not created due to other reason than general failure
+     */
+    private void onDirectoryCreated(BatchStep step, Response response, List<BatchStep> uncreatedDirectories)
+        throws IOException {
+        try {
+            response.ensureStatusPacketIsOK();
+            directoryCache.markDirectoryCreated(FileUtil.getParentPath(step.path), FileUtil.getFileName(step.path));
+        } catch (SFTPException ex) {
+            if (ex.getStatusCode() != Response.StatusCode.FAILURE) throw ex;
+            step.failure = ex;
+            uncreatedDirectories.add(step);
+        }
+    }
+
+    /**
+     * Inner method responsible for handling response of stat request sent for directory, which could not be created.
+     * If path exist and is directory, mkdir step is treated as successful, otherwise original mkdir failure is thrown.
+     *
+     * @param step mkdir batch step
+     * @param response SFTP server response
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if directory was not created and not exist
+     */
+    private void onDirectoryChecked(BatchStep step, Response response) throws IOException {
+        try {
+            final FileAttributes attributes = response.ensurePacketTypeIs(PacketType.ATTRS).readFileAttributes();
+            if (attributes.getType() != FileMode.Type.DIRECTORY) throw step.failure;
+        } catch (SFTPException ex) {
+            throw step.failure;
+        }
+        directoryCache.markDirectoryExisting(step.path);
+    }
+
+    /**
+     * Inner method responsible for handling response of remove request. Removing not existing file is treated as
+     * successful operation (bulk jobs could remove already removed files).
+     *
+     * @param step delete batch step
+     * @param response SFTP server response
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to remove file
+     */
+    private void onFileRemoved(BatchStep step, Response response) throws IOException {
+        final String parentPath = FileUtil.getParentPath(step.path);
+        try {
+            response.ensureStatusPacketIsOK();
+        } catch (SFTPException ex) {
+            if (ex.getStatusCode() != Response.StatusCode.NO_SUCH_FILE) {
+                directoryCache.invalidate(parentPath);
+                throw ex;
+            }
+        }
+        directoryCache.removeEntry(parentPath, FileUtil.getFileName(step.path));
+    }
+
+    /**
+     * Inner method returning all ancestor directories of passed path (without root directory).
+     *
+     * @param path normalized file or directory path
+     * @return list of ancestor directories paths
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static List<String> getAncestors(String path) {
+        final List<String> ancestors = new ArrayList<>();
+        String parentPath = FileUtil.getParentPath(path);
+        while (!parentPath.isEmpty() && !parentPath.equals("/") && !parentPath.equals(path)) {
+            ancestors.add(parentPath);
+            path = parentPath;
+            parentPath = FileUtil.getParentPath(path);
+        }
+        return ancestors;
+    }
+
+    /**
+     * Inner method returning depth of passed path (count of path separators), so parent directory always has lower
+     * depth than its child.
+     *
+     * @param path normalized directory path
+     * @return path depth
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int getDepth(String path) {
+        return (int) path.chars().filter(character -> character == '/').count();
+    }
+
+    /**
+     * Functional interface for handling single SFTP server response.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @FunctionalInterface
+    private interface IResponseHandler {
+        void handle(Response response) throws IOException;
+    }
+
+    /**
+     * Inner class responsible for sending requests without waiting for responses. If count of pending requests exceed
+     * {@link #MAX_IN_FLIGHT_REQUESTS}, wait for the oldest pending request. Failures are stored in operations errors
+     * array.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private class RequestPipeline {
+
+        private final IOException[] errors;
+        private final ArrayDeque<PendingRequest> pendingRequests = new ArrayDeque<>();
+
+        private RequestPipeline(IOException[] errors) {
+            this.errors = errors;
+        }
+
+        private void send(BatchStep step, Request request, IResponseHandler handler) {
+            if (pendingRequests.size() >= MAX_IN_FLIGHT_REQUESTS) {
+                awaitOldest();
+            }
+            try {
+                pendingRequests.addLast(new PendingRequest(step, sftpEngine.request(request), handler));
+            } catch (IOException ex) {
+                fail(step, ex);
+            }
+        }
+
+        private void awaitAll() {
+            while (!pendingRequests.isEmpty()) {
+                awaitOldest();
+            }
+        }
+
+        private void awaitOldest() {
+            final PendingRequest pendingRequest = pendingRequests.removeFirst();
+            try {
+                final Response response = pendingRequest.promise()
+                    .retrieve(sftpEngine.getTimeoutMs(), TimeUnit.MILLISECONDS);
+                pendingRequest.handler().handle(response);
+            } catch (IOException ex) {
+                fail(pendingRequest.step(), ex);
+            }
+        }
+
+        private void fail(BatchStep step, IOException ex) {
+            boolean failed = false;
+            for (final int index : step.indexes) {
+                if (Objects.nonNull(errors[index])) continue;
+                errors[index] = ex;
+                failed = true;
+            }
+            if (failed) {
+                log.warn("Unable to perform batch SFTP operation. Path: {}, cause: {}", step.path, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Simple POJO record storing single pending request with response handler.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private record PendingRequest(BatchStep step, Promise<Response, SFTPException> promise, IResponseHandler handler) {
+    }
+
+    /**
+     * Inner class storing single SFTP request expanded from batch operations (with file handle for put operations).
+     * Single step could be shared by multiple operations (ex. common parent directory of several mkdirs operations),
+     * failure of step fails all of them.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    static final class BatchStep {
+
+        private final List<Integer> indexes = new ArrayList<>(1);
+        private final FileBatchOperationType type;
+        private final String path;
+        private final byte[] bytes;
+        private byte[] handle;
+        private SFTPException failure;
+
+        private BatchStep(FileBatchOperationType type, String path, byte[] bytes) {
+            this.type = type;
+            this.path = path;
+            this.bytes = bytes;
+        }
+
+        private boolean isFailed(IOException[] errors) {
+            return indexes.stream().allMatch(index -> Objects.nonNull(errors[index]));
+        }
+
+        List<Integer> indexes() {
+            return indexes;
+        }
+
+        FileBatchOperationType type() {
+            return type;
+        }
+
+        String path() {
+            return path;
+        }
+    }
+}
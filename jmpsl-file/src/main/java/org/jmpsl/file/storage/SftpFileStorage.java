@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: SftpFileStorage.java
+ * Last modified: 20/10/2026, 04:25
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import net.schmizz.sshj.sftp.StatefulSFTPClient;
+
+import java.io.IOException;
+
+import org.jmpsl.file.cache.RemoteDirectoryCache;
+import org.jmpsl.file.metrics.IFileMetricsRecorder;
+import org.jmpsl.file.socket.SshFileSocketConnector;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+/**
+ * {@link IFileStorage} implementation storing files on remote SFTP server (via {@link SshFileSocketConnector} Spring
+ * Bean). Every session opens single SSH socket connection. Remote directories listings are cached in
+ * {@link RemoteDirectoryCache}. Duration and transferred bytes of every session action are recorded in
+ * {@link IFileMetricsRecorder}.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+public class SftpFileStorage implements IFileStorage {
+
+    private final SshFileSocketConnector socketConnector;
+    private final RemoteDirectoryCache directoryCache;
+    private final IFileMetricsRecorder metricsRecorder;
+
+    public SftpFileStorage(
+        SshFileSocketConnector socketConnector, RemoteDirectoryCache directoryCache,
+        IFileMetricsRecorder metricsRecorder
+    ) {
+        this.socketConnector = socketConnector;
+        this.directoryCache = directoryCache;
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    @Override
+    public void performInSession(IFileStorageExecutor executor) {
+        performInSession(executor, false);
+    }
+
+    @Override
+    public void performIdempotentInSession(IFileStorageExecutor executor) {
+        performInSession(executor, true);
+    }
+
+    /**
+     * Every session uses separate SFTP channel opened in single SSH socket connection (parallel channels do not
+     * require additional SSH handshakes). Action is treated as idempotent and could be retried.
+     */
+    @Override
+    public void performInParallelSessions(int sessionsCount, IFileStorageParallelExecutor executor) {
+        socketConnector.connectToSocketAndPerformParallelAction(sessionsCount, sftpClients -> {
+            try {
+                executor.execute(sftpClients.stream()
+                    .map(this::createSession)
+                    .toList());
+            } catch (IOException ex) {
+                log.error("Unable to perform parallel action on SFTP file storage. Cause: {}", ex.getMessage());
+                throw new ExternalFileServerMalfunctionException(ex);
+            }
+        }, true);
+    }
+
+    /**
+     * Inner method responsible for opening SSH socket connection and perform storage action in SFTP session. Failed
+     * idempotent actions are retried by {@link SshFileSocketConnector}.
+     *
+     * @param executor anonymous class from {@link IFileStorageExecutor} interface
+     * @param idempotent true, if action could be safely repeated
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to perform storage action
+     */
+    private void performInSession(IFileStorageExecutor executor, boolean idempotent) {
+        socketConnector.connectToSocketAndPerformAction(sftpClient -> {
+            try {
+                executor.execute(createSession(sftpClient));
+            } catch (IOException ex) {
+                log.error("Unable to perform action on SFTP file storage. Cause: {}", ex.getMessage());
+                throw new ExternalFileServerMalfunctionException(ex);
+            }
+        }, idempotent);
+    }
+
+    /**
+     * Inner method responsible for creating instrumented storage session performing actions on passed SFTP client.
+     *
+     * @param sftpClient opened SFTP channel client
+     * @return instance of {@link IFileStorageSession}
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private IFileStorageSession createSession(StatefulSFTPClient sftpClient) {
+        return new InstrumentedFileStorageSession(new SftpFileStorageSession(sftpClient, directoryCache),
+            metricsRecorder);
+    }
+
+    @Override
+    public String getRootPath() {
+        return socketConnector.getServerPath();
+    }
+
+    @Override
+    public String getPublicUrl() {
+        return socketConnector.getAppServerPath();
+    }
+
+    @Override
+    public FileStorageType getStorageType() {
+        return FileStorageType.SFTP;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: SftpFileStorageSession.java
+ * Last modified: 20/10/2026, 04:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import net.schmizz.sshj.sftp.FileMode;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.RemoteFile;
+import net.schmizz.sshj.sftp.RemoteDirectory;
+import net.schmizz.sshj.sftp.SFTPEngine;
+import net.schmizz.sshj.sftp.FileAttributes;
+import net.schmizz.sshj.sftp.SFTPException;
+import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.StatefulSFTPClient;
+
+import java.util.Set;
+import java.util.List;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.jmpsl.file.FileUtil;
+import org.jmpsl.file.cache.RemoteDirectoryCache;
+
+/**
+ * {@link IFileStorageSession} implementation performing all actions on single {@link StatefulSFTPClient} instance.
+ * Renaming over existing file is performed via <code>posix-rename@openssh.com</code> extension (atomic replace), if
+ * server supports it. Otherwise, target file is removed before plain SFTP rename.
+ * After every write or remove action, update {@link RemoteDirectoryCache}. After every failed action, invalidate
+ * cached parent directory, so next action fall back to the server. Batch operations are pipelined by
+ * {@link SftpBatchExecutor}.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class SftpFileStorageSession implements IFileStorageSession {
+
+    private static final int MAX_UNCONFIRMED_REQUESTS = 16;
+    private static final String POSIX_RENAME_EXTENSION = "posix-rename";
+    private static final String OPENSSH_DOMAIN = "openssh.com";
+
+    private final StatefulSFTPClient sftpClient;
+    private final RemoteDirectoryCache directoryCache;
+
+    SftpFileStorageSession(StatefulSFTPClient sftpClient, RemoteDirectoryCache directoryCache) {
+        this.sftpClient = sftpClient;
+        this.directoryCache = directoryCache;
+    }
+
+    @Override
+    public void put(String path, byte[] bytes) throws IOException {
+        final String parentPath = FileUtil.getParentPath(path);
+        try (final RemoteFile remoteFile = sftpClient.open(path,
+                EnumSet.of(OpenMode.WRITE, OpenMode.CREAT, OpenMode.TRUNC));
+             final OutputStream outputStream = remoteFile.new RemoteFileOutputStream(0, MAX_UNCONFIRMED_REQUESTS)) {
+            outputStream.write(bytes);
+        } catch (IOException ex) {
+            directoryCache.invalidate(parentPath);
+            throw ex;
+        }
+        directoryCache.addEntry(parentPath, FileUtil.getFileName(path));
+    }
+
+    @Override
+    public void get(String path, OutputStream outputStream) throws IOException {
+        try (final RemoteFile remoteFile = sftpClient.open(path, EnumSet.of(OpenMode.READ));
+             final InputStream inputStream = remoteFile.new ReadAheadRemoteFileInputStream(MAX_UNCONFIRMED_REQUESTS)) {
+            inputStream.transferTo(outputStream);
+        }
+    }
+
+    @Override
+    public void writeRange(String path, long offset, byte[] bytes, int length) throws IOException {
+        final String parentPath = FileUtil.getParentPath(path);
+        try (final RemoteFile remoteFile = sftpClient.open(path, EnumSet.of(OpenMode.WRITE, OpenMode.CREAT));
+             final OutputStream outputStream = remoteFile.new RemoteFileOutputStream(offset,
+                 MAX_UNCONFIRMED_REQUESTS)) {
+            outputStream.write(bytes, 0, length);
+        } catch (IOException ex) {
+            directoryCache.invalidate(parentPath);
+            throw ex;
+        }
+        directoryCache.addEntry(parentPath, FileUtil.getFileName(path));
+    }
+
+    @Override
+    public byte[] readRange(String path, long offset, int length) throws IOException {
+        try (final RemoteFile remoteFile = sftpClient.open(path, EnumSet.of(OpenMode.READ));
+             final InputStream inputStream = remoteFile.new ReadAheadRemoteFileInputStream(MAX_UNCONFIRMED_REQUESTS,
+                 offset, length)) {
+            return inputStream.readNBytes(length);
+        }
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        final String parentPath = FileUtil.getParentPath(path);
+        try {
+            try {
+                sftpClient.rm(path);
+            } catch (SFTPException ex) {
+                final FileAttributes attributes = sftpClient.statExistence(path);
+                if (Objects.isNull(attributes) || attributes.getType() != FileMode.Type.DIRECTORY) throw ex;
+                sftpClient.rmdir(path);
+                directoryCache.invalidate(path);
+            }
+        } catch (IOException ex) {
+            directoryCache.invalidate(parentPath);
+            throw ex;
+        }
+        directoryCache.removeEntry(parentPath, FileUtil.getFileName(path));
+    }
+
+    @Override
+    public void rename(String sourcePath, String targetPath) throws IOException {
+        final String sourceParentPath = FileUtil.getParentPath(sourcePath);
+        final String targetParentPath = FileUtil.getParentPath(targetPath);
+        final SFTPEngine sftpEngine = sftpClient.getSFTPEngine();
+        try {
+            if (sftpEngine.supportsServerExtension(POSIX_RENAME_EXTENSION, OPENSSH_DOMAIN)) {
+                sftpEngine.request(sftpEngine.newExtendedRequest(POSIX_RENAME_EXTENSION + "@" + OPENSSH_DOMAIN)
+                        .putString(sourcePath)
+                        .putString(targetPath))
+                    .retrieve(sftpEngine.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                    .ensureStatusPacketIsOK();
+            } else {
+                if (Objects.nonNull(sftpClient.statExistence(targetPath))) {
+                    sftpClient.rm(targetPath);
+                }
+                sftpClient.rename(sourcePath, targetPath);
+            }
+        } catch (IOException ex) {
+            directoryCache.invalidate(sourceParentPath);
+            directoryCache.invalidate(targetParentPath);
+            throw ex;
+        }
+        directoryCache.removeEntry(sourceParentPath, FileUtil.getFileName(sourcePath));
+        directoryCache.addEntry(targetParentPath, FileUtil.getFileName(targetPath));
+    }
+
+    @Override
+    public List<FileStorageInfo> list(String path) throws IOException {
+        final List<RemoteResourceInfo> resources;
+        try {
+            resources = sftpClient.ls(path);
+        } catch (IOException ex) {
+            directoryCache.invalidate(path);
+            throw ex;
+        }
+        directoryCache.putListing(path, resources.stream()
+            .map(RemoteResourceInfo::getName)
+            .collect(Collectors.toSet()));
+        return resources.stream()
+            .map(resource -> toStorageInfo(resource.getName(), resource.getPath(), resource.getAttributes()))
+            .toList();
+    }
+
+    @Override
+    public Set<String> listNames(String path) throws IOException {
+        final Optional<Set<String>> cachedListing = directoryCache.getListing(path);
+        if (cachedListing.isPresent()) return cachedListing.get();
+        return IFileStorageSession.super.listNames(path);
+    }
+
+    /**
+     * Resources are read directly from opened remote directory handle (every READDIR response is passed into scanner
+     * before next request), without using and filling directory listings cache.
+     */
+    @Override
+    public void scan(String path, IFileStorageScanner scanner) throws IOException {
+        try (final RemoteDirectory directory = sftpClient.getSFTPEngine().openDir(path)) {
+            directory.scan(resource -> {
+                try {
+                    scanner.accept(toStorageInfo(resource.getName(), resource.getPath(), resource.getAttributes()));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return false;
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @Override
+    public void mkdirs(String path) throws IOException {
+        if (directoryCache.isKnownDirectory(path)) return;
+        try {
+            if (Objects.nonNull(sftpClient.statExistence(path))) {
+                directoryCache.markDirectoryExisting(path);
+                return;
+            }
+            sftpClient.mkdirs(path);
+        } catch (IOException ex) {
+            directoryCache.invalidate(FileUtil.getParentPath(path));
+            throw ex;
+        }
+        directoryCache.markDirectoryCreated(FileUtil.getParentPath(path), FileUtil.getFileName(path));
+    }
+
+    @Override
+    public List<FileBatchResult> executeBatch(List<FileBatchOperation> operations) {
+        return new SftpBatchExecutor(sftpClient.getSFTPEngine(), directoryCache).execute(operations);
+    }
+
+    @Override
+    public Optional<FileStorageInfo> stat(String path) throws IOException {
+        final FileAttributes attributes = sftpClient.statExistence(path);
+        if (Objects.isNull(attributes)) return Optional.empty();
+        return Optional.of(toStorageInfo(FileUtil.getFileName(path), FileUtil.normalizePath(path), attributes));
+    }
+
+    /**
+     * Inner method responsible for mapping SFTP file attributes into {@link FileStorageInfo} POJO record.
+     *
+     * @param name simple resource name
+     * @param path full resource path
+     * @param attributes SFTP resource attributes
+     * @return mapped {@link FileStorageInfo} instance
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private FileStorageInfo toStorageInfo(String name, String path, FileAttributes attributes) {
+        final boolean isDirectory = attributes.getType() == FileMode.Type.DIRECTORY;
+        return new FileStorageInfo(name, path, isDirectory, isDirectory ? 0 : attributes.getSize(),
+            attributes.getMtime() * 1000L);
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ChunkedFileTransfer.java
+ * Last modified: 20/10/2026, 05:25
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.transfer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+import org.springframework.core.env.Environment;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.nio.channels.FileChannel;
+
+import org.jmpsl.file.FileEnv;
+import org.jmpsl.file.FileUtil;
+import org.jmpsl.file.storage.FileStorageInfo;
+import org.jmpsl.file.storage.IFileStorageSession;
+import org.jmpsl.file.scheduler.TransferPriority;
+import org.jmpsl.file.scheduler.TransferScheduler;
+
+/**
+ * Spring Bean component responsible for uploading and downloading large files in chunks. File is split into ranges
+ * with constant size, which are transferred in parallel via multiple storage sessions (for SFTP storage, every session
+ * is separate SFTP channel in single SSH connection, chunks are written with SFTP offset writes). Every completed chunk
+ * (with CRC32C checksum) is stored in local transfer manifest, so interrupted transfer (ex. connection lost) is resumed
+ * from completed chunks in next call of the same transfer. Before run application, optionally declare following
+ * properties in <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.file.transfer.chunk-size-kb</code> - size of single chunk, by default 4096KB</li>
+ *     <li><code>jmpsl.file.transfer.parallel-channels</code> - count of parallel channels, by default 4</li>
+ *     <li><code>jmpsl.file.transfer.manifest-path</code> - directory of transfer manifests, by default system temp</li>
+ *     <li><code>jmpsl.file.transfer.verify-uploads</code> - read back and verify uploaded chunks, by default false</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Component
+public class ChunkedFileTransfer implements DisposableBean {
+
+    private static final String PART_FILE_SUFFIX = ".part";
+
+    private final int chunkSize;
+    private final int parallelChannels;
+    private final boolean verifyUploads;
+    private final Path manifestDir;
+    private final TransferScheduler transferScheduler;
+    private final ExecutorService transferWorkers;
+
+    ChunkedFileTransfer(Environment env, TransferScheduler transferScheduler) {
+        this.transferScheduler = transferScheduler;
+        chunkSize = FileEnv.__JFM_TRANSFER_CHUNK_SIZE_KB.getProperty(env, Integer.class) * 1024;
+        parallelChannels = FileEnv.__JFM_TRANSFER_PARALLEL_CHANNELS.getProperty(env, Integer.class);
+        verifyUploads = FileEnv.__JFM_TRANSFER_VERIFY_UPLOADS.getProperty(env, Boolean.class);
+        if (chunkSize < 1 || parallelChannels < 1) {
+            throw new IllegalArgumentException("Transfer chunk size and parallel channels count cannot be less than 1");
+        }
+        final String manifestPath = FileEnv.__JFM_TRANSFER_MANIFEST_PATH.getProperty(env);
+        manifestDir = Objects.isNull(manifestPath)
+            ? Path.of(System.getProperty("java.io.tmpdir"), "jmpsl-transfers")
+            : Path.of(manifestPath);
+        transferWorkers = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "jmpsl-chunked-transfer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Method responsible for uploading local file into storage in parallel chunks. Chunks are written into partial
+     * file (with ".part" suffix), which is renamed into target path after all chunks are completed. Parent directories
+     * of target path are created. If previous upload of the same file was interrupted, completed chunks are skipped.
+     * Otherwise (or if partial file is larger than uploaded file), partial file is recreated.
+     *
+     * @param remotePath full path of target file in storage
+     * @param localFile path of uploaded local file
+     * @return {@link ChunkedTransferResult} transfer summary
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ChunkedTransferException if unable to read local file or transfer any chunk
+     */
+    public ChunkedTransferResult upload(String remotePath, Path localFile) {
+        return upload(remotePath, localFile, TransferPriority.INTERACTIVE);
+    }
+
+    /**
+     * Method responsible for uploading local file into storage in parallel chunks with passed transfer priority (ex.
+     * background priority for bulk migrations, which are throttled by {@link TransferScheduler}).
+     *
+     * @param remotePath full path of target file in storage
+     * @param localFile path of uploaded local file
+     * @param priority transfer priority
+     * @return {@link ChunkedTransferResult} transfer summary
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ChunkedTransferException if unable to read local file or transfer any chunk
+     */
+    public ChunkedTransferResult upload(String remotePath, Path localFile, TransferPriority priority) {
+        final long startMillis = System.currentTimeMillis();
+        final String partPath = remotePath + PART_FILE_SUFFIX;
+        try (final FileChannel localChannel = FileChannel.open(localFile, StandardOpenOption.READ)) {
+            final long size = localChannel.size();
+            final TransferManifest manifest = loadManifest("upload", remotePath, localFile, size,
+                Files.getLastModifiedTime(localFile).toMillis());
+            final int chunksCount = countChunks(size);
+            final int[] resumedChunksCount = new int[1];
+
+            transferScheduler.getStorage(priority).performInParallelSessions(parallelChannels, sessions -> {
+                final IFileStorageSession session = sessions.get(0);
+                final Optional<FileStorageInfo> partInfo = session.stat(partPath);
+                // offset writes never truncate partial file, so partial file not matching manifest (manifest reset,
+                // or partial file larger than source) is recreated, otherwise stale trailing bytes are published
+                if (partInfo.isEmpty() || manifest.getCompletedChunksCount() == 0 || partInfo.get().size() > size) {
+                    manifest.reset();
+                    session.mkdirs(FileUtil.getParentPath(remotePath));
+                    session.put(partPath, new byte[0]);
+                }
+                resumedChunksCount[0] = manifest.getCompletedChunksCount();
+                transferChunks(sessions, chunksCount, manifest, (chunkSession, chunkIndex) -> {
+                    final byte[] chunk = readLocalChunk(localChannel, chunkIndex, size);
+                    final long checksum = checksum(chunk, chunk.length);
+                    final Long completedChecksum = manifest.getChecksum(chunkIndex);
+                    if (Objects.nonNull(completedChecksum)) {
+                        if (completedChecksum == checksum && (!verifyUploads
+                            || isUploadedChunkValid(chunkSession, partPath, chunkIndex, chunk.length, checksum))) {
+                            return;
+                        }
+                        manifest.markPending(chunkIndex);
+                    }
+                    chunkSession.writeRange(partPath, chunkOffset(chunkIndex), chunk, chunk.length);
+                    if (verifyUploads
+                        && !isUploadedChunkValid(chunkSession, partPath, chunkIndex, chunk.length, checksum)) {
+                        throw new IOException("Checksum mismatch of uploaded chunk " + chunkIndex + ".");
+                    }
+                    manifest.markCompleted(chunkIndex, checksum);
+                });
+                session.rename(partPath, remotePath);
+            });
+            manifest.delete();
+            return createResult(remotePath, size, chunksCount, resumedChunksCount[0], startMillis);
+        } catch (IOException ex) {
+            log.error("Unable to upload file {} into {}. Cause: {}", localFile, remotePath, ex.getMessage());
+            throw new ChunkedTransferException();
+        } catch (RuntimeException ex) {
+            log.error("Unable to upload file {} into {}. Cause: {}", localFile, remotePath, ex.getMessage());
+            throw ex instanceof ChunkedTransferException ? ex : new ChunkedTransferException();
+        }
+    }
+
+    /**
+     * Method responsible for downloading file from storage into local file in parallel chunks. Chunks are written into
+     * local partial file (with ".part" suffix), which is atomic moved into target path after all chunks are completed.
+     * If previous download of the same (not modified) file was interrupted, completed chunks (verified with stored
+     * checksums) are skipped.
+     *
+     * @param remotePath full path of source file in storage
+     * @param localFile path of target local file
+     * @return {@link ChunkedTransferResult} transfer summary
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ChunkedTransferException if source file not exist, unable to write local file or transfer any chunk
+     */
+    public ChunkedTransferResult download(String remotePath, Path localFile) {
+        return download(remotePath, localFile, TransferPriority.INTERACTIVE);
+    }
+
+    /**
+     * Method responsible for downloading file from storage into local file in parallel chunks with passed transfer
+     * priority (ex. background priority for bulk migrations, which are throttled by {@link TransferScheduler}).
+     *
+     * @param remotePath full path of source file in storage
+     * @param localFile path of target local file
+     * @param priority transfer priority
+     * @return {@link ChunkedTransferResult} transfer summary
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ChunkedTransferException if source file not exist, unable to write local file or transfer any chunk
+     */
+    public ChunkedTransferResult download(String remotePath, Path localFile, TransferPriority priority) {
+        final long startMillis = System.currentTimeMillis();
+        final Path partFile = localFile.resolveSibling(localFile.getFileName() + PART_FILE_SUFFIX);
+        final int[] transferStats = new int[2];
+        final long[] transferSize = new long[1];
+        try {
+            transferScheduler.getStorage(priority).performInParallelSessions(parallelChannels, sessions -> {
+                final FileStorageInfo remoteInfo = sessions.get(0).stat(remotePath)
+                    .filter(info -> !info.directory())
+                    .orElseThrow(() -> new IOException("File " + remotePath + " not exist."));
+                final long size = remoteInfo.size();
+                final TransferManifest manifest = loadManifest("download", remotePath, localFile, size,
+                    remoteInfo.lastModified());
+                if (!Files.exists(partFile)) manifest.reset();
+
+                try (final FileChannel localChannel = FileChannel.open(partFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    for (int chunkIndex = 0; chunkIndex < countChunks(size); chunkIndex++) {
+                        final Long completedChecksum = manifest.getChecksum(chunkIndex);
+                        if (Objects.isNull(completedChecksum)) continue;
+                        final byte[] chunk = readLocalChunk(localChannel, chunkIndex, size);
+                        if (checksum(chunk, chunk.length) != completedChecksum) manifest.markPending(chunkIndex);
+                    }
+                    transferStats[0] = countChunks(size);
+                    transferStats[1] = manifest.getCompletedChunksCount();
+                    transferChunks(sessions, transferStats[0], manifest, (chunkSession, chunkIndex) -> {
+                        if (Objects.nonNull(manifest.getChecksum(chunkIndex))) return;
+                        final int length = chunkLength(chunkIndex, size);
+                        final byte[] chunk = chunkSession.readRange(remotePath, chunkOffset(chunkIndex), length);
+                        if (chunk.length != length) {
+                            throw new IOException("Unexpected end of remote file in chunk " + chunkIndex + ".");
+                        }
+                        final ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                        while (buffer.hasRemaining()) {
+                            localChannel.write(buffer, chunkOffset(chunkIndex) + buffer.position());
+                        }
+                        manifest.markCompleted(chunkIndex, checksum(chunk, chunk.length));
+                    });
+                    localChannel.truncate(size);
+                    localChannel.force(true);
+                }
+                Files.move(partFile, localFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                manifest.delete();
+                transferSize[0] = size;
+            });
+            return createResult(remotePath, transferSize[0], transferStats[0], transferStats[1], startMillis);
+        } catch (RuntimeException ex) {
+            log.error("Unable to download file {} into {}. Cause: {}", remotePath, localFile, ex.getMessage());
+            throw ex instanceof ChunkedTransferException ? ex : new ChunkedTransferException();
+        }
+    }
+
+    /**
+     * Inner method responsible for transferring all chunks via passed sessions. Every session is used by separate
+     * worker thread, which takes next chunk index from shared counter. First failed chunk stops all workers.
+     *
+     * @param sessions list of opened storage sessions
+     * @param chunksCount count of all file chunks
+     * @param manifest transfer manifest
+     * @param chunkTransfer single chunk transfer action
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to transfer any chunk
+     */
+    private void transferChunks(
+        List<IFileStorageSession> sessions, int chunksCount, TransferManifest manifest, IChunkTransfer chunkTransfer
+    ) throws IOException {
+        final AtomicInteger nextChunk = new AtomicInteger();
+        final List<Future<Void>> workers = new ArrayList<>(sessions.size());
+        for (final IFileStorageSession session : sessions) {
+            workers.add(transferWorkers.submit(() -> {
+                int chunkIndex;
+                while ((chunkIndex = nextChunk.getAndIncrement()) < chunksCount) {
+                    chunkTransfer.transfer(session, chunkIndex);
+                }
+                return null;
+            }));
+        }
+        try {
+            for (final Future<Void> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException ex) {
+            nextChunk.set(chunksCount);
+            workers.forEach(worker -> worker.cancel(true));
+            log.warn("Chunked transfer interrupted. Completed chunks: {}/{}", manifest.getCompletedChunksCount(),
+                chunksCount);
+            throw ex.getCause() instanceof IOException ioEx ? ioEx : new IOException(ex.getCause());
+        } catch (InterruptedException ex) {
+            workers.forEach(worker -> worker.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Chunked transfer was interrupted.", ex);
+        }
+    }
+
+    /**
+     * Inner method responsible for loading transfer manifest (manifest directory is created if not exist).
+     *
+     * @param direction transfer direction (upload or download)
+     * @param remotePath full path of file in storage
+     * @param localFile path of local file
+     * @param size transferred file size
+     * @param lastModified source file modification time
+     * @return loaded {@link TransferManifest} instance
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to create manifest directory or read manifest file
+     */
+    private TransferManifest loadManifest(
+        String direction, String remotePath, Path localFile, long size, long lastModified
+    ) throws IOException {
+        Files.createDirectories(manifestDir);
+        final String transferKey = direction + ":" + remotePath + ":" + localFile.toAbsolutePath();
+        return TransferManifest.load(manifestDir, transferKey, size, chunkSize, lastModified);
+    }
+
+    /**
+     * Inner method responsible for reading single chunk of local file (positional read, safe for multiple threads).
+     *
+     * @param channel local file channel
+     * @param chunkIndex index of read chunk
+     * @param size file size
+     * @return chunk bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read local file
+     */
+    private byte[] readLocalChunk(FileChannel channel, int chunkIndex, long size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(chunkLength(chunkIndex, size));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, chunkOffset(chunkIndex) + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of local file in chunk " + chunkIndex + ".");
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Inner method responsible for reading back uploaded chunk and comparing it with local chunk checksum.
+     *
+     * @param session storage session
+     * @param partPath full path of partial file in storage
+     * @param chunkIndex index of verified chunk
+     * @param length expected chunk length
+     * @param checksum expected chunk checksum
+     * @return true, if uploaded chunk has expected length and checksum
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read uploaded chunk
+     */
+    private boolean isUploadedChunkValid(
+        IFileStorageSession session, String partPath, int chunkIndex, int length, long checksum
+    ) throws IOException {
+        final byte[] uploaded = session.readRange(partPath, chunkOffset(chunkIndex), length);
+        return uploaded.length == length && checksum(uploaded, uploaded.length) == checksum;
+    }
+
+    private ChunkedTransferResult createResult(
+        String remotePath, long size, int chunksCount, int resumedChunksCount, long startMillis
+    ) {
+        final long elapsedMillis = System.currentTimeMillis() - startMillis;
+        log.info("Successfully transferred file {} ({} bytes, {} chunks, {} resumed) in {}ms", remotePath, size,
+            chunksCount, resumedChunksCount, elapsedMillis);
+        return new ChunkedTransferResult(remotePath, size, chunksCount, resumedChunksCount, elapsedMillis);
+    }
+
+    private int countChunks(long size) {
+        return (int) ((size + chunkSize - 1) / chunkSize);
+    }
+
+    private long chunkOffset(int chunkIndex) {
+        return (long) chunkIndex * chunkSize;
+    }
+
+    private int chunkLength(int chunkIndex, long size) {
+        return (int) Math.min(chunkSize, size - chunkOffset(chunkIndex));
+    }
+
+    private long checksum(byte[] bytes, int length) {
+        final CRC32C crc32c = new CRC32C();
+        crc32c.update(bytes, 0, length);
+        return crc32c.getValue();
+    }
+
+    /**
+     * Method invoked on Spring context shutdown. Stop all transfer worker threads.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @Override
+    public void destroy() {
+        transferWorkers.shutdownNow();
+    }
+
+    /**
+     * Functional interface for single chunk transfer action performed in passed storage session.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @FunctionalInterface
+    private interface IChunkTransfer {
+        void transfer(IFileStorageSession session, int chunkIndex) throws IOException;
+    }
+}
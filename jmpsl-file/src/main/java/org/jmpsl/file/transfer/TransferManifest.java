@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: TransferManifest.java
+ * Last modified: 19/10/2026, 16:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.transfer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.io.Reader;
+import java.io.Writer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class storing state of single chunked transfer (file size, chunk size, source file modification time and checksums
+ * of completed chunks). Manifest is persisted in local file after every completed chunk (via temporary file and atomic
+ * move), so interrupted transfer could be resumed from last completed chunks.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class TransferManifest {
+
+    private static final String SIZE_KEY = "size";
+    private static final String CHUNK_SIZE_KEY = "chunk-size";
+    private static final String LAST_MODIFIED_KEY = "last-modified";
+    private static final String CHUNK_KEY_PREFIX = "chunk.";
+
+    private final Path manifestFile;
+    private final long size;
+    private final int chunkSize;
+    private final long lastModified;
+    private final Map<Integer, Long> completedChunks = new ConcurrentHashMap<>();
+
+    private TransferManifest(Path manifestFile, long size, int chunkSize, long lastModified) {
+        this.manifestFile = manifestFile;
+        this.size = size;
+        this.chunkSize = chunkSize;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Method responsible for loading manifest of transfer. If manifest not exist or was created for other file version
+     * (different size, chunk size or modification time), new empty manifest is returned.
+     *
+     * @param manifestDir directory of transfers manifests
+     * @param transferKey unique transfer key (direction, remote and local path)
+     * @param size transferred file size
+     * @param chunkSize size of single chunk
+     * @param lastModified source file modification time
+     * @return loaded or created manifest
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read manifest file
+     */
+    static TransferManifest load(Path manifestDir, String transferKey, long size, int chunkSize, long lastModified)
+            throws IOException {
+        final String fileName = UUID.nameUUIDFromBytes(transferKey.getBytes(StandardCharsets.UTF_8)) + ".manifest";
+        final TransferManifest manifest = new TransferManifest(manifestDir.resolve(fileName), size, chunkSize,
+            lastModified);
+        if (!Files.exists(manifest.manifestFile)) return manifest;
+
+        final Properties properties = new Properties();
+        try (final Reader reader = Files.newBufferedReader(manifest.manifestFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        if (!Objects.equals(properties.getProperty(SIZE_KEY), String.valueOf(size))
+            || !Objects.equals(properties.getProperty(CHUNK_SIZE_KEY), String.valueOf(chunkSize))
+            || !Objects.equals(properties.getProperty(LAST_MODIFIED_KEY), String.valueOf(lastModified))) {
+            return manifest;
+        }
+        for (final String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(CHUNK_KEY_PREFIX)) continue;
+            manifest.completedChunks.put(Integer.parseInt(key.substring(CHUNK_KEY_PREFIX.length())),
+                Long.parseLong(properties.getProperty(key)));
+        }
+        return manifest;
+    }
+
+    /**
+     * Method responsible for marking chunk as completed and persisting manifest in local file.
+     *
+     * @param chunkIndex index of completed chunk
+     * @param checksum checksum of completed chunk
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to save manifest file
+     */
+    void markCompleted(int chunkIndex, long checksum) throws IOException {
+        completedChunks.put(chunkIndex, checksum);
+        save();
+    }
+
+    /**
+     * Method responsible for removing chunk from completed chunks (ex. if chunk checksum verification failed).
+     *
+     * @param chunkIndex index of removed chunk
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void markPending(int chunkIndex) {
+        completedChunks.remove(chunkIndex);
+    }
+
+    /**
+     * Method responsible for removing all completed chunks (ex. if partial target file not exist).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void reset() {
+        completedChunks.clear();
+    }
+
+    /**
+     * Method responsible for removing manifest file (after finished transfer).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to remove manifest file
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(manifestFile);
+    }
+
+    /**
+     * Inner method responsible for saving manifest into temporary file and atomic moving it into manifest file.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to save manifest file
+     */
+    private synchronized void save() throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(SIZE_KEY, String.valueOf(size));
+        properties.setProperty(CHUNK_SIZE_KEY, String.valueOf(chunkSize));
+        properties.setProperty(LAST_MODIFIED_KEY, String.valueOf(lastModified));
+        completedChunks.forEach((index, checksum) ->
+            properties.setProperty(CHUNK_KEY_PREFIX + index, String.valueOf(checksum)));
+
+        final Path tempFile = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+        try (final Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+        Files.move(tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param chunkIndex chunk index
+     * @return checksum of completed chunk, or null if chunk is not completed
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    Long getChecksum(int chunkIndex) {
+        return completedChunks.get(chunkIndex);
+    }
+
+    /**
+     * @return count of completed chunks
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    int getCompletedChunksCount() {
+        return completedChunks.size();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: CachedFileReaderTest.java
+ * Last modified: 20/10/2026, 05:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.cache;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import org.jmpsl.file.storage.InMemoryFileStorage;
+import org.jmpsl.file.scheduler.TransferScheduler;
+import org.jmpsl.file.metrics.NoOpFileMetricsRecorder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class CachedFileReaderTest {
+
+    private static final int FILE_SIZE = 600 * 1024;
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void readRange_evictsLeastRecentlyUsedEntry_test() throws IOException {
+        final CachedFileReader reader = createReader(createStorage());
+
+        reader.readRange("/first.bin", 0, 10);
+        reader.readRange("/second.bin", 0, 10);
+
+        assertEquals(FILE_SIZE, reader.getCachedSizeBytes());
+        assertEquals(1, countCachedFiles());
+        assertArrayEquals(content(1, 10), reader.readRange("/first.bin", 0, 10));
+        assertEquals(3, reader.getMissesCount());
+    }
+
+    @Test
+    void readRange_evictedLocalCopy_refetchesOnce_test() throws IOException {
+        final CachedFileReader reader = createReader(createStorage());
+        reader.readRange("/first.bin", 0, 10);
+        try (final Stream<Path> cachedFiles = Files.list(ownedCacheDir())) {
+            for (final Path cachedFile : cachedFiles.toList()) {
+                Files.delete(cachedFile);
+            }
+        }
+        assertArrayEquals(Arrays.copyOfRange(content(1, FILE_SIZE), 100, 110), reader.readRange("/first.bin", 100, 10));
+        assertEquals(FILE_SIZE, reader.getCachedSizeBytes());
+        assertEquals(1, countCachedFiles());
+    }
+
+    @Test
+    void destroy_removesOnlyOwnedCacheDirectory_test() throws IOException {
+        final Path unrelatedFile = Files.write(cacheDir.resolve("unrelated.cache"), new byte[] { 1, 2, 3 });
+        final CachedFileReader reader = createReader(createStorage());
+        reader.readRange("/first.bin", 0, 10);
+
+        assertTrue(Files.exists(unrelatedFile));
+        reader.destroy();
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(unrelatedFile));
+        try (final Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private CachedFileReader createReader(InMemoryFileStorage storage) {
+        final MockEnvironment env = new MockEnvironment()
+            .withProperty("jmpsl.file.read-cache.path", cacheDir.toString())
+            .withProperty("jmpsl.file.read-cache.max-size-mb", "1")
+            .withProperty("jmpsl.file.read-cache.max-entry-size-mb", "1")
+            .withProperty("jmpsl.file.read-cache.mmap-hits-threshold", "100");
+        return new CachedFileReader(env, new TransferScheduler(env, storage, new NoOpFileMetricsRecorder()));
+    }
+
+    private InMemoryFileStorage createStorage() throws IOException {
+        final InMemoryFileStorage storage = new InMemoryFileStorage("/", "http://localhost");
+        storage.put("/first.bin", content(1, FILE_SIZE));
+        storage.put("/second.bin", content(2, FILE_SIZE));
+        return storage;
+    }
+
+    private long countCachedFiles() throws IOException {
+        try (final Stream<Path> cachedFiles = Files.list(ownedCacheDir())) {
+            return cachedFiles.filter(file -> file.toString().endsWith(".cache")).count();
+        }
+    }
+
+    private Path ownedCacheDir() throws IOException {
+        try (final Stream<Path> dirs = Files.list(cacheDir)) {
+            return dirs.filter(Files::isDirectory).findFirst().orElseThrow();
+        }
+    }
+
+    private static byte[] content(int seed, int size) {
+        final byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (seed * 31 + i);
+        }
+        return content;
+    }
+}
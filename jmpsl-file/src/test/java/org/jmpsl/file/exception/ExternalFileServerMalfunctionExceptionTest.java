@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ExternalFileServerMalfunctionExceptionTest.java
+ * Last modified: 20/10/2026, 05:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.exception;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPException;
+import net.schmizz.sshj.transport.TransportException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExternalFileServerMalfunctionExceptionTest {
+
+    @Test
+    void isTransientFailure_serverStatusFailures_test() {
+        assertFalse(new ExternalFileServerMalfunctionException(
+            new SFTPException(Response.StatusCode.NO_SUCH_FILE, "No such file")).isTransientFailure());
+        assertFalse(new ExternalFileServerMalfunctionException(
+            new SFTPException(Response.StatusCode.PERMISSION_DENIED, "Permission denied")).isTransientFailure());
+        assertFalse(new ExternalFileServerMalfunctionException(
+            new SFTPException(Response.StatusCode.FAILURE, "Failure")).isTransientFailure());
+        assertFalse(new ExternalFileServerMalfunctionException(new IOException("Invalid path")).isTransientFailure());
+        assertFalse(new ExternalFileServerMalfunctionException().isTransientFailure());
+    }
+
+    @Test
+    void isTransientFailure_connectionFailures_test() {
+        assertTrue(new ExternalFileServerMalfunctionException(
+            new TransportException("Broken transport")).isTransientFailure());
+        assertTrue(new ExternalFileServerMalfunctionException(
+            new SocketTimeoutException("Read timed out")).isTransientFailure());
+        assertTrue(new ExternalFileServerMalfunctionException(
+            new SFTPException("Timeout expired", new TimeoutException())).isTransientFailure());
+        assertTrue(new ExternalFileServerMalfunctionException(
+            new SFTPException(Response.StatusCode.CONNECITON_LOST, "Connection lost")).isTransientFailure());
+    }
+}
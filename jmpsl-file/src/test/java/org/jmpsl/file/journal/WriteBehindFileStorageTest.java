@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: WriteBehindFileStorageTest.java
+ * Last modified: 20/10/2026, 05:35
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.journal;
+
+import java.util.List;
+import java.util.Optional;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.nio.file.NoSuchFileException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.jmpsl.file.storage.FileStorageInfo;
+import org.jmpsl.file.storage.InMemoryFileStorage;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class WriteBehindFileStorageTest {
+
+    private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    void drain_transportFailure_keepsCheckpoint_test() throws IOException {
+        final UnreachableInMemoryFileStorage delegate = new UnreachableInMemoryFileStorage();
+        final FileJournal journal = new FileJournal(journalDirectory, 1024 * 1024, 0);
+        final WriteBehindFileStorage storage = new WriteBehindFileStorage(delegate, journal, 100, 3_600_000);
+        try {
+            storage.performInSession(session -> session.put("/image.png", CONTENT));
+            final JournalPosition checkpoint = journal.getCheckpoint();
+
+            delegate.unreachable = true;
+            assertFalse(storage.drain());
+            assertEquals(checkpoint, journal.getCheckpoint());
+            assertEquals(1, storage.getPendingRecordsCount());
+
+            delegate.unreachable = false;
+            assertTrue(storage.drain());
+            assertEquals(0, storage.getPendingRecordsCount());
+            assertEquals("content", new String(delegate.get("/image.png"), StandardCharsets.UTF_8));
+        } finally {
+            storage.destroy();
+        }
+    }
+
+    @Test
+    void drain_permanentFailure_skipsRecord_test() throws IOException {
+        final InMemoryFileStorage delegate = new InMemoryFileStorage("/", "http://localhost");
+        final FileJournal journal = new FileJournal(journalDirectory, 1024 * 1024, 0);
+        final WriteBehindFileStorage storage = new WriteBehindFileStorage(delegate, journal, 100, 3_600_000);
+        try {
+            storage.performInSession(session -> {
+                session.put("/not-existing/image.png", CONTENT);
+                session.put("/image.png", CONTENT);
+            });
+            assertTrue(storage.drain());
+            assertEquals(0, storage.getPendingRecordsCount());
+            assertTrue(delegate.stat("/image.png").isPresent());
+        } finally {
+            storage.destroy();
+        }
+    }
+
+    @Test
+    void performInSession_readsNotDrainedWrites_test() throws IOException {
+        final UnreachableInMemoryFileStorage delegate = new UnreachableInMemoryFileStorage();
+        delegate.put("/removed.png", CONTENT);
+        final FileJournal journal = new FileJournal(journalDirectory, 1024 * 1024, 0);
+        final WriteBehindFileStorage storage = new WriteBehindFileStorage(delegate, journal, 100, 3_600_000);
+        try {
+            storage.performInSession(session -> {
+                session.mkdirs("/users");
+                session.put("/users/image.png", CONTENT);
+                session.delete("/removed.png");
+
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                session.get("/users/image.png", outputStream);
+                assertEquals("content", outputStream.toString(StandardCharsets.UTF_8));
+
+                final Optional<FileStorageInfo> info = session.stat("/users/image.png");
+                assertTrue(info.isPresent());
+                assertEquals(CONTENT.length, info.get().size());
+                assertThrows(NoSuchFileException.class, () -> session.get("/removed.png", new ByteArrayOutputStream()));
+
+                final List<String> names = session.list("/").stream().map(FileStorageInfo::name).toList();
+                assertEquals(List.of("users"), names);
+            });
+            assertEquals(3, storage.getPendingRecordsCount());
+        } finally {
+            storage.destroy();
+        }
+    }
+
+    @Test
+    void performInParallelSessions_drainsJournalBefore_test() throws IOException {
+        final UnreachableInMemoryFileStorage delegate = new UnreachableInMemoryFileStorage();
+        delegate.put("/image.png", CONTENT);
+        final FileJournal journal = new FileJournal(journalDirectory, 1024 * 1024, 0);
+        final WriteBehindFileStorage storage = new WriteBehindFileStorage(delegate, journal, 100, 3_600_000);
+        try {
+            storage.performInSession(session -> session.delete("/image.png"));
+            storage.performInParallelSessions(2, sessions -> sessions.get(0).put("/image.png", new byte[] { 1 }));
+            assertEquals(0, storage.getPendingRecordsCount());
+
+            assertTrue(storage.drain());
+            assertArrayEquals(new byte[] { 1 }, delegate.get("/image.png"));
+
+            storage.performInSession(session -> session.put("/other.png", CONTENT));
+            delegate.unreachable = true;
+            assertThrows(ExternalFileServerMalfunctionException.class,
+                () -> storage.performInParallelSessions(2, sessions -> sessions.get(0).stat("/other.png")));
+        } finally {
+            delegate.unreachable = false;
+            storage.destroy();
+        }
+    }
+
+    private static class UnreachableInMemoryFileStorage extends InMemoryFileStorage {
+
+        private volatile boolean unreachable;
+
+        private UnreachableInMemoryFileStorage() {
+            super("/", "http://localhost");
+        }
+
+        @Override
+        public void put(String path, byte[] bytes) throws IOException {
+            if (unreachable) throw new SocketTimeoutException("Connection timed out.");
+            super.put(path, bytes);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: TransferSchedulerTest.java
+ * Last modified: 20/10/2026, 05:20
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.scheduler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import org.jmpsl.file.journal.FileJournal;
+import org.jmpsl.file.storage.IFileStorage;
+import org.jmpsl.file.metrics.NoOpFileMetricsRecorder;
+import org.jmpsl.file.storage.InMemoryFileStorage;
+import org.jmpsl.file.journal.WriteBehindFileStorage;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TransferSchedulerTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    void acquireChannels_backgroundLimit_test() {
+        final TransferScheduler scheduler = createScheduler(new InMemoryFileStorage("/", "http://localhost"));
+
+        assertEquals(1, scheduler.acquireChannels(TransferPriority.BACKGROUND, 4));
+        assertThrows(ExternalFileServerMalfunctionException.class,
+            () -> scheduler.acquireChannels(TransferPriority.BACKGROUND, 1));
+        assertEquals(3, scheduler.acquireChannels(TransferPriority.INTERACTIVE, 4));
+        assertEquals(4, scheduler.getStats().activeChannels());
+        assertEquals(1, scheduler.getStats().activeBackgroundChannels());
+
+        scheduler.releaseChannels(TransferPriority.INTERACTIVE, 3);
+        scheduler.releaseChannels(TransferPriority.BACKGROUND, 1);
+        assertEquals(0, scheduler.getStats().activeChannels());
+    }
+
+    @Test
+    void getStorage_writeBehindDrainedWithBackgroundPriority_test() throws IOException {
+        final InMemoryFileStorage delegate = new InMemoryFileStorage("/", "http://localhost");
+        final FileJournal journal = new FileJournal(journalDirectory, 1024 * 1024, 0);
+        final WriteBehindFileStorage writeBehindStorage = new WriteBehindFileStorage(delegate, journal, 100, 3_600_000);
+        try {
+            final TransferScheduler scheduler = createScheduler(writeBehindStorage);
+            final IFileStorage interactiveStorage = scheduler.getStorage(TransferPriority.INTERACTIVE);
+
+            interactiveStorage.performInSession(session -> session.put("/image.png", new byte[] { 1 }));
+            assertEquals(0, scheduler.getStats().interactiveTransfersCount());
+
+            assertTrue(writeBehindStorage.drain());
+            assertEquals(1, scheduler.getStats().backgroundTransfersCount());
+            assertTrue(delegate.stat("/image.png").isPresent());
+
+            interactiveStorage.performInSession(session -> session.stat("/other.png"));
+            assertEquals(1, scheduler.getStats().interactiveTransfersCount());
+        } finally {
+            writeBehindStorage.destroy();
+        }
+    }
+
+    private TransferScheduler createScheduler(IFileStorage fileStorage) {
+        final MockEnvironment env = new MockEnvironment()
+            .withProperty("jmpsl.file.scheduler.max-channels", "4")
+            .withProperty("jmpsl.file.scheduler.background-max-channels", "1")
+            .withProperty("jmpsl.file.scheduler.acquire-timeout-ms", "50");
+        return new TransferScheduler(env, fileStorage, new NoOpFileMetricsRecorder());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: SftpCircuitBreakerTest.java
+ * Last modified: 20/10/2026, 04:25
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.socket;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SftpCircuitBreakerTest {
+
+    @Test
+    void onFailure_opensAfterThreshold_test() {
+        final SftpCircuitBreaker circuitBreaker = new SftpCircuitBreaker(2, 60_000);
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+        assertTrue(circuitBreaker.isClosed());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.tryAcquirePermission());
+        assertEquals(1, circuitBreaker.getStats().rejectedCalls());
+    }
+
+    @Test
+    void onSuccess_resetsConsecutiveFailures_test() {
+        final SftpCircuitBreaker circuitBreaker = new SftpCircuitBreaker(2, 60_000);
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        assertTrue(circuitBreaker.isClosed());
+        assertEquals(1, circuitBreaker.getStats().consecutiveFailures());
+    }
+
+    @Test
+    void releaseProbe_permitsNextProbeAfterUnregisteredOutcome_test() {
+        final SftpCircuitBreaker circuitBreaker = new SftpCircuitBreaker(1, 0);
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreakerState.HALF_OPEN, circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.tryAcquirePermission());
+        circuitBreaker.releaseProbe();
+        assertEquals(CircuitBreakerState.HALF_OPEN, circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void releaseProbe_doesNotChangeRegisteredOutcome_test() {
+        final SftpCircuitBreaker circuitBreaker = new SftpCircuitBreaker(1, 60_000);
+        circuitBreaker.onFailure();
+        circuitBreaker.releaseProbe();
+
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getStats().state());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: SshFileSocketConnectorTest.java
+ * Last modified: 20/10/2026, 05:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.socket;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPException;
+import net.schmizz.sshj.transport.TransportException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import org.jmpsl.file.metrics.NoOpFileMetricsRecorder;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SshFileSocketConnectorTest {
+
+    @Test
+    void performWithRetries_serverFailureKeepsCircuitClosed_test() {
+        final SshFileSocketConnector connector = createConnector(1);
+        final AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ExternalFileServerMalfunctionException.class, () -> connector.performWithRetries(() -> {
+                attempts.incrementAndGet();
+                throw new ExternalFileServerMalfunctionException(
+                    new SFTPException(Response.StatusCode.NO_SUCH_FILE, "No such file"));
+            }, true));
+        }
+        final SftpCircuitBreakerStats stats = connector.getCircuitBreakerStats();
+        assertEquals(CircuitBreakerState.CLOSED, stats.state());
+        assertEquals(0, stats.failedAttempts());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void performWithRetries_failureWithoutCauseKeepsCircuitClosed_test() {
+        final SshFileSocketConnector connector = createConnector(60_000);
+        final AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ExternalFileServerMalfunctionException.class, () -> connector.performWithRetries(() -> {
+                attempts.incrementAndGet();
+                throw new ExternalFileServerMalfunctionException();
+            }, true));
+        }
+        assertEquals(CircuitBreakerState.CLOSED, connector.getCircuitBreakerStats().state());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void performWithRetries_transportFailureOpensCircuit_test() {
+        final SshFileSocketConnector connector = createConnector(60_000);
+        assertThrows(ExternalFileServerMalfunctionException.class, () -> connector.performWithRetries(() -> {
+            throw new ExternalFileServerMalfunctionException(new TransportException("Broken transport"));
+        }, true));
+
+        assertEquals(CircuitBreakerState.OPEN, connector.getCircuitBreakerStats().state());
+        assertThrows(SftpCircuitOpenException.class, () -> connector.performWithRetries(() -> { }, true));
+    }
+
+    @Test
+    void performWithRetries_unexpectedErrorReleasesProbe_test() {
+        final SshFileSocketConnector connector = createConnector(0);
+        assertThrows(ExternalFileServerMalfunctionException.class, () -> connector.performWithRetries(() -> {
+            throw new ExternalFileServerMalfunctionException(new TransportException("Broken transport"));
+        }, true));
+        assertThrows(IllegalStateException.class, () -> connector.performWithRetries(() -> {
+            throw new IllegalStateException();
+        }, true));
+        connector.performWithRetries(() -> { }, true);
+
+        assertEquals(CircuitBreakerState.CLOSED, connector.getCircuitBreakerStats().state());
+    }
+
+    private static SshFileSocketConnector createConnector(long openDurationMs) {
+        final MockEnvironment env = new MockEnvironment()
+            .withProperty("jmpsl.file.ssh.active", "false")
+            .withProperty("jmpsl.file.ssh.circuit-breaker.failure-threshold", "1")
+            .withProperty("jmpsl.file.ssh.circuit-breaker.open-duration-ms", String.valueOf(openDurationMs));
+        return new SshFileSocketConnector(env, new NoOpFileMetricsRecorder());
+    }
+}
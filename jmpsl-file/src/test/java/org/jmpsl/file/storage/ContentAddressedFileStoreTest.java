@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ContentAddressedFileStoreTest.java
+ * Last modified: 20/10/2026, 06:05
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+
+package org.jmpsl.file.storage;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class ContentAddressedFileStoreTest {
+
+    private static final String BASE_PATH = "/cas";
+    private static final byte[] CONTENT = new byte[] { 1, 2, 3, 4 };
+
+    @Test
+    void release_storedTwice_contentSurvivesFirstRelease_test() throws IOException {
+        final InMemoryFileStorage storage = new InMemoryFileStorage("/", "http://localhost");
+        final ContentAddressedFileStore store = new ContentAddressedFileStore();
+
+        final ContentAddress first = store.store(storage, BASE_PATH, CONTENT, "png");
+        final ContentAddress second = store.store(storage, BASE_PATH, CONTENT, "png");
+
+        assertTrue(first.transferred());
+        assertFalse(second.transferred());
+        assertEquals(2, second.references());
+        assertEquals(1, store.release(storage, BASE_PATH, first.relativePath()));
+        assertArrayEquals(CONTENT, storage.get(first.path()));
+
+        assertEquals(0, store.release(storage, BASE_PATH, first.relativePath()));
+        assertTrue(storage.stat(first.path()).isEmpty());
+        assertTrue(storage.stat(first.path() + ".refs").isEmpty());
+    }
+
+    @Test
+    void release_referenceAddedDuringRemoval_restoresContent_test() throws IOException {
+        final ContentAddress[] address = new ContentAddress[1];
+        final InMemoryFileStorage storage = new InMemoryFileStorage("/", "http://localhost") {
+            private boolean referenceAdded;
+
+            @Override
+            public synchronized void rename(String sourcePath, String targetPath) throws IOException {
+                super.rename(sourcePath, targetPath);
+                if (targetPath.endsWith(".deleted") && !referenceAdded) {
+                    referenceAdded = true;
+                    put(address[0].path() + ".refs/other-node", new byte[0]);
+                }
+            }
+        };
+        final ContentAddressedFileStore store = new ContentAddressedFileStore();
+        address[0] = store.store(storage, BASE_PATH, CONTENT, "png");
+
+        assertEquals(1, store.release(storage, BASE_PATH, address[0].relativePath()));
+        assertArrayEquals(CONTENT, storage.get(address[0].path()));
+        assertEquals(1, storage.list(BASE_PATH + "/" + address[0].hash().substring(0, 2)).stream()
+            .filter(file -> !file.directory()).count());
+    }
+
+    @Test
+    void storeAndRelease_concurrentNodes_keepsContentOfLiveReference_test() throws Exception {
+        final InMemoryFileStorage storage = new InMemoryFileStorage("/", "http://localhost");
+        final ContentAddress address = new ContentAddressedFileStore().store(storage, BASE_PATH, CONTENT, "png");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final ContentAddressedFileStore nodeStore = new ContentAddressedFileStore();
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        nodeStore.store(storage, BASE_PATH, CONTENT, "png");
+                        nodeStore.release(storage, BASE_PATH, address.relativePath());
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertArrayEquals(CONTENT, storage.get(address.path()));
+        assertEquals(1, storage.list(address.path() + ".refs").size());
+    }
+}
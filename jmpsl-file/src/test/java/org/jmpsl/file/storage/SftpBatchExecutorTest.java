@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: SftpBatchExecutorTest.java
+ * Last modified: 20/10/2026, 04:05
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.file.storage;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SftpBatchExecutorTest {
+
+    @Test
+    void groupDirectoriesIntoWaves_deduplicatesAncestors_test() {
+        final Set<String> knownDirectories = Set.of("/srv");
+        final List<FileBatchOperation> operations = List.of(
+            FileBatchOperation.mkdirs("/srv/users/1/avatars"),
+            FileBatchOperation.mkdirs("/srv/users/1/banners"),
+            FileBatchOperation.mkdirs("/srv/users/2/"),
+            FileBatchOperation.put("/srv/users/1/avatars/image.png", new byte[] { 1 })
+        );
+        final List<List<SftpBatchExecutor.BatchStep>> waves = SftpBatchExecutor
+            .groupDirectoriesIntoWaves(operations, knownDirectories::contains);
+
+        assertEquals(3, waves.size());
+        assertEquals(List.of("/srv/users"), getPaths(waves.get(0)));
+        assertEquals(List.of("/srv/users/1", "/srv/users/2"), getPaths(waves.get(1)));
+        assertEquals(List.of("/srv/users/1/avatars", "/srv/users/1/banners"), getPaths(waves.get(2)));
+        assertEquals(List.of(0, 1, 2), waves.get(0).get(0).indexes());
+        assertEquals(List.of(0, 1), waves.get(1).get(0).indexes());
+    }
+
+    @Test
+    void groupDirectoriesIntoWaves_skipsKnownDirectories_test() {
+        final List<FileBatchOperation> operations = List.of(FileBatchOperation.mkdirs("/srv/users"));
+        final List<List<SftpBatchExecutor.BatchStep>> waves = SftpBatchExecutor
+            .groupDirectoriesIntoWaves(operations, path -> true);
+
+        assertEquals(0, waves.size());
+    }
+
+    @Test
+    void groupIntoWaves_preservesOrderOfDependentSteps_test() {
+        final List<FileBatchOperation> operations = List.of(
+            FileBatchOperation.mkdirs("/srv/users"),
+            FileBatchOperation.put("/srv/users/a.png", new byte[] { 1 }),
+            FileBatchOperation.put("/srv/users/b.png", new byte[] { 2 }),
+            FileBatchOperation.delete("/srv/users/a.png")
+        );
+        final List<List<SftpBatchExecutor.BatchStep>> waves = SftpBatchExecutor
+            .groupIntoWaves(SftpBatchExecutor.expandIntoSteps(operations));
+
+        assertEquals(2, waves.size());
+        assertEquals(List.of("/srv/users/a.png", "/srv/users/b.png"), getPaths(waves.get(0)));
+        assertEquals(List.of("/srv/users/a.png"), getPaths(waves.get(1)));
+        assertEquals(FileBatchOperationType.DELETE, waves.get(1).get(0).type());
+    }
+
+    private static List<String> getPaths(List<SftpBatchExecutor.BatchStep> wave) {
+        return wave.stream().map(SftpBatchExecutor.BatchStep::path).toList();
+    }
+}
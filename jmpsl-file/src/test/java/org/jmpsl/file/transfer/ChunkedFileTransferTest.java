@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ChunkedFileTransferTest.java
+ * Last modified: 20/10/2026, 05:25
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+
+package org.jmpsl.file.transfer;
+
+import java.util.stream.Stream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import org.jmpsl.file.storage.InMemoryFileStorage;
+import org.jmpsl.file.scheduler.TransferScheduler;
+import org.jmpsl.file.metrics.NoOpFileMetricsRecorder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class ChunkedFileTransferTest {
+
+    private static final int CHUNK_SIZE = 1024;
+    private static final String REMOTE_PATH = "/uploads/large.bin";
+
+    @TempDir
+    Path tempDir;
+
+    private FailingInMemoryFileStorage storage;
+    private ChunkedFileTransfer transfer;
+    private Path localFile;
+
+    @BeforeEach
+    void setUp() {
+        storage = new FailingInMemoryFileStorage();
+        final MockEnvironment env = new MockEnvironment()
+            .withProperty("jmpsl.file.transfer.chunk-size-kb", "1")
+            .withProperty("jmpsl.file.transfer.parallel-channels", "1")
+            .withProperty("jmpsl.file.transfer.manifest-path", tempDir.resolve("manifests").toString());
+        transfer = new ChunkedFileTransfer(env, new TransferScheduler(env, storage, new NoOpFileMetricsRecorder()));
+        localFile = tempDir.resolve("large.bin");
+    }
+
+    @AfterEach
+    void tearDown() {
+        transfer.destroy();
+    }
+
+    @Test
+    void upload_interruptedUpload_resumesCompletedChunks_test() throws IOException {
+        final byte[] content = content(1, 5 * CHUNK_SIZE);
+        Files.write(localFile, content);
+        uploadInterruptedAtChunk(3);
+
+        final ChunkedTransferResult result = transfer.upload(REMOTE_PATH, localFile);
+        assertEquals(5, result.chunksCount());
+        assertEquals(3, result.resumedChunksCount());
+        assertArrayEquals(content, storage.get(REMOTE_PATH));
+        assertEquals(0, storage.list("/uploads").stream().filter(info -> info.name().endsWith(".part")).count());
+    }
+
+    @Test
+    void upload_changedSource_recreatesPartFile_test() throws IOException {
+        Files.write(localFile, content(1, 5 * CHUNK_SIZE));
+        uploadInterruptedAtChunk(3);
+
+        final byte[] changedContent = content(2, 5 * CHUNK_SIZE);
+        Files.write(localFile, changedContent);
+        Files.setLastModifiedTime(localFile, FileTime.fromMillis(Files.getLastModifiedTime(localFile).toMillis()
+            + 60_000));
+
+        final ChunkedTransferResult result = transfer.upload(REMOTE_PATH, localFile);
+        assertEquals(0, result.resumedChunksCount());
+        assertArrayEquals(changedContent, storage.get(REMOTE_PATH));
+    }
+
+    @Test
+    void upload_shrunkSource_truncatesStalePartFile_test() throws IOException {
+        Files.write(localFile, content(1, 5 * CHUNK_SIZE));
+        uploadInterruptedAtChunk(3);
+
+        final byte[] shrunkContent = content(3, CHUNK_SIZE + CHUNK_SIZE / 2);
+        Files.write(localFile, shrunkContent);
+
+        final ChunkedTransferResult result = transfer.upload(REMOTE_PATH, localFile);
+        assertEquals(0, result.resumedChunksCount());
+        assertArrayEquals(shrunkContent, storage.get(REMOTE_PATH));
+    }
+
+    @Test
+    void upload_lostManifest_recreatesPartFile_test() throws IOException {
+        Files.write(localFile, content(1, 5 * CHUNK_SIZE));
+        uploadInterruptedAtChunk(3);
+        try (final Stream<Path> manifests = Files.list(tempDir.resolve("manifests"))) {
+            for (final Path manifest : manifests.toList()) {
+                Files.delete(manifest);
+            }
+        }
+        final byte[] shrunkContent = content(4, 2 * CHUNK_SIZE);
+        Files.write(localFile, shrunkContent);
+
+        transfer.upload(REMOTE_PATH, localFile);
+        assertArrayEquals(shrunkContent, storage.get(REMOTE_PATH));
+    }
+
+    private void uploadInterruptedAtChunk(int chunkIndex) throws IOException {
+        storage.failAtOffset = (long) chunkIndex * CHUNK_SIZE;
+        assertThrows(ChunkedTransferException.class, () -> transfer.upload(REMOTE_PATH, localFile));
+        assertEquals(chunkIndex * CHUNK_SIZE, storage.get(REMOTE_PATH + ".part").length);
+    }
+
+    private static byte[] content(int seed, int length) {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (seed * 31 + i * 7);
+        }
+        return content;
+    }
+
+    private static class FailingInMemoryFileStorage extends InMemoryFileStorage {
+
+        private volatile long failAtOffset = -1;
+
+        private FailingInMemoryFileStorage() {
+            super("/", "http://localhost");
+        }
+
+        @Override
+        public void writeRange(String path, long offset, byte[] bytes, int length) throws IOException {
+            if (offset == failAtOffset) {
+                failAtOffset = -1;
+                throw new IOException("Connection lost.");
+            }
+            super.writeRange(path, offset, bytes, length);
+        }
+    }
+}
@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: GfxEnv.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 20/10/2026, 05:50
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -82,7 +82,252 @@ public enum GfxEnv implements IEnvEnumExtender {
      *
      * @since 1.0.2
      */
-    __GFX_USER_FG_COLOR("jmpsl.gfx.user-gfx.preferred-foreground-color", "#ffffff", false);
+    __GFX_USER_FG_COLOR("jmpsl.gfx.user-gfx.preferred-foreground-color", "#ffffff", false),
+
+    /**
+     * Define mode of selecting background color of default generated profile image. Available modes: "random",
+     * "user-id" and "initials" (deterministic, based stable hash of user id or initials). By default "random".
+     * Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_USER_COLOR_SELECTION("jmpsl.gfx.user-gfx.color-selection", "random", false),
+
+    /**
+     * Define, if user images should be stored in content-addressed (deduplicated) store, under SHA-256 hash of image
+     * bytes. By default "false". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_DEDUPLICATE_IMAGES("jmpsl.gfx.user-gfx.deduplicate-images", "false", false),
+
+    /**
+     * Define directory name (relative to static images content path) of content-addressed images store. By default
+     * "cas". Property non-required. Property cannot be start and end with "/" character.
+     *
+     * @since 1.0.2
+     */
+    __GFX_DEDUPLICATED_IMAGES_DIR("jmpsl.gfx.user-gfx.deduplicated-images-dir", "cas", false),
+
+    /**
+     * Define strategy of replacing already existing user image (remove-and-put, atomic-rename). By default
+     * "remove-and-put" for backward compatibility: atomic-rename changes shape of returned image location (stable
+     * image name with <code>?v=</code> version query parameter instead of random image name), so clients storing or
+     * parsing image locations must be migrated before switching. Recommended for new deployments is "atomic-rename"
+     * (user never loses image during replacing). Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_REPLACE_STRATEGY("jmpsl.gfx.user-gfx.replace-strategy", "remove-and-put", false),
+
+    /**
+     * Define count of parallel storage channels used by orphaned images garbage collector. By default "4". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_IMAGE_GC_PARALLELISM("jmpsl.gfx.image-gc.parallelism", "4", false),
+
+    /**
+     * Define count of user images directories processed in single garbage collector page (checkpoint is saved after
+     * every page). By default "500". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_IMAGE_GC_PAGE_SIZE("jmpsl.gfx.image-gc.page-size", "500", false),
+
+    /**
+     * Define max count of user images directories processed in single garbage collector run. If 0, all directories
+     * are processed. By default "0". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_IMAGE_GC_MAX_DIRECTORIES_PER_RUN("jmpsl.gfx.image-gc.max-directories-per-run", "0", false),
+
+    /**
+     * Define time (in minutes), after which not referenced files in live user directories (temporary files, older
+     * image versions) are treated as orphaned. By default "60". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_IMAGE_GC_GRACE_PERIOD_MINUTES("jmpsl.gfx.image-gc.grace-period-minutes", "60", false),
+
+    /**
+     * Define local file storing garbage collector checkpoint (last processed directory). By default
+     * "jmpsl-image-gc.checkpoint" file in system temporary directory. Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_IMAGE_GC_CHECKPOINT_PATH("jmpsl.gfx.image-gc.checkpoint-path", null, false),
+
+    /**
+     * Define max size (in megabytes) of generated default images cache. If 0, cache is disabled. By default "32".
+     * Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_AVATAR_CACHE_MAX_SIZE_MB("jmpsl.gfx.avatar-cache.max-size-mb", "32", false),
+
+    /**
+     * Define, if cached default images bytes are stored outside of Java heap (in direct byte buffers). By default
+     * "false". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_AVATAR_CACHE_OFF_HEAP("jmpsl.gfx.avatar-cache.off-heap", "false", false),
+
+    /**
+     * Define initials (separated by comma, ex. "JK,AN"), which default images are generated in all preferred colors on
+     * application start. If null, cache is not warmed up. By default null. Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_AVATAR_CACHE_WARM_UP_INITIALS("jmpsl.gfx.avatar-cache.warm-up-initials", null, false),
+
+    /**
+     * Define size (in pixels) of default images generated in cache warm up. By default "200". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_AVATAR_CACHE_WARM_UP_SIZE("jmpsl.gfx.avatar-cache.warm-up-size", "200", false),
+
+    /**
+     * Define font size of default images generated in cache warm up. By default "80". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_AVATAR_CACHE_WARM_UP_FONT_SIZE("jmpsl.gfx.avatar-cache.warm-up-font-size", "80", false),
+
+    /**
+     * Define size (in pixels) of default images served by avatar request handler, if request has not size parameter.
+     * By default "200". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_AVATAR_HANDLER_DEFAULT_SIZE("jmpsl.gfx.avatar-handler.default-size", "200", false),
+
+    /**
+     * Define max age (in seconds) of default images served by avatar request handler, returned in Cache-Control
+     * header. By default "31536000" (one year). Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_AVATAR_HANDLER_MAX_AGE_SEC("jmpsl.gfx.avatar-handler.max-age-sec", "31536000", false),
+
+    /**
+     * Define, if default generated user images in PNG format should be encoded as palette-indexed PNG (instead of
+     * 24-bit PNG written by ImageIO). By default "true". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_INDEXED_PNG_ACTIVE("jmpsl.gfx.indexed-png.active", "true", false),
+
+    /**
+     * Define max count of colors in palette of indexed PNG images (from 2 to 256). Images with more colors are
+     * quantized into ramp between background and foreground color. By default "16" (4-bit PNG). Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_INDEXED_PNG_MAX_PALETTE_SIZE("jmpsl.gfx.indexed-png.max-palette-size", "16", false),
+
+    /**
+     * Define deflate compression level of indexed PNG images (from 0 to 9). By default "9". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_INDEXED_PNG_DEFLATE_LEVEL("jmpsl.gfx.indexed-png.deflate-level", "9", false),
+
+    /**
+     * Define scanlines filter strategy of indexed PNG images. Available strategies: "none", "sub", "up", "average",
+     * "paeth" and "adaptive". By default "none". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_INDEXED_PNG_FILTER_STRATEGY("jmpsl.gfx.indexed-png.filter-strategy", "none", false),
+
+    /**
+     * Define max count of pooled (reusable) image writers per image format. By default "8". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_ENCODER_WRITERS_POOL_SIZE("jmpsl.gfx.encoder.writers-pool-size", "8", false),
+
+    /**
+     * Define max size (in kilobytes) of encoding buffer retained by every thread for next encodings. Larger buffers
+     * are released after encoding. By default "1024". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_ENCODER_MAX_RETAINED_BUFFER_KB("jmpsl.gfx.encoder.max-retained-buffer-kb", "1024", false),
+
+    /**
+     * Define default quality (from 0 to 1) of encoded JPEG images. By default "0.9". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_ENCODER_JPEG_QUALITY("jmpsl.gfx.encoder.jpeg-quality", "0.9", false),
+
+    /**
+     * Define, if images should be encoded as progressive (or interlaced) by default. By default "false". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_ENCODER_PROGRESSIVE("jmpsl.gfx.encoder.progressive", "false", false),
+
+    /**
+     * Define count of worker threads encoding multiple images in parallel (ex. image renditions). By default "4".
+     * Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_ENCODER_PARALLELISM("jmpsl.gfx.encoder.parallelism", "4", false),
+
+    /**
+     * Define max count of pixels (width multiplied by height, read from image header) of decoded images. Larger images
+     * are rejected before decoding. By default "40000000". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_DECODER_MAX_PIXELS("jmpsl.gfx.decoder.max-pixels", "40000000", false),
+
+    /**
+     * Define max width and height (in pixels) of decoded images. By default "12000". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_DECODER_MAX_DIMENSION("jmpsl.gfx.decoder.max-dimension", "12000", false),
+
+    /**
+     * Define how many times decoded (subsampled) image should be larger than target image, leaving pixels for final
+     * high-quality resize. By default "2". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_DECODER_OVERSAMPLING("jmpsl.gfx.decoder.oversampling", "2", false),
+
+    /**
+     * Define memory budget (in megabytes) of all concurrently processed images (decoded, resized and rendered rasters).
+     * By default "0" (1/4 of max heap size). Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_PROCESSING_MEMORY_BUDGET_MB("jmpsl.gfx.processing.memory-budget-mb", "0", false),
+
+    /**
+     * Define max count of image processing tasks waiting for admission. By default "64". Property non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_PROCESSING_MAX_QUEUED_TASKS("jmpsl.gfx.processing.max-queued-tasks", "64", false),
+
+    /**
+     * Define max waiting time (in milliseconds) for image processing admission. By default "10000". Property
+     * non-required.
+     *
+     * @since 1.0.2
+     */
+    __GFX_PROCESSING_ACQUIRE_TIMEOUT_MS("jmpsl.gfx.processing.acquire-timeout-ms", "10000", false);
 
     private final String name;
     private final String defaultValue;
@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: GfxUtil.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 20/10/2026, 00:30
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -40,6 +40,11 @@ import java.io.ByteArrayOutputStream;
 import javax.imageio.ImageIO;
 import javax.swing.JEditorPane;
 
+import org.jmpsl.gfx.encoder.ImageEncoderService;
+import org.jmpsl.gfx.encoder.WebpLosslessEncoder;
+
+import static org.jmpsl.gfx.encoder.ImageEncoderException.ImageEncodingException;
+
 /**
  * Class storing utilities static methods for graphics generators, senders and manipulators.
  *
@@ -49,6 +54,8 @@ import javax.swing.JEditorPane;
 @Slf4j
 public class GfxUtil {
 
+    private static final WebpLosslessEncoder WEBP_ENCODER = new WebpLosslessEncoder();
+
     private GfxUtil() {
     }
 
@@ -60,17 +67,24 @@ public class GfxUtil {
      * @return byte array stream based passed {@link BufferedImage} instance
      * @author Miłosz Gilga
      * @since 1.0.2
+     * @deprecated use {@link ImageEncoderService} (pooled writers, reusable buffers and encoding parameters)
      *
      * @throws IllegalArgumentException if passed {@link BufferedImage} instance is null
+     * @throws ImageEncodingException if image writer for passed extension not exist or unable to encode image
      */
+    @Deprecated
     public static byte[] generateByteStreamFromBufferedImage(BufferedImage bufferedImage, ImageExtension extension) {
         Assert.notNull(bufferedImage, "BufferedImage instance cannot be null.");
+        if (extension == ImageExtension.WEBP) return WEBP_ENCODER.encode(bufferedImage);
         final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         try {
-            ImageIO.write(bufferedImage, extension.getImageExtension(), byteArrayOutputStream);
+            if (!ImageIO.write(bufferedImage, extension.getImageExtension(), byteArrayOutputStream)) {
+                throw new IOException("Image writer for " + extension.getImageExtension() + " format not exist.");
+            }
             byteArrayOutputStream.close();
         } catch (IOException ex) {
             log.error("Unable to save BufferedImage object into output byte stream. Exception: {}", ex.getMessage());
+            throw new ImageEncodingException();
         }
         return byteArrayOutputStream.toByteArray();
     }
@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: ImageExtension.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 20/10/2026, 03:10
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -42,28 +42,48 @@ public enum ImageExtension {
      *
      * @since 1.0.2
      */
-    PNG("png"),
+    PNG("png", "image/png"),
 
     /**
      * Jpeg image extension enum type.
      *
      * @since 1.0.2
      */
-    JPEG("jpeg"),
+    JPEG("jpeg", "image/jpeg"),
 
     /**
      * Gif image extension enum type.
      *
      * @since 1.0.2
      */
-    GIF("gif"),
+    GIF("gif", "image/gif"),
 
     /**
      * Webp image extension enum type.
      *
      * @since 1.0.2
      */
-    WEBP("webp");
+    WEBP("webp", "image/webp"),
 
+    /**
+     * Svg (vector) image extension enum type. Available only for default user images (raster images could not be
+     * encoded in this format).
+     *
+     * @since 1.0.2
+     */
+    SVG("svg", "image/svg+xml");
+
+    /**
+     * Image extension (png, jpeg etc.).
+     *
+     * @since 1.0.2
+     */
     private final String imageExtension;
+
+    /**
+     * Image MIME type (image/png, image/jpeg etc.).
+     *
+     * @since 1.0.2
+     */
+    private final String mimeType;
 }
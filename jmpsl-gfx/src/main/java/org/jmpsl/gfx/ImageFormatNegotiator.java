@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageFormatNegotiator.java
+ * Last modified: 20/10/2026, 00:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.InvalidMediaTypeException;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Collection;
+
+/**
+ * Class storing static methods responsible for negotiating image format based on HTTP <code>Accept</code> header and
+ * formats supported by server (ex. {@link ImageExtension} types supported by image encoder).
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+public class ImageFormatNegotiator {
+
+    private ImageFormatNegotiator() {
+    }
+
+    /**
+     * Static method responsible for selecting image format based on <code>Accept</code> header. For every supported
+     * format the most specific matching media range is taken. Format with the highest quality wins, ties are resolved
+     * by range specificity (explicit type before wildcards) and then by declaration order of {@link ImageExtension}.
+     * Missing or malformed header accepts all formats.
+     *
+     * @param acceptHeader value of <code>Accept</code> header (could be null)
+     * @param supportedExtensions formats supported by server
+     * @return negotiated {@link ImageExtension} enum type or empty optional, if client does not accept any of
+     * supported formats
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static Optional<ImageExtension> negotiate(
+        String acceptHeader, Collection<ImageExtension> supportedExtensions
+    ) {
+        final List<MediaType> acceptedTypes = parseAcceptHeader(acceptHeader);
+        ImageExtension bestExtension = null;
+        double bestQuality = 0;
+        int bestSpecificity = -1;
+        for (final ImageExtension extension : ImageExtension.values()) {
+            if (!supportedExtensions.contains(extension)) continue;
+            final MediaType extensionType = MediaType.parseMediaType(extension.getMimeType());
+            MediaType matchedType = null;
+            for (final MediaType acceptedType : acceptedTypes) {
+                if (!acceptedType.includes(extensionType)) continue;
+                if (Objects.isNull(matchedType) || computeSpecificity(acceptedType) > computeSpecificity(matchedType)) {
+                    matchedType = acceptedType;
+                }
+            }
+            if (Objects.isNull(matchedType) || matchedType.getQualityValue() == 0) continue;
+            final double quality = matchedType.getQualityValue();
+            final int specificity = computeSpecificity(matchedType);
+            if (quality > bestQuality || (quality == bestQuality && specificity > bestSpecificity)) {
+                bestExtension = extension;
+                bestQuality = quality;
+                bestSpecificity = specificity;
+            }
+        }
+        return Optional.ofNullable(bestExtension);
+    }
+
+    /**
+     * Static method responsible for checking, if passed image format is accepted by client (quality of the most
+     * specific matching media range is greater than 0).
+     *
+     * @param acceptHeader value of <code>Accept</code> header (could be null)
+     * @param extension checking image format
+     * @return true, if format is accepted, otherwise false
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static boolean isAccepted(String acceptHeader, ImageExtension extension) {
+        return negotiate(acceptHeader, List.of(extension)).isPresent();
+    }
+
+    private static List<MediaType> parseAcceptHeader(String acceptHeader) {
+        if (Objects.isNull(acceptHeader) || acceptHeader.isBlank()) return List.of(MediaType.ALL);
+        try {
+            return MediaType.parseMediaTypes(acceptHeader);
+        } catch (InvalidMediaTypeException ex) {
+            log.debug("Unable to parse Accept header: {}. Exception: {}", acceptHeader, ex.getMessage());
+            return List.of(MediaType.ALL);
+        }
+    }
+
+    /**
+     * Inner method responsible for computing specificity of media range (0 for <code>*&#47;*</code>, 1 for
+     * <code>image/*</code> and 2 for explicit type).
+     *
+     * @param mediaType media range from <code>Accept</code> header
+     * @return media range specificity
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int computeSpecificity(MediaType mediaType) {
+        if (mediaType.isWildcardType()) return 0;
+        return mediaType.isWildcardSubtype() ? 1 : 2;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageDecoderException.java
+ * Last modified: 20/10/2026, 01:10
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.decoder;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+
+import org.jmpsl.core.i18n.LocaleSet;
+import org.jmpsl.core.exception.RestServiceServerException;
+
+/**
+ * Custom exceptions (extends {@link RestServiceServerException}) used in image decoder JMPS library module.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public class ImageDecoderException {
+
+    /**
+     * Custom exception extending {@link RestServiceServerException}, returning JSON POJO object message and throw
+     * after unable to decode passed image (ex. missing image reader or damaged image data).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static class ImageDecodingException extends RestServiceServerException {
+        public ImageDecodingException() {
+            super(HttpStatus.BAD_REQUEST, LocaleSet.GFX_IMAGE_DECODING_EXC);
+        }
+    }
+
+    /**
+     * Custom exception extending {@link RestServiceServerException}, returning JSON POJO object message and throw
+     * after passing image with dimensions (read from image header) exceeding decoder limits.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static class ImageTooLargeException extends RestServiceServerException {
+        public ImageTooLargeException(long maxPixels, int maxDimension) {
+            super(HttpStatus.PAYLOAD_TOO_LARGE, LocaleSet.GFX_IMAGE_TOO_LARGE_EXC, Map.of("maxPixels", maxPixels,
+                "maxDimension", maxDimension));
+        }
+    }
+}
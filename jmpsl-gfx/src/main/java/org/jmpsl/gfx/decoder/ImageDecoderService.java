@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageDecoderService.java
+ * Last modified: 20/10/2026, 04:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.decoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.Assert;
+import org.springframework.stereotype.Service;
+import org.springframework.core.env.Environment;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.util.Objects;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageReadParam;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import org.jmpsl.core.exception.RestServiceServerException;
+import org.jmpsl.gfx.GfxEnv;
+import org.jmpsl.gfx.processing.ImageProcessingExecutor;
+
+import static org.jmpsl.gfx.decoder.ImageDecoderException.ImageTooLargeException;
+import static org.jmpsl.gfx.decoder.ImageDecoderException.ImageDecodingException;
+
+/**
+ * Service responsible for decoding uploaded images into {@link BufferedImage} instances with bounded memory usage.
+ * Instead of decoding whole image (like <code>ImageIO.read</code>), service reads image header first and rejects images
+ * exceeding pixels limits (ex. decompression bombs) before allocating any raster. Images larger than target size are
+ * decoded with source subsampling (and optionally only selected source region), so decoded raster is only few times
+ * larger than target image and final high-quality resize runs on reduced raster. Before run application, declare
+ * following properties in <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.gfx.decoder.max-pixels</code> - max count of pixels of decoded image, by default 40000000</li>
+ *     <li><code>jmpsl.gfx.decoder.max-dimension</code> - max width and height of decoded image, by default 12000</li>
+ *     <li><code>jmpsl.gfx.decoder.oversampling</code> - ratio of decoded image size to target size, by default 2</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Service
+public class ImageDecoderService {
+
+    private final long maxPixels;
+    private final int maxDimension;
+    private final int oversampling;
+
+    ImageDecoderService(Environment env) {
+        maxPixels = GfxEnv.__GFX_DECODER_MAX_PIXELS.getProperty(env, Long.class);
+        maxDimension = GfxEnv.__GFX_DECODER_MAX_DIMENSION.getProperty(env, Integer.class);
+        oversampling = Math.max(GfxEnv.__GFX_DECODER_OVERSAMPLING.getProperty(env, Integer.class), 1);
+        log.info("Successful initialized image decoder service. Max pixels: {}, max dimension: {}, oversampling: {}",
+            maxPixels, maxDimension, oversampling);
+    }
+
+    /**
+     * Method responsible for decoding image bytes. Image dimensions are read from image header and validated before
+     * decoding. For target size declared in passed parameters, image is decoded with largest source subsampling which
+     * still keeps decoded image (at least) oversampling times larger than target size in both axes. Only first image
+     * (frame) is decoded.
+     *
+     * @param imageBytes image bytes in any format supported by ImageIO readers
+     * @param params instance of {@link ImageDecodeParams} with decoding parameters
+     * @return decoded (and possibly subsampled) image
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageTooLargeException if image dimensions exceeds decoder limits
+     * @throws ImageDecodingException if image reader for image format not exist or unable to decode image
+     */
+    public BufferedImage decode(byte[] imageBytes, ImageDecodeParams params) {
+        return readImage(imageBytes, params, (reader, readParam, decodedSize) -> {
+            final BufferedImage image = reader.read(0, readParam);
+            log.debug("Decoded {}x{} image into {}x{} raster.", reader.getWidth(0), reader.getHeight(0),
+                image.getWidth(), image.getHeight());
+            return image;
+        });
+    }
+
+    /**
+     * Method responsible for estimating memory size of image raster decoded by {@link #decode} method with the same
+     * parameters. Only image header is read (image is not decoded), so method could be used before admitting image
+     * processing in {@link ImageProcessingExecutor}.
+     *
+     * @param imageBytes image bytes in any format supported by ImageIO readers
+     * @param params instance of {@link ImageDecodeParams} with decoding parameters
+     * @return estimated size of decoded image raster (in bytes)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageTooLargeException if image dimensions exceeds decoder limits
+     * @throws ImageDecodingException if image reader for image format not exist or unable to read image header
+     */
+    public long estimateDecodedBytes(byte[] imageBytes, ImageDecodeParams params) {
+        return readImage(imageBytes, params, (reader, readParam, decodedSize) ->
+            ImageProcessingExecutor.estimateRasterBytes(decodedSize.width, decodedSize.height));
+    }
+
+    /**
+     * Method responsible for decoding whole image bytes without subsampling (but still with header validation).
+     *
+     * @param imageBytes image bytes in any format supported by ImageIO readers
+     * @return decoded image
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageTooLargeException if image dimensions exceeds decoder limits
+     * @throws ImageDecodingException if image reader for image format not exist or unable to decode image
+     */
+    public BufferedImage decode(byte[] imageBytes) {
+        return decode(imageBytes, ImageDecodeParams.builder().build());
+    }
+
+    /**
+     * Inner method responsible for opening image reader for passed image bytes, validating image dimensions (read from
+     * image header) and preparing read parameters (source region and subsampling) for passed decoding parameters.
+     *
+     * @param imageBytes image bytes in any format supported by ImageIO readers
+     * @param params instance of {@link ImageDecodeParams} with decoding parameters
+     * @param action action performed on prepared image reader
+     * @return action result
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageTooLargeException if image dimensions exceeds decoder limits
+     * @throws ImageDecodingException if image reader for image format not exist or unable to read image
+     */
+    private <T> T readImage(byte[] imageBytes, ImageDecodeParams params, IImageReaderAction<T> action) {
+        Assert.notNull(imageBytes, "Image bytes cannot be null.");
+        Assert.notNull(params, "ImageDecodeParams instance cannot be null.");
+        final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(imageBytes);
+        try (final ImageInputStream inputStream = new MemoryCacheImageInputStream(byteArrayInputStream)) {
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders(inputStream);
+            if (!readers.hasNext()) {
+                log.error("Unable to decode image. Image reader for passed image format not exist.");
+                throw new ImageDecodingException();
+            }
+            final ImageReader reader = readers.next();
+            try {
+                reader.setInput(inputStream, true, true);
+                final int width = reader.getWidth(0);
+                final int height = reader.getHeight(0);
+                validateDimensions(width, height);
+
+                final ImageReadParam readParam = reader.getDefaultReadParam();
+                Rectangle region = new Rectangle(width, height);
+                if (Objects.nonNull(params.sourceRegion())) {
+                    region = region.intersection(params.sourceRegion());
+                    if (region.isEmpty()) throw new IllegalArgumentException("Source region is outside of image.");
+                    readParam.setSourceRegion(region);
+                }
+                final int xSubsampling = computeSubsampling(region.width, params.targetWidth());
+                final int ySubsampling = computeSubsampling(region.height, params.targetHeight());
+                if (xSubsampling > 1 || ySubsampling > 1) {
+                    readParam.setSourceSubsampling(xSubsampling, ySubsampling, 0, 0);
+                }
+                final Dimension decodedSize = new Dimension((region.width + xSubsampling - 1) / xSubsampling,
+                    (region.height + ySubsampling - 1) / ySubsampling);
+                return action.perform(reader, readParam, decodedSize);
+            } finally {
+                reader.dispose();
+            }
+        } catch (RestServiceServerException ex) {
+            throw ex;
+        } catch (IOException | RuntimeException ex) {
+            // image readers throw unchecked exceptions (ex. IllegalArgumentException, ArrayIndexOutOfBoundsException
+            // or NegativeArraySizeException) for damaged image data, so those are also client errors
+            log.error("Unable to decode image. Exception: {}", ex.toString());
+            throw new ImageDecodingException();
+        }
+    }
+
+    /**
+     * Inner method responsible for validating image dimensions (read from image header) with decoder limits.
+     *
+     * @param width image width
+     * @param height image height
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageTooLargeException if image dimensions exceeds decoder limits
+     */
+    private void validateDimensions(int width, int height) {
+        if (width <= 0 || height <= 0) throw new ImageDecodingException();
+        if (width > maxDimension || height > maxDimension || (long) width * height > maxPixels) {
+            log.error("Attempt to decode too large image. Image dimensions: {}x{}", width, height);
+            throw new ImageTooLargeException(maxPixels, maxDimension);
+        }
+    }
+
+    /**
+     * Inner method responsible for computing source subsampling in single axis. Subsampled size is never smaller than
+     * target size multiplied by oversampling ratio (or source size, if source is smaller).
+     *
+     * @param sourceSize size of decoded region in single axis
+     * @param targetSize size of final image in single axis (0 for decoding without subsampling)
+     * @return source subsampling (1 for decoding without subsampling)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private int computeSubsampling(int sourceSize, int targetSize) {
+        if (targetSize <= 0) return 1;
+        return (int) Math.max(1, sourceSize / ((long) targetSize * oversampling));
+    }
+
+    /**
+     * Functional interface for action performed on image reader prepared by {@link #readImage} method.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @FunctionalInterface
+    private interface IImageReaderAction<T> {
+        T perform(ImageReader reader, ImageReadParam readParam, Dimension decodedSize) throws IOException;
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageEncoderService.java
+ * Last modified: 20/10/2026, 04:55
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.encoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.Assert;
+import org.springframework.stereotype.Service;
+import org.springframework.core.env.Environment;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Iterator;
+import java.util.EnumMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.jmpsl.gfx.GfxEnv;
+import org.jmpsl.gfx.ImageExtension;
+
+import static org.jmpsl.gfx.encoder.ImageEncoderException.ImageEncodingException;
+
+/**
+ * Service responsible for encoding {@link BufferedImage} instances into image bytes. Instead of looking up writers
+ * SPIs and allocating new writer on every call (like <code>ImageIO.write</code>), service stores bounded pool of
+ * reusable {@link ImageWriter} instances per image format. Images are written directly into memory (without ImageIO
+ * file cache) to per-thread reusable buffers, which start small (or from size hint capped by max retained buffer size)
+ * and grow by demand. WebP images (not supported by JDK ImageIO writers) are always encoded as lossless by
+ * {@link WebpLosslessEncoder}. Before run application, declare following properties in
+ * <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.gfx.encoder.writers-pool-size</code> - max count of pooled writers per format, by default 8</li>
+ *     <li><code>jmpsl.gfx.encoder.max-retained-buffer-kb</code> - max retained thread buffer size, default 1024</li>
+ *     <li><code>jmpsl.gfx.encoder.jpeg-quality</code> - default JPEG quality (from 0 to 1), by default 0.9</li>
+ *     <li><code>jmpsl.gfx.encoder.progressive</code> - write progressive images by default, by default false</li>
+ *     <li><code>jmpsl.gfx.encoder.parallelism</code> - count of workers encoding multiple images, by default 4</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Service
+public class ImageEncoderService implements DisposableBean {
+
+    private static final int MIN_BUFFER_SIZE = 4096;
+
+    private final int writersPoolSize;
+    private final int maxRetainedBufferSize;
+    private final ImageEncodeParams defaultJpegParams;
+    private final ImageEncodeParams defaultParams;
+    private final Map<ImageExtension, BlockingQueue<ImageWriter>> writersPool = new EnumMap<>(ImageExtension.class);
+    private final ThreadLocal<ReusableOutputStream> threadBuffers = new ThreadLocal<>();
+    private final WebpLosslessEncoder webpEncoder = new WebpLosslessEncoder();
+    private final Set<ImageExtension> supportedExtensions;
+    private final ExecutorService encodingWorkers;
+
+    ImageEncoderService(Environment env) {
+        writersPoolSize = GfxEnv.__GFX_ENCODER_WRITERS_POOL_SIZE.getProperty(env, Integer.class);
+        maxRetainedBufferSize = GfxEnv.__GFX_ENCODER_MAX_RETAINED_BUFFER_KB.getProperty(env, Integer.class) * 1024;
+        final boolean progressive = GfxEnv.__GFX_ENCODER_PROGRESSIVE.getProperty(env, Boolean.class);
+        defaultJpegParams = new ImageEncodeParams(GfxEnv.__GFX_ENCODER_JPEG_QUALITY.getProperty(env, Float.class),
+            progressive, 0);
+        defaultParams = new ImageEncodeParams(null, progressive, 0);
+        final Set<ImageExtension> extensions = EnumSet.of(ImageExtension.WEBP);
+        for (final ImageExtension extension : ImageExtension.values()) {
+            writersPool.put(extension, new ArrayBlockingQueue<>(Math.max(writersPoolSize, 1)));
+            if (ImageIO.getImageWritersByFormatName(extension.getImageExtension()).hasNext()) extensions.add(extension);
+        }
+        supportedExtensions = Collections.unmodifiableSet(extensions);
+        final int parallelism = GfxEnv.__GFX_ENCODER_PARALLELISM.getProperty(env, Integer.class);
+        if (parallelism < 1) throw new IllegalArgumentException("Image encoder parallelism cannot be less than 1");
+        encodingWorkers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "jmpsl-image-encoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Successful initialized image encoder service. Writers pool size per format: {}, formats: {}",
+            writersPoolSize, supportedExtensions);
+    }
+
+    /**
+     * Method responsible for encoding image with default encoding parameters (declared in
+     * <code>application.properties</code> file).
+     *
+     * @param image encoding image
+     * @param extension image format as {@link ImageExtension} enum type
+     * @return encoded image bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageEncodingException if image writer for selected format not exist or unable to encode image
+     */
+    public byte[] encode(BufferedImage image, ImageExtension extension) {
+        return encode(image, extension, extension == ImageExtension.JPEG ? defaultJpegParams : defaultParams);
+    }
+
+    /**
+     * Method responsible for encoding image with passed encoding parameters. Writer is borrowed from pool (or created,
+     * if pool is empty) and returned after encoding. Writer which failed is disposed instead of returning to pool.
+     * Images with alpha channel are flattened before writing in format without alpha support (JPEG). WebP images are
+     * encoded as lossless (compression quality and progressive parameters are ignored).
+     *
+     * @param image encoding image
+     * @param extension image format as {@link ImageExtension} enum type
+     * @param params instance of {@link ImageEncodeParams} with encoding parameters
+     * @return encoded image bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageEncodingException if image writer for selected format not exist or unable to encode image
+     * @throws IllegalArgumentException if passed image is null
+     */
+    public byte[] encode(BufferedImage image, ImageExtension extension, ImageEncodeParams params) {
+        Assert.notNull(image, "BufferedImage instance cannot be null.");
+        if (extension == ImageExtension.WEBP) return encodeWebp(image);
+        final BufferedImage encodingImage = extension == ImageExtension.JPEG && image.getColorModel().hasAlpha()
+            ? flattenAlphaChannel(image)
+            : image;
+        final ImageWriter writer = borrowWriter(extension);
+        final ReusableOutputStream outputStream = acquireThreadBuffer(Math.min(params.sizeHint(),
+            maxRetainedBufferSize));
+        boolean success = false;
+        try (final ImageOutputStream imageOutputStream = new MemoryCacheImageOutputStream(outputStream)) {
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(encodingImage, null, null), createWriteParam(writer, params));
+            imageOutputStream.flush();
+            success = true;
+        } catch (IOException | RuntimeException ex) {
+            log.error("Unable to encode image into {} format. Exception: {}", extension.getImageExtension(),
+                ex.getMessage());
+            throw new ImageEncodingException();
+        } finally {
+            releaseWriter(extension, writer, success);
+        }
+        final byte[] imageBytes = outputStream.toByteArray();
+        releaseThreadBuffer(outputStream);
+        return imageBytes;
+    }
+
+    /**
+     * Method responsible for encoding multiple images (ex. renditions of single image) in parallel with default
+     * encoding parameters. First image is encoded in caller thread, rest of images in encoding workers.
+     *
+     * @param images encoding images
+     * @param extension image format as {@link ImageExtension} enum type
+     * @return encoded images bytes (in the same order as passed images)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageEncodingException if image writer for selected format not exist or unable to encode any image
+     * @throws IllegalArgumentException if passed images list is null or contains null image
+     */
+    public List<byte[]> encodeAll(List<BufferedImage> images, ImageExtension extension) {
+        Assert.notNull(images, "BufferedImage instances list cannot be null.");
+        Assert.noNullElements(images, "BufferedImage instances list cannot contain null image.");
+        if (images.isEmpty()) return List.of();
+        final List<Future<byte[]>> workers = new ArrayList<>(images.size() - 1);
+        for (final BufferedImage image : images.subList(1, images.size())) {
+            workers.add(encodingWorkers.submit(() -> encode(image, extension)));
+        }
+        final List<byte[]> encodedImages = new ArrayList<>(images.size());
+        try {
+            encodedImages.add(encode(images.get(0), extension));
+            for (final Future<byte[]> worker : workers) {
+                encodedImages.add(worker.get());
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeEx) throw runtimeEx;
+            throw new ImageEncodingException();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ImageEncodingException();
+        } finally {
+            workers.forEach(worker -> worker.cancel(true));
+        }
+        return encodedImages;
+    }
+
+    /**
+     * @return unmodifiable set of image formats, which could be encoded by this service
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public Set<ImageExtension> getSupportedExtensions() {
+        return supportedExtensions;
+    }
+
+    /**
+     * @param extension checking image format
+     * @return true, if passed image format could be encoded by this service, otherwise false
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public boolean isSupported(ImageExtension extension) {
+        return supportedExtensions.contains(extension);
+    }
+
+    /**
+     * @return string describing default encoding parameters (changed parameters give different encoded bytes)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public String getEncoderSignature() {
+        return "imageio:" + defaultJpegParams.compressionQuality() + ":" + defaultParams.progressive();
+    }
+
+    private byte[] encodeWebp(BufferedImage image) {
+        try {
+            return webpEncoder.encode(image);
+        } catch (RuntimeException ex) {
+            log.error("Unable to encode image into webp format. Exception: {}", ex.getMessage());
+            throw new ImageEncodingException();
+        }
+    }
+
+    /**
+     * Inner method responsible for borrowing image writer from pool or creating new writer for selected format.
+     *
+     * @param extension image format as {@link ImageExtension} enum type
+     * @return image writer instance
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageEncodingException if image writer for selected format not exist
+     */
+    private ImageWriter borrowWriter(ImageExtension extension) {
+        final ImageWriter pooledWriter = writersPool.get(extension).poll();
+        if (Objects.nonNull(pooledWriter)) return pooledWriter;
+        final Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(extension.getImageExtension());
+        if (!writers.hasNext()) {
+            log.error("Unable to find image writer for {} format.", extension.getImageExtension());
+            throw new ImageEncodingException();
+        }
+        return writers.next();
+    }
+
+    /**
+     * Inner method responsible for returning image writer to pool. Failed writers and writers exceeding pool size are
+     * disposed.
+     *
+     * @param extension image format as {@link ImageExtension} enum type
+     * @param writer returning image writer
+     * @param success true, if writer successfully encoded image
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void releaseWriter(ImageExtension extension, ImageWriter writer, boolean success) {
+        try {
+            writer.reset();
+        } catch (RuntimeException ex) {
+            success = false;
+        }
+        if (!success || writersPoolSize < 1 || !writersPool.get(extension).offer(writer)) writer.dispose();
+    }
+
+    private ReusableOutputStream acquireThreadBuffer(int sizeHint) {
+        final ReusableOutputStream threadBuffer = threadBuffers.get();
+        if (Objects.isNull(threadBuffer)) return new ReusableOutputStream(Math.max(sizeHint, MIN_BUFFER_SIZE));
+        threadBuffers.remove();
+        threadBuffer.ensureCapacity(sizeHint);
+        return threadBuffer;
+    }
+
+    private void releaseThreadBuffer(ReusableOutputStream outputStream) {
+        if (outputStream.getCapacity() > maxRetainedBufferSize) return;
+        outputStream.reset();
+        threadBuffers.set(outputStream);
+    }
+
+    /**
+     * Inner method responsible for creating image writer parameters based passed encoding parameters. Parameters not
+     * supported by writer are skipped.
+     *
+     * @param writer image writer
+     * @param params instance of {@link ImageEncodeParams} with encoding parameters
+     * @return writer parameters
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static ImageWriteParam createWriteParam(ImageWriter writer, ImageEncodeParams params) {
+        final ImageWriteParam writeParam = writer.getDefaultWriteParam();
+        if (Objects.nonNull(params.compressionQuality()) && writeParam.canWriteCompressed()) {
+            writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            final String[] compressionTypes = writeParam.getCompressionTypes();
+            if (Objects.isNull(writeParam.getCompressionType()) && Objects.nonNull(compressionTypes)
+                && compressionTypes.length > 0) {
+                writeParam.setCompressionType(compressionTypes[0]);
+            }
+            writeParam.setCompressionQuality(Math.min(1f, Math.max(0f, params.compressionQuality())));
+        }
+        if (writeParam.canWriteProgressive()) {
+            writeParam.setProgressiveMode(params.progressive()
+                ? ImageWriteParam.MODE_DEFAULT
+                : ImageWriteParam.MODE_DISABLED);
+        }
+        return writeParam;
+    }
+
+    private static BufferedImage flattenAlphaChannel(BufferedImage image) {
+        final BufferedImage flattenedImage = new BufferedImage(image.getWidth(), image.getHeight(),
+            BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = flattenedImage.createGraphics();
+        graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        graphics.dispose();
+        return flattenedImage;
+    }
+
+    @Override
+    public void destroy() {
+        encodingWorkers.shutdownNow();
+        for (final BlockingQueue<ImageWriter> writers : writersPool.values()) {
+            ImageWriter writer;
+            while (Objects.nonNull(writer = writers.poll())) {
+                writer.dispose();
+            }
+        }
+    }
+
+    /**
+     * Byte array output stream with reusable (growing only by demand) internal buffer.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static class ReusableOutputStream extends ByteArrayOutputStream {
+
+        ReusableOutputStream(int initialSize) {
+            super(initialSize);
+        }
+
+        void ensureCapacity(int capacity) {
+            if (buf.length < capacity) buf = new byte[capacity];
+        }
+
+        int getCapacity() {
+            return buf.length;
+        }
+    }
+}
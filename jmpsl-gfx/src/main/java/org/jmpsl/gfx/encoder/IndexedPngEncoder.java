@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: IndexedPngEncoder.java
+ * Last modified: 19/10/2026, 23:25
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.encoder;
+
+import org.springframework.util.Assert;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.DataOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Encoder writing opaque images as palette-indexed PNG (color type 3) with 1, 2, 4 or 8 bits per pixel. If image has
+ * not more distinct colors than max palette size, colors are stored exactly. Otherwise every pixel is quantized into
+ * linear ramp between two passed colors (ex. background and foreground of generated user image, where intermediate
+ * colors come only from text antialiasing). For two-color images with antialiased text, files are several times smaller
+ * than 24-bit PNG written by ImageIO. Instances are immutable and thread-safe.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public class IndexedPngEncoder {
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+    private static final int COLOR_TYPE_INDEXED = 3;
+    private static final int MAX_PALETTE_SIZE = 256;
+
+    private final int maxPaletteSize;
+    private final int deflateLevel;
+    private final PngFilterStrategy filterStrategy;
+
+    public IndexedPngEncoder(int maxPaletteSize, int deflateLevel, PngFilterStrategy filterStrategy) {
+        Assert.isTrue(maxPaletteSize >= 2 && maxPaletteSize <= MAX_PALETTE_SIZE, "Palette size must be in 2-256.");
+        Assert.isTrue(deflateLevel >= Deflater.NO_COMPRESSION && deflateLevel <= Deflater.BEST_COMPRESSION,
+            "Deflate level must be in 0-9.");
+        Assert.notNull(filterStrategy, "Filter strategy cannot be null.");
+        this.maxPaletteSize = maxPaletteSize;
+        this.deflateLevel = deflateLevel;
+        this.filterStrategy = filterStrategy;
+    }
+
+    /**
+     * Method responsible for encoding passed image into palette-indexed PNG bytes. Alpha channel of image is ignored.
+     *
+     * @param image encoding image
+     * @param rampStart first color of quantization ramp (ex. image background color)
+     * @param rampEnd last color of quantization ramp (ex. image foreground color)
+     * @return encoded PNG image bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if any of passed parameters is null
+     */
+    public byte[] encode(BufferedImage image, Color rampStart, Color rampEnd) {
+        Assert.notNull(image, "BufferedImage instance cannot be null.");
+        Assert.notNull(rampStart, "Ramp start color cannot be null.");
+        Assert.notNull(rampEnd, "Ramp end color cannot be null.");
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        final byte[] indexes = new byte[pixels.length];
+
+        int[] palette = createExactPalette(pixels, indexes);
+        if (palette.length == 0) {
+            palette = createRampPalette(rampStart.getRGB(), rampEnd.getRGB());
+            quantizeIntoRamp(pixels, indexes, rampStart.getRGB(), rampEnd.getRGB());
+        }
+        final int bitDepth = computeBitDepth(palette.length);
+        try {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(pixels.length * bitDepth / 16 + 128);
+            outputStream.write(PNG_SIGNATURE);
+            writeChunk(outputStream, "IHDR", createHeader(width, height, bitDepth));
+            writeChunk(outputStream, "PLTE", createPaletteChunk(palette));
+            writeChunk(outputStream, "IDAT", compressScanlines(indexes, width, height, bitDepth));
+            writeChunk(outputStream, "IEND", new byte[0]);
+            return outputStream.toByteArray();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to encode indexed PNG image.", ex);
+        }
+    }
+
+    /**
+     * @return string describing encoder settings (changed settings give different encoded bytes)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public String getEncoderSignature() {
+        return "indexed-png:" + maxPaletteSize + ":" + deflateLevel + ":" + filterStrategy.getStrategyName();
+    }
+
+    /**
+     * Inner method responsible for collecting distinct image colors (in order of first occurrence) and filling pixel
+     * indexes array.
+     *
+     * @param pixels image pixels as RGB values
+     * @param indexes output array of palette indexes
+     * @return exact palette or empty array, if image has more colors than max palette size
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private int[] createExactPalette(int[] pixels, byte[] indexes) {
+        final Map<Integer, Integer> colorIndexes = new HashMap<>();
+        final int[] palette = new int[maxPaletteSize];
+        int previousRgb = 0;
+        int previousIndex = -1;
+        for (int i = 0; i < pixels.length; i++) {
+            final int rgb = pixels[i] & 0xffffff;
+            if (previousIndex < 0 || rgb != previousRgb) {
+                Integer colorIndex = colorIndexes.get(rgb);
+                if (Objects.isNull(colorIndex)) {
+                    if (colorIndexes.size() == maxPaletteSize) return new int[0];
+                    colorIndex = colorIndexes.size();
+                    colorIndexes.put(rgb, colorIndex);
+                    palette[colorIndex] = rgb;
+                }
+                previousRgb = rgb;
+                previousIndex = colorIndex;
+            }
+            indexes[i] = (byte) previousIndex;
+        }
+        return Arrays.copyOf(palette, colorIndexes.size());
+    }
+
+    /**
+     * Inner method responsible for creating palette of colors linearly interpolated between two passed colors.
+     *
+     * @param startRgb first ramp color as RGB value
+     * @param endRgb last ramp color as RGB value
+     * @return ramp palette with max palette size colors
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private int[] createRampPalette(int startRgb, int endRgb) {
+        final int[] palette = new int[maxPaletteSize];
+        for (int i = 0; i < maxPaletteSize; i++) {
+            final double ratio = (double) i / (maxPaletteSize - 1);
+            int rgb = 0;
+            for (int shift = 16; shift >= 0; shift -= 8) {
+                final int start = (startRgb >> shift) & 0xff;
+                final int end = (endRgb >> shift) & 0xff;
+                rgb |= ((int) Math.round(start + (end - start) * ratio)) << shift;
+            }
+            palette[i] = rgb;
+        }
+        return palette;
+    }
+
+    /**
+     * Inner method responsible for mapping every pixel into nearest ramp color index (by projecting pixel color on
+     * segment between ramp colors in RGB space).
+     *
+     * @param pixels image pixels as RGB values
+     * @param indexes output array of palette indexes
+     * @param startRgb first ramp color as RGB value
+     * @param endRgb last ramp color as RGB value
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void quantizeIntoRamp(int[] pixels, byte[] indexes, int startRgb, int endRgb) {
+        final int[] start = { (startRgb >> 16) & 0xff, (startRgb >> 8) & 0xff, startRgb & 0xff };
+        final int[] delta = {
+            ((endRgb >> 16) & 0xff) - start[0], ((endRgb >> 8) & 0xff) - start[1], (endRgb & 0xff) - start[2],
+        };
+        final long deltaLength = (long) delta[0] * delta[0] + (long) delta[1] * delta[1] + (long) delta[2] * delta[2];
+        if (deltaLength == 0) {
+            Arrays.fill(indexes, (byte) 0);
+            return;
+        }
+        for (int i = 0; i < pixels.length; i++) {
+            final int rgb = pixels[i];
+            final long projection = (long) (((rgb >> 16) & 0xff) - start[0]) * delta[0]
+                + (long) (((rgb >> 8) & 0xff) - start[1]) * delta[1]
+                + (long) ((rgb & 0xff) - start[2]) * delta[2];
+            final double ratio = Math.min(1, Math.max(0, (double) projection / deltaLength));
+            indexes[i] = (byte) Math.round(ratio * (maxPaletteSize - 1));
+        }
+    }
+
+    /**
+     * Inner method responsible for filtering (based declared {@link PngFilterStrategy}) and compressing packed
+     * scanlines of palette indexes.
+     *
+     * @param indexes image palette indexes
+     * @param width image width
+     * @param height image height
+     * @param bitDepth count of bits per pixel
+     * @return compressed IDAT chunk data
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to write compressed data
+     */
+    private byte[] compressScanlines(byte[] indexes, int width, int height, int bitDepth) throws IOException {
+        final int scanlineLength = (width * bitDepth + 7) / 8;
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(scanlineLength * height / 4 + 64);
+        final Deflater deflater = new Deflater(deflateLevel);
+        try (final OutputStream deflaterStream = new DeflaterOutputStream(outputStream, deflater, scanlineLength + 1)) {
+            byte[] previousScanline = new byte[scanlineLength];
+            byte[] currentScanline = new byte[scanlineLength];
+            final byte[] filteredScanline = new byte[scanlineLength + 1];
+            final byte[] candidateScanline = new byte[scanlineLength + 1];
+            for (int y = 0; y < height; y++) {
+                packScanline(indexes, y * width, width, bitDepth, currentScanline);
+                if (filterStrategy == PngFilterStrategy.ADAPTIVE) {
+                    long minimalSum = Long.MAX_VALUE;
+                    for (int filterType = 0; filterType <= 4; filterType++) {
+                        final long sum = filterScanline(filterType, currentScanline, previousScanline,
+                            candidateScanline);
+                        if (sum < minimalSum) {
+                            minimalSum = sum;
+                            System.arraycopy(candidateScanline, 0, filteredScanline, 0, filteredScanline.length);
+                        }
+                    }
+                } else {
+                    filterScanline(filterStrategy.getFilterType(), currentScanline, previousScanline,
+                        filteredScanline);
+                }
+                deflaterStream.write(filteredScanline);
+                final byte[] swappedScanline = previousScanline;
+                previousScanline = currentScanline;
+                currentScanline = swappedScanline;
+            }
+        } finally {
+            deflater.end();
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Inner method responsible for packing palette indexes of single image row into scanline bytes (most significant
+     * bits first).
+     *
+     * @param indexes image palette indexes
+     * @param offset index of first pixel of row
+     * @param width image width
+     * @param bitDepth count of bits per pixel
+     * @param scanline output scanline bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static void packScanline(byte[] indexes, int offset, int width, int bitDepth, byte[] scanline) {
+        if (bitDepth == 8) {
+            System.arraycopy(indexes, offset, scanline, 0, width);
+            return;
+        }
+        Arrays.fill(scanline, (byte) 0);
+        final int pixelsPerByte = 8 / bitDepth;
+        for (int x = 0; x < width; x++) {
+            final int shift = 8 - bitDepth * (x % pixelsPerByte + 1);
+            scanline[x / pixelsPerByte] |= (byte) ((indexes[offset + x] & 0xff) << shift);
+        }
+    }
+
+    /**
+     * Inner method responsible for filtering single scanline (for palette-indexed images distance to corresponding
+     * previous byte is always 1).
+     *
+     * @param filterType PNG filter type byte (0-4)
+     * @param current current scanline bytes
+     * @param previous previous scanline bytes (zeros for first scanline)
+     * @param filtered output filtered scanline (with leading filter type byte)
+     * @return sum of absolute values of filtered bytes (as signed bytes)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static long filterScanline(int filterType, byte[] current, byte[] previous, byte[] filtered) {
+        filtered[0] = (byte) filterType;
+        long absoluteSum = 0;
+        for (int i = 0; i < current.length; i++) {
+            final int left = i > 0 ? current[i - 1] & 0xff : 0;
+            final int up = previous[i] & 0xff;
+            final int upperLeft = i > 0 ? previous[i - 1] & 0xff : 0;
+            final int predictor = switch (filterType) {
+                case 1 -> left;
+                case 2 -> up;
+                case 3 -> (left + up) >>> 1;
+                case 4 -> computePaethPredictor(left, up, upperLeft);
+                default -> 0;
+            };
+            final byte filteredByte = (byte) ((current[i] & 0xff) - predictor);
+            filtered[i + 1] = filteredByte;
+            absoluteSum += Math.abs(filteredByte);
+        }
+        return absoluteSum;
+    }
+
+    private static int computePaethPredictor(int left, int up, int upperLeft) {
+        final int estimate = left + up - upperLeft;
+        final int leftDistance = Math.abs(estimate - left);
+        final int upDistance = Math.abs(estimate - up);
+        final int upperLeftDistance = Math.abs(estimate - upperLeft);
+        if (leftDistance <= upDistance && leftDistance <= upperLeftDistance) return left;
+        return upDistance <= upperLeftDistance ? up : upperLeft;
+    }
+
+    private static int computeBitDepth(int paletteSize) {
+        if (paletteSize <= 2) return 1;
+        if (paletteSize <= 4) return 2;
+        return paletteSize <= 16 ? 4 : 8;
+    }
+
+    private static byte[] createHeader(int width, int height, int bitDepth) throws IOException {
+        final ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        final DataOutputStream headerStream = new DataOutputStream(header);
+        headerStream.writeInt(width);
+        headerStream.writeInt(height);
+        headerStream.writeByte(bitDepth);
+        headerStream.writeByte(COLOR_TYPE_INDEXED);
+        headerStream.writeByte(0);
+        headerStream.writeByte(0);
+        headerStream.writeByte(0);
+        return header.toByteArray();
+    }
+
+    private static byte[] createPaletteChunk(int[] palette) {
+        final byte[] paletteBytes = new byte[palette.length * 3];
+        for (int i = 0; i < palette.length; i++) {
+            paletteBytes[i * 3] = (byte) (palette[i] >> 16);
+            paletteBytes[i * 3 + 1] = (byte) (palette[i] >> 8);
+            paletteBytes[i * 3 + 2] = (byte) palette[i];
+        }
+        return paletteBytes;
+    }
+
+    private static void writeChunk(ByteArrayOutputStream outputStream, String type, byte[] data) throws IOException {
+        final DataOutputStream chunkStream = new DataOutputStream(outputStream);
+        final byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        final CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        chunkStream.writeInt(data.length);
+        chunkStream.write(typeBytes);
+        chunkStream.write(data);
+        chunkStream.writeInt((int) crc.getValue());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: PngFilterStrategy.java
+ * Last modified: 19/10/2026, 23:25
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.encoder;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Enum set of all available strategies of filtering PNG scanlines before compression (used by
+ * {@link IndexedPngEncoder}). Selected by <code>jmpsl.gfx.indexed-png.filter-strategy</code> property in
+ * <code>application.properties</code> file.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Getter
+@AllArgsConstructor
+public enum PngFilterStrategy {
+
+    /**
+     * Scanlines are not filtered. Recommended for palette-indexed images (and fastest).
+     *
+     * @since 1.0.2
+     */
+    NONE("none", 0),
+
+    /**
+     * Every byte is stored as difference to previous byte in the same scanline.
+     *
+     * @since 1.0.2
+     */
+    SUB("sub", 1),
+
+    /**
+     * Every byte is stored as difference to byte above (in previous scanline).
+     *
+     * @since 1.0.2
+     */
+    UP("up", 2),
+
+    /**
+     * Every byte is stored as difference to average of previous byte and byte above.
+     *
+     * @since 1.0.2
+     */
+    AVERAGE("average", 3),
+
+    /**
+     * Every byte is stored as difference to Paeth predictor of previous byte, byte above and upper left byte.
+     *
+     * @since 1.0.2
+     */
+    PAETH("paeth", 4),
+
+    /**
+     * For every scanline filter with minimal sum of absolute differences is selected (slowest).
+     *
+     * @since 1.0.2
+     */
+    ADAPTIVE("adaptive", -1);
+
+    /**
+     * Strategy name used in <code>application.properties</code> file.
+     *
+     * @since 1.0.2
+     */
+    private final String strategyName;
+
+    /**
+     * PNG filter type byte (-1 for adaptive strategy).
+     *
+     * @since 1.0.2
+     */
+    private final int filterType;
+
+    /**
+     * Static method responsible for finding filter strategy based passed property name (case insensitive).
+     *
+     * @param strategyName strategy name from <code>application.properties</code> file
+     * @return found {@link PngFilterStrategy} enum type
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if strategy with passed name not exist
+     */
+    public static PngFilterStrategy findByStrategyName(String strategyName) {
+        return Arrays.stream(values())
+            .filter(strategy -> strategy.strategyName.equalsIgnoreCase(strategyName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Not supported PNG filter strategy: " + strategyName));
+    }
+}
@@ -0,0 +1,671 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: WebpLosslessEncoder.java
+ * Last modified: 20/10/2026, 00:30
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.encoder;
+
+import org.springframework.util.Assert;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+/**
+ * Pure Java encoder writing images as lossless WebP (VP8L bitstream in RIFF container). Images with not more than 256
+ * distinct colors are written with color indexing transform (pixels of images with up to 16 colors are bundled, so
+ * single encoded pixel stores 2, 4 or 8 image pixels), other images are written with subtract green and predictor
+ * (gradient prediction from left, top and top-left pixels) transforms. Pixels are compressed by LZ77 backward
+ * references (to left pixel, pixel above and last pixel with the same hash) and canonical prefix (Huffman) codes.
+ * Encoding is deterministic (the same image always gives the same bytes). Instances are stateless and thread-safe.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public class WebpLosslessEncoder {
+
+    private static final int MAX_DIMENSION = 16384;
+    private static final int MAX_PALETTE_SIZE = 256;
+    private static final int VP8L_SIGNATURE = 0x2f;
+    private static final int PREDICTOR_TRANSFORM = 0;
+    private static final int SUBTRACT_GREEN_TRANSFORM = 2;
+    private static final int COLOR_INDEXING_TRANSFORM = 3;
+    private static final int PREDICTOR_BLOCK_BITS = 9;
+    private static final int GRADIENT_PREDICTOR_MODE = 12;
+
+    private static final int NUM_LITERAL_CODES = 256;
+    private static final int NUM_LENGTH_CODES = 24;
+    private static final int NUM_DISTANCE_CODES = 40;
+    private static final int DISTANCE_CODE_OFFSET = 120;
+    private static final int MIN_MATCH_LENGTH = 3;
+    private static final int MAX_MATCH_LENGTH = 4096;
+    private static final int MAX_MATCH_DISTANCE = (1 << 20) - DISTANCE_CODE_OFFSET;
+    private static final int HASH_BITS = 16;
+
+    private static final int MAX_CODE_LENGTH = 15;
+    private static final int MAX_CODE_LENGTH_CODE_LENGTH = 7;
+    private static final int[] CODE_LENGTH_CODE_ORDER = { 17, 18, 0, 1, 2, 3, 4, 5, 16, 6, 7, 8, 9, 10, 11, 12, 13, 14,
+        15 };
+
+    /**
+     * Method responsible for encoding passed image into lossless WebP bytes.
+     *
+     * @param image encoding image
+     * @return encoded WebP image bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed image is null or image dimensions exceed 16384 pixels
+     */
+    public byte[] encode(BufferedImage image) {
+        Assert.notNull(image, "BufferedImage instance cannot be null.");
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        Assert.isTrue(width <= MAX_DIMENSION && height <= MAX_DIMENSION, "WebP image dimensions exceed 16384 pixels.");
+        final int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+        boolean alphaUsed = false;
+        if (image.getColorModel().hasAlpha()) {
+            alphaUsed = Arrays.stream(argb).anyMatch(pixel -> (pixel >>> 24) != 0xff);
+        }
+        final BitWriter writer = new BitWriter(argb.length / 2 + 64);
+        writer.write(VP8L_SIGNATURE, 8);
+        writer.write(width - 1, 14);
+        writer.write(height - 1, 14);
+        writer.write(alphaUsed ? 1 : 0, 1);
+        writer.write(0, 3);
+
+        final int[] palette = collectPalette(argb);
+        final int[] encodedPixels;
+        final int encodedWidth;
+        if (Objects.nonNull(palette)) {
+            final int widthBits = computeBundleWidthBits(palette.length);
+            writer.write(1, 1);
+            writer.write(COLOR_INDEXING_TRANSFORM, 2);
+            writer.write(palette.length - 1, 8);
+            writeEntropyCodedImage(writer, createPaletteDeltas(palette), palette.length, false);
+            encodedWidth = (width + (1 << widthBits) - 1) >> widthBits;
+            encodedPixels = bundleIndexedPixels(argb, palette, width, height, widthBits, encodedWidth);
+        } else {
+            writer.write(1, 1);
+            writer.write(SUBTRACT_GREEN_TRANSFORM, 2);
+            writer.write(1, 1);
+            writer.write(PREDICTOR_TRANSFORM, 2);
+            writer.write(PREDICTOR_BLOCK_BITS - 2, 3);
+            final int blocksWidth = (width + (1 << PREDICTOR_BLOCK_BITS) - 1) >> PREDICTOR_BLOCK_BITS;
+            final int blocksHeight = (height + (1 << PREDICTOR_BLOCK_BITS) - 1) >> PREDICTOR_BLOCK_BITS;
+            final int[] predictorModes = new int[blocksWidth * blocksHeight];
+            Arrays.fill(predictorModes, 0xff000000 | (GRADIENT_PREDICTOR_MODE << 8));
+            writeEntropyCodedImage(writer, predictorModes, blocksWidth, false);
+            encodedWidth = width;
+            encodedPixels = computePredictionResiduals(subtractGreen(argb), width, height);
+        }
+        writer.write(0, 1);
+        writeEntropyCodedImage(writer, encodedPixels, encodedWidth, true);
+        return wrapIntoRiffContainer(writer.toByteArray());
+    }
+
+    /**
+     * Inner method responsible for collecting distinct image colors (in order of first occurrence).
+     *
+     * @param argb image pixels as ARGB values
+     * @return palette of image colors or null, if image has more than 256 colors
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int[] collectPalette(int[] argb) {
+        final Map<Integer, Integer> colorIndexes = new HashMap<>();
+        final int[] palette = new int[MAX_PALETTE_SIZE];
+        int previousColor = 0;
+        for (int i = 0; i < argb.length; i++) {
+            if (i > 0 && argb[i] == previousColor) continue;
+            previousColor = argb[i];
+            if (colorIndexes.containsKey(previousColor)) continue;
+            if (colorIndexes.size() == MAX_PALETTE_SIZE) return null;
+            palette[colorIndexes.size()] = previousColor;
+            colorIndexes.put(previousColor, colorIndexes.size());
+        }
+        return Arrays.copyOf(palette, colorIndexes.size());
+    }
+
+    private static int computeBundleWidthBits(int paletteSize) {
+        if (paletteSize <= 2) return 3;
+        if (paletteSize <= 4) return 2;
+        return paletteSize <= 16 ? 1 : 0;
+    }
+
+    /**
+     * Inner method responsible for creating palette deltas (every color is stored as per-component difference to
+     * previous color).
+     *
+     * @param palette image palette
+     * @return palette deltas as ARGB values
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int[] createPaletteDeltas(int[] palette) {
+        final int[] deltas = new int[palette.length];
+        deltas[0] = palette[0];
+        for (int i = 1; i < palette.length; i++) {
+            int delta = 0;
+            for (int shift = 0; shift < 32; shift += 8) {
+                delta |= (((palette[i] >>> shift) - (palette[i - 1] >>> shift)) & 0xff) << shift;
+            }
+            deltas[i] = delta;
+        }
+        return deltas;
+    }
+
+    /**
+     * Inner method responsible for replacing image pixels by palette indexes (stored in green channel). Indexes of
+     * adjacent pixels are bundled into single encoded pixel (least significant bits first), if width bits is not 0.
+     *
+     * @param argb image pixels as ARGB values
+     * @param palette image palette
+     * @param width image width
+     * @param height image height
+     * @param widthBits count of bits of bundled pixels count (0 for palettes with more than 16 colors)
+     * @param encodedWidth width of image with bundled pixels
+     * @return encoded pixels as ARGB values
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int[] bundleIndexedPixels(
+        int[] argb, int[] palette, int width, int height, int widthBits, int encodedWidth
+    ) {
+        final Map<Integer, Integer> colorIndexes = new HashMap<>();
+        for (int i = 0; i < palette.length; i++) {
+            colorIndexes.put(palette[i], i);
+        }
+        final int bitsPerPixel = 8 >> widthBits;
+        final int pixelsPerBundle = 1 << widthBits;
+        final int[] encodedPixels = new int[encodedWidth * height];
+        int previousColor = argb[0];
+        int previousIndex = colorIndexes.get(previousColor);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                final int color = argb[y * width + x];
+                if (color != previousColor) {
+                    previousColor = color;
+                    previousIndex = colorIndexes.get(color);
+                }
+                final int shift = bitsPerPixel * (x & (pixelsPerBundle - 1)) + 8;
+                encodedPixels[y * encodedWidth + (x >> widthBits)] |= previousIndex << shift;
+            }
+        }
+        for (int i = 0; i < encodedPixels.length; i++) {
+            encodedPixels[i] |= 0xff000000;
+        }
+        return encodedPixels;
+    }
+
+    private static int[] subtractGreen(int[] argb) {
+        final int[] encodedPixels = new int[argb.length];
+        for (int i = 0; i < argb.length; i++) {
+            final int pixel = argb[i];
+            final int green = (pixel >> 8) & 0xff;
+            final int red = (((pixel >> 16) & 0xff) - green) & 0xff;
+            final int blue = ((pixel & 0xff) - green) & 0xff;
+            encodedPixels[i] = (pixel & 0xff00ff00) | (red << 16) | blue;
+        }
+        return encodedPixels;
+    }
+
+    /**
+     * Inner method responsible for replacing pixels by per-component differences to predicted values. First pixel is
+     * predicted as opaque black, pixels of first row by left pixel, pixels of first column by pixel above, and other
+     * pixels by clamped gradient (left + top - top-left).
+     *
+     * @param pixels image pixels as ARGB values
+     * @param width image width
+     * @param height image height
+     * @return prediction residuals as ARGB values
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int[] computePredictionResiduals(int[] pixels, int width, int height) {
+        final int[] residuals = new int[pixels.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                final int index = y * width + x;
+                final int prediction;
+                if (x == 0 && y == 0) {
+                    prediction = 0xff000000;
+                } else if (y == 0) {
+                    prediction = pixels[index - 1];
+                } else if (x == 0) {
+                    prediction = pixels[index - width];
+                } else {
+                    prediction = predictGradient(pixels[index - 1], pixels[index - width], pixels[index - width - 1]);
+                }
+                int residual = 0;
+                for (int shift = 0; shift < 32; shift += 8) {
+                    residual |= (((pixels[index] >>> shift) - (prediction >>> shift)) & 0xff) << shift;
+                }
+                residuals[index] = residual;
+            }
+        }
+        return residuals;
+    }
+
+    private static int predictGradient(int left, int top, int topLeft) {
+        int prediction = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            final int component = ((left >>> shift) & 0xff) + ((top >>> shift) & 0xff) - ((topLeft >>> shift) & 0xff);
+            prediction |= Math.min(255, Math.max(0, component)) << shift;
+        }
+        return prediction;
+    }
+
+    /**
+     * Inner method responsible for writing entropy-coded image (main image or transform sub-image): color cache
+     * flag, meta prefix codes flag (only in main image), five prefix codes and LZ77 compressed pixels.
+     *
+     * @param writer bitstream writer
+     * @param pixels image pixels as ARGB values
+     * @param width image width (used for backward references to pixel above)
+     * @param isMainImage true for main image, false for transform sub-image
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static void writeEntropyCodedImage(BitWriter writer, int[] pixels, int width, boolean isMainImage) {
+        writer.write(0, 1);
+        if (isMainImage) writer.write(0, 1);
+
+        final int[] tokens = new int[pixels.length * 2];
+        final int tokensCount = createBackwardReferences(pixels, width, tokens);
+        final int[][] histograms = {
+            new int[NUM_LITERAL_CODES + NUM_LENGTH_CODES], new int[NUM_LITERAL_CODES], new int[NUM_LITERAL_CODES],
+            new int[NUM_LITERAL_CODES], new int[NUM_DISTANCE_CODES],
+        };
+        for (int i = 0; i < tokensCount; i += 2) {
+            if (tokens[i + 1] == 0) {
+                final int pixel = tokens[i];
+                histograms[0][(pixel >> 8) & 0xff]++;
+                histograms[1][(pixel >> 16) & 0xff]++;
+                histograms[2][pixel & 0xff]++;
+                histograms[3][pixel >>> 24]++;
+            } else {
+                histograms[0][NUM_LITERAL_CODES + computePrefixCode(tokens[i])]++;
+                histograms[4][computePrefixCode(tokens[i + 1] + DISTANCE_CODE_OFFSET)]++;
+            }
+        }
+        final PrefixCode[] codes = new PrefixCode[histograms.length];
+        for (int i = 0; i < histograms.length; i++) {
+            codes[i] = writePrefixCode(writer, histograms[i]);
+        }
+        for (int i = 0; i < tokensCount; i += 2) {
+            if (tokens[i + 1] == 0) {
+                final int pixel = tokens[i];
+                codes[0].writeSymbol(writer, (pixel >> 8) & 0xff);
+                codes[1].writeSymbol(writer, (pixel >> 16) & 0xff);
+                codes[2].writeSymbol(writer, pixel & 0xff);
+                codes[3].writeSymbol(writer, pixel >>> 24);
+            } else {
+                final int length = tokens[i];
+                final int distanceCode = tokens[i + 1] + DISTANCE_CODE_OFFSET;
+                codes[0].writeSymbol(writer, NUM_LITERAL_CODES + computePrefixCode(length));
+                writePrefixExtraBits(writer, length);
+                codes[4].writeSymbol(writer, computePrefixCode(distanceCode));
+                writePrefixExtraBits(writer, distanceCode);
+            }
+        }
+    }
+
+    /**
+     * Inner method responsible for finding LZ77 backward references. Every token is stored as pair of integers:
+     * literal pixel with 0, or match length with match distance (in pixels).
+     *
+     * @param pixels image pixels as ARGB values
+     * @param width image width
+     * @param tokens output tokens array (two integers per token)
+     * @return count of used integers in tokens array
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int createBackwardReferences(int[] pixels, int width, int[] tokens) {
+        final int[] hashTable = new int[1 << HASH_BITS];
+        int tokensCount = 0;
+        int position = 0;
+        while (position < pixels.length) {
+            final int maxLength = Math.min(MAX_MATCH_LENGTH, pixels.length - position);
+            int bestLength = 0;
+            int bestDistance = 0;
+            final int hashCandidate = position + 1 < pixels.length
+                ? hashTable[hashPixels(pixels[position], pixels[position + 1])] - 1
+                : -1;
+            final int[] distances = { 1, width, hashCandidate >= 0 ? position - hashCandidate : 0 };
+            for (final int distance : distances) {
+                if (distance < 1 || distance > position || distance > MAX_MATCH_DISTANCE) continue;
+                int length = 0;
+                while (length < maxLength && pixels[position + length] == pixels[position + length - distance]) {
+                    length++;
+                }
+                if (length > bestLength) {
+                    bestLength = length;
+                    bestDistance = distance;
+                }
+            }
+            final int tokenLength = bestLength >= MIN_MATCH_LENGTH ? bestLength : 1;
+            if (tokenLength > 1) {
+                tokens[tokensCount++] = bestLength;
+                tokens[tokensCount++] = bestDistance;
+            } else {
+                tokens[tokensCount++] = pixels[position];
+                tokens[tokensCount++] = 0;
+            }
+            for (int i = position; i < position + tokenLength && i + 1 < pixels.length; i++) {
+                hashTable[hashPixels(pixels[i], pixels[i + 1])] = i + 1;
+            }
+            position += tokenLength;
+        }
+        return tokensCount;
+    }
+
+    private static int hashPixels(int first, int second) {
+        return (int) (((first * 0x9e3779b1L) ^ (second * 0x85ebca6bL)) >>> (32 - HASH_BITS)) & ((1 << HASH_BITS) - 1);
+    }
+
+    /**
+     * Inner method responsible for computing LZ77 prefix code of passed value (length or distance code).
+     *
+     * @param value encoding value (greater than 0)
+     * @return prefix code
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int computePrefixCode(int value) {
+        final int decremented = value - 1;
+        if (decremented < 4) return decremented;
+        final int highestBit = 31 - Integer.numberOfLeadingZeros(decremented);
+        return 2 * highestBit + ((decremented >> (highestBit - 1)) & 1);
+    }
+
+    private static void writePrefixExtraBits(BitWriter writer, int value) {
+        final int decremented = value - 1;
+        if (decremented < 4) return;
+        final int extraBitsCount = 31 - Integer.numberOfLeadingZeros(decremented) - 1;
+        writer.write(decremented & ((1 << extraBitsCount) - 1), extraBitsCount);
+    }
+
+    /**
+     * Inner method responsible for building prefix code based passed symbols histogram and writing code into
+     * bitstream. Codes with up to 2 symbols (lower than 256) are written as simple codes, other codes are written as
+     * normal codes (code lengths compressed by code length code).
+     *
+     * @param writer bitstream writer
+     * @param histogram symbols frequencies
+     * @return built prefix code
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static PrefixCode writePrefixCode(BitWriter writer, int[] histogram) {
+        final int[] usedSymbols = new int[2];
+        int usedSymbolsCount = 0;
+        for (int symbol = 0; symbol < histogram.length; symbol++) {
+            if (histogram[symbol] == 0) continue;
+            if (usedSymbolsCount < 2) usedSymbols[usedSymbolsCount] = symbol;
+            usedSymbolsCount++;
+        }
+        if (usedSymbolsCount <= 2 && usedSymbols[0] < NUM_LITERAL_CODES && usedSymbols[1] < NUM_LITERAL_CODES) {
+            final int[] codeLengths = new int[histogram.length];
+            writer.write(1, 1);
+            writer.write(Math.max(usedSymbolsCount - 1, 0), 1);
+            if (usedSymbols[0] < 2) {
+                writer.write(0, 1);
+                writer.write(usedSymbols[0], 1);
+            } else {
+                writer.write(1, 1);
+                writer.write(usedSymbols[0], 8);
+            }
+            if (usedSymbolsCount == 2) {
+                writer.write(usedSymbols[1], 8);
+                codeLengths[usedSymbols[0]] = 1;
+                codeLengths[usedSymbols[1]] = 1;
+            }
+            return new PrefixCode(codeLengths);
+        }
+        final int[] codeLengths = buildCodeLengths(histogram, MAX_CODE_LENGTH);
+        final int[] codeLengthTokens = new int[codeLengths.length * 2];
+        final int tokensCount = createCodeLengthTokens(codeLengths, codeLengthTokens);
+        final int[] codeLengthHistogram = new int[CODE_LENGTH_CODE_ORDER.length];
+        for (int i = 0; i < tokensCount; i += 2) {
+            codeLengthHistogram[codeLengthTokens[i]]++;
+        }
+        final int[] codeLengthCodeLengths = buildCodeLengths(codeLengthHistogram, MAX_CODE_LENGTH_CODE_LENGTH);
+        int codeLengthsCount = CODE_LENGTH_CODE_ORDER.length;
+        while (codeLengthsCount > 4 && codeLengthCodeLengths[CODE_LENGTH_CODE_ORDER[codeLengthsCount - 1]] == 0) {
+            codeLengthsCount--;
+        }
+        writer.write(0, 1);
+        writer.write(codeLengthsCount - 4, 4);
+        for (int i = 0; i < codeLengthsCount; i++) {
+            writer.write(codeLengthCodeLengths[CODE_LENGTH_CODE_ORDER[i]], 3);
+        }
+        writer.write(0, 1);
+        final PrefixCode codeLengthCode = new PrefixCode(codeLengthCodeLengths);
+        for (int i = 0; i < tokensCount; i += 2) {
+            final int symbol = codeLengthTokens[i];
+            codeLengthCode.writeSymbol(writer, symbol);
+            if (symbol == 17) writer.write(codeLengthTokens[i + 1] - 3, 3);
+            if (symbol == 18) writer.write(codeLengthTokens[i + 1] - 11, 7);
+        }
+        return new PrefixCode(codeLengths);
+    }
+
+    /**
+     * Inner method responsible for run-length encoding of code lengths (zero runs are written as 17 or 18 symbols).
+     * Every token is stored as pair of integers: code length symbol and repeat count.
+     *
+     * @param codeLengths code lengths of all alphabet symbols
+     * @param tokens output tokens array (two integers per token)
+     * @return count of used integers in tokens array
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int createCodeLengthTokens(int[] codeLengths, int[] tokens) {
+        int tokensCount = 0;
+        int i = 0;
+        while (i < codeLengths.length) {
+            if (codeLengths[i] != 0) {
+                tokens[tokensCount++] = codeLengths[i++];
+                tokens[tokensCount++] = 1;
+                continue;
+            }
+            int zerosCount = 0;
+            while (i + zerosCount < codeLengths.length && codeLengths[i + zerosCount] == 0 && zerosCount < 138) {
+                zerosCount++;
+            }
+            if (zerosCount < 3) {
+                tokens[tokensCount++] = 0;
+                tokens[tokensCount++] = 1;
+                i++;
+                continue;
+            }
+            tokens[tokensCount++] = zerosCount <= 10 ? 17 : 18;
+            tokens[tokensCount++] = zerosCount;
+            i += zerosCount;
+        }
+        return tokensCount;
+    }
+
+    /**
+     * Inner method responsible for computing length-limited Huffman code lengths. If code exceeds max length, symbols
+     * frequencies are flattened and code is rebuilt. Histogram with single used symbol gets additional dummy symbol,
+     * so built code is always complete. Ties are resolved by symbol order, so result is deterministic.
+     *
+     * @param histogram symbols frequencies
+     * @param maxLength max code length
+     * @return code lengths of all symbols (0 for not used symbols)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static int[] buildCodeLengths(int[] histogram, int maxLength) {
+        final int[] frequencies = histogram.clone();
+        final long usedSymbolsCount = Arrays.stream(frequencies).filter(frequency -> frequency > 0).count();
+        if (usedSymbolsCount < 2) {
+            final int dummySymbol = frequencies[0] > 0 ? 1 : 0;
+            frequencies[dummySymbol] = 1;
+        }
+        while (true) {
+            final int[] codeLengths = computeHuffmanCodeLengths(frequencies);
+            if (Arrays.stream(codeLengths).max().orElse(0) <= maxLength) return codeLengths;
+            for (int i = 0; i < frequencies.length; i++) {
+                if (frequencies[i] > 0) frequencies[i] = Math.max(1, frequencies[i] >> 1);
+            }
+        }
+    }
+
+    private static int[] computeHuffmanCodeLengths(int[] frequencies) {
+        final int symbolsCount = frequencies.length;
+        final long[] weights = new long[symbolsCount * 2];
+        final int[] parents = new int[symbolsCount * 2];
+        final PriorityQueue<Integer> queue = new PriorityQueue<>(symbolsCount, (first, second) -> {
+            final int compared = Long.compare(weights[first], weights[second]);
+            return compared != 0 ? compared : Integer.compare(first, second);
+        });
+        for (int symbol = 0; symbol < symbolsCount; symbol++) {
+            if (frequencies[symbol] == 0) continue;
+            weights[symbol] = frequencies[symbol];
+            queue.add(symbol);
+        }
+        int nextNode = symbolsCount;
+        while (queue.size() > 1) {
+            final int first = queue.poll();
+            final int second = queue.poll();
+            weights[nextNode] = weights[first] + weights[second];
+            parents[first] = nextNode;
+            parents[second] = nextNode;
+            queue.add(nextNode++);
+        }
+        final int rootNode = nextNode - 1;
+        final int[] codeLengths = new int[symbolsCount];
+        for (int symbol = 0; symbol < symbolsCount; symbol++) {
+            if (frequencies[symbol] == 0) continue;
+            int length = 0;
+            for (int node = symbol; node != rootNode; node = parents[node]) {
+                length++;
+            }
+            codeLengths[symbol] = length;
+        }
+        return codeLengths;
+    }
+
+    private static byte[] wrapIntoRiffContainer(byte[] bitstream) {
+        final int padding = bitstream.length & 1;
+        final byte[] container = new byte[20 + bitstream.length + padding];
+        writeFourCc(container, 0, "RIFF");
+        writeLittleEndianInt(container, 4, 12 + bitstream.length + padding);
+        writeFourCc(container, 8, "WEBP");
+        writeFourCc(container, 12, "VP8L");
+        writeLittleEndianInt(container, 16, bitstream.length);
+        System.arraycopy(bitstream, 0, container, 20, bitstream.length);
+        return container;
+    }
+
+    private static void writeFourCc(byte[] bytes, int offset, String fourCc) {
+        for (int i = 0; i < 4; i++) {
+            bytes[offset + i] = (byte) fourCc.charAt(i);
+        }
+    }
+
+    private static void writeLittleEndianInt(byte[] bytes, int offset, int value) {
+        for (int i = 0; i < 4; i++) {
+            bytes[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    /**
+     * Canonical prefix code (symbols with shorter codes get lower codes, ties are resolved by symbol order). Codes
+     * are stored bit-reversed, because bitstream is written from least significant bits.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static class PrefixCode {
+
+        private final int[] codeLengths;
+        private final int[] reversedCodes;
+
+        PrefixCode(int[] codeLengths) {
+            this.codeLengths = codeLengths;
+            reversedCodes = new int[codeLengths.length];
+            final int[] lengthsCount = new int[MAX_CODE_LENGTH + 1];
+            for (final int codeLength : codeLengths) {
+                lengthsCount[codeLength]++;
+            }
+            lengthsCount[0] = 0;
+            final int[] nextCodes = new int[MAX_CODE_LENGTH + 1];
+            int code = 0;
+            for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+                code = (code + lengthsCount[length - 1]) << 1;
+                nextCodes[length] = code;
+            }
+            for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+                final int length = codeLengths[symbol];
+                if (length == 0) continue;
+                reversedCodes[symbol] = Integer.reverse(nextCodes[length]++) >>> (32 - length);
+            }
+        }
+
+        void writeSymbol(BitWriter writer, int symbol) {
+            writer.write(reversedCodes[symbol], codeLengths[symbol]);
+        }
+    }
+
+    /**
+     * Bitstream writer storing bits from least significant bit of every byte.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static class BitWriter {
+
+        private byte[] buffer;
+        private int position;
+        private long bits;
+        private int bitsCount;
+
+        BitWriter(int initialSize) {
+            buffer = new byte[Math.max(initialSize, 64)];
+        }
+
+        void write(int value, int count) {
+            if (count == 0) return;
+            bits |= ((long) value & ((1L << count) - 1)) << bitsCount;
+            bitsCount += count;
+            while (bitsCount >= 8) {
+                if (position == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                buffer[position++] = (byte) bits;
+                bits >>>= 8;
+                bitsCount -= 8;
+            }
+        }
+
+        byte[] toByteArray() {
+            if (bitsCount > 0) write(0, 8 - bitsCount);
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: DefaultImageCache.java
+ * Last modified: 20/10/2026, 06:00
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.generator;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.nio.ByteBuffer;
+
+/**
+ * Bounded LRU cache of encoded default user images (keyed by all parameters, which image depends on). Images bytes are
+ * stored in heap byte buffers or (in off-heap mode) in direct byte buffers, so large cache does not increase garbage
+ * collector work. Every cache hit returns copy of cached bytes. Images larger than max cache size are not cached.
+ * Concurrent misses of the same key are merged, so image is generated only once and other threads wait for result.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+class DefaultImageCache {
+
+    private final long maxSizeBytes;
+    private final boolean offHeap;
+    private final Map<DefaultImageCacheKey, ByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<DefaultImageCacheKey, CompletableFuture<byte[]>> inFlightGenerations
+        = new ConcurrentHashMap<>();
+    private final LongAdder hitsCount = new LongAdder();
+    private final LongAdder missesCount = new LongAdder();
+    private final LongAdder evictionsCount = new LongAdder();
+    private long sizeBytes;
+
+    DefaultImageCache(long maxSizeBytes, boolean offHeap) {
+        this.maxSizeBytes = maxSizeBytes;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Method responsible for finding cached image and returning copy of its bytes. Every call is registered as cache
+     * hit or miss.
+     *
+     * @param key image parameters
+     * @return copy of cached image bytes or empty optional, if image is not cached
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    Optional<byte[]> get(DefaultImageCacheKey key) {
+        final Optional<byte[]> imageBytes = findCachedBytes(key);
+        if (imageBytes.isPresent()) {
+            hitsCount.increment();
+        } else {
+            missesCount.increment();
+        }
+        return imageBytes;
+    }
+
+    /**
+     * Method responsible for returning copy of cached image bytes or (on miss) generating image by passed generator and
+     * caching it. On concurrent misses of the same key, image is generated only by first calling thread, other threads
+     * wait for the same generation result.
+     *
+     * @param key image parameters
+     * @param imageGenerator generator of encoded image bytes, invoked only on cache miss
+     * @return image bytes (every caller receives own copy)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    byte[] getOrGenerate(DefaultImageCacheKey key, Supplier<byte[]> imageGenerator) {
+        final Optional<byte[]> cachedImageBytes = get(key);
+        if (cachedImageBytes.isPresent()) return cachedImageBytes.get();
+
+        final CompletableFuture<byte[]> generation = new CompletableFuture<>();
+        final CompletableFuture<byte[]> inFlightGeneration = inFlightGenerations.putIfAbsent(key, generation);
+        if (Objects.nonNull(inFlightGeneration)) {
+            try {
+                return inFlightGeneration.join().clone();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException runtimeEx ? runtimeEx : ex;
+            }
+        }
+        try {
+            // generation of the same key could be finished between cache lookup and registering in-flight generation
+            final Optional<byte[]> generatedImageBytes = findCachedBytes(key);
+            if (generatedImageBytes.isPresent()) {
+                generation.complete(generatedImageBytes.get().clone());
+                return generatedImageBytes.get();
+            }
+            final byte[] imageBytes = imageGenerator.get();
+            put(key, imageBytes);
+            generation.complete(imageBytes.clone());
+            return imageBytes;
+        } catch (RuntimeException ex) {
+            generation.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlightGenerations.remove(key, generation);
+        }
+    }
+
+    /**
+     * Inner method responsible for finding cached image and returning copy of its bytes (without registering cache
+     * hit or miss).
+     *
+     * @param key image parameters
+     * @return copy of cached image bytes or empty optional, if image is not cached
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private Optional<byte[]> findCachedBytes(DefaultImageCacheKey key) {
+        final ByteBuffer cachedBytes;
+        synchronized (this) {
+            cachedBytes = entries.get(key);
+        }
+        if (Objects.isNull(cachedBytes)) return Optional.empty();
+        final byte[] imageBytes = new byte[cachedBytes.capacity()];
+        cachedBytes.get(0, imageBytes);
+        return Optional.of(imageBytes);
+    }
+
+    /**
+     * Method responsible for caching copy of passed image bytes. Least recently used images are evicted, while total
+     * size of cached images exceeds max cache size.
+     *
+     * @param key image parameters
+     * @param imageBytes encoded image bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    void put(DefaultImageCacheKey key, byte[] imageBytes) {
+        if (imageBytes.length > maxSizeBytes) return;
+        final ByteBuffer cachedBytes = offHeap
+            ? ByteBuffer.allocateDirect(imageBytes.length).put(0, imageBytes)
+            : ByteBuffer.wrap(imageBytes.clone());
+        synchronized (this) {
+            final ByteBuffer replacedBytes = entries.put(key, cachedBytes);
+            if (Objects.nonNull(replacedBytes)) sizeBytes -= replacedBytes.capacity();
+            sizeBytes += imageBytes.length;
+            final Iterator<ByteBuffer> iterator = entries.values().iterator();
+            while (sizeBytes > maxSizeBytes && iterator.hasNext()) {
+                sizeBytes -= iterator.next().capacity();
+                iterator.remove();
+                evictionsCount.increment();
+            }
+        }
+    }
+
+    /**
+     * @return snapshot of cache counters as {@link DefaultImageCacheStats} record
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    synchronized DefaultImageCacheStats getStats() {
+        return new DefaultImageCacheStats(hitsCount.sum(), missesCount.sum(), evictionsCount.sum(), entries.size(),
+            sizeBytes);
+    }
+}
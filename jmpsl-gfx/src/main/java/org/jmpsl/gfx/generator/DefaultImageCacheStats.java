@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: DefaultImageCacheStats.java
+ * Last modified: 19/10/2026, 21:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.generator;
+
+/**
+ * Simple POJO record storing snapshot of generated default images cache counters (used for monitoring purposes).
+ *
+ * @param hits count of images returned from cache
+ * @param misses count of images generated (not found in cache)
+ * @param evictions count of images removed from cache after exceeding max cache size
+ * @param entries count of currently cached images
+ * @param sizeBytes total size of currently cached images (in bytes)
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public record DefaultImageCacheStats(long hits, long misses, long evictions, int entries, long sizeBytes) {
+
+    /**
+     * @return ratio of cache hits to all cache lookups (0, if cache was not used yet)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public double hitRate() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
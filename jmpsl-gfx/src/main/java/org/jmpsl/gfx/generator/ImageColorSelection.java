@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageColorSelection.java
+ * Last modified: 19/10/2026, 22:15
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.generator;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Enum set of all available modes of selecting background color of default generated user image. Selected by
+ * <code>jmpsl.gfx.user-gfx.color-selection</code> property in <code>application.properties</code> file.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Getter
+@AllArgsConstructor
+public enum ImageColorSelection {
+
+    /**
+     * Select random color from palette. Generated image could not be reproduced, so it must be stored.
+     *
+     * @since 1.0.2
+     */
+    RANDOM("random"),
+
+    /**
+     * Select color based stable hash of user id (or user initials, if user id is not passed). Every application node
+     * generates byte-identical image for the same user, so image could be regenerated or cached instead of stored.
+     *
+     * @since 1.0.2
+     */
+    USER_ID("user-id"),
+
+    /**
+     * Select color based stable hash of user initials (case insensitive). Every application node generates
+     * byte-identical image for the same initials.
+     *
+     * @since 1.0.2
+     */
+    INITIALS("initials");
+
+    /**
+     * Selection mode name used in <code>application.properties</code> file.
+     *
+     * @since 1.0.2
+     */
+    private final String selectionName;
+
+    /**
+     * Static method responsible for finding color selection mode based passed property name (case insensitive).
+     *
+     * @param selectionName selection mode name from <code>application.properties</code> file
+     * @return found {@link ImageColorSelection} enum type
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if selection mode with passed name not exist
+     */
+    public static ImageColorSelection findBySelectionName(String selectionName) {
+        return Arrays.stream(values())
+            .filter(selection -> selection.selectionName.equalsIgnoreCase(selectionName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Not supported image color selection: " + selectionName));
+    }
+}
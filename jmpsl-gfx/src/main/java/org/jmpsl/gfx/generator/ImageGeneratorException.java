@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: ImageGeneratorException.java
- * Last modified: 17/03/2023, 16:02
+ * Last modified: 19/10/2026, 22:50
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -77,4 +77,17 @@ public class ImageGeneratorException {
         }
     }
 
+    /**
+     * Custom exception extending {@link RestServiceServerException}, returning JSON POJO object message and throw
+     * after client does not accept any of supported generated image formats.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static class ImageFormatNotAcceptableException extends RestServiceServerException {
+        public ImageFormatNotAcceptableException() {
+            super(HttpStatus.NOT_ACCEPTABLE, LocaleSet.GFX_IMAGE_FORMAT_NOT_ACCEPTABLE_EXC);
+        }
+    }
+
 }
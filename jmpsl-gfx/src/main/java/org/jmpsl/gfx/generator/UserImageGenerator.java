@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: UserImageGenerator.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 20/10/2026, 05:00
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -33,17 +33,28 @@ import org.springframework.core.io.ClassPathResource;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.jmpsl.gfx.GfxEnv;
 import org.jmpsl.gfx.GfxUtil;
 import org.jmpsl.gfx.ImageExtension;
+import org.jmpsl.gfx.encoder.IndexedPngEncoder;
+import org.jmpsl.gfx.encoder.PngFilterStrategy;
+import org.jmpsl.gfx.encoder.ImageEncoderService;
+import org.jmpsl.gfx.processing.ImageProcessingExecutor;
+import org.jmpsl.file.metrics.IFileMetricsRecorder;
 
 import static org.jmpsl.gfx.generator.ImageGeneratorException.FontSizeNotSupportedException;
 import static org.jmpsl.gfx.generator.ImageGeneratorException.TooMuchInitialsCharactersException;
 import static org.jmpsl.gfx.generator.ImageGeneratorException.ImageNotSupportedDimensionsException;
+import static org.jmpsl.gfx.encoder.ImageEncoderException.ImageEncodingException;
+import static org.jmpsl.gfx.processing.ImageProcessingException.ImageProcessingRejectedException;
 
 /**
  * Class storing methods responsible for generating default user image. Before run application, declare following
@@ -54,8 +65,22 @@ import static org.jmpsl.gfx.generator.ImageGeneratorException.ImageNotSupportedD
  *     <li><code>jmpsl.gfx.user-gfx.preferred-font-name</code> - name of custom loaded font</li>
  *     <li><code>jmpsl.gfx.user-gfx.preferred-hex-colors</code> - preferred colors for image generator, as hex array</li>
  *     <li><code>jmpsl.gfx.user-gfx.preferred-foreground-color</code> - preferred image initials text color, by default #fff</li>
+ *     <li><code>jmpsl.gfx.user-gfx.color-selection</code> - background color selection mode, by default random</li>
+ *     <li><code>jmpsl.gfx.indexed-png.active</code> - encode PNG images as palette-indexed PNG, by default true</li>
+ *     <li><code>jmpsl.gfx.avatar-cache.max-size-mb</code> - max size of generated images cache, by default 32</li>
+ *     <li><code>jmpsl.gfx.avatar-cache.off-heap</code> - store cached images outside of heap, by default false</li>
+ *     <li><code>jmpsl.gfx.avatar-cache.warm-up-initials</code> - initials generated on start (ex. JK,AN)</li>
+ *     <li><code>jmpsl.gfx.avatar-cache.warm-up-size</code> - size of images generated on start, by default 200</li>
+ *     <li><code>jmpsl.gfx.avatar-cache.warm-up-font-size</code> - font size of images generated on start, default 80</li>
  * </ul>
  *
+ * Generated image depends only on initials, size, font size, background color, extension and font, so encoded images
+ * are stored in bounded {@link DefaultImageCache} (and repeated or concurrently requested images are not rasterized and
+ * encoded again). Cache counters are registered as gauges in {@link IFileMetricsRecorder}. In deterministic color
+ * selection modes (see {@link ImageColorSelection}) background color depends only on user id or initials, so every
+ * application node generates byte-identical image for the same user. Images in SVG format are not rasterized (and not
+ * cached), but created as tiny text documents scaling to any size.
+ *
  * @author Miłosz Gilga
  * @since 1.0.2
  */
@@ -63,11 +88,11 @@ import static org.jmpsl.gfx.generator.ImageGeneratorException.ImageNotSupportedD
 @Service
 public class UserImageGenerator {
 
-    private static final Random RANDOM = new Random();
-
     private static final int MIN_IMAGE_SIZE = 20;
     private static final int MAX_IMAGE_SIZE = 5000;
     private static final int MAX_FONT_SIZE = 500;
+    private static final String ENTITY_TAG_DIGEST_ALGORITHM = "SHA-256";
+    private static final int ENTITY_TAG_LENGTH_BYTES = 16;
 
     /**
      * Default static colors using for user image generator. Can be overrite by property
@@ -84,12 +109,35 @@ public class UserImageGenerator {
     private final Environment env;
     private final String foregroundImageColor;
     private final List<Color> preferredHexColors = new ArrayList<>();
+    private final ImageColorSelection colorSelection;
+    private final DefaultImageCache imageCache;
+    private final IndexedPngEncoder indexedPngEncoder;
+    private final ImageEncoderService imageEncoderService;
+    private final ImageProcessingExecutor processingExecutor;
+    private final Set<ImageExtension> supportedExtensions;
+    private final String svgFontFamily;
 
-    UserImageGenerator(Environment env) {
+    UserImageGenerator(
+        Environment env, IFileMetricsRecorder metricsRecorder, ImageEncoderService imageEncoderService,
+        ImageProcessingExecutor processingExecutor
+    ) {
         this.env = env;
+        this.imageEncoderService = imageEncoderService;
+        this.processingExecutor = processingExecutor;
+        final Set<ImageExtension> extensions = EnumSet.of(ImageExtension.SVG);
+        extensions.addAll(imageEncoderService.getSupportedExtensions());
+        supportedExtensions = Collections.unmodifiableSet(extensions);
         foregroundImageColor = GfxEnv.__GFX_USER_FG_COLOR.getProperty(env);
         loadCustomFontFromExternalFile();
+        svgFontFamily = escapeXml("'" + new Font(fontName, Font.PLAIN, 1).getFamily() + "', sans-serif");
         convertAndLoadHexToRgbColorsArray();
+        colorSelection = ImageColorSelection.findBySelectionName(GfxEnv.__GFX_USER_COLOR_SELECTION.getProperty(env));
+        indexedPngEncoder = createIndexedPngEncoder();
+        final long cacheMaxSizeBytes = GfxEnv.__GFX_AVATAR_CACHE_MAX_SIZE_MB.getProperty(env, Long.class) * 1024 * 1024;
+        final boolean cacheOffHeap = GfxEnv.__GFX_AVATAR_CACHE_OFF_HEAP.getProperty(env, Boolean.class);
+        imageCache = cacheMaxSizeBytes > 0 ? new DefaultImageCache(cacheMaxSizeBytes, cacheOffHeap) : null;
+        registerCacheGauges(metricsRecorder);
+        startCacheWarmUp();
         log.info("Successful insert properties in IserImageGenerator from application.properties file.");
     }
 
@@ -105,59 +153,294 @@ public class UserImageGenerator {
      * @since 1.0.2
      *
      * @throws IllegalStateException if image size or font size is too tiny or large or initials array has not 2 elements
+     * @throws ImageEncodingException if unable to encode generated image
+     * @throws ImageProcessingRejectedException if image rendering was not admitted (too many processed images)
      */
     public GeneratedImageRes generateDefaultUserImage(BufferedImageGeneratorPayload payload, ImageExtension extension) {
-        if (payload.size() < MIN_IMAGE_SIZE || payload.size() > MAX_IMAGE_SIZE) {
-            throw new ImageNotSupportedDimensionsException();
+        validatePayload(payload);
+        final Color generatedColor = selectBackgroundColor(payload);
+        final byte[] imageBytes = generateImageBytes(String.valueOf(payload.initials()), payload.size(),
+            payload.fontSize(), generatedColor, extension);
+        log.info("Successful generated default image for user. Image properties data: {}", payload);
+        return new GeneratedImageRes(imageBytes, generatedColor);
+    }
+
+    /**
+     * Method responsible for creating default user avatar (simple image with random color and initials). Generates
+     * image based passed {@link BufferedImageGeneratorPayload} instance. If payload instance has preferredColor value,
+     * then generate image with this color value instead of random color (from declared statically or in properties file).
+     * Generate image with .png extension. To generate image with another extension use {@link #generateDefaultUserImage}
+     * metod with {@link ImageExtension} parameter.
+     *
+     * @param payload instance of {@link BufferedImageGeneratorPayload} class with image properties
+     * @return instance of {@link GeneratedImageRes} with generated user image as byte array output stream and color
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalStateException if image size or font size is too tiny or large or initials array has not 2 elements
+     * @throws ImageEncodingException if unable to encode generated image
+     * @throws ImageProcessingRejectedException if image rendering was not admitted (too many processed images)
+     */
+    public GeneratedImageRes generateDefaultUserImage(BufferedImageGeneratorPayload payload) {
+        return generateDefaultUserImage(payload, ImageExtension.PNG);
+    }
+
+    /**
+     * Method responsible for generating strong entity tag (ETag) of default user image, without rendering image.
+     * Tag is computed from all parameters, which rendered image depends on (initials, size, font size, background and
+     * foreground colors, font and extension), so the same parameters always give the same tag on every application
+     * node. Returned value is quoted and could be used directly as <code>ETag</code> header value.
+     *
+     * @param payload instance of {@link BufferedImageGeneratorPayload} class with image properties
+     * @param backgroundColor image background color (selected by {@link #selectBackgroundColor})
+     * @param extension {@link ImageExtension} enum type of image (png, jpeg etc.)
+     * @return quoted strong entity tag
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalStateException if image size or font size is too tiny or large or initials array has not 2 elements
+     */
+    public String generateImageEntityTag(
+        BufferedImageGeneratorPayload payload, Color backgroundColor, ImageExtension extension
+    ) {
+        validatePayload(payload);
+        final String renderParameters = String.join("|", String.valueOf(payload.initials()),
+            String.valueOf(payload.size()), String.valueOf(payload.fontSize()),
+            Integer.toHexString(backgroundColor.getRGB()), foregroundImageColor, fontName, extension.name(),
+            getEncoderSignature(extension));
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(ENTITY_TAG_DIGEST_ALGORITHM);
+            final byte[] hash = digest.digest(renderParameters.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, ENTITY_TAG_LENGTH_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to create digest of image render parameters.", ex);
         }
-        if (payload.fontSize() < 1 || payload.fontSize() > MAX_FONT_SIZE) throw new FontSizeNotSupportedException();
-        if (payload.initials().length != 2) throw new TooMuchInitialsCharactersException();
+    }
+
+    /**
+     * @return unmodifiable set of image formats, in which default user images could be generated (all formats supported
+     * by {@link ImageEncoderService} and SVG format)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public Set<ImageExtension> getSupportedExtensions() {
+        return supportedExtensions;
+    }
+
+    /**
+     * @return declared mode of selecting background color of default user image
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public ImageColorSelection getColorSelection() {
+        return colorSelection;
+    }
+
+    /**
+     * Method responsible for selecting background color of default user image. If payload instance has preferredColor
+     * value, then return this color. Otherwise select color from palette by declared {@link ImageColorSelection} mode.
+     * In deterministic modes color index is computed from stable hash of user id or upper-cased initials, so result
+     * does not depend on application node or JVM instance.
+     *
+     * @param payload instance of {@link BufferedImageGeneratorPayload} class with image properties
+     * @return selected background color
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public Color selectBackgroundColor(BufferedImageGeneratorPayload payload) {
+        if (Objects.nonNull(payload.preferredColor())) return payload.preferredColor();
+        final int colorsCount = preferredHexColors.size();
+        final int colorIndex = switch (colorSelection) {
+            case RANDOM -> ThreadLocalRandom.current().nextInt(colorsCount);
+            case USER_ID -> Objects.nonNull(payload.id())
+                ? Math.floorMod(mixStableHash(payload.id()), colorsCount)
+                : Math.floorMod(computeInitialsHash(payload.initials()), colorsCount);
+            case INITIALS -> Math.floorMod(computeInitialsHash(payload.initials()), colorsCount);
+        };
+        return preferredHexColors.get(colorIndex);
+    }
+
+    /**
+     * @return snapshot of generated default images cache counters (all counters are 0, if cache is disabled)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public DefaultImageCacheStats getCacheStats() {
+        return Objects.isNull(imageCache) ? new DefaultImageCacheStats(0, 0, 0, 0, 0) : imageCache.getStats();
+    }
+
+    /**
+     * Inner method responsible for returning encoded default image from cache or (if not cached) rasterizing and
+     * encoding image (after admission by {@link ImageProcessingExecutor}) and saving it in cache.
+     *
+     * @param userInitials rendered user initials
+     * @param size image width and height (in pixels)
+     * @param fontSize initials font size
+     * @param backgroundColor image background color
+     * @param extension {@link ImageExtension} enum type of image (png, jpeg etc.)
+     * @return encoded image bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private byte[] generateImageBytes(
+        String userInitials, int size, int fontSize, Color backgroundColor, ImageExtension extension
+    ) {
+        final DefaultImageCacheKey cacheKey = new DefaultImageCacheKey(userInitials, size, fontSize,
+            backgroundColor.getRGB(), extension, fontName);
+        if (extension == ImageExtension.SVG) {
+            return renderSvgBytes(userInitials, size, fontSize, backgroundColor);
+        }
+        final Supplier<byte[]> imageGenerator = () -> processingExecutor.execute(
+            ImageProcessingExecutor.estimateRasterBytes(size, size),
+            () -> renderImageBytes(userInitials, size, fontSize, backgroundColor, extension));
+        if (Objects.isNull(imageCache)) return imageGenerator.get();
+        return imageCache.getOrGenerate(cacheKey, imageGenerator);
+    }
+
+    /**
+     * Inner method responsible for creating default user image as SVG document (background rectangle and centered
+     * initials text, rendered by client with declared font family). Document is not rasterized, so it is not cached
+     * and not admitted by {@link ImageProcessingExecutor}.
+     *
+     * @param userInitials user initials rendered on image
+     * @param size image width and height
+     * @param fontSize initials font size
+     * @param backgroundColor image background color
+     * @return SVG document bytes (UTF-8)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private byte[] renderSvgBytes(String userInitials, int size, int fontSize, Color backgroundColor) {
+        final String svgDocument = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + size + "\" height=\"" + size
+            + "\" viewBox=\"0 0 " + size + " " + size + "\"><rect width=\"100%\" height=\"100%\" fill=\""
+            + GfxUtil.convertRgbToHex(backgroundColor) + "\"/><text x=\"50%\" y=\"50%\" fill=\""
+            + GfxUtil.convertRgbToHex(Color.decode(foregroundImageColor)) + "\" font-family=\"" + svgFontFamily
+            + "\" font-size=\"" + fontSize + "\" text-anchor=\"middle\" dominant-baseline=\"central\">"
+            + escapeXml(userInitials) + "</text></svg>";
+        return svgDocument.getBytes(StandardCharsets.UTF_8);
+    }
 
-        Color generatedColor;
-        final String userInitials = String.valueOf(payload.initials());
-        final BufferedImage bufferedImage = new BufferedImage(payload.size(), payload.size(), BufferedImage.TYPE_INT_RGB);
+    /**
+     * Inner method responsible for escaping XML special characters in SVG document text and attributes values (control
+     * characters, not allowed in XML documents, are removed).
+     *
+     * @param value escaped value
+     * @return value with XML entities instead of special characters
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static String escapeXml(String value) {
+        final StringBuilder escapedValue = new StringBuilder(value.length());
+        for (final char character : value.toCharArray()) {
+            switch (character) {
+                case '&' -> escapedValue.append("&amp;");
+                case '<' -> escapedValue.append("&lt;");
+                case '>' -> escapedValue.append("&gt;");
+                case '"' -> escapedValue.append("&quot;");
+                case '\'' -> escapedValue.append("&apos;");
+                default -> {
+                    if (!Character.isISOControl(character)) escapedValue.append(character);
+                }
+            }
+        }
+        return escapedValue.toString();
+    }
+
+    /**
+     * @param extension {@link ImageExtension} enum type of image (png, jpeg etc.)
+     * @return string describing encoder (and its parameters) used for passed image format
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private String getEncoderSignature(ImageExtension extension) {
+        if (extension == ImageExtension.SVG) return "svg";
+        return Objects.isNull(indexedPngEncoder) || extension != ImageExtension.PNG
+            ? imageEncoderService.getEncoderSignature()
+            : indexedPngEncoder.getEncoderSignature();
+    }
+
+    /**
+     * Inner method responsible for rendering default user image and encoding it into passed image format.
+     *
+     * @param userInitials user initials rendered on image
+     * @param size image width and height
+     * @param fontSize initials font size
+     * @param backgroundColor image background color
+     * @param extension {@link ImageExtension} enum type of image (png, jpeg etc.)
+     * @return encoded image bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private byte[] renderImageBytes(
+        String userInitials, int size, int fontSize, Color backgroundColor, ImageExtension extension
+    ) {
+        final BufferedImage bufferedImage = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
         final Graphics2D graphics = bufferedImage.createGraphics();
 
         graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
 
-        graphics.setFont(new Font(fontName, Font.PLAIN, payload.fontSize()));
-        if (Objects.nonNull(payload.preferredColor())) {
-            generatedColor = payload.preferredColor();
-        } else {
-            generatedColor = preferredHexColors.get(RANDOM.nextInt(preferredHexColors.size() - 1));
-        }
-        graphics.setPaint(generatedColor);
-        graphics.fillRect(0, 0, payload.size(), payload.size());
+        graphics.setFont(new Font(fontName, Font.PLAIN, fontSize));
+        graphics.setPaint(backgroundColor);
+        graphics.fillRect(0, 0, size, size);
         graphics.setColor(Color.decode(foregroundImageColor));
 
-        int xPos = (payload.size() - graphics.getFontMetrics().stringWidth(userInitials)) / 2;
-        int yPos = ((payload.size() - graphics.getFontMetrics().getHeight()) / 2) + graphics.getFontMetrics().getAscent();
+        int xPos = (size - graphics.getFontMetrics().stringWidth(userInitials)) / 2;
+        int yPos = ((size - graphics.getFontMetrics().getHeight()) / 2) + graphics.getFontMetrics().getAscent();
 
         graphics.drawString(userInitials, xPos, yPos);
         graphics.dispose();
 
-        log.info("Successful generated default image for user. Image properties data: {}", payload);
-        return new GeneratedImageRes(GfxUtil.generateByteStreamFromBufferedImage(bufferedImage, extension), generatedColor);
+        return Objects.nonNull(indexedPngEncoder) && extension == ImageExtension.PNG
+            ? indexedPngEncoder.encode(bufferedImage, backgroundColor, Color.decode(foregroundImageColor))
+            : imageEncoderService.encode(bufferedImage, extension);
     }
 
     /**
-     * Method responsible for creating default user avatar (simple image with random color and initials). Generates
-     * image based passed {@link BufferedImageGeneratorPayload} instance. If payload instance has preferredColor value,
-     * then generate image with this color value instead of random color (from declared statically or in properties file).
-     * Generate image with .png extension. To generate image with another extension use {@link #generateDefaultUserImage}
-     * metod with {@link ImageExtension} parameter.
+     * Inner method responsible for registering cache counters (hits, misses, evictions, entries and size) as gauges
+     * in passed metrics recorder.
      *
-     * @param payload instance of {@link BufferedImageGeneratorPayload} class with image properties
-     * @return instance of {@link GeneratedImageRes} with generated user image as byte array output stream and color
+     * @param metricsRecorder active {@link IFileMetricsRecorder} Spring Bean
      * @author Miłosz Gilga
      * @since 1.0.2
+     */
+    private void registerCacheGauges(IFileMetricsRecorder metricsRecorder) {
+        if (Objects.isNull(imageCache)) return;
+        metricsRecorder.registerGauge("jmpsl.gfx.avatar-cache.hits", () -> imageCache.getStats().hits());
+        metricsRecorder.registerGauge("jmpsl.gfx.avatar-cache.misses", () -> imageCache.getStats().misses());
+        metricsRecorder.registerGauge("jmpsl.gfx.avatar-cache.evictions", () -> imageCache.getStats().evictions());
+        metricsRecorder.registerGauge("jmpsl.gfx.avatar-cache.entries", () -> imageCache.getStats().entries());
+        metricsRecorder.registerGauge("jmpsl.gfx.avatar-cache.size-bytes", () -> imageCache.getStats().sizeBytes());
+        metricsRecorder.registerGauge("jmpsl.gfx.avatar-cache.hit-rate", () -> imageCache.getStats().hitRate());
+    }
+
+    /**
+     * Inner method responsible for generating (in background daemon thread) PNG images of declared initials in all
+     * preferred colors, so the most common default images are cached before first user requests.
      *
-     * @throws IllegalStateException if image size or font size is too tiny or large or initials array has not 2 elements
+     * @author Miłosz Gilga
+     * @since 1.0.2
      */
-    public GeneratedImageRes generateDefaultUserImage(BufferedImageGeneratorPayload payload) {
-        return generateDefaultUserImage(payload, ImageExtension.PNG);
+    private void startCacheWarmUp() {
+        final String warmUpInitials = GfxEnv.__GFX_AVATAR_CACHE_WARM_UP_INITIALS.getProperty(env);
+        if (Objects.isNull(imageCache) || Objects.isNull(warmUpInitials) || warmUpInitials.isBlank()) return;
+        final int size = GfxEnv.__GFX_AVATAR_CACHE_WARM_UP_SIZE.getProperty(env, Integer.class);
+        final int fontSize = GfxEnv.__GFX_AVATAR_CACHE_WARM_UP_FONT_SIZE.getProperty(env, Integer.class);
+        final List<String> initials = Arrays.stream(warmUpInitials.split(","))
+            .map(String::trim)
+            .filter(userInitials -> userInitials.length() == 2)
+            .toList();
+        final Thread warmUpThread = new Thread(() -> {
+            for (final String userInitials : initials) {
+                for (final Color color : preferredHexColors) {
+                    generateImageBytes(userInitials, size, fontSize, color, ImageExtension.PNG);
+                }
+            }
+            log.info("Successful warmed up default images cache. Cache stats: {}", imageCache.getStats());
+        }, "jmpsl-avatar-cache-warm-up");
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
     }
 
     /**
@@ -186,6 +469,74 @@ public class UserImageGenerator {
         }
     }
 
+    /**
+     * Inner method responsible for validating image size, font size and count of initials characters.
+     *
+     * @param payload instance of {@link BufferedImageGeneratorPayload} class with image properties
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalStateException if image size or font size is too tiny or large or initials array has not 2 elements
+     */
+    private void validatePayload(BufferedImageGeneratorPayload payload) {
+        if (payload.size() < MIN_IMAGE_SIZE || payload.size() > MAX_IMAGE_SIZE) {
+            throw new ImageNotSupportedDimensionsException();
+        }
+        if (payload.fontSize() < 1 || payload.fontSize() > MAX_FONT_SIZE) throw new FontSizeNotSupportedException();
+        if (Objects.isNull(payload.initials()) || payload.initials().length != 2) {
+            throw new TooMuchInitialsCharactersException();
+        }
+    }
+
+    /**
+     * Inner method responsible for computing stable hash of user initials (case insensitive).
+     *
+     * @param initials user initials
+     * @return mixed 64-bit hash
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static long computeInitialsHash(char[] initials) {
+        long hash = 0;
+        for (final char initial : initials) {
+            hash = (hash << 16) | Character.toUpperCase(initial);
+        }
+        return mixStableHash(hash);
+    }
+
+    /**
+     * Inner method responsible for mixing bits of passed value (finalizer of SplitMix64 algorithm). Result is stable
+     * across JVM instances (in contrast to identity hash codes) and similar values (ex. subsequent user ids) are
+     * evenly distributed over palette colors.
+     *
+     * @param value mixing value
+     * @return mixed 64-bit hash
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static long mixStableHash(long value) {
+        long hash = value + 0x9e3779b97f4a7c15L;
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Inner method responsible for creating palette-indexed PNG encoder based on properties from
+     * <code>application.properties</code> file.
+     *
+     * @return instance of {@link IndexedPngEncoder} or null, if indexed PNG encoding is disabled
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private IndexedPngEncoder createIndexedPngEncoder() {
+        if (!GfxEnv.__GFX_INDEXED_PNG_ACTIVE.getProperty(env, Boolean.class)) return null;
+        return new IndexedPngEncoder(
+            GfxEnv.__GFX_INDEXED_PNG_MAX_PALETTE_SIZE.getProperty(env, Integer.class),
+            GfxEnv.__GFX_INDEXED_PNG_DEFLATE_LEVEL.getProperty(env, Integer.class),
+            PngFilterStrategy.findByStrategyName(GfxEnv.__GFX_INDEXED_PNG_FILTER_STRATEGY.getProperty(env)));
+    }
+
     /**
      * Inner method responsible for load preferred randomizer user generator image colors from
      * <code>application.properties</code> file. If colors array is null, insert default colors, declared in this class.
@@ -196,7 +547,7 @@ public class UserImageGenerator {
     private void convertAndLoadHexToRgbColorsArray() {
         final String hexColors = GfxEnv.__GFX_USER_HEX_COLORS.getProperty(env);
         if (Objects.isNull(hexColors) || hexColors.split(",").length == 0) {
-            preferredHexColors.addAll(Arrays.stream(DEF_COLORS).map(Color::decode).collect(Collectors.toSet()));
+            preferredHexColors.addAll(Arrays.stream(DEF_COLORS).map(Color::decode).toList());
             return;
         }
         for (final String hexColor : hexColors.split(",")) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: DefaultUserImageRequestHandler.java
+ * Last modified: 20/10/2026, 03:10
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.handler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.core.env.Environment;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.bind.ServletRequestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.support.HttpRequestHandlerServlet;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.Set;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.jmpsl.gfx.GfxEnv;
+import org.jmpsl.gfx.ImageExtension;
+import org.jmpsl.gfx.ImageFormatNegotiator;
+import org.jmpsl.gfx.generator.GeneratedImageRes;
+import org.jmpsl.gfx.generator.UserImageGenerator;
+import org.jmpsl.gfx.generator.ImageColorSelection;
+import org.jmpsl.gfx.generator.BufferedImageGeneratorPayload;
+
+import static org.jmpsl.gfx.generator.ImageGeneratorException.ImageFormatNotAcceptableException;
+
+/**
+ * Servlet request handler responsible for rendering default user images on request (instead of generating and storing
+ * them in external file server). Handler could be mapped by <code>SimpleUrlHandlerMapping</code> or exposed by
+ * {@link HttpRequestHandlerServlet} (with servlet name equal to bean name). Accepts only GET and HEAD requests with
+ * following query parameters:
+ *
+ * <ul>
+ *     <li><code>initials</code> - user initials (required, exactly 2 characters, rendered in upper case)</li>
+ *     <li><code>size</code> - image width and height, by default <code>jmpsl.gfx.avatar-handler.default-size</code>
+ *     property value</li>
+ *     <li><code>fontSize</code> - initials font size, by default 2/5 of image size</li>
+ *     <li><code>id</code> - user id (optional, used by <code>user-id</code> color selection mode)</li>
+ * </ul>
+ *
+ * Image format is negotiated from <code>Accept</code> header by {@link ImageFormatNegotiator} (only formats supported
+ * by {@link UserImageGenerator} are served, SVG images are served only to clients preferring SVG format). Every
+ * response has strong ETag computed from render parameters (without rendering image) and long-lived public
+ * <code>Cache-Control</code> header, so conditional requests are resolved with 304 status and CDN caches could store
+ * images permanently. In <code>random</code> color selection mode images are not reproducible, so responses are not
+ * cacheable.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Component
+public class DefaultUserImageRequestHandler implements HttpRequestHandler {
+
+    private static final String INITIALS_PARAM = "initials";
+    private static final String SIZE_PARAM = "size";
+    private static final String FONT_SIZE_PARAM = "fontSize";
+    private static final String ID_PARAM = "id";
+
+    private final UserImageGenerator userImageGenerator;
+    private final Set<ImageExtension> supportedExtensions;
+    private final int defaultSize;
+    private final String cacheControl;
+
+    DefaultUserImageRequestHandler(Environment env, UserImageGenerator userImageGenerator) {
+        this.userImageGenerator = userImageGenerator;
+        supportedExtensions = userImageGenerator.getSupportedExtensions();
+        defaultSize = GfxEnv.__GFX_AVATAR_HANDLER_DEFAULT_SIZE.getProperty(env, Integer.class);
+        final long maxAgeSec = GfxEnv.__GFX_AVATAR_HANDLER_MAX_AGE_SEC.getProperty(env, Long.class);
+        if (userImageGenerator.getColorSelection() == ImageColorSelection.RANDOM) {
+            cacheControl = CacheControl.noStore().getHeaderValue();
+            log.warn("Default user images are generated with random colors. Served images will not be cacheable.");
+        } else {
+            cacheControl = CacheControl.maxAge(maxAgeSec, TimeUnit.SECONDS).cachePublic().getHeaderValue();
+        }
+        log.info("Successful initialized default user images request handler. Supported formats: {}",
+            supportedExtensions);
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest req, HttpServletResponse res) throws ServletException, IOException {
+        final HttpMethod method = HttpMethod.valueOf(req.getMethod());
+        if (method != HttpMethod.GET && method != HttpMethod.HEAD) {
+            throw new HttpRequestMethodNotSupportedException(req.getMethod(), List.of("GET", "HEAD"));
+        }
+        final String initials = ServletRequestUtils.getRequiredStringParameter(req, INITIALS_PARAM);
+        final int size = ServletRequestUtils.getIntParameter(req, SIZE_PARAM, defaultSize);
+        final BufferedImageGeneratorPayload payload = BufferedImageGeneratorPayload.builder()
+            .initials(initials.toUpperCase(Locale.ROOT).toCharArray())
+            .size(size)
+            .fontSize(ServletRequestUtils.getIntParameter(req, FONT_SIZE_PARAM, size * 2 / 5))
+            .id(ServletRequestUtils.getLongParameter(req, ID_PARAM))
+            .build();
+
+        final ImageExtension extension = ImageFormatNegotiator
+            .negotiate(req.getHeader(HttpHeaders.ACCEPT), supportedExtensions)
+            .orElseThrow(ImageFormatNotAcceptableException::new);
+        final Color backgroundColor = userImageGenerator.selectBackgroundColor(payload);
+        final String entityTag = userImageGenerator.generateImageEntityTag(payload, backgroundColor, extension);
+
+        res.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        res.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (new ServletWebRequest(req, res).checkNotModified(entityTag)) return;
+
+        final GeneratedImageRes generatedImage = userImageGenerator.generateDefaultUserImage(
+            BufferedImageGeneratorPayload.builder()
+                .initials(payload.initials())
+                .size(payload.size())
+                .fontSize(payload.fontSize())
+                .id(payload.id())
+                .preferredColor(backgroundColor)
+                .build(),
+            extension);
+        res.setContentType(extension.getMimeType());
+        res.setContentLength(generatedImage.imageBytes().length);
+        if (method == HttpMethod.HEAD) return;
+        res.getOutputStream().write(generatedImage.imageBytes());
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageProcessingExecutor.java
+ * Last modified: 20/10/2026, 02:35
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.processing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.Assert;
+import org.springframework.stereotype.Component;
+import org.springframework.core.env.Environment;
+
+import java.util.Deque;
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jmpsl.gfx.GfxEnv;
+import org.jmpsl.gfx.sender.ImageMetricsOperation;
+import org.jmpsl.file.metrics.IFileMetricsRecorder;
+
+import static org.jmpsl.gfx.processing.ImageProcessingException.ImageProcessingRejectedException;
+
+/**
+ * Spring Bean component responsible for admission control of image processing (decoding, resizing, rendering and
+ * encoding). Every task declares estimated memory size of processed images and is admitted only if sum of estimated
+ * sizes of all currently processed tasks does not exceed memory budget (weighted semaphore). Rules:
+ *
+ * <ul>
+ *     <li>tasks are admitted in FIFO order (small tasks never starve large tasks),</li>
+ *     <li>task larger than whole budget is admitted only if no other task is processed,</li>
+ *     <li>tasks waiting longer than declared time or exceeding admission queue size are rejected.</li>
+ * </ul>
+ *
+ * Tasks are performed in caller thread after admission (tasks should not call executor recursively). Admission waiting
+ * time is recorded as {@link ImageMetricsOperation#IMAGE_ADMISSION} duration, and executor state is published as
+ * gauges in {@link IFileMetricsRecorder}. Before run application, optionally declare following properties in
+ * <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.gfx.processing.memory-budget-mb</code> - memory budget, by default 0 (1/4 of max heap)</li>
+ *     <li><code>jmpsl.gfx.processing.max-queued-tasks</code> - max count of waiting tasks, by default 64</li>
+ *     <li><code>jmpsl.gfx.processing.acquire-timeout-ms</code> - max admission waiting time, by default 10000ms</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Component
+public class ImageProcessingExecutor {
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final long budgetBytes;
+    private final int maxQueuedTasks;
+    private final long acquireTimeoutNanos;
+    private final IFileMetricsRecorder metricsRecorder;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition budgetReleased = lock.newCondition();
+    private final Deque<Object> queuedTasks = new ArrayDeque<>();
+    private final LongAdder admittedTasksCount = new LongAdder();
+    private final LongAdder rejectedTasksCount = new LongAdder();
+    private long bytesInFlight;
+    private int activeTasks;
+
+    ImageProcessingExecutor(Environment env, IFileMetricsRecorder metricsRecorder) {
+        this.metricsRecorder = metricsRecorder;
+        final long budgetMegabytes = GfxEnv.__GFX_PROCESSING_MEMORY_BUDGET_MB.getProperty(env, Long.class);
+        budgetBytes = budgetMegabytes > 0 ? budgetMegabytes * 1024 * 1024 : Runtime.getRuntime().maxMemory() / 4;
+        maxQueuedTasks = GfxEnv.__GFX_PROCESSING_MAX_QUEUED_TASKS.getProperty(env, Integer.class);
+        acquireTimeoutNanos = TimeUnit.MILLISECONDS
+            .toNanos(GfxEnv.__GFX_PROCESSING_ACQUIRE_TIMEOUT_MS.getProperty(env, Long.class));
+        if (budgetMegabytes < 0 || maxQueuedTasks < 0) {
+            throw new IllegalArgumentException("Image processing memory budget and queue size cannot be negative");
+        }
+        metricsRecorder.registerGauge("jmpsl.gfx.processing.budget-bytes", () -> budgetBytes);
+        metricsRecorder.registerGauge("jmpsl.gfx.processing.bytes-in-flight", () -> getStats().bytesInFlight());
+        metricsRecorder.registerGauge("jmpsl.gfx.processing.active-tasks", () -> getStats().activeTasks());
+        metricsRecorder.registerGauge("jmpsl.gfx.processing.queued-tasks", () -> getStats().queuedTasks());
+        metricsRecorder.registerGauge("jmpsl.gfx.processing.rejected-tasks", rejectedTasksCount::sum);
+        log.info("Successful initialized image processing executor. Memory budget: {}B, max queued tasks: {}",
+            budgetBytes, maxQueuedTasks);
+    }
+
+    /**
+     * Method responsible for performing image processing task after admission. Memory budget reserved by task is
+     * released after task ends (also with exception).
+     *
+     * @param estimatedBytes estimated memory size of images processed by task (in bytes)
+     * @param task image processing task
+     * @return task result
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageProcessingRejectedException if task was not admitted (queue full or admission timeout)
+     * @throws IllegalArgumentException if passed task is null
+     */
+    public <T> T execute(long estimatedBytes, Supplier<T> task) {
+        Assert.notNull(task, "Image processing task cannot be null.");
+        final long reservedBytes = acquire(estimatedBytes);
+        try {
+            return task.get();
+        } finally {
+            release(reservedBytes);
+        }
+    }
+
+    /**
+     * Static method responsible for estimating memory size of image raster (4 bytes per pixel).
+     *
+     * @param width image width
+     * @param height image height
+     * @return estimated size of image raster (in bytes)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static long estimateRasterBytes(int width, int height) {
+        return (long) Math.max(width, 0) * Math.max(height, 0) * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Inner method responsible for reserving memory budget for single task. Task waits for admission (in FIFO order),
+     * if there is no free budget or other tasks are already waiting.
+     *
+     * @param estimatedBytes estimated memory size of images processed by task (in bytes)
+     * @return count of reserved bytes (estimated size limited to whole budget)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageProcessingRejectedException if task was not admitted (queue full or admission timeout)
+     */
+    private long acquire(long estimatedBytes) {
+        final long reservedBytes = Math.min(Math.max(estimatedBytes, 1), budgetBytes);
+        final long startNanos = System.nanoTime();
+        boolean acquired = false;
+        lock.lock();
+        try {
+            if (!queuedTasks.isEmpty() || bytesInFlight + reservedBytes > budgetBytes) {
+                awaitAdmission(reservedBytes);
+            }
+            bytesInFlight += reservedBytes;
+            activeTasks++;
+            admittedTasksCount.increment();
+            acquired = true;
+            return reservedBytes;
+        } finally {
+            lock.unlock();
+            metricsRecorder.recordSince(ImageMetricsOperation.IMAGE_ADMISSION, startNanos, acquired);
+        }
+    }
+
+    /**
+     * Inner method responsible for waiting (in admission queue) until task is first in queue and there is enough free
+     * memory budget. Method must be invoked with acquired lock.
+     *
+     * @param reservedBytes count of bytes reserved by task
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageProcessingRejectedException if queue is full, task was not admitted in declared time or waiting
+     * thread was interrupted
+     */
+    private void awaitAdmission(long reservedBytes) {
+        if (queuedTasks.size() >= maxQueuedTasks) {
+            rejectedTasksCount.increment();
+            log.error("Image processing rejected. Admission queue is full. Queued tasks: {}", queuedTasks.size());
+            throw new ImageProcessingRejectedException();
+        }
+        final Object ticket = new Object();
+        queuedTasks.addLast(ticket);
+        long remainingNanos = acquireTimeoutNanos;
+        try {
+            while (queuedTasks.peekFirst() != ticket || bytesInFlight + reservedBytes > budgetBytes) {
+                if (remainingNanos <= 0) {
+                    rejectedTasksCount.increment();
+                    log.error("Image processing rejected. Task was not admitted in declared time. Reserved bytes: {}",
+                        reservedBytes);
+                    throw new ImageProcessingRejectedException();
+                }
+                remainingNanos = budgetReleased.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            rejectedTasksCount.increment();
+            log.error("Waiting for image processing admission was interrupted.");
+            throw new ImageProcessingRejectedException();
+        } finally {
+            queuedTasks.remove(ticket);
+            budgetReleased.signalAll();
+        }
+    }
+
+    /**
+     * Inner method responsible for releasing memory budget reserved by {@link #acquire} method.
+     *
+     * @param reservedBytes count of released bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void release(long reservedBytes) {
+        lock.lock();
+        try {
+            bytesInFlight -= reservedBytes;
+            activeTasks--;
+            budgetReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return snapshot of executor state as {@link ImageProcessingStats} record
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public ImageProcessingStats getStats() {
+        lock.lock();
+        try {
+            return new ImageProcessingStats(budgetBytes, bytesInFlight, activeTasks, queuedTasks.size(),
+                admittedTasksCount.sum(), rejectedTasksCount.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: BufferedImageRenditionsPayload.java
+ * Last modified: 20/10/2026, 01:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.sender;
+
+import lombok.Builder;
+
+import java.util.List;
+
+import org.jmpsl.file.hashcode.FileHashCodeGenerator;
+
+/**
+ * Simple POJO record storing image sending payload with multiple image renditions (sending from application). Single
+ * passed image is saved in all declared sizes. Fields:
+ *
+ * <ul>
+ *     <li><code>bytesRepresentation</code> - image as stream of array bytes</li>
+ *     <li><code>renditions</code> - sizes of saved image renditions (ex. 32x32, 64x64, 128x128)</li>
+ *     <li><code>id</code> - user id (from database)</li>
+ *     <li><code>imageUniquePrefix</code> - user image prefix (avatar, banner etc.)</li>
+ *     <li><code>userHashCode</code> - user hash code (generated by {@link FileHashCodeGenerator}, from database)</li>
+ * </ul>
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Builder
+public record BufferedImageRenditionsPayload(
+    byte[] bytesRepresentation, List<ImageRenditionSize> renditions, Long id, String imageUniquePrefix,
+    String userHashCode
+) {
+}
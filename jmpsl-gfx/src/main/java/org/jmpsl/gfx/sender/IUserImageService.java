@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: IUserImageService.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 20/10/2026, 01:50
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -24,6 +24,9 @@
 
 package org.jmpsl.gfx.sender;
 
+import java.util.Map;
+import java.util.List;
+
 import org.jmpsl.gfx.ImageExtension;
 import org.jmpsl.gfx.generator.BufferedImageGeneratorRes;
 import org.jmpsl.gfx.generator.BufferedImageGeneratorPayload;
@@ -37,5 +40,10 @@ import org.jmpsl.gfx.generator.BufferedImageGeneratorPayload;
 interface IUserImageService {
     BufferedImageGeneratorRes generateAndSaveDefaultUserImage(BufferedImageGeneratorPayload payload, ImageExtension extension);
     BufferedImageRes saveUserImage(BufferedImageSenderPayload payload, ImageExtension extension);
+    BufferedImageRenditionsRes saveUserImageRenditions(
+        BufferedImageRenditionsPayload payload, ImageExtension extension);
     void deleteUserImage(BufferedImageDeletePayload payload);
+    Map<BufferedImageGeneratorPayload, BufferedImageGeneratorRes> generateAndSaveDefaultUsersImages(
+        List<BufferedImageGeneratorPayload> payloads, ImageExtension extension);
+    List<BufferedImageDeletePayload> deleteUsersImages(List<BufferedImageDeletePayload> payloads);
 }
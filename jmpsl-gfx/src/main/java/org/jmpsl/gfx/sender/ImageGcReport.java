@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageGcReport.java
+ * Last modified: 19/10/2026, 19:15
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.sender;
+
+/**
+ * Simple POJO record storing progress report of orphaned images garbage collector run (passed to progress listener
+ * after every processed page and returned after finished run).
+ *
+ * @param scannedDirectories count of scanned user images directories
+ * @param orphanedDirectories count of found directories of not existing users
+ * @param orphanedFiles count of found orphaned files (in orphaned and live directories)
+ * @param deletedFiles count of removed files and directories (always 0 in dry-run mode)
+ * @param failedDeletions count of files and directories, which could not be removed
+ * @param reclaimedBytes size of removed (or in dry-run mode found) orphaned files in bytes
+ * @param lastProcessedDirectory name of last processed directory (checkpoint)
+ * @param completed true, if all directories were processed (next run starts from the beginning)
+ * @param dryRun true, if orphans were only reported and not removed
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public record ImageGcReport(
+    long scannedDirectories,
+    long orphanedDirectories,
+    long orphanedFiles,
+    long deletedFiles,
+    long failedDeletions,
+    long reclaimedBytes,
+    String lastProcessedDirectory,
+    boolean completed,
+    boolean dryRun
+) {
+}
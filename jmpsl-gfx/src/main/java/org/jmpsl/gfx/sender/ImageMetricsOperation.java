@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageMetricsOperation.java
+ * Last modified: 20/10/2026, 02:35
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.sender;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+import org.jmpsl.file.metrics.IMetricsOperation;
+
+/**
+ * Enum class storing all measured operations of user images service (single image save is split into decoding,
+ * resizing, encoding and storage upload phases). Admission operation measures waiting time for image processing.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Getter
+@AllArgsConstructor
+public enum ImageMetricsOperation implements IMetricsOperation {
+    IMAGE_SAVE("image.save"),
+    IMAGE_ADMISSION("image.admission"),
+    IMAGE_DECODE("image.decode"),
+    IMAGE_RESIZE("image.resize"),
+    IMAGE_ENCODE("image.encode"),
+    IMAGE_GENERATE("image.generate"),
+    IMAGE_UPLOAD("image.upload"),
+    IMAGE_DELETE("image.delete");
+
+    private final String operationName;
+}
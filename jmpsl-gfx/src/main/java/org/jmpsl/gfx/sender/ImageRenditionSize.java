@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageRenditionSize.java
+ * Last modified: 20/10/2026, 01:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.sender;
+
+/**
+ * Simple POJO record storing size of single image rendition (ex. 64x64 avatar). Every rendition is saved as separate
+ * user image with own unique prefix (rendition size before passed image prefix, ex. <code>64x64_avatar</code>), so
+ * renditions never collide with original image prefix.
+ *
+ * @param width rendition width
+ * @param height rendition height
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+public record ImageRenditionSize(int width, int height) {
+
+    public ImageRenditionSize {
+        if (width < 1 || height < 1) throw new IllegalArgumentException("Rendition size cannot be less than 1");
+    }
+
+    /**
+     * Static method creating square rendition size.
+     *
+     * @param size rendition width and height
+     * @return instance of {@link ImageRenditionSize} record
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public static ImageRenditionSize square(int size) {
+        return new ImageRenditionSize(size, size);
+    }
+
+    /**
+     * @param imageUniquePrefix user image prefix (avatar, banner etc.)
+     * @return unique prefix of rendition image (ex. <code>64x64_avatar</code>)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    public String getRenditionPrefix(String imageUniquePrefix) {
+        return width + "x" + height + "_" + imageUniquePrefix;
+    }
+
+    /**
+     * @return count of rendition pixels (width multiplied by height)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    long getPixelsCount() {
+        return (long) width * height;
+    }
+
+    /**
+     * @param size other rendition size
+     * @return true, if this rendition is not smaller than other rendition in both axes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    boolean covers(ImageRenditionSize size) {
+        return width >= size.width && height >= size.height;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageReplaceStrategy.java
+ * Last modified: 20/10/2026, 05:50
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.sender;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Enum set of all available strategies of replacing already existing user image. Selected by
+ * <code>jmpsl.gfx.user-gfx.replace-strategy</code> property in <code>application.properties</code> file.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Getter
+@AllArgsConstructor
+public enum ImageReplaceStrategy {
+
+    /**
+     * Remove previous image and put new image under random name. Between removing and putting, user does not have
+     * any image. Default strategy, because it keeps image locations format of previous versions.
+     *
+     * @since 1.0.2
+     */
+    REMOVE_AND_PUT("remove-and-put"),
+
+    /**
+     * Put new image under temporary name and rename it over stable image name (<code>{prefix}.{extension}</code>).
+     * Stale images (ex. with another extension) are removed asynchronously. Image location contains version query
+     * parameter (based on image content), so CDN caches are refreshed after replacing.
+     *
+     * @since 1.0.2
+     */
+    ATOMIC_RENAME("atomic-rename");
+
+    /**
+     * Strategy name used in <code>application.properties</code> file.
+     *
+     * @since 1.0.2
+     */
+    private final String strategyName;
+
+    /**
+     * Static method responsible for finding replace strategy based passed property name (case insensitive).
+     *
+     * @param strategyName strategy name from <code>application.properties</code> file
+     * @return found {@link ImageReplaceStrategy} enum type
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if strategy with passed name not exist
+     */
+    public static ImageReplaceStrategy findByStrategyName(String strategyName) {
+        return Arrays.stream(values())
+            .filter(strategy -> strategy.strategyName.equalsIgnoreCase(strategyName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Not supported image replace strategy: " + strategyName));
+    }
+}
@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: TempImageSavePayload.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 19/10/2026, 10:12
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -50,7 +50,7 @@ public record TempImageSavePayload(
     byte[] bytesRepresentation, String uniqueImagePrefix, Long id, String extensionName, String userHashCode
 ) {
     public TempImageSavePayload(byte[] bytes, IBufferedImagePayload payload, ImageExtension extension) {
-        this(bytes, payload.getImageUniquePrefix(), payload.getId(), payload.getUserHashCode(),
-            extension.getImageExtension());
+        this(bytes, payload.getImageUniquePrefix(), payload.getId(), extension.getImageExtension(),
+            payload.getUserHashCode());
     }
 }
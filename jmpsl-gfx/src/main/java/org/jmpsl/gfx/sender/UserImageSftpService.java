@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: UserImageSftpService.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 20/10/2026, 05:30
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -21,55 +21,87 @@
  * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
  * or other dealings in the software.
  */
-
 package org.jmpsl.gfx.sender;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.imgscalr.Scalr;
-import org.jmpsl.file.FileUtil;
 
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.core.env.Environment;
 
-import net.schmizz.sshj.xfer.FileSystemFile;
-import net.schmizz.sshj.sftp.RemoteResourceInfo;
-import net.schmizz.sshj.sftp.StatefulSFTPClient;
-
+import java.util.Map;
+import java.util.Set;
 import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
-import java.nio.file.Files;
-import java.io.File;
-import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.concurrent.ThreadLocalRandom;
+import java.nio.charset.StandardCharsets;
 import java.io.IOException;
 import java.awt.image.BufferedImage;
 
 import javax.imageio.ImageIO;
 
 import org.jmpsl.gfx.GfxEnv;
-import org.jmpsl.gfx.GfxUtil;
 import org.jmpsl.gfx.ImageExtension;
+import org.jmpsl.gfx.decoder.ImageDecodeParams;
+import org.jmpsl.gfx.decoder.ImageDecoderService;
+import org.jmpsl.gfx.encoder.ImageEncoderService;
+import org.jmpsl.gfx.processing.ImageProcessingExecutor;
 import org.jmpsl.gfx.generator.GeneratedImageRes;
 import org.jmpsl.gfx.generator.UserImageGenerator;
 import org.jmpsl.gfx.generator.BufferedImageGeneratorRes;
 import org.jmpsl.gfx.generator.BufferedImageGeneratorPayload;
-import org.jmpsl.file.socket.SshFileSocketConnector;
+import org.jmpsl.file.ContentType;
+import org.jmpsl.file.ContentTypeSniffer;
+import org.jmpsl.file.storage.IFileStorage;
+import org.jmpsl.file.metrics.IFileMetricsRecorder;
+import org.jmpsl.file.scheduler.TransferPriority;
+import org.jmpsl.file.scheduler.TransferScheduler;
+import org.jmpsl.file.storage.ContentAddress;
+import org.jmpsl.file.storage.FileBatchResult;
+import org.jmpsl.file.storage.FileBatchOperation;
+import org.jmpsl.file.storage.IFileStorageSession;
+import org.jmpsl.file.storage.ContentAddressedFileStore;
+import org.jmpsl.file.storage.DeferredStorageActionQueue;
 import org.jmpsl.file.hashcode.FileHashCodeGenerator;
 import org.jmpsl.file.hashcode.HashCodeFormatException;
+import org.jmpsl.file.exception.NotAcceptableFileExtensionException;
 import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
 
+import static org.jmpsl.gfx.encoder.ImageEncoderException.ImageEncodingException;
+import static org.jmpsl.gfx.decoder.ImageDecoderException.ImageTooLargeException;
+import static org.jmpsl.gfx.decoder.ImageDecoderException.ImageDecodingException;
+import static org.jmpsl.gfx.processing.ImageProcessingException.ImageProcessingRejectedException;
+
 /**
  * Spring Bean service responsible for generate sending and deleting user image to external SFTP server directory. Contains
  * methods for generating default user image and save in external storage, and also saving already passed image (as byte
- * array stream) into external storage. Before using this class, create following properties:
+ * array stream) into external storage. All storage actions are performed via active {@link IFileStorage} backend
+ * (SFTP server by default). Before using this class, create following properties:
  *
  * <ul>
  *     <li><code>jmpsl.gfx.user-gfx.static-images-content-path</code> - path to SFTP images content, without any slashes</li>
+ *     <li><code>jmpsl.gfx.user-gfx.deduplicate-images</code> - store images under content hash, by default false</li>
+ *     <li><code>jmpsl.gfx.user-gfx.deduplicated-images-dir</code> - content-addressed images dir, default cas</li>
+ *     <li><code>jmpsl.gfx.user-gfx.replace-strategy</code> - image replace strategy, by default remove-and-put</li>
  * </ul>
  *
+ * In deduplication mode, images are stored by {@link ContentAddressedFileStore} (identical images are stored and
+ * transferred only once) and user images directory contains only small pointer files (with <code>.ref</code> suffix)
+ * storing relative path of content-addressed image. Single user actions are interactive transfers, bulk jobs are
+ * background transfers of {@link TransferScheduler} (throttled and never delaying interactive transfers). Durations of
+ * single image actions (and of every saving phase: decoding, resizing, encoding and uploading) are recorded in
+ * {@link IFileMetricsRecorder}.
+ *
  * @author Miłosz Gilga
  * @since 1.0.2
  */
@@ -77,14 +109,44 @@ import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
 @Service
 public class UserImageSftpService implements IUserImageService {
 
+    private static final String IMAGE_POINTER_SUFFIX = ".ref";
+    private static final ContentType[] DECODABLE_CONTENT_TYPES = Arrays.stream(ContentType.values())
+        .filter(type -> ImageIO.getImageReadersByMIMEType(type.getContentTypeName()).hasNext())
+        .toArray(ContentType[]::new);
+
     private String imagesRelativePath;
     private final String imagesServerPath;
+    private final boolean deduplicateImages;
+    private final ImageReplaceStrategy replaceStrategy;
+    private final String deduplicatedImagesDir;
     private final UserImageGenerator imageGenerator;
-    private final SshFileSocketConnector socketConnector;
+    private final IFileStorage fileStorage;
+    private final IFileStorage backgroundStorage;
+    private final ContentAddressedFileStore contentStore;
+    private final DeferredStorageActionQueue deferredActionQueue;
+    private final IFileMetricsRecorder metricsRecorder;
+    private final ImageEncoderService imageEncoderService;
+    private final ImageDecoderService imageDecoderService;
+    private final ImageProcessingExecutor processingExecutor;
 
-    UserImageSftpService(Environment env, UserImageGenerator imageGenerator, SshFileSocketConnector socketConnector) {
+    UserImageSftpService(
+        Environment env, UserImageGenerator imageGenerator, TransferScheduler transferScheduler,
+        ContentAddressedFileStore contentStore, DeferredStorageActionQueue deferredActionQueue,
+        IFileMetricsRecorder metricsRecorder, ImageEncoderService imageEncoderService,
+        ImageDecoderService imageDecoderService, ImageProcessingExecutor processingExecutor
+    ) {
         this.imageGenerator = imageGenerator;
-        this.socketConnector = socketConnector;
+        this.metricsRecorder = metricsRecorder;
+        this.imageEncoderService = imageEncoderService;
+        this.imageDecoderService = imageDecoderService;
+        this.processingExecutor = processingExecutor;
+        fileStorage = transferScheduler.getStorage(TransferPriority.INTERACTIVE);
+        backgroundStorage = transferScheduler.getStorage(TransferPriority.BACKGROUND);
+        this.contentStore = contentStore;
+        this.deferredActionQueue = deferredActionQueue;
+        replaceStrategy = ImageReplaceStrategy.findByStrategyName(GfxEnv.__GFX_REPLACE_STRATEGY.getProperty(env));
+        deduplicateImages = GfxEnv.__GFX_DEDUPLICATE_IMAGES.getProperty(env, Boolean.class);
+        deduplicatedImagesDir = GfxEnv.__GFX_DEDUPLICATED_IMAGES_DIR.getProperty(env);
         imagesServerPath = createImagesServerPath(env);
     }
 
@@ -104,11 +166,16 @@ public class UserImageSftpService implements IUserImageService {
         BufferedImageGeneratorPayload payload, ImageExtension extension
     ) {
         final BufferedImageRes imageResponse = new BufferedImageRes();
-        final GeneratedImageRes generatedImage = imageGenerator.generateDefaultUserImage(payload, extension);
-        socketConnector.connectToSocketAndPerformAction(sftpClient -> {
-            final TempImageSavePayload tempImageSavePayload = new TempImageSavePayload(generatedImage.imageBytes(),
-                payload, extension);
-            imageResponse.copyObject(generateTempImageAndSave(sftpClient, tempImageSavePayload));
+        final GeneratedImageRes generatedImage = measure(ImageMetricsOperation.IMAGE_GENERATE,
+            () -> imageGenerator.generateDefaultUserImage(payload, extension));
+        metricsRecorder.recordBytes(ImageMetricsOperation.IMAGE_UPLOAD, generatedImage.imageBytes().length);
+        measure(ImageMetricsOperation.IMAGE_UPLOAD, () -> {
+            fileStorage.performInSession(session -> {
+                final TempImageSavePayload tempImageSavePayload = new TempImageSavePayload(generatedImage.imageBytes(),
+                    payload, extension);
+                imageResponse.copyObject(generateTempImageAndSave(session, tempImageSavePayload));
+            });
+            return null;
         });
         log.info("Successful created default user avatar image. User hashcode: {}", imageResponse.getUserHashCode());
         return new BufferedImageGeneratorRes(imageResponse, generatedImage.imageBackground());
@@ -132,7 +199,10 @@ public class UserImageSftpService implements IUserImageService {
     /**
      * Override method responsible for saving already generated or sended user image as byte array stream into SFTP
      * external server. Method also resize image to preferred width and height base {@link BufferedImageSenderPayload}
-     * instance values.
+     * instance values. Image is decoded, resized and encoded before opening storage session, so storage channel is not
+     * held during image processing. Image dimensions are validated before decoding and large images are decoded with
+     * source subsampling (near preferred size), so high-quality resize runs only on reduced raster. Image processing is
+     * admitted by {@link ImageProcessingExecutor} based on estimated memory size of processed images.
      *
      * @param payload instance of {@link BufferedImageSenderPayload} class with sending image details
      * @param extension image extension as {@link ImageExtension} type (ex. png, jpeg etc.)
@@ -141,28 +211,122 @@ public class UserImageSftpService implements IUserImageService {
      * @since 1.0.2
      *
      * @throws ExternalFileServerMalfunctionException if unable to save image on SFTP external server.
+     * @throws NotAcceptableFileExtensionException if image signature is not recognized
+     * @throws ImageTooLargeException if image dimensions exceeds decoder limits
+     * @throws ImageDecodingException if unable to decode image
+     * @throws ImageProcessingRejectedException if image processing was not admitted (too many processed images)
+     * @throws ImageEncodingException if unable to encode resized image
      */
     @Override
     public BufferedImageRes saveUserImage(BufferedImageSenderPayload payload, ImageExtension extension) {
-        final BufferedImageRes imageResponse = new BufferedImageRes();
-        final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(payload.bytesRepresentation());
-        socketConnector.connectToSocketAndPerformAction(sftpClient -> {
-            try {
-                final BufferedImage bufferedImage = ImageIO.read(byteArrayInputStream);
-                final BufferedImage resizeResult = Scalr.resize(bufferedImage, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT,
-                    payload.preferredWidth(), payload.preferredHeight(), Scalr.OP_ANTIALIAS);
+        validateImageSignature(payload.bytesRepresentation());
+        final long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            final ImageDecodeParams decodeParams = ImageDecodeParams.builder()
+                .targetWidth(payload.preferredWidth())
+                .targetHeight(payload.preferredHeight())
+                .build();
+            final long estimatedBytes = estimateProcessingBytes(payload.bytesRepresentation(), decodeParams,
+                List.of(new ImageRenditionSize(payload.preferredWidth(), payload.preferredHeight())));
+            final byte[] imageBytes = processingExecutor.execute(estimatedBytes, () -> {
+                final BufferedImage bufferedImage = measure(ImageMetricsOperation.IMAGE_DECODE,
+                    () -> imageDecoderService.decode(payload.bytesRepresentation(), decodeParams));
+                final BufferedImage resizeResult = measure(ImageMetricsOperation.IMAGE_RESIZE,
+                    () -> Scalr.resize(bufferedImage, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT,
+                        payload.preferredWidth(), payload.preferredHeight(), Scalr.OP_ANTIALIAS));
+                return measure(ImageMetricsOperation.IMAGE_ENCODE,
+                    () -> imageEncoderService.encode(resizeResult, extension));
+            });
+            metricsRecorder.recordBytes(ImageMetricsOperation.IMAGE_UPLOAD, imageBytes.length);
 
-                final TempImageSavePayload tempImageSavePayload = new TempImageSavePayload(
-                    GfxUtil.generateByteStreamFromBufferedImage(resizeResult, extension), payload, extension);
-                imageResponse.copyObject(generateTempImageAndSave(sftpClient, tempImageSavePayload));
+            final BufferedImageRes imageResponse = new BufferedImageRes();
+            measure(ImageMetricsOperation.IMAGE_UPLOAD, () -> {
+                fileStorage.performInSession(session -> imageResponse.copyObject(generateTempImageAndSave(session,
+                    new TempImageSavePayload(imageBytes, payload, extension))));
+                return null;
+            });
+            success = true;
+            log.info("Successful send user avatar image. User id: {}", imageResponse.getUserHashCode());
+            return imageResponse;
+        } finally {
+            metricsRecorder.recordSince(ImageMetricsOperation.IMAGE_SAVE, startNanos, success);
+        }
+    }
 
-            } catch (IOException ex) {
-                log.error("Unable to send image to external server. Server path: {}", imagesServerPath);
-                throw new ExternalFileServerMalfunctionException();
-            }
-        });
-        log.info("Successful send user avatar image. User id: {}", imageResponse.getUserHashCode());
-        return imageResponse;
+    /**
+     * Override method responsible for saving already generated or sended user image in multiple sizes (renditions) into
+     * SFTP external server. Image is decoded once (subsampled near the largest rendition size), every rendition is
+     * resized from the smallest already created rendition covering its size (or from decoded image), all renditions are
+     * encoded in parallel and uploaded in single storage session. Every rendition is saved under own unique prefix
+     * (see {@link ImageRenditionSize#getRenditionPrefix(String)}), new user images directory is created only once.
+     *
+     * @param payload instance of {@link BufferedImageRenditionsPayload} class with sending image details
+     * @param extension image extension as {@link ImageExtension} type (ex. png, jpeg etc.)
+     * @return instance of {@link BufferedImageRenditionsRes} with saved renditions data
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to save images on SFTP external server.
+     * @throws NotAcceptableFileExtensionException if image signature is not recognized
+     * @throws ImageTooLargeException if image dimensions exceeds decoder limits
+     * @throws ImageDecodingException if unable to decode image
+     * @throws ImageProcessingRejectedException if image processing was not admitted (too many processed images)
+     * @throws ImageEncodingException if unable to encode any rendition
+     * @throws IllegalArgumentException if payload is null or renditions list is empty
+     */
+    @Override
+    public BufferedImageRenditionsRes saveUserImageRenditions(
+        BufferedImageRenditionsPayload payload, ImageExtension extension
+    ) {
+        Assert.notNull(payload, "Payload object cannot be null.");
+        Assert.notEmpty(payload.renditions(), "Image renditions list cannot be empty.");
+        Assert.noNullElements(payload.renditions(), "Image renditions list cannot contain null rendition.");
+        validateImageSignature(payload.bytesRepresentation());
+        final List<ImageRenditionSize> renditions = payload.renditions().stream().distinct().toList();
+        final long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            final ImageDecodeParams decodeParams = ImageDecodeParams.builder()
+                .targetWidth(renditions.stream().mapToInt(ImageRenditionSize::width).max().orElseThrow())
+                .targetHeight(renditions.stream().mapToInt(ImageRenditionSize::height).max().orElseThrow())
+                .build();
+            final long estimatedBytes = estimateProcessingBytes(payload.bytesRepresentation(), decodeParams,
+                renditions);
+            final List<byte[]> imagesBytes = processingExecutor.execute(estimatedBytes, () -> {
+                final BufferedImage bufferedImage = measure(ImageMetricsOperation.IMAGE_DECODE,
+                    () -> imageDecoderService.decode(payload.bytesRepresentation(), decodeParams));
+                final List<BufferedImage> resizedImages = measure(ImageMetricsOperation.IMAGE_RESIZE,
+                    () -> createRenditions(bufferedImage, renditions));
+                return measure(ImageMetricsOperation.IMAGE_ENCODE,
+                    () -> imageEncoderService.encodeAll(resizedImages, extension));
+            });
+            metricsRecorder.recordBytes(ImageMetricsOperation.IMAGE_UPLOAD,
+                imagesBytes.stream().mapToLong(imageBytes -> imageBytes.length).sum());
+
+            final Map<ImageRenditionSize, BufferedImageRes> savedRenditions = new LinkedHashMap<>();
+            measure(ImageMetricsOperation.IMAGE_UPLOAD, () -> {
+                fileStorage.performInSession(session -> {
+                    savedRenditions.clear();
+                    String userHashCode = payload.userHashCode();
+                    for (int i = 0; i < renditions.size(); i++) {
+                        final ImageRenditionSize rendition = renditions.get(i);
+                        final BufferedImageRes image = generateTempImageAndSave(session, new TempImageSavePayload(
+                            imagesBytes.get(i), rendition.getRenditionPrefix(payload.imageUniquePrefix()),
+                            payload.id(), extension.getImageExtension(), userHashCode));
+                        userHashCode = image.getUserHashCode();
+                        savedRenditions.put(rendition, image);
+                    }
+                });
+                return null;
+            });
+            final String userHashCode = savedRenditions.values().iterator().next().getUserHashCode();
+            success = true;
+            log.info("Successful send {} user image renditions. User hashcode: {}", renditions.size(), userHashCode);
+            return new BufferedImageRenditionsRes(userHashCode, savedRenditions);
+        } finally {
+            metricsRecorder.recordSince(ImageMetricsOperation.IMAGE_SAVE, startNanos, success);
+        }
     }
 
     /**
@@ -181,18 +345,146 @@ public class UserImageSftpService implements IUserImageService {
         Assert.notNull(payload, "Payload object cannot be null.");
         Assert.noNullElements(new Object[] { payload.userHashCode(), payload.uniqueImagePrefix(), payload.id() },
                 "Payload data (userHashCode, uniqueImagePrefix, id) cannot be null.");
-        socketConnector.connectToSocketAndPerformAction(sftpClient -> {
-            try {
-                ifResourceIsPresetRemove(sftpClient, payload.id(), payload.userHashCode(),
-                    payload.uniqueImagePrefix());
-            } catch (IOException ex) {
-                log.error("Unable to remove image from external server. Image payload data: {}", payload);
-                throw new ExternalFileServerMalfunctionException();
-            }
+        measure(ImageMetricsOperation.IMAGE_DELETE, () -> {
+            fileStorage.performInSession(session -> {
+                try {
+                    ifResourceIsPresetRemove(session, payload.id(), payload.userHashCode(),
+                        payload.uniqueImagePrefix());
+                } catch (IOException ex) {
+                    log.error("Unable to remove image from external server. Image payload data: {}", payload);
+                    throw new ExternalFileServerMalfunctionException(ex);
+                }
+            });
+            return null;
         });
         log.info("Successful remove selected user image from external SFTP server. Image payload data: {}", payload);
     }
 
+    /**
+     * Override method responsible for generate basic users images and save on external SFTP server in single storage
+     * session (used in bulk jobs). In default replace strategy (without deduplication), all removing, directories
+     * creating and saving actions are executed as single pipelined storage batch. In other modes, images are saved
+     * one by one (but still in single storage session). Failure of single image does not stop saving of other images.
+     *
+     * @param payloads list of {@link BufferedImageGeneratorPayload} instances with sending images details
+     * @param extension images extension as {@link ImageExtension} type (ex. png, jpeg etc.)
+     * @return map of successfully saved images (key is passed payload), in the same order as passed payloads
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to open storage session.
+     */
+    @Override
+    public Map<BufferedImageGeneratorPayload, BufferedImageGeneratorRes> generateAndSaveDefaultUsersImages(
+        List<BufferedImageGeneratorPayload> payloads, ImageExtension extension
+    ) {
+        Assert.notNull(payloads, "Payloads list cannot be null.");
+        final List<GeneratedImageRes> generatedImages = payloads.stream()
+            .map(payload -> imageGenerator.generateDefaultUserImage(payload, extension))
+            .toList();
+        final Map<BufferedImageGeneratorPayload, BufferedImageGeneratorRes> savedImages = new LinkedHashMap<>();
+        final boolean isBatchSupported = !deduplicateImages && replaceStrategy == ImageReplaceStrategy.REMOVE_AND_PUT;
+        backgroundStorage.performInSession(session -> {
+            savedImages.clear();
+            final List<FileBatchOperation> operations = new ArrayList<>();
+            final List<BatchImageEntry> entries = new ArrayList<>();
+            for (int i = 0; i < payloads.size(); i++) {
+                final BufferedImageGeneratorPayload payload = payloads.get(i);
+                final TempImageSavePayload tempImageSavePayload = new TempImageSavePayload(
+                    generatedImages.get(i).imageBytes(), payload, extension);
+                try {
+                    if (isBatchSupported) {
+                        final int firstOperation = operations.size();
+                        final BufferedImageRes image = prepareBatchImageSave(session, tempImageSavePayload, operations);
+                        entries.add(new BatchImageEntry(i, firstOperation, operations.size(), image));
+                    } else {
+                        savedImages.put(payload, new BufferedImageGeneratorRes(
+                            generateTempImageAndSave(session, tempImageSavePayload),
+                            generatedImages.get(i).imageBackground()));
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    log.error("Unable to save user image in bulk job. User id: {}. Cause: {}", payload.id(),
+                        ex.getMessage());
+                }
+            }
+            if (operations.isEmpty()) return;
+            final List<FileBatchResult> results = session.executeBatch(operations);
+            for (final BatchImageEntry entry : entries) {
+                final BufferedImageGeneratorPayload payload = payloads.get(entry.index());
+                if (results.subList(entry.firstOperation(), entry.lastOperation()).stream()
+                        .allMatch(FileBatchResult::successful)) {
+                    savedImages.put(payload, new BufferedImageGeneratorRes(entry.image(),
+                        generatedImages.get(entry.index()).imageBackground()));
+                } else {
+                    log.error("Unable to save user image in bulk job. User id: {}", payload.id());
+                }
+            }
+        });
+        log.info("Successful created {} of {} default users images in bulk job.", savedImages.size(), payloads.size());
+        return savedImages;
+    }
+
+    /**
+     * Override method responsible for deleting already sended users images from external SSH/SFTP static resources
+     * server in single storage session (used in bulk jobs). All images removing actions are executed as single
+     * pipelined storage batch. Content-addressed images (deduplication mode) are released one by one. Failure of
+     * single image does not stop removing of other images.
+     *
+     * @param payloads list of {@link BufferedImageDeletePayload} instances with deleting images details
+     * @return list of payloads, which images could not be removed (empty, if all images were removed)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to open storage session.
+     */
+    @Override
+    public List<BufferedImageDeletePayload> deleteUsersImages(List<BufferedImageDeletePayload> payloads) {
+        Assert.notNull(payloads, "Payloads list cannot be null.");
+        final List<BufferedImageDeletePayload> failedPayloads = new ArrayList<>();
+        backgroundStorage.performInSession(session -> {
+            failedPayloads.clear();
+            final List<FileBatchOperation> operations = new ArrayList<>();
+            final List<BatchImageEntry> entries = new ArrayList<>();
+            for (int i = 0; i < payloads.size(); i++) {
+                final BufferedImageDeletePayload payload = payloads.get(i);
+                try {
+                    if (!FileHashCodeGenerator.hashCodeIsValid(payload.userHashCode())) {
+                        throw new HashCodeFormatException();
+                    }
+                    final String userImagesServerPath = imagesServerPath + "/user" + payload.id() + "_"
+                        + payload.userHashCode();
+                    final Set<String> names = session.listNames(userImagesServerPath);
+                    if (names.contains(payload.uniqueImagePrefix() + IMAGE_POINTER_SUFFIX)) {
+                        ifResourceIsPresetRemove(session, payload.id(), payload.userHashCode(),
+                            payload.uniqueImagePrefix());
+                        continue;
+                    }
+                    final int firstOperation = operations.size();
+                    names.stream()
+                        .filter(name -> name.startsWith(payload.uniqueImagePrefix()))
+                        .forEach(name -> operations.add(FileBatchOperation.delete(userImagesServerPath + "/" + name)));
+                    entries.add(new BatchImageEntry(i, firstOperation, operations.size(), null));
+                } catch (IOException | RuntimeException ex) {
+                    log.error("Unable to remove user image in bulk job. Image payload data: {}. Cause: {}", payload,
+                        ex.getMessage());
+                    failedPayloads.add(payload);
+                }
+            }
+            if (operations.isEmpty()) return;
+            final List<FileBatchResult> results = session.executeBatch(operations);
+            for (final BatchImageEntry entry : entries) {
+                if (results.subList(entry.firstOperation(), entry.lastOperation()).stream()
+                        .allMatch(FileBatchResult::successful)) continue;
+                log.error("Unable to remove user image in bulk job. Image payload data: {}",
+                    payloads.get(entry.index()));
+                failedPayloads.add(payloads.get(entry.index()));
+            }
+        });
+        log.info("Successful removed {} of {} users images in bulk job.", payloads.size() - failedPayloads.size(),
+            payloads.size());
+        return failedPayloads;
+    }
+
     /**
      * Override method responsible for saving already generated or sended user image as byte array stream into SFTP
      * external server. Method also resize image to preferred width and height base {@link BufferedImageSenderPayload}
@@ -209,12 +501,102 @@ public class UserImageSftpService implements IUserImageService {
         return saveUserImage(payload, ImageExtension.PNG);
     }
 
+    /**
+     * Override method responsible for saving already generated or sended user image in multiple sizes (renditions) into
+     * SFTP external server. Images extension is set to PNG format.
+     *
+     * @param payload instance of {@link BufferedImageRenditionsPayload} class with sending image details
+     * @return instance of {@link BufferedImageRenditionsRes} with saved renditions data
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to save images on SFTP external server.
+     */
+    public BufferedImageRenditionsRes saveUserImageRenditions(BufferedImageRenditionsPayload payload) {
+        return saveUserImageRenditions(payload, ImageExtension.PNG);
+    }
+
+    /**
+     * Inner method responsible for validating passed image signature (only images decodable by ImageIO readers are
+     * accepted).
+     *
+     * @param imageBytes image bytes
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws NotAcceptableFileExtensionException if image signature is not recognized
+     */
+    private void validateImageSignature(byte[] imageBytes) {
+        final Optional<ContentType> detectedType = ContentTypeSniffer.detectContentType(imageBytes);
+        if (detectedType.isEmpty() || Arrays.stream(DECODABLE_CONTENT_TYPES).noneMatch(detectedType.get()::equals)) {
+            log.error("Attempt to save user image with not supported signature. Detected content type: {}",
+                detectedType.map(ContentType::getContentTypeName).orElse("unknown"));
+            throw new NotAcceptableFileExtensionException(DECODABLE_CONTENT_TYPES);
+        }
+    }
+
+    /**
+     * Inner method responsible for estimating memory size of images processed while saving user image: decoded raster
+     * (counted twice, for resizing intermediate and converted rasters) and all resized rasters. Only image header is
+     * read.
+     *
+     * @param imageBytes image bytes
+     * @param decodeParams instance of {@link ImageDecodeParams} with decoding parameters
+     * @param renditions sizes of resized images
+     * @return estimated memory size of processed images (in bytes)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ImageTooLargeException if image dimensions exceeds decoder limits
+     * @throws ImageDecodingException if unable to read image header
+     */
+    private long estimateProcessingBytes(byte[] imageBytes, ImageDecodeParams decodeParams,
+                                         List<ImageRenditionSize> renditions) {
+        final long decodedBytes = imageDecoderService.estimateDecodedBytes(imageBytes, decodeParams);
+        return 2 * decodedBytes + renditions.stream()
+            .mapToLong(rendition -> ImageProcessingExecutor.estimateRasterBytes(rendition.width(), rendition.height()))
+            .sum();
+    }
+
+    /**
+     * Inner method responsible for creating image renditions by progressive downscaling. Renditions are created from
+     * the largest to the smallest, every rendition is resized from the smallest already created rendition covering its
+     * size (or from decoded image, if there is no such rendition), so every resize runs on smallest possible raster.
+     *
+     * @param image decoded source image
+     * @param renditions sizes of created renditions
+     * @return resized renditions images (in the same order as passed renditions sizes)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private List<BufferedImage> createRenditions(BufferedImage image, List<ImageRenditionSize> renditions) {
+        final Comparator<Integer> byPixelsCount = Comparator.comparingLong(i -> renditions.get(i).getPixelsCount());
+        final List<Integer> creationOrder = IntStream.range(0, renditions.size()).boxed()
+            .sorted(byPixelsCount.reversed())
+            .toList();
+        final BufferedImage[] resizedImages = new BufferedImage[renditions.size()];
+        final List<Integer> createdRenditions = new ArrayList<>(renditions.size());
+        for (final int index : creationOrder) {
+            final ImageRenditionSize rendition = renditions.get(index);
+            BufferedImage sourceImage = image;
+            for (int i = createdRenditions.size() - 1; i >= 0; i--) {
+                if (!renditions.get(createdRenditions.get(i)).covers(rendition)) continue;
+                sourceImage = resizedImages[createdRenditions.get(i)];
+                break;
+            }
+            resizedImages[index] = Scalr.resize(sourceImage, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT,
+                rendition.width(), rendition.height(), Scalr.OP_ANTIALIAS);
+            createdRenditions.add(index);
+        }
+        return Arrays.asList(resizedImages);
+    }
+
     /**
      * Inner method responsible for generating temporary image and save in SFTP external server. If file already exist,
      * remove and place in same location. Throw {@link ExternalFileServerMalfunctionException} if unable to save or
      * remove already existing image from SFTP external server.
      *
-     * @param sftpClient instance of {@link StatefulSFTPClient} socket for perform external SFTP server actions
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
      * @param payload instance of {@link TempImageSavePayload} POJO class with temporary file details
      * @return instance of {@link BufferedImageRes} class storing generated file informations
      * @author Miłosz Gilga
@@ -222,73 +604,304 @@ public class UserImageSftpService implements IUserImageService {
      *
      * @throws ExternalFileServerMalfunctionException if unable to save image on SFTP external server.
      */
-    private BufferedImageRes generateTempImageAndSave(StatefulSFTPClient sftpClient, TempImageSavePayload payload) {
+    private BufferedImageRes generateTempImageAndSave(IFileStorageSession session, TempImageSavePayload payload) {
         final BufferedImageRes imageResponse = new BufferedImageRes();
         try {
-            String userStaticImageDir, hashCode, relativeImagesPath;
+            String userStaticImageDir, hashCode;
             final String userImagePathPrefix = "user" + payload.id() + "_";
 
-            sftpClient.cd(imagesServerPath);
-            ifResourceIsPresetRemove(sftpClient, payload.id(), payload.userHashCode(), payload.uniqueImagePrefix());
-
-            if (Objects.isNull(payload.userHashCode())) {
+            if (deduplicateImages || replaceStrategy == ImageReplaceStrategy.ATOMIC_RENAME) {
+                final String userHashCode = payload.userHashCode();
+                if (Objects.nonNull(userHashCode) && !FileHashCodeGenerator.hashCodeIsValid(userHashCode)) {
+                    throw new HashCodeFormatException();
+                }
+            } else {
+                ifResourceIsPresetRemove(session, payload.id(), payload.userHashCode(), payload.uniqueImagePrefix());
+            }
+            final boolean isNewImagesDir = Objects.isNull(payload.userHashCode());
+            if (isNewImagesDir) {
                 hashCode = FileHashCodeGenerator.generateHashCode();
                 userStaticImageDir = userImagePathPrefix + hashCode;
-                FileUtil.createDirIfNotExist(sftpClient, imagesServerPath, userStaticImageDir);
+                session.mkdirs(imagesServerPath + "/" + userStaticImageDir);
             } else {
                 hashCode = payload.userHashCode();
                 userStaticImageDir = userImagePathPrefix + payload.userHashCode();
             }
-            final File tempImage = File.createTempFile(payload.uniqueImagePrefix() + "_", "." + payload.extensionName());
-            if (StringUtils.hasLength(imagesRelativePath)) {
-                relativeImagesPath = socketConnector.getAppServerPath() + "/" + imagesRelativePath + "/";
+            if (deduplicateImages) {
+                imageResponse.setLocation(saveDeduplicatedImage(session, imagesServerPath + "/" + userStaticImageDir,
+                    payload));
+            } else if (replaceStrategy == ImageReplaceStrategy.ATOMIC_RENAME) {
+                imageResponse.setLocation(replaceImageAtomically(session, userStaticImageDir, payload, isNewImagesDir));
             } else {
-                relativeImagesPath = socketConnector.getAppServerPath() + "/";
+                final String imageName = payload.uniqueImagePrefix() + "_"
+                    + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + "." + payload.extensionName();
+                imageResponse.setLocation(getImagesPublicUrl() + userStaticImageDir + "/" + imageName);
+                session.put(imagesServerPath + "/" + userStaticImageDir + "/" + imageName,
+                    payload.bytesRepresentation());
             }
-            imageResponse.setLocation(relativeImagesPath + userStaticImageDir + "/" + tempImage.getName());
-
-            Files.write(tempImage.toPath(), payload.bytesRepresentation());
-            sftpClient.put(new FileSystemFile(tempImage), imagesServerPath + "/" + userStaticImageDir);
-
             imageResponse.setBytesRepresentation(payload.bytesRepresentation());
             imageResponse.setUserHashCode(hashCode);
-            tempImage.deleteOnExit();
         } catch (IOException ex) {
             log.error("Unable to send image to external server. Server path: {}", imagesServerPath);
-            throw new ExternalFileServerMalfunctionException();
+            throw new ExternalFileServerMalfunctionException(ex);
         }
         return imageResponse;
     }
 
+    /**
+     * Inner method responsible for preparing batch operations saving single image (default replace strategy, without
+     * deduplication). Previous image is removed, and user images directory is created (for new users) in the same
+     * batch. Directory listing could be grabbed from storage cache.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param payload instance of {@link TempImageSavePayload} POJO class with temporary file details
+     * @param operations list of batch operations, where prepared operations will be added
+     * @return instance of {@link BufferedImageRes} class storing saved file informations (valid after batch execution)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to list user images directory
+     * @throws HashCodeFormatException if passed user hash code is not valid with saved template
+     */
+    private BufferedImageRes prepareBatchImageSave(IFileStorageSession session, TempImageSavePayload payload,
+                                                   List<FileBatchOperation> operations) throws IOException {
+        final String userHashCode;
+        final String userImagesServerPath;
+        if (Objects.isNull(payload.userHashCode())) {
+            userHashCode = FileHashCodeGenerator.generateHashCode();
+            userImagesServerPath = imagesServerPath + "/user" + payload.id() + "_" + userHashCode;
+            operations.add(FileBatchOperation.mkdirs(userImagesServerPath));
+        } else {
+            if (!FileHashCodeGenerator.hashCodeIsValid(payload.userHashCode())) throw new HashCodeFormatException();
+            userHashCode = payload.userHashCode();
+            userImagesServerPath = imagesServerPath + "/user" + payload.id() + "_" + userHashCode;
+            final Set<String> userImagesNames = session.listNames(userImagesServerPath);
+            if (userImagesNames.contains(payload.uniqueImagePrefix() + IMAGE_POINTER_SUFFIX)) {
+                ifResourceIsPresetRemove(session, payload.id(), userHashCode, payload.uniqueImagePrefix());
+            } else {
+                userImagesNames.stream()
+                    .filter(name -> name.startsWith(payload.uniqueImagePrefix()))
+                    .findFirst()
+                    .ifPresent(name -> operations.add(FileBatchOperation.delete(userImagesServerPath + "/" + name)));
+            }
+        }
+        final String imageName = payload.uniqueImagePrefix() + "_"
+            + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + "." + payload.extensionName();
+        operations.add(FileBatchOperation.put(userImagesServerPath + "/" + imageName, payload.bytesRepresentation()));
+
+        final BufferedImageRes imageResponse = new BufferedImageRes();
+        imageResponse.setLocation(getImagesPublicUrl() + "user" + payload.id() + "_" + userHashCode + "/" + imageName);
+        imageResponse.setBytesRepresentation(payload.bytesRepresentation());
+        imageResponse.setUserHashCode(userHashCode);
+        return imageResponse;
+    }
+
+    /**
+     * Inner method responsible for replacing user image atomically. Image is uploaded under temporary name and renamed
+     * over stable image name (<code>{prefix}.{extension}</code>), so there is no window, where user image does not
+     * exist. Stale images with the same prefix (ex. with another extension or legacy random names) are removed
+     * asynchronously by {@link DeferredStorageActionQueue}.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param userStaticImageDir user images directory name
+     * @param payload instance of {@link TempImageSavePayload} POJO class with temporary file details
+     * @param isNewImagesDir true, if user images directory was just created (without stale images)
+     * @return public location of image with version query parameter
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to save or rename image
+     */
+    private String replaceImageAtomically(IFileStorageSession session, String userStaticImageDir,
+                                          TempImageSavePayload payload, boolean isNewImagesDir) throws IOException {
+        final String userImagesServerPath = imagesServerPath + "/" + userStaticImageDir;
+        final String imageName = payload.uniqueImagePrefix() + "." + payload.extensionName();
+        session.replace(userImagesServerPath + "/" + imageName, payload.bytesRepresentation());
+        if (!isNewImagesDir) {
+            deferredActionQueue.schedule("Remove stale user images from " + userImagesServerPath, deferredSession ->
+                removeStaleResources(deferredSession, userImagesServerPath, payload.uniqueImagePrefix(), imageName));
+        }
+        final CRC32 imageChecksum = new CRC32();
+        imageChecksum.update(payload.bytesRepresentation());
+        return getImagesPublicUrl() + userStaticImageDir + "/" + imageName + "?v="
+            + Long.toHexString(imageChecksum.getValue());
+    }
+
+    /**
+     * Inner method responsible for removing all resources with passed prefix from passed directory, except resource
+     * with kept name. If found pointer file of content-addressed image, release content-addressed image.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param path user images directory path
+     * @param prefix user image prefix (avatar, banner etc.)
+     * @param keptName name of current user image (not removed)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to remove files from storage
+     */
+    private void removeStaleResources(IFileStorageSession session, String path, String prefix, String keptName)
+            throws IOException {
+        for (final String name : session.listNames(path)) {
+            if (!name.startsWith(prefix) || name.equals(keptName)) continue;
+            if (name.equals(prefix + IMAGE_POINTER_SUFFIX)) {
+                final Optional<String> deduplicatedImage = readImagePointer(session, path, name);
+                if (deduplicatedImage.isPresent()) {
+                    contentStore.release(session, imagesServerPath + "/" + deduplicatedImagesDir,
+                        deduplicatedImage.get());
+                }
+            }
+            session.delete(path + "/" + name);
+        }
+    }
+
+    /**
+     * Inner method responsible for saving image in content-addressed store (deduplication mode) and save pointer file
+     * in user images directory. New image is stored before releasing previous image, so identical content is never
+     * removed and transferred again. After saving, release previous content-addressed image and remove legacy
+     * (non-deduplicated) image with the same prefix.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param userImagesServerPath user images directory path
+     * @param payload instance of {@link TempImageSavePayload} POJO class with temporary file details
+     * @return public location of content-addressed image
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to save image or pointer file
+     */
+    private String saveDeduplicatedImage(IFileStorageSession session, String userImagesServerPath,
+                                         TempImageSavePayload payload) throws IOException {
+        final String pointerName = payload.uniqueImagePrefix() + IMAGE_POINTER_SUFFIX;
+        final Optional<String> previousImage = readImagePointer(session, userImagesServerPath, pointerName);
+        final String contentStorePath = imagesServerPath + "/" + deduplicatedImagesDir;
+
+        final ContentAddress address = contentStore.store(session, contentStorePath, payload.bytesRepresentation(),
+            payload.extensionName());
+        session.put(userImagesServerPath + "/" + pointerName, address.relativePath().getBytes(StandardCharsets.UTF_8));
+
+        if (previousImage.isPresent()) {
+            contentStore.release(session, contentStorePath, previousImage.get());
+        }
+        removeFoundResource(session, userImagesServerPath, payload.uniqueImagePrefix());
+        log.info("Saved deduplicated user image. Hash: {}, transferred: {}", address.hash(), address.transferred());
+        return getImagesPublicUrl() + deduplicatedImagesDir + "/" + address.relativePath();
+    }
+
+    /**
+     * Inner method responsible for reading content-addressed image relative path from pointer file located in user
+     * images directory.
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param userImagesServerPath user images directory path
+     * @param pointerName pointer file name
+     * @return optional relative path of content-addressed image, empty if pointer file not exist
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read pointer file
+     */
+    private Optional<String> readImagePointer(IFileStorageSession session, String userImagesServerPath,
+                                              String pointerName) throws IOException {
+        if (!session.listNames(userImagesServerPath).contains(pointerName)) return Optional.empty();
+        final byte[] pointer = session.get(userImagesServerPath + "/" + pointerName);
+        return Optional.of(new String(pointer, StandardCharsets.UTF_8).trim());
+    }
+
     /**
      * Inner method responsible for removing image resource from external SSH/SFTP static resources server basic user
-     * hash code, user id and resource unique prefix.
-     * Otherwise removing resource image and return
+     * hash code, user id and resource unique prefix. Directory listing could be grabbed from storage cache. If removing
+     * fails, storage invalidate cached listing, so method try again with listing grabbed directly from server. If user
+     * images directory contains pointer file (deduplication mode), release content-addressed image and remove pointer.
      *
-     * @param sftpClient instance of {@link StatefulSFTPClient} socket for perform external SFTP server actions
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
      * @param id user id (from database)
      * @param userHashCode random characters identifier code (generated by {@link FileHashCodeGenerator}, from database)
-     * @param prefix user image prefix (avatar, banner etc.)<
+     * @param prefix user image prefix (avatar, banner etc.)
      * @author Miłosz Gilga
      * @since 1.0.2
      *
      * @throws IOException if unable to remove directory from SFTP external server
      * @throws HashCodeFormatException if passed user hash code is not valid with saved template
      */
-    private void ifResourceIsPresetRemove(StatefulSFTPClient sftpClient, Long id, String userHashCode, String prefix)
+    private void ifResourceIsPresetRemove(IFileStorageSession session, Long id, String userHashCode, String prefix)
             throws IOException {
         if (Objects.isNull(userHashCode)) return;
         if (!FileHashCodeGenerator.hashCodeIsValid(userHashCode)) throw new HashCodeFormatException();
-        final String baseDir = "user" + id + "_" + userHashCode;
-        final List<RemoteResourceInfo> rsImages = sftpClient.ls(imagesServerPath + "/" + baseDir);
-        final Optional<String> foundImage = rsImages.stream().map(RemoteResourceInfo::getName)
-                .filter(name -> name.startsWith(prefix)).findFirst();
+        final String userImagesServerPath = imagesServerPath + "/user" + id + "_" + userHashCode;
+        try {
+            removeFoundResource(session, userImagesServerPath, prefix);
+        } catch (IOException ex) {
+            log.warn("Unable to remove image based cached listing. Fall back to server. Path: {}",
+                userImagesServerPath);
+            removeFoundResource(session, userImagesServerPath, prefix);
+        }
+        final Optional<String> deduplicatedImage = readImagePointer(session, userImagesServerPath,
+            prefix + IMAGE_POINTER_SUFFIX);
+        if (deduplicatedImage.isPresent()) {
+            contentStore.release(session, imagesServerPath + "/" + deduplicatedImagesDir, deduplicatedImage.get());
+            session.delete(userImagesServerPath + "/" + prefix + IMAGE_POINTER_SUFFIX);
+        }
+    }
+
+    /**
+     * Inner method responsible for removing first resource with passed prefix from passed directory (skipping pointer
+     * files of content-addressed images).
+     *
+     * @param session instance of {@link IFileStorageSession} for perform file storage actions
+     * @param path user images directory path
+     * @param prefix user image prefix (avatar, banner etc.)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to remove file from SFTP external server
+     */
+    private void removeFoundResource(IFileStorageSession session, String path, String prefix) throws IOException {
+        final Set<String> names = session.listNames(path);
+        final Optional<String> foundImage = names.stream()
+            .filter(name -> name.startsWith(prefix) && !name.endsWith(IMAGE_POINTER_SUFFIX))
+            .findFirst();
         if (foundImage.isPresent()) {
-            sftpClient.cd(imagesServerPath + "/" + baseDir);
-            sftpClient.rm(foundImage.get());
+            session.delete(path + "/" + foundImage.get());
+        }
+    }
+
+    /**
+     * Inner method responsible for performing single image action (or action phase) and recording its duration and
+     * outcome in {@link IFileMetricsRecorder}.
+     *
+     * @param operation measured image operation
+     * @param action image action
+     * @return image action result
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws E if image action failed
+     */
+    private <T, E extends Exception> T measure(ImageMetricsOperation operation, IMeasuredAction<T, E> action) throws E {
+        final long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            final T result = action.perform();
+            success = true;
+            return result;
+        } finally {
+            metricsRecorder.recordSince(operation, startNanos, success);
         }
     }
 
+    /**
+     * @return public URL of static images content directory (with "/" character at the end)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private String getImagesPublicUrl() {
+        if (StringUtils.hasLength(imagesRelativePath)) {
+            return fileStorage.getPublicUrl() + "/" + imagesRelativePath + "/";
+        }
+        return fileStorage.getPublicUrl() + "/";
+    }
+
     /**
      * Inner method responsible for creating images server path (based default application server path). If property
      * <code>jmpsl.gfx.user-gfx.static-images-content-path</code> not present, image path is ROOT directory.
@@ -301,15 +914,52 @@ public class UserImageSftpService implements IUserImageService {
     private String createImagesServerPath(Environment env) {
         imagesRelativePath = GfxEnv.__GFX_SFTP_PATH.getProperty(env);
         if (!StringUtils.hasLength(imagesRelativePath)) {
-            return socketConnector.getServerPath();
+            return fileStorage.getRootPath();
         }
-        socketConnector.connectToSocketAndPerformAction(sftpClient -> {
-            try {
-                FileUtil.createDirIfNotExist(sftpClient, socketConnector.getServerPath(), imagesRelativePath);
-            } catch (IOException ex) {
-                log.error("Unable to create static images server path. Images path: {}", imagesRelativePath);
-            }
-        });
-        return socketConnector.getServerPath() + "/" + imagesRelativePath;
+        final String imagesPath = fileStorage.getRootPath() + "/" + imagesRelativePath;
+        try {
+            fileStorage.performIdempotentInSession(session -> session.mkdirs(imagesPath));
+        } catch (ExternalFileServerMalfunctionException ex) {
+            log.error("Unable to create static images server path. Images path: {}", imagesRelativePath);
+        }
+        return imagesPath;
+    }
+
+    /**
+     * @return full server path of user images directories
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    String getImagesServerPath() {
+        return imagesServerPath;
+    }
+
+    /**
+     * @return full server path of content-addressed images directory (used in deduplication mode)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    String getContentStorePath() {
+        return imagesServerPath + "/" + deduplicatedImagesDir;
+    }
+
+    /**
+     * Functional interface for single measured image action (or action phase).
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @FunctionalInterface
+    private interface IMeasuredAction<T, E extends Exception> {
+        T perform() throws E;
+    }
+
+    /**
+     * Simple POJO record storing range of batch operations prepared for single image in bulk jobs.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private record BatchImageEntry(int index, int firstOperation, int lastOperation, BufferedImageRes image) {
     }
 }
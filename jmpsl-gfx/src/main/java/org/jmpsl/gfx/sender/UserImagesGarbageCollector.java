@@ -0,0 +1,619 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: UserImagesGarbageCollector.java
+ * Last modified: 20/10/2026, 05:45
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.sender;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.util.Assert;
+import org.springframework.stereotype.Service;
+import org.springframework.core.env.Environment;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.Objects;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.regex.Matcher;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.io.IOException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
+
+import org.jmpsl.gfx.GfxEnv;
+import org.jmpsl.file.storage.IFileStorage;
+import org.jmpsl.file.storage.FileStorageInfo;
+import org.jmpsl.file.storage.FileBatchResult;
+import org.jmpsl.file.storage.FileBatchOperation;
+import org.jmpsl.file.storage.IFileStorageSession;
+import org.jmpsl.file.storage.ContentAddressedFileStore;
+import org.jmpsl.file.scheduler.TransferPriority;
+import org.jmpsl.file.scheduler.TransferScheduler;
+import org.jmpsl.file.exception.ExternalFileServerMalfunctionException;
+
+/**
+ * Spring Bean service responsible for removing orphaned user images from storage. Orphaned resources are:
+ *
+ * <ul>
+ *     <li>user images directories, which keys are not present in passed set of live users keys,</li>
+ *     <li>temporary files left after failed uploads (older than grace period),</li>
+ *     <li>older versions of images with the same prefix left after failed replacing (older than grace period).</li>
+ * </ul>
+ *
+ * At the beginning of GC cycle, images directory is scanned incrementally (without directory listings cache) and names
+ * of user images directories are saved in local spool file (next to checkpoint file). Directories are processed in
+ * spool order and in pages. Every page is processed in parallel via multiple storage channels (as background transfer
+ * of {@link TransferScheduler}), orphans of single directory are removed in single pipelined storage batch. After
+ * every page, checkpoint (last processed directory) is saved in local file, so interrupted or limited run is continued
+ * from checkpoint in next run (from spool file, without listing images directory again). Orphaned directories with
+ * any resource modified in grace period are deferred to next GC cycle. Before run application, optionally declare
+ * following properties in <code>application.properties</code> file:
+ *
+ * <ul>
+ *     <li><code>jmpsl.gfx.image-gc.parallelism</code> - count of parallel storage channels, by default 4</li>
+ *     <li><code>jmpsl.gfx.image-gc.page-size</code> - count of directories in single page, by default 500</li>
+ *     <li><code>jmpsl.gfx.image-gc.max-directories-per-run</code> - directories limit of single run, by default 0</li>
+ *     <li><code>jmpsl.gfx.image-gc.grace-period-minutes</code> - min age of removed files, by default 60</li>
+ *     <li><code>jmpsl.gfx.image-gc.checkpoint-path</code> - checkpoint file, by default in system temp directory</li>
+ * </ul>
+ *
+ * Content-addressed images (deduplication mode) referenced by pointers from orphaned directories are released after
+ * successful removal of pointers (pointers, which could not be removed, are retried in next cycle without release).
+ * Dry-run mode only reports orphans and does not save checkpoint.
+ *
+ * @author Miłosz Gilga
+ * @since 1.0.2
+ */
+@Slf4j
+@Service
+public class UserImagesGarbageCollector implements DisposableBean {
+
+    private static final Pattern USER_DIRECTORY_PATTERN = Pattern.compile("^user(\\d+)_(.+)$");
+    private static final Pattern VERSIONED_IMAGE_PATTERN = Pattern.compile("^(.+)_(\\d{15,20})$");
+    private static final String IMAGE_POINTER_SUFFIX = ".ref";
+    private static final String DIRECTORIES_SPOOL_SUFFIX = ".directories";
+    private static final String DRY_RUN_DIRECTORIES_SPOOL_SUFFIX = ".dry-run.directories";
+
+    private final int parallelism;
+    private final int pageSize;
+    private final int maxDirectoriesPerRun;
+    private final long gracePeriodMillis;
+    private final Path checkpointFile;
+    private final IFileStorage backgroundStorage;
+    private final UserImageSftpService userImageService;
+    private final ContentAddressedFileStore contentStore;
+    private final ExecutorService gcWorkers;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    UserImagesGarbageCollector(
+        Environment env, TransferScheduler transferScheduler, UserImageSftpService userImageService,
+        ContentAddressedFileStore contentStore
+    ) {
+        this.userImageService = userImageService;
+        this.contentStore = contentStore;
+        backgroundStorage = transferScheduler.getStorage(TransferPriority.BACKGROUND);
+        parallelism = GfxEnv.__GFX_IMAGE_GC_PARALLELISM.getProperty(env, Integer.class);
+        pageSize = GfxEnv.__GFX_IMAGE_GC_PAGE_SIZE.getProperty(env, Integer.class);
+        maxDirectoriesPerRun = GfxEnv.__GFX_IMAGE_GC_MAX_DIRECTORIES_PER_RUN.getProperty(env, Integer.class);
+        gracePeriodMillis = TimeUnit.MINUTES
+            .toMillis(GfxEnv.__GFX_IMAGE_GC_GRACE_PERIOD_MINUTES.getProperty(env, Long.class));
+        if (parallelism < 1 || pageSize < 1 || maxDirectoriesPerRun < 0) {
+            throw new IllegalArgumentException("Image GC parallelism and page size cannot be less than 1");
+        }
+        final String checkpointPath = GfxEnv.__GFX_IMAGE_GC_CHECKPOINT_PATH.getProperty(env);
+        checkpointFile = Objects.isNull(checkpointPath)
+            ? Path.of(System.getProperty("java.io.tmpdir"), "jmpsl-image-gc.checkpoint")
+            : Path.of(checkpointPath);
+        gcWorkers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "jmpsl-image-gc");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Method responsible for finding and removing orphaned user images. Run starts from saved checkpoint (directory
+     * processed as last in previous run) and processes max declared count of directories. If there is no checkpoint,
+     * run starts new GC cycle (images directory is scanned into spool file). After processing all directories,
+     * checkpoint and spool file are removed, so next run starts new GC cycle.
+     *
+     * @param liveKeys set of keys of all existing users (id and hash code from database)
+     * @param dryRun if true, orphans are only reported (not removed)
+     * @param progressListener listener receiving progress report after every processed page (could be null)
+     * @return final progress report of run
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IllegalArgumentException if passed live keys set is null
+     * @throws IllegalStateException if other garbage collector run is in progress
+     * @throws ExternalFileServerMalfunctionException if unable to list images directory or process page
+     * @throws UncheckedIOException if unable to read or save directories spool file
+     */
+    public ImageGcReport collect(Set<UserImageKey> liveKeys, boolean dryRun, Consumer<ImageGcReport> progressListener) {
+        Assert.notNull(liveKeys, "Live user keys set cannot be null.");
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Orphaned images garbage collector is already running.");
+        }
+        final Path spoolFile = checkpointFile.resolveSibling(checkpointFile.getFileName()
+            + (dryRun ? DRY_RUN_DIRECTORIES_SPOOL_SUFFIX : DIRECTORIES_SPOOL_SUFFIX));
+        try {
+            final GcCounters counters = new GcCounters(dryRun);
+            String checkpoint = dryRun ? null : readCheckpoint();
+            if (Objects.isNull(checkpoint) || !Files.exists(spoolFile)) {
+                checkpoint = null;
+                spoolUserDirectories(spoolFile);
+            }
+            log.info("Started orphaned images GC. Checkpoint: {}, dry-run: {}", checkpoint, dryRun);
+
+            boolean completed;
+            try (final BufferedReader spoolReader = Files.newBufferedReader(spoolFile, StandardCharsets.UTF_8)) {
+                skipProcessedDirectories(spoolReader, checkpoint);
+                int processedDirectories = 0;
+                while (true) {
+                    final int pageLimit = maxDirectoriesPerRun == 0 ? pageSize
+                        : Math.min(pageSize, maxDirectoriesPerRun - processedDirectories);
+                    if (pageLimit == 0) {
+                        completed = Objects.isNull(spoolReader.readLine());
+                        break;
+                    }
+                    final List<String> page = readPage(spoolReader, pageLimit);
+                    if (!page.isEmpty()) {
+                        processPage(page, liveKeys, counters);
+                        processedDirectories += page.size();
+                        counters.lastProcessedDirectory = page.get(page.size() - 1);
+                        if (!dryRun) writeCheckpoint(counters.lastProcessedDirectory);
+                        if (Objects.nonNull(progressListener)) progressListener.accept(counters.toReport(false));
+                    }
+                    if (page.size() < pageLimit) {
+                        completed = true;
+                        break;
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to read image GC directories spool file.", ex);
+            }
+            if (completed && !dryRun) {
+                deleteFile(checkpointFile);
+                deleteFile(spoolFile);
+            }
+            final ImageGcReport report = counters.toReport(completed);
+            log.info("Finished orphaned images GC. Report: {}", report);
+            return report;
+        } finally {
+            if (dryRun) deleteFile(spoolFile);
+            running.set(false);
+        }
+    }
+
+    /**
+     * Inner method responsible for scanning names of all user images directories (in storage order) and saving them in
+     * passed spool file (one name per line). Images directory is scanned incrementally, so names are not kept in
+     * memory and directory listings cache is not filled.
+     *
+     * @param spoolFile directories spool file
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to scan images directory
+     * @throws UncheckedIOException if unable to save spool file
+     */
+    private void spoolUserDirectories(Path spoolFile) {
+        final Path tempFile = spoolFile.resolveSibling(spoolFile.getFileName() + ".tmp");
+        final AtomicLong spooledDirectories = new AtomicLong();
+        backgroundStorage.performIdempotentInSession(session -> {
+            spooledDirectories.set(0);
+            try (final BufferedWriter spoolWriter = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                session.scan(userImageService.getImagesServerPath(), info -> {
+                    if (!info.directory() || !USER_DIRECTORY_PATTERN.matcher(info.name()).matches()) return;
+                    spoolWriter.write(info.name());
+                    spoolWriter.newLine();
+                    spooledDirectories.incrementAndGet();
+                });
+            }
+        });
+        try {
+            Files.move(tempFile, spoolFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to save image GC directories spool file.", ex);
+        }
+        log.info("Started new orphaned images GC cycle. Directories to process: {}", spooledDirectories.get());
+    }
+
+    /**
+     * Inner method responsible for processing single page of directories via parallel storage sessions. Every session
+     * is used by separate worker thread, which takes next directory from shared counter. If any worker fails (or
+     * waiting thread is interrupted), other workers stop after current directory. Method always waits for all workers
+     * before sessions are closed.
+     *
+     * @param page list of directories names
+     * @param liveKeys set of keys of all existing users
+     * @param counters run counters
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws ExternalFileServerMalfunctionException if unable to process page
+     */
+    private void processPage(List<String> page, Set<UserImageKey> liveKeys, GcCounters counters) {
+        backgroundStorage.performInParallelSessions(Math.min(parallelism, page.size()), sessions -> {
+            final AtomicInteger nextDirectory = new AtomicInteger();
+            final List<Future<Void>> workers = new ArrayList<>(sessions.size());
+            for (final IFileStorageSession session : sessions) {
+                workers.add(gcWorkers.submit(() -> {
+                    int index;
+                    try {
+                        while ((index = nextDirectory.getAndIncrement()) < page.size()) {
+                            processDirectory(session, page.get(index), liveKeys, counters);
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        nextDirectory.set(page.size());
+                        throw ex;
+                    }
+                    return null;
+                }));
+            }
+            Throwable failure = null;
+            boolean interrupted = false;
+            for (final Future<Void> worker : workers) {
+                while (true) {
+                    try {
+                        worker.get();
+                        break;
+                    } catch (ExecutionException ex) {
+                        if (Objects.isNull(failure)) failure = ex.getCause();
+                        break;
+                    } catch (InterruptedException ex) {
+                        nextDirectory.set(page.size());
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Orphaned images GC was interrupted.");
+            }
+            if (Objects.nonNull(failure)) {
+                throw failure instanceof IOException ioEx ? ioEx : new IOException(failure);
+            }
+        });
+    }
+
+    /**
+     * Inner method responsible for finding and removing orphans in single user images directory. Directories of not
+     * existing users are removed with all files (content-addressed images referenced by pointers are released), if
+     * directory and all its resources are older than grace period (otherwise directory is deferred to next GC cycle).
+     *
+     * @param session storage session
+     * @param directoryName user images directory name
+     * @param liveKeys set of keys of all existing users
+     * @param counters run counters
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to list directory
+     */
+    private void processDirectory(
+        IFileStorageSession session, String directoryName, Set<UserImageKey> liveKeys, GcCounters counters
+    ) throws IOException {
+        final Matcher matcher = USER_DIRECTORY_PATTERN.matcher(directoryName);
+        if (!matcher.matches()) return;
+        final UserImageKey key = new UserImageKey(Long.parseLong(matcher.group(1)), matcher.group(2));
+        final String directoryPath = userImageService.getImagesServerPath() + "/" + directoryName;
+        final List<FileStorageInfo> files = session.list(directoryPath);
+        final boolean isOrphanedDirectory = !liveKeys.contains(key);
+        final long graceThreshold = System.currentTimeMillis() - gracePeriodMillis;
+
+        counters.scannedDirectories.incrementAndGet();
+        if (isOrphanedDirectory && isModifiedInGracePeriod(files, session.stat(directoryPath)
+            .map(FileStorageInfo::lastModified).orElse(0L), graceThreshold)) {
+            log.debug("Deferred orphaned directory {} modified in grace period.", directoryName);
+            return;
+        }
+        final List<FileStorageInfo> orphans = isOrphanedDirectory ? files : findOrphanedFiles(files, graceThreshold);
+        if (isOrphanedDirectory) counters.orphanedDirectories.incrementAndGet();
+        counters.orphanedFiles.addAndGet(orphans.size());
+        counters.reclaimedBytes.addAndGet(orphans.stream().mapToLong(FileStorageInfo::size).sum());
+        if (orphans.isEmpty() && !isOrphanedDirectory) return;
+        if (counters.dryRun) {
+            log.info("Found orphans in directory {} (dry-run): {}", directoryName, orphans.stream()
+                .map(FileStorageInfo::name).toList());
+            return;
+        }
+        final Map<String, String> pointedImages = new HashMap<>();
+        final List<FileStorageInfo> removedFiles = new ArrayList<>();
+        long unreadablePointers = 0;
+        for (final FileStorageInfo orphan : orphans) {
+            if (orphan.directory()) continue;
+            if (isOrphanedDirectory && orphan.name().endsWith(IMAGE_POINTER_SUFFIX)) {
+                final String relativePath = readPointer(session, orphan);
+                if (Objects.isNull(relativePath)) {
+                    unreadablePointers++;
+                    continue;
+                }
+                pointedImages.put(orphan.path(), relativePath);
+            }
+            removedFiles.add(orphan);
+        }
+        final List<FileBatchResult> results = session.executeBatch(removedFiles.stream()
+            .map(orphan -> FileBatchOperation.delete(orphan.path()))
+            .toList());
+        // content-addressed image is released only after its pointer is removed, so failed (and retried in next GC
+        // cycle) pointer removal never decrements references count twice
+        for (final FileBatchResult result : results) {
+            final String relativePath = pointedImages.get(result.operation().path());
+            if (result.successful() && Objects.nonNull(relativePath)) {
+                releasePointedImage(session, result.operation().path(), relativePath);
+            }
+        }
+        final long failed = results.stream().filter(result -> !result.successful()).count() + unreadablePointers;
+        counters.deletedFiles.addAndGet(results.size() + unreadablePointers - failed);
+        counters.failedDeletions.addAndGet(failed);
+        if (!isOrphanedDirectory || failed > 0) return;
+        try {
+            session.delete(directoryPath);
+            counters.deletedFiles.incrementAndGet();
+        } catch (IOException ex) {
+            counters.failedDeletions.incrementAndGet();
+            log.warn("Unable to remove orphaned directory {}. Cause: {}", directoryName, ex.getMessage());
+        }
+    }
+
+    /**
+     * Inner method responsible for finding orphaned files in live user images directory (older than grace period):
+     * temporary files and older versions of images with the same prefix. If pointer file of content-addressed image
+     * exist, all other images with the same prefix are orphans.
+     *
+     * @param files list of files located in user images directory
+     * @param graceThreshold min modification time of not removed files (in milliseconds from epoch)
+     * @return list of orphaned files
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    static List<FileStorageInfo> findOrphanedFiles(List<FileStorageInfo> files, long graceThreshold) {
+        final List<FileStorageInfo> orphans = new ArrayList<>();
+        final Map<String, FileStorageInfo> newestImages = new HashMap<>();
+        final Set<String> pointerPrefixes = new HashSet<>();
+        for (final FileStorageInfo file : files) {
+            if (file.directory()) continue;
+            if (file.name().endsWith(IMAGE_POINTER_SUFFIX)) {
+                pointerPrefixes.add(file.name().substring(0, file.name().length() - IMAGE_POINTER_SUFFIX.length()));
+            } else if (file.name().startsWith(".") || file.name().endsWith(".part")) {
+                if (file.lastModified() < graceThreshold) orphans.add(file);
+            } else {
+                newestImages.merge(extractImagePrefix(file.name()), file,
+                    (first, second) -> first.lastModified() >= second.lastModified() ? first : second);
+            }
+        }
+        for (final FileStorageInfo file : files) {
+            if (file.directory() || file.name().endsWith(IMAGE_POINTER_SUFFIX) || file.name().startsWith(".")
+                || file.name().endsWith(".part") || file.lastModified() >= graceThreshold) {
+                continue;
+            }
+            final String prefix = extractImagePrefix(file.name());
+            if (pointerPrefixes.contains(prefix) || newestImages.get(prefix) != file) orphans.add(file);
+        }
+        return orphans;
+    }
+
+    /**
+     * Static method responsible for checking, if orphaned user images directory or any resource located in it was
+     * modified in grace period (ex. directory of user registered after loading live keys).
+     *
+     * @param files list of resources located in user images directory
+     * @param directoryLastModified directory modification time (in milliseconds from epoch)
+     * @param graceThreshold min modification time of removed resources (in milliseconds from epoch)
+     * @return true, if directory should be deferred to next GC cycle
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    static boolean isModifiedInGracePeriod(List<FileStorageInfo> files, long directoryLastModified,
+                                           long graceThreshold) {
+        return directoryLastModified >= graceThreshold
+            || files.stream().anyMatch(file -> file.lastModified() >= graceThreshold);
+    }
+
+    /**
+     * Inner method responsible for reading path of content-addressed image (relative to content store) from pointer
+     * file located in orphaned user images directory.
+     *
+     * @param session storage session
+     * @param pointer pointer file
+     * @return relative path of content-addressed image or null, if unable to read pointer file
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private String readPointer(IFileStorageSession session, FileStorageInfo pointer) {
+        try {
+            return new String(session.get(pointer.path()), StandardCharsets.UTF_8).trim();
+        } catch (IOException ex) {
+            log.warn("Unable to read content-addressed image pointer {}. Cause: {}", pointer.path(), ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Inner method responsible for releasing content-addressed image referenced by already removed pointer file from
+     * orphaned user images directory.
+     *
+     * @param session storage session
+     * @param pointerPath removed pointer file path
+     * @param relativePath path of content-addressed image relative to content store
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private void releasePointedImage(IFileStorageSession session, String pointerPath, String relativePath) {
+        try {
+            contentStore.release(session, userImageService.getContentStorePath(), relativePath);
+        } catch (IOException ex) {
+            log.warn("Unable to release content-addressed image from pointer {}. Cause: {}", pointerPath,
+                ex.getMessage());
+        }
+    }
+
+    /**
+     * Static method responsible for extracting image prefix (avatar, banner etc.) from image file name. Supports names
+     * with random version suffix generated by {@link UserImageSftpService} (prefix, underscore and unsigned long value,
+     * ex. prefix_12891057146871359472.png) and stable names (prefix.png, banner_2.png).
+     *
+     * @param fileName image file name
+     * @return image prefix
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    static String extractImagePrefix(String fileName) {
+        final int extensionIndex = fileName.lastIndexOf('.');
+        final String baseName = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+        final Matcher matcher = VERSIONED_IMAGE_PATTERN.matcher(baseName);
+        if (!matcher.matches()) return baseName;
+        try {
+            Long.parseUnsignedLong(matcher.group(2));
+            return matcher.group(1);
+        } catch (NumberFormatException ex) {
+            return baseName;
+        }
+    }
+
+    /**
+     * Static method responsible for skipping directories names saved in spool file before passed checkpoint
+     * (including checkpoint). If checkpoint is not present in spool file, all names are skipped.
+     *
+     * @param spoolReader reader of directories spool file
+     * @param checkpoint last processed directory name (or null, if run starts from the beginning)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read spool file
+     */
+    static void skipProcessedDirectories(BufferedReader spoolReader, String checkpoint) throws IOException {
+        if (Objects.isNull(checkpoint)) return;
+        String directoryName;
+        while (Objects.nonNull(directoryName = spoolReader.readLine())) {
+            if (directoryName.equals(checkpoint)) return;
+        }
+        log.warn("Image GC checkpoint {} not found in directories spool file. Starting new GC cycle.", checkpoint);
+    }
+
+    /**
+     * Static method responsible for reading next page of directories names from spool file.
+     *
+     * @param spoolReader reader of directories spool file
+     * @param pageLimit max count of read names
+     * @return list of directories names (shorter than limit, if end of spool file was reached)
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     *
+     * @throws IOException if unable to read spool file
+     */
+    static List<String> readPage(BufferedReader spoolReader, int pageLimit) throws IOException {
+        final List<String> page = new ArrayList<>(pageLimit);
+        String directoryName;
+        while (page.size() < pageLimit && Objects.nonNull(directoryName = spoolReader.readLine())) {
+            if (!directoryName.isEmpty()) page.add(directoryName);
+        }
+        return page;
+    }
+
+    private String readCheckpoint() {
+        try {
+            if (!Files.exists(checkpointFile)) return null;
+            final String checkpoint = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim();
+            return checkpoint.isEmpty() ? null : checkpoint;
+        } catch (IOException ex) {
+            log.warn("Unable to read image GC checkpoint. GC starts from the beginning. Cause: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCheckpoint(String lastProcessedDirectory) {
+        try {
+            final Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.writeString(tempFile, lastProcessedDirectory, StandardCharsets.UTF_8);
+            Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Unable to save image GC checkpoint. Cause: {}", ex.getMessage());
+        }
+    }
+
+    private void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Unable to remove image GC file {}. Cause: {}", file, ex.getMessage());
+        }
+    }
+
+    /**
+     * Method invoked on Spring context shutdown. Stop all garbage collector worker threads.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    @Override
+    public void destroy() {
+        gcWorkers.shutdownNow();
+    }
+
+    /**
+     * Inner class storing thread-safe counters of single garbage collector run.
+     *
+     * @author Miłosz Gilga
+     * @since 1.0.2
+     */
+    private static class GcCounters {
+        private final boolean dryRun;
+        private final AtomicLong scannedDirectories = new AtomicLong();
+        private final AtomicLong orphanedDirectories = new AtomicLong();
+        private final AtomicLong orphanedFiles = new AtomicLong();
+        private final AtomicLong deletedFiles = new AtomicLong();
+        private final AtomicLong failedDeletions = new AtomicLong();
+        private final AtomicLong reclaimedBytes = new AtomicLong();
+        private volatile String lastProcessedDirectory;
+
+        private GcCounters(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        private ImageGcReport toReport(boolean completed) {
+            return new ImageGcReport(scannedDirectories.get(), orphanedDirectories.get(), orphanedFiles.get(),
+                deletedFiles.get(), failedDeletions.get(), reclaimedBytes.get(), lastProcessedDirectory, completed,
+                dryRun);
+        }
+    }
+}
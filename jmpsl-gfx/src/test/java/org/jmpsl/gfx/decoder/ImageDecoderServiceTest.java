@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageDecoderServiceTest.java
+ * Last modified: 20/10/2026, 05:20
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+
+package org.jmpsl.gfx.decoder;
+
+import java.util.Arrays;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.jmpsl.gfx.decoder.ImageDecoderException.ImageTooLargeException;
+import static org.jmpsl.gfx.decoder.ImageDecoderException.ImageDecodingException;
+
+public class ImageDecoderServiceTest {
+
+    private final ImageDecoderService decoderService = createDecoderService();
+
+    @Test
+    void decode_exceedsMaxDimension_test() throws IOException {
+        final byte[] imageBytes = encodePng(new BufferedImage(600, 10, BufferedImage.TYPE_INT_RGB));
+        assertThrows(ImageTooLargeException.class, () -> decoderService.decode(imageBytes));
+        assertThrows(ImageTooLargeException.class, () -> decoderService.estimateDecodedBytes(imageBytes,
+            ImageDecodeParams.builder().build()));
+    }
+
+    @Test
+    void decode_exceedsMaxPixels_test() throws IOException {
+        final byte[] imageBytes = encodePng(new BufferedImage(500, 500, BufferedImage.TYPE_INT_RGB));
+        assertThrows(ImageTooLargeException.class, () -> decoderService.decode(imageBytes));
+    }
+
+    @Test
+    void decode_damagedImage_test() throws IOException {
+        final byte[] imageBytes = encodePng(new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB));
+        final byte[] truncatedBytes = Arrays.copyOf(imageBytes, imageBytes.length / 2);
+        assertThrows(ImageDecodingException.class, () -> decoderService.decode(truncatedBytes));
+        assertThrows(ImageDecodingException.class, () -> decoderService.decode(new byte[] { 1, 2, 3, 4 }));
+    }
+
+    @Test
+    void decode_sourceRegionOutsideImage_test() throws IOException {
+        final byte[] imageBytes = encodePng(new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB));
+        final ImageDecodeParams params = ImageDecodeParams.builder()
+            .sourceRegion(new Rectangle(200, 200, 10, 10))
+            .build();
+        assertThrows(ImageDecodingException.class, () -> decoderService.decode(imageBytes, params));
+    }
+
+    @Test
+    void decode_subsampledToTargetSize_test() throws IOException {
+        final byte[] imageBytes = encodePng(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB));
+        final ImageDecodeParams params = ImageDecodeParams.builder().targetWidth(50).targetHeight(25).build();
+
+        final BufferedImage image = decoderService.decode(imageBytes, params);
+        assertEquals(100, image.getWidth());
+        assertEquals(50, image.getHeight());
+        assertEquals(400, decoderService.decode(imageBytes).getWidth());
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static ImageDecoderService createDecoderService() {
+        return new ImageDecoderService(new MockEnvironment()
+            .withProperty("jmpsl.gfx.decoder.max-pixels", "100000")
+            .withProperty("jmpsl.gfx.decoder.max-dimension", "512")
+            .withProperty("jmpsl.gfx.decoder.oversampling", "2"));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: IndexedPngEncoderTest.java
+ * Last modified: 20/10/2026, 05:05
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+
+package org.jmpsl.gfx.encoder;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class IndexedPngEncoderTest {
+
+    private static final Color BACKGROUND = new Color(0x3a7bd5);
+    private static final Color FOREGROUND = Color.WHITE;
+
+    @Test
+    void encode_exactPalette_roundTripThroughImageIO_test() throws IOException {
+        final BufferedImage image = new BufferedImage(37, 23, BufferedImage.TYPE_INT_RGB);
+        final Color[] colors = { BACKGROUND, FOREGROUND, Color.RED, Color.BLACK, new Color(0x10a020) };
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, colors[(x * 3 + y) % colors.length].getRGB());
+            }
+        }
+        for (final PngFilterStrategy filterStrategy : PngFilterStrategy.values()) {
+            final IndexedPngEncoder encoder = new IndexedPngEncoder(16, 9, filterStrategy);
+            final BufferedImage decodedImage = decode(encoder.encode(image, BACKGROUND, FOREGROUND));
+            assertPixelsEqual(image, decodedImage, 0);
+        }
+    }
+
+    @Test
+    void encode_antialiasedText_quantizedIntoRamp_test() throws IOException {
+        final BufferedImage image = new BufferedImage(120, 120, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setColor(BACKGROUND);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setColor(FOREGROUND);
+        graphics.setFont(graphics.getFont().deriveFont(60f));
+        graphics.drawString("JK", 15, 85);
+        graphics.dispose();
+
+        final IndexedPngEncoder encoder = new IndexedPngEncoder(16, 9, PngFilterStrategy.ADAPTIVE);
+        final BufferedImage decodedImage = decode(encoder.encode(image, BACKGROUND, FOREGROUND));
+        assertPixelsEqual(image, decodedImage, 16);
+        assertEquals(BACKGROUND.getRGB(), decodedImage.getRGB(0, 0));
+    }
+
+    private static BufferedImage decode(byte[] imageBytes) throws IOException {
+        final BufferedImage decodedImage = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        assertNotNull(decodedImage);
+        return decodedImage;
+    }
+
+    private static void assertPixelsEqual(BufferedImage expected, BufferedImage actual, int tolerance) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                final int expectedRgb = expected.getRGB(x, y);
+                final int actualRgb = actual.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    final int difference = Math.abs(((expectedRgb >> shift) & 0xff) - ((actualRgb >> shift) & 0xff));
+                    assertTrue(difference <= tolerance, "Pixel " + x + "x" + y + " differs.");
+                }
+            }
+        }
+    }
+}
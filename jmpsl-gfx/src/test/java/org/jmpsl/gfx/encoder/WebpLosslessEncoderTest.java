@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: WebpLosslessEncoderTest.java
+ * Last modified: 20/10/2026, 05:10
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+
+package org.jmpsl.gfx.encoder;
+
+import java.util.Random;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class WebpLosslessEncoderTest {
+
+    private final WebpLosslessEncoder encoder = new WebpLosslessEncoder();
+
+    @Test
+    void encode_paletteImage_roundTripThroughImageIO_test() throws IOException {
+        final BufferedImage image = new BufferedImage(121, 67, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(0x3a7bd5));
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setColor(Color.WHITE);
+        graphics.setFont(graphics.getFont().deriveFont(40f));
+        graphics.drawString("JK", 20, 50);
+        graphics.dispose();
+
+        assertLosslessRoundTrip(image);
+    }
+
+    @Test
+    void encode_trueColorImage_roundTripThroughImageIO_test() throws IOException {
+        final BufferedImage image = new BufferedImage(600, 37, BufferedImage.TYPE_INT_RGB);
+        final Random random = new Random(42);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                final int rgb = x % 50 < 25 ? random.nextInt(0x1000000) : (x * 7) << 16 | (y * 5) << 8 | (x + y);
+                image.setRGB(x, y, rgb);
+            }
+        }
+        assertLosslessRoundTrip(image);
+    }
+
+    @Test
+    void encode_translucentImage_roundTripThroughImageIO_test() throws IOException {
+        final BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (x * 4) << 24 | (y * 5) << 16 | (x * 3) << 8 | 0x80);
+            }
+        }
+        assertLosslessRoundTrip(image);
+    }
+
+    private void assertLosslessRoundTrip(BufferedImage image) throws IOException {
+        final byte[] imageBytes = encoder.encode(image);
+        assertArrayEquals(imageBytes, encoder.encode(image));
+
+        final BufferedImage decodedImage = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        assertNotNull(decodedImage);
+        assertEquals(image.getWidth(), decodedImage.getWidth());
+        assertEquals(image.getHeight(), decodedImage.getHeight());
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        assertArrayEquals(image.getRGB(0, 0, width, height, null, 0, width),
+            decodedImage.getRGB(0, 0, width, height, null, 0, width));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: DefaultImageCacheTest.java
+ * Last modified: 20/10/2026, 05:00
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+
+package org.jmpsl.gfx.generator;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import org.jmpsl.gfx.ImageExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class DefaultImageCacheTest {
+
+    private static final DefaultImageCacheKey KEY = new DefaultImageCacheKey("JK", 200, 80, 0xFF0000,
+        ImageExtension.PNG, "Arial");
+
+    @Test
+    void getOrGenerate_concurrentMisses_generatedOnce_test() throws Exception {
+        final DefaultImageCache cache = new DefaultImageCache(1024, false);
+        final AtomicInteger generationsCount = new AtomicInteger();
+        final CountDownLatch generationStarted = new CountDownLatch(1);
+        final CountDownLatch generationReleased = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<byte[]>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.getOrGenerate(KEY, () -> {
+                generationsCount.incrementAndGet();
+                generationStarted.countDown();
+                awaitLatch(generationReleased);
+                return new byte[] { 1, 2, 3 };
+            })));
+            generationStarted.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.getOrGenerate(KEY, () -> {
+                    generationsCount.incrementAndGet();
+                    return new byte[] { 1, 2, 3 };
+                })));
+            }
+            generationReleased.countDown();
+            for (final Future<byte[]> result : results) {
+                assertArrayEquals(new byte[] { 1, 2, 3 }, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, generationsCount.get());
+            assertEquals(1, cache.getStats().entries());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getOrGenerate_failedGeneration_notCached_test() {
+        final DefaultImageCache cache = new DefaultImageCache(1024, false);
+        assertThrows(IllegalStateException.class, () -> cache.getOrGenerate(KEY, () -> {
+            throw new IllegalStateException("Unable to render image.");
+        }));
+        assertEquals(0, cache.getStats().entries());
+
+        final byte[] imageBytes = cache.getOrGenerate(KEY, () -> new byte[] { 4 });
+        imageBytes[0] = 5;
+        assertArrayEquals(new byte[] { 4 }, cache.getOrGenerate(KEY, () -> new byte[] { 6 }));
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
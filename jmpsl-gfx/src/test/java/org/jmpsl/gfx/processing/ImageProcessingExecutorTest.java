@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: ImageProcessingExecutorTest.java
+ * Last modified: 20/10/2026, 05:20
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+
+package org.jmpsl.gfx.processing;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import org.jmpsl.file.metrics.NoOpFileMetricsRecorder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.jmpsl.gfx.processing.ImageProcessingException.ImageProcessingRejectedException;
+
+public class ImageProcessingExecutorTest {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    @Test
+    void execute_releasesBudgetAfterFailure_test() {
+        final ImageProcessingExecutor executor = createExecutor(64, 100);
+        assertThrows(IllegalStateException.class, () -> executor.execute(MEGABYTE / 2, () -> {
+            throw new IllegalStateException("Unable to process image.");
+        }));
+        final ImageProcessingStats stats = executor.getStats();
+        assertEquals(0, stats.bytesInFlight());
+        assertEquals(0, stats.activeTasks());
+        assertEquals(1, stats.admittedTasksCount());
+    }
+
+    @Test
+    void execute_taskLargerThanBudget_admittedWhenIdle_test() {
+        final ImageProcessingExecutor executor = createExecutor(64, 100);
+        assertEquals(MEGABYTE, executor.execute(10 * MEGABYTE, () -> executor.getStats().bytesInFlight()));
+    }
+
+    @Test
+    void execute_budgetExceeded_rejectedAfterTimeout_test() throws Exception {
+        final ImageProcessingExecutor executor = createExecutor(64, 100);
+        final BlockingTask blockingTask = new BlockingTask(executor, MEGABYTE);
+        try {
+            assertThrows(ImageProcessingRejectedException.class, () -> executor.execute(1, () -> null));
+            assertEquals(1, executor.getStats().rejectedTasksCount());
+            assertEquals(0, executor.getStats().queuedTasks());
+        } finally {
+            blockingTask.finish();
+        }
+        assertEquals(0, executor.getStats().bytesInFlight());
+    }
+
+    @Test
+    void execute_queueFull_rejectedImmediately_test() throws Exception {
+        final ImageProcessingExecutor executor = createExecutor(0, 60_000);
+        final BlockingTask blockingTask = new BlockingTask(executor, MEGABYTE);
+        try {
+            final long startNanos = System.nanoTime();
+            assertThrows(ImageProcessingRejectedException.class, () -> executor.execute(1, () -> null));
+            assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(10));
+        } finally {
+            blockingTask.finish();
+        }
+    }
+
+    @Test
+    void execute_smallTaskDoesNotOvertakeQueuedTask_test() throws Exception {
+        final ImageProcessingExecutor executor = createExecutor(64, 10_000);
+        final List<String> admissionOrder = new CopyOnWriteArrayList<>();
+        final ExecutorService callers = Executors.newFixedThreadPool(2);
+        final BlockingTask blockingTask = new BlockingTask(executor, MEGABYTE * 3 / 5);
+        try {
+            final Future<?> largeTask = callers.submit(() -> executor.execute(MEGABYTE * 3 / 5,
+                () -> admissionOrder.add("large")));
+            awaitStats(executor, stats -> stats.queuedTasks() == 1);
+            final Future<?> smallTask = callers.submit(() -> executor.execute(MEGABYTE / 10,
+                () -> admissionOrder.add("small")));
+            awaitStats(executor, stats -> stats.queuedTasks() == 2);
+            Thread.sleep(50);
+            assertTrue(admissionOrder.isEmpty());
+            assertEquals(1, executor.getStats().activeTasks());
+
+            blockingTask.finish();
+            largeTask.get(5, TimeUnit.SECONDS);
+            smallTask.get(5, TimeUnit.SECONDS);
+            assertEquals(2, admissionOrder.size());
+        } finally {
+            blockingTask.finish();
+            callers.shutdownNow();
+        }
+    }
+
+    private static void awaitStats(ImageProcessingExecutor executor, Predicate<ImageProcessingStats> condition)
+        throws InterruptedException {
+        final long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.test(executor.getStats())) {
+            assertTrue(System.nanoTime() < deadlineNanos, "Executor did not reach expected state.");
+            Thread.sleep(5);
+        }
+    }
+
+    private static ImageProcessingExecutor createExecutor(int maxQueuedTasks, long acquireTimeoutMillis) {
+        final MockEnvironment env = new MockEnvironment()
+            .withProperty("jmpsl.gfx.processing.memory-budget-mb", "1")
+            .withProperty("jmpsl.gfx.processing.max-queued-tasks", String.valueOf(maxQueuedTasks))
+            .withProperty("jmpsl.gfx.processing.acquire-timeout-ms", String.valueOf(acquireTimeoutMillis));
+        return new ImageProcessingExecutor(env, new NoOpFileMetricsRecorder());
+    }
+
+    private static class BlockingTask {
+
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final Thread thread;
+
+        private BlockingTask(ImageProcessingExecutor executor, long estimatedBytes) throws InterruptedException {
+            final CountDownLatch admitted = new CountDownLatch(1);
+            thread = new Thread(() -> executor.execute(estimatedBytes, () -> {
+                admitted.countDown();
+                try {
+                    return released.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+            thread.start();
+            assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        }
+
+        private void finish() throws InterruptedException {
+            released.countDown();
+            thread.join(5_000);
+        }
+    }
+}
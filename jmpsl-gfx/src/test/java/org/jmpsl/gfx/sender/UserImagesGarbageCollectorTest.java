@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023 by multiple authors
+ *
+ * File name: UserImagesGarbageCollectorTest.java
+ * Last modified: 20/10/2026, 04:40
+ * Project name: jmps-library
+ *
+ * Licensed under the MIT license; you may not use this file except in compliance with the License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * THE ABOVE COPYRIGHT NOTICE AND THIS PERMISSION NOTICE SHALL BE INCLUDED IN ALL COPIES OR
+ * SUBSTANTIAL PORTIONS OF THE SOFTWARE.
+ *
+ * The software is provided "as is", without warranty of any kind, express or implied, including but not limited
+ * to the warranties of merchantability, fitness for a particular purpose and noninfringement. In no event
+ * shall the authors or copyright holders be liable for any claim, damages or other liability, whether in an
+ * action of contract, tort or otherwise, arising from, out of or in connection with the software or the use
+ * or other dealings in the software.
+ */
+
+package org.jmpsl.gfx.sender;
+
+import java.util.List;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.BufferedReader;
+import org.junit.jupiter.api.Test;
+
+import org.jmpsl.file.storage.FileStorageInfo;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class UserImagesGarbageCollectorTest {
+
+    private static final long GRACE_THRESHOLD = 1_000_000L;
+
+    @Test
+    void isModifiedInGracePeriod_keepsRecentlyModifiedOrphanedDirectory_test() {
+        final List<FileStorageInfo> files = List.of(
+            file("avatar_12891057146871359472.png", GRACE_THRESHOLD - 10),
+            file("banner.png", GRACE_THRESHOLD + 10)
+        );
+        assertTrue(UserImagesGarbageCollector.isModifiedInGracePeriod(files, GRACE_THRESHOLD - 10, GRACE_THRESHOLD));
+        assertTrue(UserImagesGarbageCollector.isModifiedInGracePeriod(List.of(), GRACE_THRESHOLD, GRACE_THRESHOLD));
+        assertFalse(UserImagesGarbageCollector.isModifiedInGracePeriod(files.subList(0, 1), GRACE_THRESHOLD - 10,
+            GRACE_THRESHOLD));
+    }
+
+    @Test
+    void extractImagePrefix_stripsOnlyGeneratedSuffix_test() {
+        assertEquals("avatar", UserImagesGarbageCollector.extractImagePrefix("avatar_12891057146871359472.png"));
+        assertEquals("avatar", UserImagesGarbageCollector.extractImagePrefix("avatar_482193012345678901.jpg"));
+        assertEquals("banner_2", UserImagesGarbageCollector.extractImagePrefix("banner_2.png"));
+        assertEquals("banner", UserImagesGarbageCollector.extractImagePrefix("banner.png"));
+        assertEquals("image_99999999999999999999",
+            UserImagesGarbageCollector.extractImagePrefix("image_99999999999999999999.png"));
+    }
+
+    @Test
+    void findOrphanedFiles_keepsNewestVersionAndStableNames_test() {
+        final FileStorageInfo oldVersion = file("avatar_12891057146871359472.png", GRACE_THRESHOLD - 20);
+        final FileStorageInfo newVersion = file("avatar_3891057146871359472.png", GRACE_THRESHOLD - 10);
+        final FileStorageInfo stableBanner = file("banner_2.png", GRACE_THRESHOLD - 30);
+        final FileStorageInfo otherBanner = file("banner_3.png", GRACE_THRESHOLD - 40);
+
+        final List<FileStorageInfo> orphans = UserImagesGarbageCollector
+            .findOrphanedFiles(List.of(oldVersion, newVersion, stableBanner, otherBanner), GRACE_THRESHOLD);
+        assertEquals(List.of(oldVersion), orphans);
+    }
+
+    @Test
+    void readPage_resumesAfterCheckpoint_test() throws IOException {
+        final BufferedReader spoolReader = new BufferedReader(new StringReader(
+            "user3_c\nuser1_a\nuser2_b\nuser5_e\nuser4_d\n"));
+        UserImagesGarbageCollector.skipProcessedDirectories(spoolReader, "user1_a");
+
+        assertEquals(List.of("user2_b", "user5_e"), UserImagesGarbageCollector.readPage(spoolReader, 2));
+        assertEquals(List.of("user4_d"), UserImagesGarbageCollector.readPage(spoolReader, 2));
+        assertEquals(List.of(), UserImagesGarbageCollector.readPage(spoolReader, 2));
+    }
+
+    private static FileStorageInfo file(String name, long lastModified) {
+        return new FileStorageInfo(name, "/images/user1_a/" + name, false, 10, lastModified);
+    }
+}
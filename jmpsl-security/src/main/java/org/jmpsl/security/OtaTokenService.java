@@ -2,7 +2,7 @@
  * Copyright (c) 2023 by multiple authors
  *
  * File name: OtaToken.java
- * Last modified: 06/03/2023, 17:16
+ * Last modified: 19/10/2026, 21:05
  * Project name: jmps-library
  *
  * Licensed under the MIT license; you may not use this file except in compliance with the License.
@@ -26,16 +26,18 @@ package org.jmpsl.security;
 
 import org.springframework.stereotype.Service;
 import org.springframework.core.env.Environment;
-import org.apache.commons.lang3.RandomStringUtils;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Objects;
 
+import org.jmpsl.core.random.RandomSource;
+import org.jmpsl.core.random.SequenceAlphabet;
+import org.jmpsl.core.random.RandomSequenceEngine;
 
 /**
  * Spring Bean component class responsible for generated and checked One-Time-Access token. This type of token mostly
  * is used in verifications. By default token lenght is 10. To change this parameter, set
  * <code>jmpsl.security.ota.lenght</code> parameter in <code>application.properties</code> file to selected integer value.
+ * Tokens are generated by {@link RandomSequenceEngine} from cryptographically strong per-thread generators.
  *
  * @author Miłosz Gilga
  * @since 1.0.2
@@ -43,7 +45,6 @@ import java.util.regex.Pattern;
 @Service
 public class OtaTokenService {
 
-    private static final Pattern PATTERN = Pattern.compile("[a-zA-Z0-9]+");
     private final byte otaTokenLenght;
 
     public OtaTokenService(Environment env) {
@@ -60,7 +61,7 @@ public class OtaTokenService {
      * @since 1.0.2
      */
     public String generateToken(int tokenLength) {
-        return RandomStringUtils.randomAlphanumeric(tokenLength);
+        return RandomSequenceEngine.generate(tokenLength, SequenceAlphabet.ALPHANUMERIC, RandomSource.SECURE);
     }
 
     /**
@@ -87,9 +88,8 @@ public class OtaTokenService {
      * @return true, if token is valid, false if token is not valid
      */
     public boolean isValid(String token, int tokenLenght) {
-        if (token.isBlank()) return false;
-        final Matcher matcher = PATTERN.matcher(token);
-        return matcher.matches() && token.length() == tokenLenght;
+        if (Objects.isNull(token) || token.length() != tokenLenght) return false;
+        return SequenceAlphabet.ALPHANUMERIC.matches(token);
     }
 
     /**